@@ -272,6 +272,57 @@ public void testIterateEntitiesFindsEntityWithTwoComponents() {
         assertEquals(Lists.newArrayList(entity1), results);
     }
 
+    @Test
+    public void testIterateEntitiesReflectsComponentChangesAfterQuery() {
+        EntityRef entity1 = entityManager.create(new StringComponent());
+        assertEquals(Collections.<EntityRef>emptyList(),
+                Lists.newArrayList(entityManager.getEntitiesWith(StringComponent.class, IntegerComponent.class)));
+
+        entity1.addComponent(new IntegerComponent());
+        EntityRef entity2 = entityManager.create(new IntegerComponent(), new StringComponent());
+        List<EntityRef> results = Lists.newArrayList(entityManager.getEntitiesWith(StringComponent.class, IntegerComponent.class));
+        assertEquals(2, results.size());
+        assertTrue(results.contains(entity1));
+        assertTrue(results.contains(entity2));
+
+        entity1.removeComponent(StringComponent.class);
+        entity2.destroy();
+        assertEquals(Collections.<EntityRef>emptyList(),
+                Lists.newArrayList(entityManager.getEntitiesWith(StringComponent.class, IntegerComponent.class)));
+    }
+
+    @Test
+    public void testIterateEntitiesIsUnaffectedByChangesDuringIteration() {
+        for (int i = 0; i < 10; i++) {
+            entityManager.create(new StringComponent(), new IntegerComponent());
+        }
+        int count = 0;
+        for (EntityRef entity : entityManager.getEntitiesWith(StringComponent.class, IntegerComponent.class)) {
+            entity.destroy();
+            entityManager.create(new StringComponent(), new IntegerComponent());
+            count++;
+        }
+        assertEquals(10, count);
+        assertEquals(10, entityManager.getCountOfEntitiesWith(StringComponent.class, IntegerComponent.class));
+    }
+
+    @Test
+    public void testIterateEntitiesAfterDeactivationForStorage() {
+        EntityRef entity = entityManager.create(new StringComponent(), new IntegerComponent());
+        assertEquals(Lists.newArrayList(entity),
+                Lists.newArrayList(entityManager.getEntitiesWith(StringComponent.class, IntegerComponent.class)));
+        entityManager.deactivateForStorage(entity);
+        assertEquals(Collections.<EntityRef>emptyList(),
+                Lists.newArrayList(entityManager.getEntitiesWith(StringComponent.class, IntegerComponent.class)));
+    }
+
+    @Test
+    public void testCountEntitiesWithSeveralComponentsWithoutQuery() {
+        entityManager.create(new StringComponent(), new IntegerComponent());
+        entityManager.create(new StringComponent());
+        assertEquals(1, entityManager.getCountOfEntitiesWith(StringComponent.class, IntegerComponent.class));
+    }
+
     @Test
     public void testIterateWithNoComponents() {
         List<EntityRef> results = Lists.newArrayList(entityManager.getEntitiesWith(StringComponent.class));
@@ -0,0 +1,125 @@
+/*
+ * Copyright 2016 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.entitySystem.entity.internal;
+
+import com.google.common.collect.Lists;
+import gnu.trove.list.TLongList;
+import gnu.trove.list.array.TLongArrayList;
+import org.junit.Before;
+import org.junit.Test;
+import org.terasology.entitySystem.Component;
+import org.terasology.entitySystem.stubs.IntegerComponent;
+import org.terasology.entitySystem.stubs.StringComponent;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ */
+public class ComponentTableTest {
+
+    private static final Class<? extends Component>[] BOTH = classes(StringComponent.class, IntegerComponent.class);
+
+    private ComponentTable table;
+
+    @Before
+    public void setup() {
+        table = new ComponentTable();
+        for (long id = 1; id <= 10; id++) {
+            table.put(id, new StringComponent());
+            if (id % 2 == 0) {
+                table.put(id, new IntegerComponent());
+            }
+        }
+    }
+
+    @Test
+    public void testCountDoesNotCreateIndex() {
+        assertEquals(5, table.getCountOfEntitiesWith(classes(StringComponent.class, IntegerComponent.class)));
+        assertEquals(0, table.getIndexedQueryCount());
+    }
+
+    @Test
+    public void testCountUsesExistingIndex() {
+        table.getEntitiesWith(classes(StringComponent.class, IntegerComponent.class));
+        table.put(11, new StringComponent());
+        table.put(11, new IntegerComponent());
+        assertEquals(6, table.getCountOfEntitiesWith(classes(StringComponent.class, IntegerComponent.class)));
+        assertEquals(1, table.getIndexedQueryCount());
+    }
+
+    @Test
+    public void testLeastRecentlyUsedIndexIsDropped() {
+        Class<? extends Component>[] first = classes(StringComponent.class, IntegerComponent.class);
+        table.getEntitiesWith(first);
+        for (int i = 0; i < ComponentTable.MAX_INDEXED_QUERIES; i++) {
+            table.getEntitiesWith(repeated(i + 2));
+        }
+        assertEquals(ComponentTable.MAX_INDEXED_QUERIES, table.getIndexedQueryCount());
+
+        table.put(11, new StringComponent());
+        table.put(11, new IntegerComponent());
+        assertEquals(new TLongArrayList(new long[]{2, 4, 6, 8, 10, 11}), sorted(table.getEntitiesWith(first)));
+        assertEquals(ComponentTable.MAX_INDEXED_QUERIES, table.getIndexedQueryCount());
+    }
+
+    @Test
+    public void testConcurrentQueries() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<?>> readers = Lists.newArrayList();
+            for (int thread = 0; thread < 4; thread++) {
+                readers.add(executor.submit(() -> {
+                    for (int i = 0; i < 1000; i++) {
+                        Class<? extends Component>[] query = repeated(2 + i % (ComponentTable.MAX_INDEXED_QUERIES + 8));
+                        assertEquals(10, table.getEntitiesWith(query).size());
+                        assertEquals(5, table.getEntitiesWith(BOTH).size());
+                    }
+                }));
+            }
+            for (Future<?> reader : readers) {
+                reader.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(ComponentTable.MAX_INDEXED_QUERIES, table.getIndexedQueryCount());
+    }
+
+    @SafeVarargs
+    private static Class<? extends Component>[] classes(Class<? extends Component>... componentClasses) {
+        return componentClasses;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Class<? extends Component>[] repeated(int count) {
+        Class<? extends Component>[] componentClasses = new Class[count];
+        Arrays.fill(componentClasses, StringComponent.class);
+        return componentClasses;
+    }
+
+    private static TLongArrayList sorted(TLongList ids) {
+        TLongArrayList result = new TLongArrayList(ids);
+        result.sort();
+        return result;
+    }
+}
@@ -0,0 +1,86 @@
+/*
+ * Copyright 2016 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.monitoring.impl;
+
+import com.google.common.collect.Lists;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ */
+public class ActivityTraceTest {
+
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
+
+    @Test
+    public void testOldestActivitiesAreOverwritten() {
+        ActivityTrace trace = new ActivityTrace(Thread.currentThread(), 3);
+        for (int i = 0; i < 5; i++) {
+            trace.add("Activity " + i, i * 10, i * 10 + 5);
+        }
+
+        ActivityTrace copy = trace.copy(0);
+        assertEquals(3, copy.size());
+        assertEquals("Activity 2", copy.getName(0));
+        assertEquals("Activity 4", copy.getName(2));
+        assertEquals(45, copy.getEndTime(2));
+    }
+
+    @Test
+    public void testCopySkipsActivitiesBeforeStart() {
+        ActivityTrace trace = new ActivityTrace(Thread.currentThread(), 8);
+        for (int i = 0; i < 5; i++) {
+            trace.add("Activity " + i, i * 10, i * 10 + 5);
+        }
+
+        ActivityTrace copy = trace.copy(25);
+        assertEquals(2, copy.size());
+        assertEquals("Activity 3", copy.getName(0));
+    }
+
+    @Test
+    public void testWriteChromeTrace() throws IOException {
+        ActivityTrace trace = new ActivityTrace(new Thread("Worker-1"), 8);
+        trace.add("Inner", 2000, 5000);
+        trace.add("Outer", 1000, 11000);
+        Path file = tempFolder.getRoot().toPath().resolve("trace.json");
+
+        int written = ChromeTraceWriter.write(file, Lists.newArrayList(trace.copy(0)), 1000);
+
+        assertEquals(2, written);
+        JsonObject root = new JsonParser().parse(new String(Files.readAllBytes(file), StandardCharsets.UTF_8)).getAsJsonObject();
+        JsonArray events = root.getAsJsonArray("traceEvents");
+        assertEquals(3, events.size());
+        assertEquals("Worker-1", events.get(0).getAsJsonObject().getAsJsonObject("args").get("name").getAsString());
+        JsonObject inner = events.get(1).getAsJsonObject();
+        assertEquals("Inner", inner.get("name").getAsString());
+        assertEquals("X", inner.get("ph").getAsString());
+        assertEquals(1.0, inner.get("ts").getAsDouble(), 0.0001);
+        assertEquals(3.0, inner.get("dur").getAsDouble(), 0.0001);
+    }
+}
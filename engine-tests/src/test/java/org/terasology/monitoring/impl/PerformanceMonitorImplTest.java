@@ -0,0 +1,98 @@
+/*
+ * Copyright 2016 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.monitoring.impl;
+
+import gnu.trove.map.TObjectDoubleMap;
+import org.junit.Test;
+import org.terasology.monitoring.Activity;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ */
+public class PerformanceMonitorImplTest {
+
+    private static Object allocationSink;
+
+    @Test
+    public void testMainThreadActivitiesAreRecordedWithoutPrefix() {
+        PerformanceMonitorImpl monitor = new PerformanceMonitorImpl();
+        try (Activity ignored = monitor.startActivity("Outer")) {
+            try (Activity ignored2 = monitor.startActivity("Inner")) {
+                busyWait();
+            }
+        }
+        monitor.rollCycle();
+
+        TObjectDoubleMap<String> means = monitor.getRunningMean();
+        assertTrue(means.containsKey("Inner"));
+        assertTrue(monitor.getThreadGroupRunningMean().isEmpty());
+    }
+
+    @Test
+    public void testWorkerThreadActivitiesAreCollectedOnRollCycle() throws InterruptedException {
+        PerformanceMonitorImpl monitor = new PerformanceMonitorImpl();
+        Thread worker = new Thread(() -> {
+            try (Activity ignored = monitor.startActivity("Work")) {
+                busyWait();
+            }
+        }, "Worker-3");
+        worker.start();
+        worker.join();
+
+        assertTrue(monitor.getRunningMean().isEmpty());
+        monitor.rollCycle();
+
+        TObjectDoubleMap<String> means = monitor.getRunningMean();
+        assertEquals(1, means.size());
+        assertTrue(means.get("Worker: Work") > 0);
+        assertTrue(monitor.getThreadGroupRunningMean().get("Worker") > 0);
+        assertFalse(means.containsKey("Work"));
+    }
+
+    @Test
+    public void testUnbalancedEndIsIgnored() {
+        PerformanceMonitorImpl monitor = new PerformanceMonitorImpl();
+        monitor.endActivity();
+        monitor.rollCycle();
+        assertTrue(monitor.getRunningMean().isEmpty());
+    }
+
+    @Test
+    public void testAllocationsAreMeasuredOnceQueried() {
+        PerformanceMonitorImpl monitor = new PerformanceMonitorImpl();
+        try (Activity ignored = monitor.startActivity("Allocate")) {
+            allocationSink = new byte[1 << 20];
+        }
+        monitor.rollCycle();
+        assertEquals(0, monitor.getAllocationMean().get("Allocate"), 0);
+
+        try (Activity ignored = monitor.startActivity("Allocate")) {
+            allocationSink = new byte[1 << 20];
+        }
+        monitor.rollCycle();
+        assertTrue(monitor.getAllocationMean().get("Allocate") > 0);
+    }
+
+    private static void busyWait() {
+        long end = System.nanoTime() + 2000000;
+        while (System.nanoTime() < end) {
+            Thread.yield();
+        }
+    }
+}
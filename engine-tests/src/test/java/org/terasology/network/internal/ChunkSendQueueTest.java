@@ -0,0 +1,93 @@
+/*
+ * Copyright 2016 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.network.internal;
+
+import org.junit.Test;
+import org.terasology.math.geom.Vector3i;
+import org.terasology.world.chunks.Chunk;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+
+/**
+ */
+public class ChunkSendQueueTest {
+
+    @Test
+    public void testPollsNearestChunkFirst() {
+        ChunkSendQueue queue = new ChunkSendQueue();
+        Chunk far = mock(Chunk.class);
+        Chunk near = mock(Chunk.class);
+        Chunk middle = mock(Chunk.class);
+        queue.add(new Vector3i(5, 0, 0), far);
+        queue.add(new Vector3i(1, 0, 0), near);
+        queue.add(new Vector3i(0, 0, 3), middle);
+
+        assertSame(near, queue.poll());
+        assertSame(middle, queue.poll());
+        assertSame(far, queue.poll());
+        assertNull(queue.poll());
+    }
+
+    @Test
+    public void testOrderFollowsCenter() {
+        ChunkSendQueue queue = new ChunkSendQueue();
+        Chunk west = mock(Chunk.class);
+        Chunk east = mock(Chunk.class);
+        queue.add(new Vector3i(-4, 0, 0), west);
+        queue.add(new Vector3i(4, 0, 0), east);
+
+        queue.setCenter(new Vector3i(3, 0, 0));
+        assertSame(east, queue.poll());
+
+        queue.add(new Vector3i(4, 0, 0), east);
+        queue.setCenter(new Vector3i(-3, 0, 0));
+        assertSame(west, queue.poll());
+    }
+
+    @Test
+    public void testRemovedChunksAreSkipped() {
+        ChunkSendQueue queue = new ChunkSendQueue();
+        Chunk removed = mock(Chunk.class);
+        Chunk kept = mock(Chunk.class);
+        queue.add(new Vector3i(0, 0, 0), removed);
+        queue.add(new Vector3i(2, 0, 0), kept);
+
+        queue.remove(new Vector3i(0, 0, 0));
+
+        assertEquals(1, queue.size());
+        assertSame(kept, queue.poll());
+        assertTrue(queue.isEmpty());
+    }
+
+    @Test
+    public void testReaddedChunkIsPolledOnce() {
+        ChunkSendQueue queue = new ChunkSendQueue();
+        Chunk first = mock(Chunk.class);
+        Chunk second = mock(Chunk.class);
+        queue.add(new Vector3i(1, 0, 0), mock(Chunk.class));
+        queue.add(new Vector3i(0, 0, 0), first);
+        queue.remove(new Vector3i(0, 0, 0));
+        queue.add(new Vector3i(0, 0, 0), second);
+
+        assertSame(second, queue.poll());
+        queue.poll();
+        assertNull(queue.poll());
+    }
+}
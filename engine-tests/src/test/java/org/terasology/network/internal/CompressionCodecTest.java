@@ -0,0 +1,117 @@
+/*
+ * Copyright 2016 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.network.internal;
+
+import org.jboss.netty.buffer.ChannelBuffer;
+import org.jboss.netty.buffer.ChannelBuffers;
+import org.jboss.netty.handler.codec.compression.ZlibDecoder;
+import org.jboss.netty.handler.codec.compression.ZlibEncoder;
+import org.jboss.netty.handler.codec.embedder.CodecEmbedderException;
+import org.jboss.netty.handler.codec.embedder.DecoderEmbedder;
+import org.jboss.netty.handler.codec.embedder.EncoderEmbedder;
+import org.junit.Before;
+import org.junit.Test;
+import org.terasology.utilities.compression.ChunkCodec;
+import org.terasology.utilities.compression.ChunkCodecs;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ */
+public class CompressionCodecTest {
+
+    private CompressionEncoder encoder;
+    private EncoderEmbedder<ChannelBuffer> encoderEmbedder;
+    private CompressionDecoder decoder;
+    private DecoderEmbedder<ChannelBuffer> decoderEmbedder;
+
+    @Before
+    public void setup() {
+        encoder = new CompressionEncoder();
+        encoderEmbedder = new EncoderEmbedder<>(encoder);
+        decoder = new CompressionDecoder();
+        decoderEmbedder = new DecoderEmbedder<>(decoder);
+    }
+
+    private String transfer(String message) {
+        encoderEmbedder.offer(ChannelBuffers.wrappedBuffer(message.getBytes(StandardCharsets.UTF_8)));
+        ChannelBuffer frame = encoderEmbedder.poll();
+        decoderEmbedder.offer(frame);
+        return decoderEmbedder.poll().toString(StandardCharsets.UTF_8);
+    }
+
+    private static String createMessage(int index) {
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < 100; i++) {
+            builder.append("message ").append(index).append(" part ").append(i).append(';');
+        }
+        return builder.toString();
+    }
+
+    @Test
+    public void testDeflateStream() {
+        for (int i = 0; i < 10; i++) {
+            String message = createMessage(i);
+            assertEquals(message, transfer(message));
+        }
+    }
+
+    @Test
+    public void testCodecSwitch() {
+        for (ChunkCodec codec : ChunkCodecs.getCodecs()) {
+            setup();
+            String lastStreamMessage = createMessage(0);
+            encoder.switchCodecAfter(() -> {
+                assertEquals(lastStreamMessage, transfer(lastStreamMessage));
+                decoder.switchToCodecFrames();
+            }, codec);
+            for (int i = 1; i < 4; i++) {
+                String message = createMessage(i);
+                assertEquals(codec.getName(), message, transfer(message));
+            }
+        }
+    }
+
+    @Test
+    public void testStreamIsReadableByZlibDecoder() {
+        DecoderEmbedder<ChannelBuffer> zlibDecoder = new DecoderEmbedder<>(new ZlibDecoder());
+        for (int i = 0; i < 10; i++) {
+            String message = createMessage(i);
+            encoderEmbedder.offer(ChannelBuffers.wrappedBuffer(message.getBytes(StandardCharsets.UTF_8)));
+            zlibDecoder.offer(encoderEmbedder.poll());
+            assertEquals(message, zlibDecoder.poll().toString(StandardCharsets.UTF_8));
+        }
+    }
+
+    @Test
+    public void testReadsZlibEncoderStream() {
+        EncoderEmbedder<ChannelBuffer> zlibEncoder = new EncoderEmbedder<>(new ZlibEncoder());
+        for (int i = 0; i < 10; i++) {
+            String message = createMessage(i);
+            zlibEncoder.offer(ChannelBuffers.wrappedBuffer(message.getBytes(StandardCharsets.UTF_8)));
+            decoderEmbedder.offer(zlibEncoder.poll());
+            assertEquals(message, decoderEmbedder.poll().toString(StandardCharsets.UTF_8));
+        }
+    }
+
+    @Test(expected = CodecEmbedderException.class)
+    public void testRejectsFramesInflatingBeyondLimit() {
+        encoderEmbedder.offer(ChannelBuffers.wrappedBuffer(new byte[CompressionDecoder.MAX_UNCOMPRESSED_LENGTH + 1]));
+        decoderEmbedder.offer(encoderEmbedder.poll());
+    }
+}
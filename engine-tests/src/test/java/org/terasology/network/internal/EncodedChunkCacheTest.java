@@ -0,0 +1,117 @@
+/*
+ * Copyright 2016 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.network.internal;
+
+import com.google.protobuf.ByteString;
+import org.junit.Test;
+import org.terasology.math.geom.Vector3i;
+import org.terasology.protobuf.EntityData;
+import org.terasology.world.chunks.Chunk;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ */
+public class EncodedChunkCacheTest {
+
+    @Test
+    public void testUnchangedChunkIsEncodedOnce() {
+        EncodedChunkCache cache = new EncodedChunkCache();
+        Chunk chunk = mockChunk(new Vector3i(1, 2, 3), 100);
+
+        EntityData.ChunkStore first = cache.encode(chunk);
+        EntityData.ChunkStore second = cache.encode(chunk);
+
+        assertSame(first, second);
+        verify(chunk, times(1)).encode();
+    }
+
+    @Test
+    public void testModifiedChunkIsEncodedAgain() {
+        EncodedChunkCache cache = new EncodedChunkCache();
+        Chunk chunk = mockChunk(new Vector3i(1, 2, 3), 100);
+
+        cache.encode(chunk);
+        when(chunk.getModificationCount()).thenReturn(1);
+        cache.encode(chunk);
+
+        verify(chunk, times(2)).encode();
+    }
+
+    @Test
+    public void testReloadedChunkIsEncodedAgain() {
+        EncodedChunkCache cache = new EncodedChunkCache();
+        Chunk unloaded = mockChunk(new Vector3i(1, 2, 3), 100);
+        Chunk reloaded = mockChunk(new Vector3i(1, 2, 3), 100);
+
+        cache.encode(unloaded);
+        cache.encode(reloaded);
+
+        verify(reloaded, times(1)).encode();
+    }
+
+    @Test
+    public void testLeastRecentlyUsedChunkIsEvicted() {
+        Chunk first = mockChunk(new Vector3i(0, 0, 0), 1000);
+        Chunk second = mockChunk(new Vector3i(1, 0, 0), 1000);
+        Chunk third = mockChunk(new Vector3i(2, 0, 0), 1000);
+        int chunkSize = chunkStore(new Vector3i(0, 0, 0), 1000).getSerializedSize();
+        EncodedChunkCache cache = new EncodedChunkCache(2 * chunkSize);
+
+        cache.encode(first);
+        cache.encode(second);
+        cache.encode(first);
+        cache.encode(third);
+        cache.encode(first);
+        cache.encode(second);
+
+        verify(first, times(1)).encode();
+        verify(second, times(2)).encode();
+        assertEquals(2 * chunkSize, cache.getSize());
+    }
+
+    @Test
+    public void testRemovedChunkIsEncodedAgain() {
+        EncodedChunkCache cache = new EncodedChunkCache();
+        Chunk chunk = mockChunk(new Vector3i(1, 2, 3), 100);
+
+        cache.encode(chunk);
+        cache.remove(new Vector3i(1, 2, 3));
+        assertEquals(0, cache.getSize());
+        cache.encode(chunk);
+
+        verify(chunk, times(2)).encode();
+    }
+
+    private static EntityData.ChunkStore chunkStore(Vector3i pos, int dataSize) {
+        return EntityData.ChunkStore.newBuilder()
+                .setX(pos.x).setY(pos.y).setZ(pos.z)
+                .setDeprecatedData4(ByteString.copyFrom(new byte[dataSize]))
+                .build();
+    }
+
+    private static Chunk mockChunk(Vector3i pos, int dataSize) {
+        Chunk chunk = mock(Chunk.class);
+        when(chunk.getPosition()).thenReturn(pos);
+        when(chunk.encode()).thenAnswer(invocation -> chunkStore(pos, dataSize).toBuilder());
+        return chunk;
+    }
+}
@@ -0,0 +1,202 @@
+/*
+ * Copyright 2016 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.network.internal;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.terasology.TerasologyTestingEnvironment;
+import org.terasology.engine.ComponentSystemManager;
+import org.terasology.engine.EngineTime;
+import org.terasology.engine.bootstrap.EntitySystemSetupUtil;
+import org.terasology.engine.module.ModuleManager;
+import org.terasology.entitySystem.entity.EntityBuilder;
+import org.terasology.entitySystem.entity.EntityManager;
+import org.terasology.entitySystem.entity.EntityRef;
+import org.terasology.entitySystem.entity.internal.EngineEntityManager;
+import org.terasology.entitySystem.entity.internal.PojoEntityManager;
+import org.terasology.entitySystem.metadata.EventLibrary;
+import org.terasology.logic.location.LocationComponent;
+import org.terasology.math.geom.Vector3f;
+import org.terasology.math.geom.Vector3i;
+import org.terasology.network.NetworkComponent;
+import org.terasology.network.NetworkSystem;
+import org.terasology.testUtil.ModuleManagerFactory;
+import org.terasology.world.BlockEntityRegistry;
+import org.terasology.world.chunks.ChunkConstants;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyInt;
+import static org.mockito.Mockito.atLeast;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Replication of network entities that are replicated by relevance, with clients whose relevance region spans the
+ * chunks next to their center chunk.
+ */
+public class NetworkRelevanceTest extends TerasologyTestingEnvironment {
+
+    private static final int FAR_CHUNK = 500;
+
+    private EngineEntityManager entityManager;
+    private NetworkSystemImpl networkSystem;
+    private NetClient nearClient;
+    private NetClient farClient;
+    private Vector3i nearCenter = new Vector3i(0, 0, 0);
+    private Vector3i farCenter = new Vector3i(FAR_CHUNK, 0, 0);
+
+    @Before
+    public void setup() throws Exception {
+        super.setup();
+        ModuleManager moduleManager = ModuleManagerFactory.create();
+        context.put(ModuleManager.class, moduleManager);
+        networkSystem = new NetworkSystemImpl(mock(EngineTime.class), context);
+        context.put(NetworkSystem.class, networkSystem);
+
+        EntitySystemSetupUtil.addReflectionBasedLibraries(context);
+        EntitySystemSetupUtil.addEntityManagementRelatedClasses(context);
+        entityManager = (PojoEntityManager) context.get(EntityManager.class);
+        context.put(ComponentSystemManager.class, new ComponentSystemManager(context));
+        entityManager.clear();
+        networkSystem.mockHost();
+        networkSystem.connectToEntitySystem(entityManager, context.get(EventLibrary.class), mock(BlockEntityRegistry.class));
+
+        nearClient = createClient("near", nearCenter);
+        farClient = createClient("far", farCenter);
+        networkSystem.addClient(nearClient);
+        networkSystem.addClient(farClient);
+        networkSystem.update();
+    }
+
+    private NetClient createClient(String id, Vector3i center) {
+        NetClient client = mock(NetClient.class);
+        NetworkComponent clientNetComp = new NetworkComponent();
+        clientNetComp.replicateMode = NetworkComponent.ReplicateMode.OWNER;
+        EntityRef clientEntity = entityManager.create(clientNetComp);
+        networkSystem.registerNetworkEntity(clientEntity);
+        when(client.getEntity()).thenReturn(clientEntity);
+        when(client.getId()).thenReturn(id);
+        when(client.isChunkRelevant(any(Vector3i.class))).thenAnswer(invocation -> {
+            Vector3i pos = (Vector3i) invocation.getArguments()[0];
+            return Math.abs(pos.x - center.x) <= 1 && Math.abs(pos.y - center.y) <= 1 && Math.abs(pos.z - center.z) <= 1;
+        });
+        return client;
+    }
+
+    private EntityRef createEntityInChunk(int chunkX) {
+        return createEntityInChunk(chunkX, EntityRef.NULL);
+    }
+
+    private EntityRef createEntityInChunk(int chunkX, EntityRef owner) {
+        EntityBuilder builder = entityManager.newBuilder();
+        builder.addComponent(new NetworkComponent());
+        builder.addComponent(new LocationComponent(positionInChunk(chunkX)));
+        builder.setOwner(owner);
+        EntityRef entity = builder.build();
+        networkSystem.registerNetworkEntity(entity);
+        return entity;
+    }
+
+    private Vector3f positionInChunk(int chunkX) {
+        return new Vector3f(chunkX * ChunkConstants.SIZE_X + 0.5f, 0.5f, 0.5f);
+    }
+
+    private int netId(EntityRef entity) {
+        return entity.getComponent(NetworkComponent.class).getNetworkId();
+    }
+
+    private int countInitialEntities(NetClient client) {
+        ArgumentCaptor<Integer> captor = ArgumentCaptor.forClass(Integer.class);
+        verify(client, atLeast(0)).setNetInitial(captor.capture());
+        return captor.getAllValues().size();
+    }
+
+    @Test
+    public void testReplicatedEntitiesDoNotGrowWithWorld() {
+        int initialOnConnect = countInitialEntities(nearClient);
+        int farInitialOnConnect = countInitialEntities(farClient);
+        for (int chunkX = 0; chunkX < 10; chunkX++) {
+            createEntityInChunk(chunkX);
+        }
+        int smallWorld = countInitialEntities(nearClient) - initialOnConnect;
+
+        for (int chunkX = 10; chunkX < 1000; chunkX++) {
+            createEntityInChunk(chunkX);
+        }
+        int largeWorld = countInitialEntities(nearClient) - initialOnConnect;
+
+        assertEquals(2, smallWorld);
+        assertEquals(smallWorld, largeWorld);
+        assertEquals(3, countInitialEntities(farClient) - farInitialOnConnect);
+    }
+
+    @Test
+    public void testEntityMovingBetweenRegions() {
+        EntityRef entity = createEntityInChunk(0);
+        verify(nearClient).setNetInitial(netId(entity));
+        verify(farClient, never()).setNetInitial(netId(entity));
+
+        LocationComponent location = entity.getComponent(LocationComponent.class);
+        location.setWorldPosition(positionInChunk(FAR_CHUNK));
+        entity.saveComponent(location);
+
+        verify(nearClient).setNetRemoved(netId(entity));
+        verify(farClient).setNetInitial(netId(entity));
+    }
+
+    @Test
+    public void testMovingWithinChunkKeepsReplication() {
+        EntityRef entity = createEntityInChunk(0);
+
+        LocationComponent location = entity.getComponent(LocationComponent.class);
+        location.setWorldPosition(new Vector3f(1.5f, 1.5f, 1.5f));
+        entity.saveComponent(location);
+
+        verify(nearClient).setNetInitial(netId(entity));
+        verify(nearClient, never()).setNetRemoved(anyInt());
+    }
+
+    @Test
+    public void testEntitiesCreatedWhenChunkBecomesRelevant() {
+        EntityRef entity = createEntityInChunk(50);
+        verify(nearClient, never()).setNetInitial(netId(entity));
+
+        networkSystem.onChunkRelevant(nearClient, new Vector3i(50, 0, 0));
+        verify(nearClient).setNetInitial(netId(entity));
+
+        networkSystem.onChunkIrrelevant(nearClient, new Vector3i(50, 0, 0));
+        verify(nearClient).setNetRemoved(netId(entity));
+    }
+
+    @Test
+    public void testOwnerReceivesDistantEntity() {
+        EntityRef entity = createEntityInChunk(FAR_CHUNK, nearClient.getEntity());
+        verify(nearClient).setNetInitial(netId(entity));
+        verify(farClient).setNetInitial(netId(entity));
+    }
+
+    @Test
+    public void testEntityWithoutLocationIsReplicatedToAll() {
+        EntityRef entity = entityManager.create(new NetworkComponent());
+        networkSystem.registerNetworkEntity(entity);
+        verify(nearClient).setNetInitial(netId(entity));
+        verify(farClient).setNetInitial(netId(entity));
+    }
+}
@@ -0,0 +1,134 @@
+/*
+ * Copyright 2016 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.network.internal;
+
+import com.google.common.collect.Sets;
+import org.junit.Before;
+import org.junit.Test;
+import org.terasology.entitySystem.Component;
+import org.terasology.entitySystem.entity.EntityRef;
+import org.terasology.logic.location.LocationComponent;
+import org.terasology.network.NetworkComponent;
+import org.terasology.persistence.serializers.FieldSerializeCheck;
+import org.terasology.persistence.serializers.NetworkEntitySerializer;
+import org.terasology.protobuf.EntityData;
+
+import java.util.Collections;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyBoolean;
+import static org.mockito.Matchers.anySet;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ */
+public class ReplicationEncoderTest {
+
+    private NetworkEntitySerializer serializer;
+    private ReplicationEncoder encoder;
+    private EntityRef entity;
+    private EntityData.PackedEntity packedEntity = EntityData.PackedEntity.newBuilder().setId(1).build();
+
+    @Before
+    @SuppressWarnings("unchecked")
+    public void setup() {
+        serializer = mock(NetworkEntitySerializer.class);
+        when(serializer.serialize(any(EntityRef.class), anySet(), anySet(), anySet(),
+                any(FieldSerializeCheck.class))).thenReturn(packedEntity);
+        when(serializer.serialize(any(EntityRef.class), anyBoolean(), any(FieldSerializeCheck.class))).thenReturn(packedEntity.toBuilder());
+        encoder = new ReplicationEncoder(serializer);
+        entity = mock(EntityRef.class);
+        when(entity.getId()).thenReturn(7L);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void verifyUpdatesSerialized(int count) {
+        verify(serializer, times(count)).serialize(eq(entity), anySet(), anySet(), anySet(),
+                any(FieldSerializeCheck.class));
+    }
+
+    @Test
+    public void testUpdateSerializedOncePerView() {
+        Set<Class<? extends Component>> none = Collections.emptySet();
+
+        assertSame(packedEntity, encoder.encodeUpdate(entity, none, Sets.newHashSet(LocationComponent.class), none, false));
+        assertSame(packedEntity, encoder.encodeUpdate(entity, none, Sets.newHashSet(LocationComponent.class), none, false));
+        verifyUpdatesSerialized(1);
+
+        encoder.encodeUpdate(entity, none, Sets.newHashSet(LocationComponent.class), none, true);
+        verifyUpdatesSerialized(2);
+
+        encoder.encodeUpdate(entity, none, Sets.newHashSet(LocationComponent.class, NetworkComponent.class), none, false);
+        verifyUpdatesSerialized(3);
+    }
+
+    @Test
+    public void testCacheDroppedOnNewTick() {
+        Set<Class<? extends Component>> none = Collections.emptySet();
+        encoder.encodeUpdate(entity, none, Sets.newHashSet(LocationComponent.class), none, false);
+
+        encoder.beginTick();
+        encoder.encodeUpdate(entity, none, Sets.newHashSet(LocationComponent.class), none, false);
+
+        verifyUpdatesSerialized(2);
+    }
+
+    @Test
+    public void testCacheDroppedForChangedEntity() {
+        Set<Class<? extends Component>> none = Collections.emptySet();
+        EntityRef otherEntity = mock(EntityRef.class);
+        when(otherEntity.getId()).thenReturn(8L);
+        encoder.encodeUpdate(entity, none, Sets.newHashSet(LocationComponent.class), none, false);
+        encoder.encodeInitial(entity, false);
+        encoder.encodeInitial(otherEntity, false);
+
+        encoder.invalidate(entity);
+        encoder.encodeUpdate(entity, none, Sets.newHashSet(LocationComponent.class), none, false);
+        encoder.encodeInitial(entity, false);
+        encoder.encodeInitial(otherEntity, false);
+
+        verifyUpdatesSerialized(2);
+        verify(serializer, times(2)).serialize(eq(entity), eq(true), any(FieldSerializeCheck.class));
+        verify(serializer, times(1)).serialize(eq(otherEntity), eq(true), any(FieldSerializeCheck.class));
+    }
+
+    @Test
+    public void testEmptyUpdateIsCached() {
+        Set<Class<? extends Component>> none = Collections.emptySet();
+        when(serializer.serialize(eq(entity), eq(none), eq(none), eq(none), any(FieldSerializeCheck.class))).thenReturn(null);
+
+        assertNull(encoder.encodeUpdate(entity, none, none, none, false));
+        assertNull(encoder.encodeUpdate(entity, none, none, none, false));
+        verifyUpdatesSerialized(1);
+    }
+
+    @Test
+    public void testInitialSerializedOncePerView() {
+        assertEquals(packedEntity, encoder.encodeInitial(entity, false));
+        assertEquals(packedEntity, encoder.encodeInitial(entity, false));
+        encoder.encodeInitial(entity, true);
+
+        verify(serializer, times(2)).serialize(eq(entity), eq(true), any(FieldSerializeCheck.class));
+    }
+}
@@ -0,0 +1,95 @@
+/*
+ * Copyright 2016 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.persistence.internal;
+
+import com.google.common.collect.ImmutableMap;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.FileSystem;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+/**
+ */
+public class ChunkZipCacheTest {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private Path createZip(String name, String entry, byte[] content) throws IOException {
+        Path zipPath = temporaryFolder.getRoot().toPath().resolve(name);
+        URI uri = URI.create("jar:" + zipPath.toUri());
+        try (FileSystem zip = FileSystems.newFileSystem(uri, ImmutableMap.of("create", "true"))) {
+            Files.write(zip.getPath(entry), content);
+        }
+        return zipPath;
+    }
+
+    @Test
+    public void testZipOpenedOnlyOnce() throws IOException {
+        Path zipPath = createZip("0.0.0.chunks.zip", "1.2.3.chunk", new byte[]{1, 2, 3});
+        ChunkZipCache cache = new ChunkZipCache();
+
+        assertArrayEquals(new byte[]{1, 2, 3}, cache.readEntry(zipPath, "1.2.3.chunk"));
+        assertNull(cache.readEntry(zipPath, "4.5.6.chunk"));
+        assertArrayEquals(new byte[]{1, 2, 3}, cache.readEntry(zipPath, "1.2.3.chunk"));
+
+        assertEquals(1, cache.getMisses());
+        assertEquals(2, cache.getHits());
+    }
+
+    @Test
+    public void testLeastRecentlyUsedZipGetsEvicted() throws IOException {
+        Path first = createZip("0.0.0.chunks.zip", "a.chunk", new byte[]{1});
+        Path second = createZip("1.0.0.chunks.zip", "b.chunk", new byte[]{2});
+        Path third = createZip("2.0.0.chunks.zip", "c.chunk", new byte[]{3});
+        ChunkZipCache cache = new ChunkZipCache(2);
+
+        cache.readEntry(first, "a.chunk");
+        cache.readEntry(second, "b.chunk");
+        cache.readEntry(first, "a.chunk");
+        cache.readEntry(third, "c.chunk");
+        assertEquals(2, cache.size());
+
+        cache.readEntry(first, "a.chunk");
+        assertEquals(2, cache.getHits());
+        cache.readEntry(second, "b.chunk");
+        assertEquals(4, cache.getMisses());
+    }
+
+    @Test
+    public void testInvalidatedZipGetsReopened() throws IOException {
+        Path zipPath = createZip("0.0.0.chunks.zip", "1.2.3.chunk", new byte[]{1});
+        ChunkZipCache cache = new ChunkZipCache();
+        assertArrayEquals(new byte[]{1}, cache.readEntry(zipPath, "1.2.3.chunk"));
+
+        cache.invalidate(zipPath);
+        Files.delete(zipPath);
+        createZip("0.0.0.chunks.zip", "1.2.3.chunk", new byte[]{2});
+
+        assertArrayEquals(new byte[]{2}, cache.readEntry(zipPath, "1.2.3.chunk"));
+        assertEquals(2, cache.getMisses());
+    }
+}
@@ -0,0 +1,117 @@
+/*
+ * Copyright 2016 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.persistence.internal;
+
+import com.google.common.collect.Lists;
+import org.junit.Test;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ */
+public class OpenFileCacheTest {
+
+    private static final Path FIRST = Paths.get("first");
+    private static final Path SECOND = Paths.get("second");
+
+    @Test
+    public void testFailureToCloseEvictedFileIsThrown() throws IOException {
+        TestCache cache = new TestCache(1);
+        cache.use(FIRST, file -> {
+            file.failClose = true;
+            return null;
+        });
+        cache.use(SECOND, file -> null);
+
+        try {
+            cache.throwCloseFailures();
+            fail("Failure to close the evicted file was not thrown");
+        } catch (IOException e) {
+            assertEquals("closing first", e.getCause().getMessage());
+        }
+        // the failure is only reported once
+        cache.throwCloseFailures();
+    }
+
+    @Test
+    public void testFailureToCloseFileEvictedInUseIsThrown() throws IOException {
+        TestCache cache = new TestCache(1);
+        cache.use(FIRST, file -> {
+            file.failClose = true;
+            cache.use(SECOND, other -> null);
+            cache.throwCloseFailures();
+            return null;
+        });
+
+        try {
+            cache.throwCloseFailures();
+            fail("Failure to close the released file was not thrown");
+        } catch (IOException e) {
+            assertEquals("closing first", e.getCause().getMessage());
+        }
+    }
+
+    @Test
+    public void testEvictedFilesInUseAreStillVisited() throws IOException {
+        TestCache cache = new TestCache(1);
+        cache.use(FIRST, file -> {
+            cache.use(SECOND, other -> null);
+            List<Path> visited = Lists.newArrayList();
+            cache.forEachOpen(openFile -> visited.add(openFile.path));
+            assertEquals(2, visited.size());
+            assertTrue(visited.contains(FIRST));
+            return null;
+        });
+        List<Path> visited = Lists.newArrayList();
+        cache.forEachOpen(openFile -> visited.add(openFile.path));
+        assertEquals(Lists.newArrayList(SECOND), visited);
+    }
+
+    private static final class TestFile implements Closeable {
+        private final Path path;
+        private boolean failClose;
+
+        private TestFile(Path path) {
+            this.path = path;
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (failClose) {
+                throw new IOException("closing " + path);
+            }
+        }
+    }
+
+    private static final class TestCache extends OpenFileCache<TestFile> {
+        private TestCache(int capacity) {
+            super(capacity, "Test");
+        }
+
+        @Override
+        protected TestFile open(Path path) {
+            return new TestFile(path);
+        }
+    }
+}
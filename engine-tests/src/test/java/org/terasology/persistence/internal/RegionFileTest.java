@@ -0,0 +1,156 @@
+/*
+ * Copyright 2016 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.persistence.internal;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ */
+public class RegionFileTest {
+    private static final int ENTRY_COUNT = 16 * 16 * 16;
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private static byte[] createData(int length, int seed) {
+        byte[] data = new byte[length];
+        for (int i = 0; i < length; i++) {
+            data[i] = (byte) (i * 31 + seed);
+        }
+        return data;
+    }
+
+    private Path getRegionFilePath() {
+        return temporaryFolder.getRoot().toPath().resolve("0.0.0.region");
+    }
+
+    @Test
+    public void testNewFileIsEmpty() throws IOException {
+        try (RegionFile regionFile = RegionFile.open(getRegionFilePath(), ENTRY_COUNT)) {
+            assertFalse(regionFile.contains(0));
+            assertNull(regionFile.read(0));
+            assertNull(regionFile.read(ENTRY_COUNT - 1));
+        }
+    }
+
+    @Test
+    public void testChunksSurviveReopening() throws IOException {
+        byte[] small = createData(10, 1);
+        byte[] large = createData(3 * RegionFile.SECTOR_SIZE + 7, 2);
+        try (RegionFile regionFile = RegionFile.open(getRegionFilePath(), ENTRY_COUNT)) {
+            regionFile.write(5, small);
+            regionFile.write(ENTRY_COUNT - 1, large);
+            assertArrayEquals(small, regionFile.read(5));
+        }
+        try (RegionFile regionFile = RegionFile.open(getRegionFilePath(), ENTRY_COUNT)) {
+            assertTrue(regionFile.contains(5));
+            assertArrayEquals(small, regionFile.read(5));
+            assertArrayEquals(large, regionFile.read(ENTRY_COUNT - 1));
+            assertNull(regionFile.read(6));
+        }
+    }
+
+    @Test
+    public void testReplacedChunkSpaceGetsReused() throws IOException {
+        try (RegionFile regionFile = RegionFile.open(getRegionFilePath(), ENTRY_COUNT)) {
+            regionFile.write(0, createData(2 * RegionFile.SECTOR_SIZE, 1));
+            regionFile.write(1, createData(RegionFile.SECTOR_SIZE, 2));
+            long size = Files.size(getRegionFilePath());
+
+            // The new version can't overwrite the old one, so it gets appended
+            regionFile.write(0, createData(2 * RegionFile.SECTOR_SIZE, 3));
+            assertEquals(size + 2 * RegionFile.SECTOR_SIZE, Files.size(getRegionFilePath()));
+
+            // The sectors of the first version are free again once the new version is flushed
+            regionFile.flush();
+            regionFile.write(2, createData(RegionFile.SECTOR_SIZE, 4));
+            regionFile.write(3, createData(RegionFile.SECTOR_SIZE, 5));
+            assertEquals(size + 2 * RegionFile.SECTOR_SIZE, Files.size(getRegionFilePath()));
+
+            assertArrayEquals(createData(2 * RegionFile.SECTOR_SIZE, 3), regionFile.read(0));
+            assertArrayEquals(createData(RegionFile.SECTOR_SIZE, 2), regionFile.read(1));
+            assertArrayEquals(createData(RegionFile.SECTOR_SIZE, 4), regionFile.read(2));
+            assertArrayEquals(createData(RegionFile.SECTOR_SIZE, 5), regionFile.read(3));
+        }
+    }
+
+    @Test
+    public void testStoredVersionStaysIntactUntilFlush() throws IOException {
+        try (RegionFile regionFile = RegionFile.open(getRegionFilePath(), ENTRY_COUNT)) {
+            regionFile.write(0, createData(RegionFile.SECTOR_SIZE, 1));
+            regionFile.flush();
+            long size = Files.size(getRegionFilePath());
+
+            regionFile.write(0, createData(RegionFile.SECTOR_SIZE, 2));
+            // The sectors of the flushed version must not be reused before the flush
+            regionFile.write(1, createData(RegionFile.SECTOR_SIZE, 3));
+            assertEquals(size + 2 * RegionFile.SECTOR_SIZE, Files.size(getRegionFilePath()));
+            assertArrayEquals(createData(RegionFile.SECTOR_SIZE, 2), regionFile.read(0));
+
+            // What a crash would leave behind
+            try (RegionFile stored = RegionFile.open(getRegionFilePath(), ENTRY_COUNT)) {
+                assertArrayEquals(createData(RegionFile.SECTOR_SIZE, 1), stored.read(0));
+                assertNull(stored.read(1));
+            }
+
+            regionFile.flush();
+            try (RegionFile stored = RegionFile.open(getRegionFilePath(), ENTRY_COUNT)) {
+                assertArrayEquals(createData(RegionFile.SECTOR_SIZE, 2), stored.read(0));
+                assertArrayEquals(createData(RegionFile.SECTOR_SIZE, 3), stored.read(1));
+            }
+        }
+    }
+
+    @Test
+    public void testDeletedChunk() throws IOException {
+        try (RegionFile regionFile = RegionFile.open(getRegionFilePath(), ENTRY_COUNT)) {
+            regionFile.write(7, createData(100, 1));
+            regionFile.delete(7);
+            assertNull(regionFile.read(7));
+        }
+        try (RegionFile regionFile = RegionFile.open(getRegionFilePath(), ENTRY_COUNT)) {
+            assertNull(regionFile.read(7));
+        }
+    }
+
+    @Test
+    public void testEntriesPointingBeyondTheFileAreIgnored() throws IOException {
+        try (RegionFile regionFile = RegionFile.open(getRegionFilePath(), ENTRY_COUNT)) {
+            regionFile.write(0, createData(100, 1));
+            regionFile.write(1, createData(3 * RegionFile.SECTOR_SIZE, 2));
+        }
+        byte[] content = Files.readAllBytes(getRegionFilePath());
+        Files.write(getRegionFilePath(), Arrays.copyOf(content, content.length - RegionFile.SECTOR_SIZE));
+
+        try (RegionFile regionFile = RegionFile.open(getRegionFilePath(), ENTRY_COUNT)) {
+            assertArrayEquals(createData(100, 1), regionFile.read(0));
+            assertNull(regionFile.read(1));
+        }
+    }
+}
@@ -27,9 +27,12 @@
 import org.terasology.TerasologyTestingEnvironment;
 import org.terasology.assets.ResourceUrn;
 import org.terasology.assets.management.AssetManager;
+import org.terasology.config.Config;
+import org.terasology.config.SystemConfig;
 import org.terasology.engine.bootstrap.EntitySystemSetupUtil;
 import org.terasology.engine.paths.PathManager;
 import org.terasology.entitySystem.entity.EntityRef;
+import org.terasology.entitySystem.entity.EntityStore;
 import org.terasology.entitySystem.entity.internal.EngineEntityManager;
 import org.terasology.entitySystem.stubs.EntityRefComponent;
 import org.terasology.entitySystem.stubs.StringComponent;
@@ -294,6 +297,107 @@ public void testChunkSurvivesStorageSaveAndRestore() throws Exception {
         assertEquals(testBlock2, restored.getChunk().getBlock(0, 4, 2));
     }
 
+    @Test
+    public void testChunksOfMultipleZipsSurviveParallelSave() throws Exception {
+        Vector3i otherChunkPos = new Vector3i(CHUNK_POS.x + 100, CHUNK_POS.y, CHUNK_POS.z - 100);
+        Chunk chunk = new ChunkImpl(CHUNK_POS, blockManager, biomeManager);
+        chunk.setBlock(0, 0, 0, testBlock);
+        chunk.markReady();
+        Chunk otherChunk = new ChunkImpl(otherChunkPos, blockManager, biomeManager);
+        otherChunk.setBlock(0, 0, 0, testBlock2);
+        otherChunk.markReady();
+        ChunkProvider chunkProvider = mock(ChunkProvider.class);
+        when(chunkProvider.getAllChunks()).thenReturn(Arrays.asList(chunk, otherChunk));
+        when(chunkProvider.getChunk(CHUNK_POS)).thenReturn(chunk);
+        when(chunkProvider.getChunk(otherChunkPos)).thenReturn(otherChunk);
+        CoreRegistry.put(ChunkProvider.class, chunkProvider);
+
+        SystemConfig systemConfig = context.get(Config.class).getSystem();
+        int previousChunkSaveThreads = systemConfig.getChunkSaveThreads();
+        systemConfig.setChunkSaveThreads(4);
+        try {
+            esm.setStoreChunksInZips(true);
+            esm.waitForCompletionOfPreviousSaveAndStartSaving();
+            esm.finishSavingAndShutdown();
+        } finally {
+            systemConfig.setChunkSaveThreads(previousChunkSaveThreads);
+        }
+
+        EntitySystemSetupUtil.addReflectionBasedLibraries(context);
+        EntitySystemSetupUtil.addEntityManagementRelatedClasses(context);
+        EngineEntityManager newEntityManager = context.get(EngineEntityManager.class);
+        StorageManager newSM = new ReadWriteStorageManager(savePath, moduleEnvironment, newEntityManager, blockManager,
+                biomeManager, true);
+        newSM.loadGlobalStore();
+
+        ChunkStore restored = newSM.loadChunkStore(CHUNK_POS);
+        assertNotNull(restored);
+        assertEquals(testBlock, restored.getChunk().getBlock(0, 0, 0));
+        ChunkStore otherRestored = newSM.loadChunkStore(otherChunkPos);
+        assertNotNull(otherRestored);
+        assertEquals(testBlock2, otherRestored.getChunk().getBlock(0, 0, 0));
+    }
+
+    @Test
+    public void testChunkSurvivesStorageSaveAndRestoreInRegionFiles() throws Exception {
+        Chunk chunk = new ChunkImpl(CHUNK_POS, blockManager, biomeManager);
+        chunk.setBlock(0, 0, 0, testBlock);
+        chunk.setBlock(0, 4, 2, testBlock2);
+        chunk.markReady();
+        ChunkProvider chunkProvider = mock(ChunkProvider.class);
+        when(chunkProvider.getAllChunks()).thenReturn(Arrays.asList(chunk));
+        when(chunkProvider.getChunk(Matchers.any(Vector3i.class))).thenReturn(chunk);
+        CoreRegistry.put(ChunkProvider.class, chunkProvider);
+
+        esm.setChunkStorageMode(ChunkStorageMode.REGION_FILES);
+        esm.waitForCompletionOfPreviousSaveAndStartSaving();
+        esm.finishSavingAndShutdown();
+
+        EntitySystemSetupUtil.addReflectionBasedLibraries(context);
+        EntitySystemSetupUtil.addEntityManagementRelatedClasses(context);
+        EngineEntityManager newEntityManager = context.get(EngineEntityManager.class);
+        StorageManager newSM = new ReadWriteStorageManager(savePath, moduleEnvironment, newEntityManager, blockManager,
+                biomeManager, ChunkStorageMode.REGION_FILES);
+        newSM.loadGlobalStore();
+
+        ChunkStore restored = newSM.loadChunkStore(CHUNK_POS);
+        assertNotNull(restored);
+        assertEquals(CHUNK_POS, restored.getChunkPosition());
+        assertNotNull(restored.getChunk());
+        assertEquals(testBlock, restored.getChunk().getBlock(0, 0, 0));
+        assertEquals(testBlock2, restored.getChunk().getBlock(0, 4, 2));
+    }
+
+    @Test
+    public void testChunkZipsGetConvertedToRegionFiles() throws Exception {
+        Chunk chunk = new ChunkImpl(CHUNK_POS, blockManager, biomeManager);
+        chunk.setBlock(0, 0, 0, testBlock);
+        chunk.markReady();
+        ChunkProvider chunkProvider = mock(ChunkProvider.class);
+        when(chunkProvider.getAllChunks()).thenReturn(Arrays.asList(chunk));
+        when(chunkProvider.getChunk(Matchers.any(Vector3i.class))).thenReturn(chunk);
+        CoreRegistry.put(ChunkProvider.class, chunkProvider);
+
+        esm.setChunkStorageMode(ChunkStorageMode.REGION_ZIPS);
+        esm.waitForCompletionOfPreviousSaveAndStartSaving();
+        esm.finishSavingAndShutdown();
+
+        EntitySystemSetupUtil.addReflectionBasedLibraries(context);
+        EntitySystemSetupUtil.addEntityManagementRelatedClasses(context);
+        EngineEntityManager newEntityManager = context.get(EngineEntityManager.class);
+        ReadWriteStorageManager newSM = new ReadWriteStorageManager(savePath, moduleEnvironment, newEntityManager,
+                blockManager, biomeManager, ChunkStorageMode.REGION_FILES);
+        newSM.checkAndRepairSaveIfNecessary();
+
+        StoragePathProvider pathProvider = newSM.getStoragePathProvider();
+        assertFalse(Files.exists(pathProvider.getChunkZipPath(pathProvider.getChunkZipPosition(CHUNK_POS))));
+        assertTrue(Files.isRegularFile(pathProvider.getRegionFilePath(pathProvider.getRegionFilePosition(CHUNK_POS))));
+
+        ChunkStore restored = newSM.loadChunkStore(CHUNK_POS);
+        assertNotNull(restored);
+        assertEquals(testBlock, restored.getChunk().getBlock(0, 0, 0));
+    }
+
     @Test
     public void testEntitySurvivesStorageInChunkStore() throws Exception {
         Chunk chunk = new ChunkImpl(CHUNK_POS, blockManager, biomeManager);
@@ -329,6 +433,42 @@ public void testEntitySurvivesStorageInChunkStore() throws Exception {
     }
 
 
+    @Test
+    public void testGeneratedChunkIsStoredWithoutCreatingItsEntities() throws Exception {
+        Chunk chunk = new ChunkImpl(CHUNK_POS, blockManager, biomeManager);
+        chunk.setBlock(0, 0, 0, testBlock);
+        EntityStore generatedEntity = new EntityStore();
+        LocationComponent locationComponent = new LocationComponent();
+        locationComponent.setWorldPosition(new Vector3f(chunk.getAABB().getMin()));
+        generatedEntity.addComponent(locationComponent);
+        generatedEntity.addComponent(new StringComponent("generated"));
+
+        assertTrue(esm.storeGeneratedChunk(chunk, Arrays.asList(generatedEntity)));
+        assertEquals(0, entityManager.getCountOfEntitiesWith(StringComponent.class));
+
+        ChunkStore restored = esm.loadChunkStore(CHUNK_POS);
+        assertEquals(testBlock, restored.getChunk().getBlock(0, 0, 0));
+        restored.restoreEntities();
+        assertEquals(1, entityManager.getCountOfEntitiesWith(StringComponent.class));
+        for (EntityRef entity : entityManager.getEntitiesWith(StringComponent.class)) {
+            assertEquals("generated", entity.getComponent(StringComponent.class).value);
+            assertTrue(entity.isActive());
+        }
+    }
+
+    @Test
+    public void testGeneratedChunkDoesNotReplaceStoredChunk() throws Exception {
+        Chunk chunk = new ChunkImpl(CHUNK_POS, blockManager, biomeManager);
+        chunk.setBlock(0, 0, 0, testBlock);
+        chunk.markReady();
+        esm.deactivateChunk(chunk);
+
+        Chunk generatedChunk = new ChunkImpl(CHUNK_POS, blockManager, biomeManager);
+        generatedChunk.setBlock(0, 0, 0, testBlock2);
+        assertFalse(esm.storeGeneratedChunk(generatedChunk, Collections.emptyList()));
+        assertEquals(testBlock, esm.loadChunkStore(CHUNK_POS).getChunk().getBlock(0, 0, 0));
+    }
+
     @Test
     public void testCanSavePlayerWithoutUnloading() throws Exception {
         esm.waitForCompletionOfPreviousSaveAndStartSaving();
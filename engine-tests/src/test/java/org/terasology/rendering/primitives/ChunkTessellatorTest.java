@@ -0,0 +1,267 @@
+/*
+ * Copyright 2016 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.rendering.primitives;
+
+import com.google.common.collect.Maps;
+import org.junit.Before;
+import org.junit.Test;
+import org.terasology.math.Side;
+import org.terasology.math.TeraMath;
+import org.terasology.math.geom.Vector2f;
+import org.terasology.math.geom.Vector3f;
+import org.terasology.math.geom.Vector3i;
+import org.terasology.math.geom.Vector4f;
+import org.terasology.world.biomes.Biome;
+import org.terasology.world.block.Block;
+import org.terasology.world.block.BlockAppearance;
+import org.terasology.world.block.BlockPart;
+import org.terasology.world.block.DefaultColorSource;
+import org.terasology.world.block.shapes.BlockMeshPart;
+import org.terasology.world.chunks.ChunkConstants;
+import org.terasology.world.internal.ChunkViewCore;
+
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyFloat;
+import static org.mockito.Matchers.anyInt;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+/**
+ * Tessellates a chunk of randomly mixed blocks with the original implementation, which allocates memory for every
+ * block and vertex, and with the allocation free one, whose meshes have to be identical.
+ */
+public class ChunkTessellatorTest {
+
+    private static final int MESH_HEIGHT = 8;
+    private static final int OFFSET_Y = 32;
+    private static final int SIZE_X = ChunkConstants.SIZE_X + 2;
+    private static final int SIZE_Y = MESH_HEIGHT + 2;
+    private static final int SIZE_Z = ChunkConstants.SIZE_Z + 2;
+
+    private final Block[] blocks = new Block[SIZE_X * SIZE_Y * SIZE_Z];
+    private final Biome[] biomes = new Biome[blocks.length];
+    private final byte[] sunlight = new byte[blocks.length];
+    private final byte[] light = new byte[blocks.length];
+    private Block air;
+    private ChunkViewCore view;
+
+    @Before
+    public void setup() {
+        air = new Block();
+        air.setTranslucent(true);
+        air.setShadowCasting(false);
+        air.setMeshGenerator(null);
+        Block stone = createCube(false);
+        Block grass = createCube(false);
+        grass.setGrass(true);
+        grass.setColorSource(BlockPart.TOP, DefaultColorSource.COLOR_LUT);
+        grass.setColorOffset(BlockPart.TOP, new Vector4f(0.9f, 1.0f, 0.8f, 1.0f));
+        Block leaves = createCube(true);
+        leaves.setWaving(true);
+        leaves.setColorSource(DefaultColorSource.FOLIAGE_LUT);
+        Block water = createCube(true);
+        water.setWater(true);
+        water.setLiquid(true);
+        Block ice = createCube(true);
+        ice.setIce(true);
+        Block plant = createPlant();
+        Block[] palette = {air, air, air, stone, grass, leaves, water, ice, plant};
+
+        Biome forest = createBiome(0.8f, 0.6f);
+        Biome desert = createBiome(0.1f, 0.95f);
+
+        Random random = new Random(3);
+        for (int i = 0; i < blocks.length; i++) {
+            blocks[i] = palette[random.nextInt(palette.length)];
+            biomes[i] = random.nextBoolean() ? forest : desert;
+            sunlight[i] = random.nextInt(3) == 0 ? 0 : (byte) random.nextInt(ChunkConstants.MAX_SUNLIGHT + 1);
+            light[i] = random.nextInt(3) == 0 ? 0 : (byte) random.nextInt(ChunkConstants.MAX_LIGHT + 1);
+        }
+
+        view = mock(ChunkViewCore.class, withSettings().stubOnly());
+        when(view.getBlock(anyInt(), anyInt(), anyInt())).thenAnswer(invocation -> {
+            Object[] args = invocation.getArguments();
+            return blockAt((Integer) args[0], (Integer) args[1], (Integer) args[2]);
+        });
+        when(view.getBlock(anyFloat(), anyFloat(), anyFloat())).thenAnswer(invocation -> {
+            Object[] args = invocation.getArguments();
+            return blockAt(round((Float) args[0]), round((Float) args[1]), round((Float) args[2]));
+        });
+        when(view.getBiome(anyInt(), anyInt(), anyInt())).thenAnswer(invocation -> {
+            Object[] args = invocation.getArguments();
+            int index = index((Integer) args[0], (Integer) args[1], (Integer) args[2]);
+            return index < 0 ? forest : biomes[index];
+        });
+        when(view.getSunlight(anyInt(), anyInt(), anyInt())).thenAnswer(invocation -> {
+            Object[] args = invocation.getArguments();
+            return lightAt(sunlight, (Integer) args[0], (Integer) args[1], (Integer) args[2]);
+        });
+        when(view.getLight(anyInt(), anyInt(), anyInt())).thenAnswer(invocation -> {
+            Object[] args = invocation.getArguments();
+            return lightAt(light, (Integer) args[0], (Integer) args[1], (Integer) args[2]);
+        });
+        when(view.getSunlight(anyFloat(), anyFloat(), anyFloat())).thenAnswer(invocation -> {
+            Object[] args = invocation.getArguments();
+            return lightAt(sunlight, round((Float) args[0]), round((Float) args[1]), round((Float) args[2]));
+        });
+        when(view.getLight(anyFloat(), anyFloat(), anyFloat())).thenAnswer(invocation -> {
+            Object[] args = invocation.getArguments();
+            return lightAt(light, round((Float) args[0]), round((Float) args[1]), round((Float) args[2]));
+        });
+        doAnswer(invocation -> {
+            Object[] args = invocation.getArguments();
+            int minX = (Integer) args[0];
+            int minY = (Integer) args[1];
+            int minZ = (Integer) args[2];
+            byte[] targetSunlight = (byte[]) args[6];
+            byte[] targetLight = (byte[]) args[7];
+            int index = 0;
+            for (int y = minY; y < minY + (Integer) args[4]; y++) {
+                for (int z = minZ; z < minZ + (Integer) args[5]; z++) {
+                    for (int x = minX; x < minX + (Integer) args[3]; x++, index++) {
+                        targetSunlight[index] = lightAt(sunlight, x, y, z);
+                        targetLight[index] = lightAt(light, x, y, z);
+                    }
+                }
+            }
+            return null;
+        }).when(view).copyLight(anyInt(), anyInt(), anyInt(), anyInt(), anyInt(), anyInt(), any(), any());
+    }
+
+    @Test
+    public void testUncachedLightingMatchesOriginalImplementation() {
+        assertMatchesOriginalImplementation(false, false);
+    }
+
+    @Test
+    public void testCachedLightingMatchesOriginalImplementation() {
+        assertMatchesOriginalImplementation(true, false);
+        assertMatchesOriginalImplementation(true, true);
+    }
+
+    private void assertMatchesOriginalImplementation(boolean cachedLighting, boolean bulkLighting) {
+        ChunkTessellator tessellator = new ChunkTessellator(null);
+        tessellator.setAllocationFree(false);
+        ChunkMesh expected = tessellator.generateMesh(view, MESH_HEIGHT, OFFSET_Y);
+
+        tessellator.setAllocationFree(true);
+        tessellator.setLightCaching(cachedLighting, bulkLighting);
+        ChunkMesh actual = tessellator.generateMesh(view, MESH_HEIGHT, OFFSET_Y);
+
+        for (ChunkMesh.RenderType type : ChunkMesh.RenderType.values()) {
+            ChunkMesh.VertexElements expectedElements = expected.getVertexElements(type);
+            ChunkMesh.VertexElements actualElements = actual.getVertexElements(type);
+            // every render type has to be covered, or the comparison proves nothing for it
+            assertTrue("No vertices of type " + type, expectedElements.finalVertices.limit() > 0);
+            assertEquals("Vertices of type " + type, expectedElements.finalVertices, actualElements.finalVertices);
+            assertEquals("Indices of type " + type, expectedElements.finalIndices, actualElements.finalIndices);
+        }
+    }
+
+    private static Biome createBiome(float humidity, float temperature) {
+        Biome biome = mock(Biome.class);
+        when(biome.getHumidity()).thenReturn(humidity);
+        when(biome.getTemperature()).thenReturn(temperature);
+        return biome;
+    }
+
+    private static Block createCube(boolean translucent) {
+        Map<BlockPart, BlockMeshPart> parts = Maps.newEnumMap(BlockPart.class);
+        for (Side side : Side.values()) {
+            parts.put(BlockPart.fromSide(side), createFace(side));
+        }
+        Block block = new Block();
+        block.setPrimaryAppearance(new BlockAppearance(parts, createAtlasPositions()));
+        block.setTranslucent(translucent);
+        for (Side side : Side.values()) {
+            block.setFullSide(side, true);
+            block.setLoweredLiquidMesh(side, parts.get(BlockPart.fromSide(side)));
+        }
+        return block;
+    }
+
+    private static Block createPlant() {
+        Map<BlockPart, BlockMeshPart> parts = Maps.newEnumMap(BlockPart.class);
+        parts.put(BlockPart.CENTER, createFace(Side.FRONT));
+        Block block = new Block();
+        block.setPrimaryAppearance(new BlockAppearance(parts, createAtlasPositions()));
+        block.setTranslucent(true);
+        block.setShadowCasting(false);
+        block.setDoubleSided(true);
+        block.setWaving(true);
+        block.setColorSource(DefaultColorSource.FOLIAGE_LUT);
+        return block;
+    }
+
+    private static Map<BlockPart, Vector2f> createAtlasPositions() {
+        Map<BlockPart, Vector2f> atlasPositions = Maps.newEnumMap(BlockPart.class);
+        for (BlockPart part : BlockPart.values()) {
+            atlasPositions.put(part, new Vector2f());
+        }
+        return atlasPositions;
+    }
+
+    private static BlockMeshPart createFace(Side side) {
+        Vector3i normal = side.getVector3i();
+        // two axes spanning the face
+        Vector3f u = new Vector3f(normal.y != 0 ? 1 : 0, normal.y == 0 ? 1 : 0, 0);
+        Vector3f v = new Vector3f(normal.x, normal.y, normal.z).cross(u);
+        Vector3f[] vertices = new Vector3f[4];
+        Vector3f[] normals = new Vector3f[4];
+        Vector2f[] texCoords = new Vector2f[4];
+        for (int i = 0; i < 4; i++) {
+            float su = i == 1 || i == 2 ? 0.5f : -0.5f;
+            float sv = i >= 2 ? 0.5f : -0.5f;
+            vertices[i] = new Vector3f(0.5f * normal.x + su * u.x + sv * v.x, 0.5f * normal.y + su * u.y + sv * v.y,
+                    0.5f * normal.z + su * u.z + sv * v.z);
+            normals[i] = new Vector3f(normal.x, normal.y, normal.z);
+            texCoords[i] = new Vector2f(su + 0.5f, sv + 0.5f);
+        }
+        return new BlockMeshPart(vertices, normals, texCoords, new int[]{0, 1, 2, 0, 2, 3});
+    }
+
+    private Block blockAt(int x, int y, int z) {
+        int index = index(x, y, z);
+        return index < 0 ? air : blocks[index];
+    }
+
+    private static int round(float value) {
+        return TeraMath.floorToInt(value + 0.5f);
+    }
+
+    private static byte lightAt(byte[] levels, int x, int y, int z) {
+        int index = index(x, y, z);
+        return index < 0 ? 0 : levels[index];
+    }
+
+    /**
+     * @return the index of the block within the mesh and the blocks around it, or -1 for the blocks further away
+     */
+    private static int index(int x, int y, int z) {
+        int localY = y - OFFSET_Y + 1;
+        if (x < -1 || x >= SIZE_X - 1 || z < -1 || z >= SIZE_Z - 1 || localY < 0 || localY >= SIZE_Y) {
+            return -1;
+        }
+        return (localY * SIZE_Z + z + 1) * SIZE_X + x + 1;
+    }
+}
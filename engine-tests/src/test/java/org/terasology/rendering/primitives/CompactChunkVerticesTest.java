@@ -0,0 +1,101 @@
+/*
+ * Copyright 2016 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.rendering.primitives;
+
+import org.junit.Test;
+import org.lwjgl.BufferUtils;
+import org.terasology.rendering.RenderMath;
+
+import java.nio.ByteBuffer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.terasology.rendering.primitives.CompactChunkVertices.OCCLUSION_SCALE;
+import static org.terasology.rendering.primitives.CompactChunkVertices.POSITION_SCALE;
+import static org.terasology.rendering.primitives.CompactChunkVertices.TEX_COORD_SCALE;
+
+public class CompactChunkVerticesTest {
+
+    private static final float[] LIGHTING = {1.0f, 7f / 15f, 0.4f};
+
+    @Test
+    public void testNeedsAtMostHalfTheMemory() {
+        assertTrue(CompactChunkVertices.STRIDE * 2 <= ChunkMesh.STRIDE);
+        assertEquals(0, CompactChunkVertices.STRIDE % 4);
+    }
+
+    @Test
+    public void testPutAdvancesByStride() {
+        ByteBuffer buffer = BufferUtils.createByteBuffer(3 * CompactChunkVertices.STRIDE);
+        for (int i = 0; i < 3; i++) {
+            CompactChunkVertices.put(buffer, i, 0, 0, 0, 0, 0, LIGHTING, 0, 0, 1, 0);
+            assertEquals((i + 1) * CompactChunkVertices.STRIDE, buffer.position());
+        }
+    }
+
+    @Test
+    public void testValuesRoundTrip() {
+        ByteBuffer buffer = BufferUtils.createByteBuffer(CompactChunkVertices.STRIDE);
+        int color = RenderMath.packColor(0.2f, 0.4f, 0.6f, 1.0f);
+        int flags = ChunkVertexFlag.WATER.getValue();
+        CompactChunkVertices.put(buffer, 31.5f, 63.0625f, -0.5f, 0.0625f, 0.9375f, flags, LIGHTING, color, 0, -1, 0);
+        buffer.flip();
+
+        assertEquals(31.5f, position(buffer, 0), 0.0f);
+        assertEquals(63.0625f, position(buffer, 1), 0.0f);
+        assertEquals(-0.5f, position(buffer, 2), 0.0f);
+        assertEquals(flags, buffer.getShort(CompactChunkVertices.OFFSET_VERTEX + 6));
+
+        float texEpsilon = 1.0f / TEX_COORD_SCALE;
+        assertEquals(0.0625f, normalized(buffer, CompactChunkVertices.OFFSET_TEX_0, TEX_COORD_SCALE), texEpsilon);
+        assertEquals(0.9375f, normalized(buffer, CompactChunkVertices.OFFSET_TEX_0 + 2, TEX_COORD_SCALE), texEpsilon);
+
+        int packedLight = buffer.getShort(CompactChunkVertices.OFFSET_TEX_1);
+        int sunlight = packedLight / (CompactChunkVertices.LIGHT_RESOLUTION + 1);
+        int blockLight = packedLight % (CompactChunkVertices.LIGHT_RESOLUTION + 1);
+        float lightEpsilon = 0.5f / CompactChunkVertices.LIGHT_RESOLUTION;
+        assertEquals(LIGHTING[0], (float) sunlight / CompactChunkVertices.LIGHT_RESOLUTION, lightEpsilon);
+        assertEquals(LIGHTING[1], (float) blockLight / CompactChunkVertices.LIGHT_RESOLUTION, lightEpsilon);
+        assertEquals(LIGHTING[2], normalized(buffer, CompactChunkVertices.OFFSET_TEX_1 + 2, OCCLUSION_SCALE),
+                1.0f / OCCLUSION_SCALE);
+
+        assertEquals(color, buffer.getInt(CompactChunkVertices.OFFSET_COLOR));
+
+        assertEquals(0, buffer.get(CompactChunkVertices.OFFSET_NORMAL));
+        assertEquals(-127, buffer.get(CompactChunkVertices.OFFSET_NORMAL + 1));
+        assertEquals(0, buffer.get(CompactChunkVertices.OFFSET_NORMAL + 2));
+    }
+
+    @Test
+    public void testMergedQuadsKeepTileCounts() {
+        ByteBuffer buffer = BufferUtils.createByteBuffer(CompactChunkVertices.STRIDE);
+        int flags = ChunkVertexFlag.NORMAL.getValue() + GreedyMesher.TILE_INDEX_STRIDE * 42;
+        CompactChunkVertices.put(buffer, 0, 0, 0, 17.0f, 3.0f, flags, LIGHTING, 0, 1.0f, 0.0f, 0.0f);
+        buffer.flip();
+
+        assertEquals(flags, buffer.getShort(CompactChunkVertices.OFFSET_VERTEX + 6));
+        assertEquals(17, buffer.getShort(CompactChunkVertices.OFFSET_TEX_0));
+        assertEquals(3, buffer.getShort(CompactChunkVertices.OFFSET_TEX_0 + 2));
+    }
+
+    private static float position(ByteBuffer buffer, int component) {
+        return normalized(buffer, CompactChunkVertices.OFFSET_VERTEX + 2 * component, POSITION_SCALE);
+    }
+
+    private static float normalized(ByteBuffer buffer, int offset, float scale) {
+        return buffer.getShort(offset) / scale;
+    }
+}
@@ -0,0 +1,155 @@
+/*
+ * Copyright 2016 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.rendering.primitives;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.terasology.math.TeraMath;
+import org.terasology.world.chunks.ChunkConstants;
+import org.terasology.world.internal.ChunkViewCore;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyFloat;
+import static org.mockito.Matchers.anyInt;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+/**
+ */
+public class CornerLightCacheTest {
+
+    private static final int MESH_HEIGHT = 4;
+    private static final int OFFSET_Y = 32;
+
+    private final byte[] sunlight =
+            new byte[(ChunkConstants.SIZE_X + 2) * (MESH_HEIGHT + 2) * (ChunkConstants.SIZE_Z + 2)];
+    private final byte[] light = new byte[sunlight.length];
+    private ChunkViewCore view;
+
+    @Before
+    public void setup() {
+        Random random = new Random(7);
+        for (int i = 0; i < sunlight.length; i++) {
+            // leave some blocks dark, they are left out of the averages
+            sunlight[i] = random.nextInt(3) == 0 ? 0 : (byte) random.nextInt(ChunkConstants.MAX_SUNLIGHT + 1);
+            light[i] = random.nextInt(3) == 0 ? 0 : (byte) random.nextInt(ChunkConstants.MAX_LIGHT + 1);
+        }
+
+        view = mock(ChunkViewCore.class, withSettings().stubOnly());
+        when(view.getSunlight(anyInt(), anyInt(), anyInt())).thenAnswer(invocation -> {
+            Object[] args = invocation.getArguments();
+            return lightAt(sunlight, (Integer) args[0], (Integer) args[1], (Integer) args[2]);
+        });
+        when(view.getLight(anyInt(), anyInt(), anyInt())).thenAnswer(invocation -> {
+            Object[] args = invocation.getArguments();
+            return lightAt(light, (Integer) args[0], (Integer) args[1], (Integer) args[2]);
+        });
+        when(view.getSunlight(anyFloat(), anyFloat(), anyFloat())).thenAnswer(invocation -> {
+            Object[] args = invocation.getArguments();
+            return lightAt(sunlight, round((Float) args[0]), round((Float) args[1]), round((Float) args[2]));
+        });
+        when(view.getLight(anyFloat(), anyFloat(), anyFloat())).thenAnswer(invocation -> {
+            Object[] args = invocation.getArguments();
+            return lightAt(light, round((Float) args[0]), round((Float) args[1]), round((Float) args[2]));
+        });
+        doAnswer(invocation -> {
+            Object[] args = invocation.getArguments();
+            int minX = (Integer) args[0];
+            int minY = (Integer) args[1];
+            int minZ = (Integer) args[2];
+            byte[] targetSunlight = (byte[]) args[6];
+            byte[] targetLight = (byte[]) args[7];
+            int index = 0;
+            for (int y = minY; y < minY + (Integer) args[4]; y++) {
+                for (int z = minZ; z < minZ + (Integer) args[5]; z++) {
+                    for (int x = minX; x < minX + (Integer) args[3]; x++, index++) {
+                        targetSunlight[index] = lightAt(sunlight, x, y, z);
+                        targetLight[index] = lightAt(light, x, y, z);
+                    }
+                }
+            }
+            return null;
+        }).when(view).copyLight(anyInt(), anyInt(), anyInt(), anyInt(), anyInt(), anyInt(), any(), any());
+    }
+
+    @Test
+    public void testCornersMatchSampledLight() {
+        assertMatchesSampledLight(false, 0);
+        assertMatchesSampledLight(true, 0);
+    }
+
+    @Test
+    public void testOffsetVerticesMatchSampledLight() {
+        // vertices of blocks which are smaller than a full block, like slabs or plants
+        assertMatchesSampledLight(false, 0.25f);
+        assertMatchesSampledLight(true, 0.3f);
+    }
+
+    @Test
+    public void testVerticesOutsideOfThePartAreNotCached() {
+        CornerLightCache cache = new CornerLightCache();
+        cache.begin(view, MESH_HEIGHT, OFFSET_Y, false);
+
+        float[] output = new float[2];
+        assertFalse(cache.calcLight(-1.5f, OFFSET_Y, 0, output));
+        assertFalse(cache.calcLight(0, OFFSET_Y + MESH_HEIGHT + 1.5f, 0, output));
+        assertTrue(cache.calcLight(-0.5f, OFFSET_Y - 0.5f, ChunkConstants.SIZE_Z - 0.5f, output));
+    }
+
+    private void assertMatchesSampledLight(boolean bulk, float offset) {
+        CornerLightCache cache = new CornerLightCache();
+        cache.begin(view, MESH_HEIGHT, OFFSET_Y, bulk);
+
+        float[] expected = new float[2];
+        float[] actual = new float[2];
+        // visit every corner twice, the second time the memoized value is used
+        for (int pass = 0; pass < 2; pass++) {
+            for (int y = 0; y < MESH_HEIGHT; y++) {
+                for (int z = 0; z <= ChunkConstants.SIZE_Z; z++) {
+                    for (int x = 0; x <= ChunkConstants.SIZE_X; x++) {
+                        float vertexX = x - 0.5f + offset;
+                        float vertexY = OFFSET_Y + y - 0.5f + offset;
+                        float vertexZ = z - 0.5f - offset;
+                        ChunkTessellator.calcLight(view, vertexX, vertexY, vertexZ, expected);
+                        assertTrue(cache.calcLight(vertexX, vertexY, vertexZ, actual));
+                        assertArrayEquals(expected, actual, 0);
+                    }
+                }
+            }
+        }
+    }
+
+    private static int round(float value) {
+        return TeraMath.floorToInt(value + 0.5f);
+    }
+
+    private static byte lightAt(byte[] levels, int x, int y, int z) {
+        int sizeX = ChunkConstants.SIZE_X + 2;
+        int sizeZ = ChunkConstants.SIZE_Z + 2;
+        int localY = y - OFFSET_Y + 1;
+        if (x < -1 || x >= sizeX - 1 || z < -1 || z >= sizeZ - 1 || localY < 0 || localY >= MESH_HEIGHT + 2) {
+            return 0;
+        }
+        return levels[(localY * sizeZ + z + 1) * sizeX + x + 1];
+    }
+}
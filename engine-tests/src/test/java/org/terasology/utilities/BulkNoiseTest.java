@@ -0,0 +1,148 @@
+/*
+ * Copyright 2016 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.utilities;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.junit.runners.Parameterized.Parameters;
+import org.terasology.math.Region3i;
+import org.terasology.math.geom.Rect2i;
+import org.terasology.math.geom.Vector3i;
+import org.terasology.utilities.procedural.BrownianNoise;
+import org.terasology.utilities.procedural.Noise;
+import org.terasology.utilities.procedural.PerlinNoise;
+import org.terasology.utilities.procedural.SimplexNoise;
+import org.terasology.utilities.procedural.WhiteNoise;
+import org.terasology.utilities.random.FastRandom;
+import org.terasology.utilities.random.Random;
+
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * Compares the bulk evaluation of {@link Noise} implementations with the point by point evaluation.
+ */
+@RunWith(Parameterized.class)
+public class BulkNoiseTest {
+
+    private Noise noiseGen;
+    private Random rng;
+
+    public BulkNoiseTest(Noise noiseGen) {
+        this.noiseGen = noiseGen;
+        this.rng = new FastRandom(0xBEEF);
+    }
+
+    @Parameters(name = "{0}")
+    public static Collection<Noise[]> data() {
+        return Arrays.asList(new Noise[][]{
+                {new WhiteNoise(0xCAFE)},
+                {new SimplexNoise(0xCAFE)},
+                {new PerlinNoise(0xCAFE)},
+                {new BrownianNoise(new PerlinNoise(0xCAFE), 8)},
+                {new BrownianNoise(new SimplexNoise(0xCAFE), 3)}
+        });
+    }
+
+    @Test
+    public void testGrid2D() {
+        for (int run = 0; run < 20; run++) {
+            float[] xs = randomAxis(17, 0.0037f);
+            float[] ys = randomAxis(13, 0.21f);
+            float[] bulk = new float[xs.length * ys.length];
+            noiseGen.noise(bulk, xs, ys);
+
+            for (int j = 0; j < ys.length; j++) {
+                for (int i = 0; i < xs.length; i++) {
+                    Assert.assertEquals(noiseGen.noise(xs[i], ys[j]), bulk[i + j * xs.length], 0.0f);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testGrid3D() {
+        for (int run = 0; run < 20; run++) {
+            float[] xs = randomAxis(11, 0.0041f);
+            float[] ys = randomAxis(7, 0.33f);
+            float[] zs = randomAxis(5, 0.08f);
+            float[] bulk = new float[xs.length * ys.length * zs.length];
+            noiseGen.noise(bulk, xs, ys, zs);
+
+            for (int k = 0; k < zs.length; k++) {
+                for (int j = 0; j < ys.length; j++) {
+                    for (int i = 0; i < xs.length; i++) {
+                        Assert.assertEquals(noiseGen.noise(xs[i], ys[j], zs[k]), bulk[i + xs.length * (j + ys.length * k)], 0.0f);
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testStridedRect() {
+        Rect2i region = Rect2i.createFromMinAndSize(-37, 12, 33, 17);
+        int stride = 4;
+        float scale = 0.004f;
+        int sizeX = (region.sizeX() - 1) / stride + 1;
+        int sizeY = (region.sizeY() - 1) / stride + 1;
+        float[] bulk = new float[sizeX * sizeY];
+        noiseGen.noise(bulk, region, stride, scale, scale);
+
+        for (int y = 0; y < sizeY; y++) {
+            for (int x = 0; x < sizeX; x++) {
+                float expected = noiseGen.noise(scale * (region.minX() + x * stride), scale * (region.minY() + y * stride));
+                Assert.assertEquals(expected, bulk[x + y * sizeX], 0.0f);
+            }
+        }
+    }
+
+    @Test
+    public void testStridedRegion() {
+        Region3i region = Region3i.createFromMinAndSize(new Vector3i(5, -20, -64), new Vector3i(32, 16, 9));
+        int stride = 3;
+        float scale = 0.01f;
+        int sizeX = (region.sizeX() - 1) / stride + 1;
+        int sizeY = (region.sizeY() - 1) / stride + 1;
+        int sizeZ = (region.sizeZ() - 1) / stride + 1;
+        float[] bulk = new float[sizeX * sizeY * sizeZ];
+        noiseGen.noise(bulk, region, stride, scale, scale, scale);
+
+        for (int z = 0; z < sizeZ; z++) {
+            for (int y = 0; y < sizeY; y++) {
+                for (int x = 0; x < sizeX; x++) {
+                    float expected = noiseGen.noise(scale * (region.minX() + x * stride), scale * (region.minY() + y * stride),
+                            scale * (region.minZ() + z * stride));
+                    Assert.assertEquals(expected, bulk[x + sizeX * (y + sizeY * z)], 0.0f);
+                }
+            }
+        }
+    }
+
+    /**
+     * @return evenly spaced positions around a random origin, so that neighbouring samples often share a lattice cell
+     */
+    private float[] randomAxis(int count, float step) {
+        float origin = (rng.nextFloat() - 0.5f) * 1000f;
+        float[] positions = new float[count];
+        for (int i = 0; i < count; i++) {
+            positions[i] = origin + i * step;
+        }
+        return positions;
+    }
+}
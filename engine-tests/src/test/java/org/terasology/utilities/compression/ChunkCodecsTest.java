@@ -0,0 +1,173 @@
+/*
+ * Copyright 2016 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.utilities.compression;
+
+import org.junit.Test;
+import org.terasology.utilities.random.FastRandom;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ */
+public class ChunkCodecsTest {
+
+    private static byte[] createRandomData(int length) {
+        FastRandom random = new FastRandom(42L);
+        byte[] data = new byte[length];
+        for (int i = 0; i < length; i++) {
+            data[i] = (byte) random.nextInt(256);
+        }
+        return data;
+    }
+
+    /**
+     * Similar to encoded chunks: long runs of the same block with some noise in between.
+     */
+    private static byte[] createRepetitiveData(int length) {
+        FastRandom random = new FastRandom(7L);
+        byte[] data = new byte[length];
+        for (int i = 0; i < length; i++) {
+            data[i] = (byte) ((i / 1000) % 4);
+            if (random.nextInt(100) == 0) {
+                data[i] = (byte) random.nextInt(256);
+            }
+        }
+        return data;
+    }
+
+    private static void assertRoundTrip(byte[] data) throws IOException {
+        for (ChunkCodec codec : ChunkCodecs.getCodecs()) {
+            byte[] encoded = ChunkCodecs.encode(codec, data);
+            assertArrayEquals(codec.getName(), data, ChunkCodecs.decode(encoded));
+        }
+    }
+
+    @Test
+    public void testEmptyDataRoundTrip() throws IOException {
+        assertRoundTrip(new byte[0]);
+    }
+
+    @Test
+    public void testSmallDataRoundTrip() throws IOException {
+        assertRoundTrip(new byte[]{1, 2, 3, 4, 5});
+    }
+
+    @Test
+    public void testRandomDataRoundTrip() throws IOException {
+        assertRoundTrip(createRandomData(100000));
+    }
+
+    @Test
+    public void testRepetitiveDataRoundTrip() throws IOException {
+        assertRoundTrip(createRepetitiveData(200000));
+    }
+
+    @Test
+    public void testRepetitiveDataGetsCompressed() {
+        byte[] data = createRepetitiveData(200000);
+        for (ChunkCodec codec : ChunkCodecs.getCodecs()) {
+            assertTrue(codec.getName(), codec.compress(data).length < data.length / 4);
+        }
+    }
+
+    @Test
+    public void testDecodesLegacyGzipData() throws IOException {
+        byte[] data = createRepetitiveData(10000);
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzipOut = new GZIPOutputStream(baos)) {
+            gzipOut.write(data);
+        }
+        assertArrayEquals(data, ChunkCodecs.decode(baos.toByteArray()));
+    }
+
+    @Test
+    public void testGzipEncodingStaysCompatible() throws IOException {
+        byte[] encoded = ChunkCodecs.encode(ChunkCodecs.GZIP, createRepetitiveData(1000));
+        assertTrue(encoded[0] == (byte) 0x1f && encoded[1] == (byte) 0x8b);
+    }
+
+    @Test
+    public void testGetByName() {
+        for (ChunkCodec codec : ChunkCodecs.getCodecs()) {
+            assertTrue(ChunkCodecs.getByName(codec.getName()) == codec);
+        }
+        assertTrue(ChunkCodecs.getByName("unknown") == ChunkCodecs.GZIP);
+        assertTrue(ChunkCodecs.getByName(null) == ChunkCodecs.GZIP);
+    }
+
+    @Test(expected = IOException.class)
+    public void testUnknownCodecIdFails() throws IOException {
+        byte[] encoded = ChunkCodecs.encode(ChunkCodecs.LZ4, createRepetitiveData(1000));
+        encoded[2] = (byte) 200;
+        ChunkCodecs.decode(encoded);
+    }
+
+    @Test
+    public void testCorruptDataFailsWithIOException() {
+        byte[] data = createRepetitiveData(10000);
+        for (ChunkCodec codec : ChunkCodecs.getCodecs()) {
+            byte[] encoded = ChunkCodecs.encode(codec, data);
+            byte[] truncated = Arrays.copyOf(encoded, encoded.length / 2);
+            try {
+                ChunkCodecs.decode(truncated);
+                fail(codec.getName() + " accepted truncated data");
+            } catch (IOException e) {
+                // expected
+            }
+        }
+    }
+
+    @Test
+    public void testImplausibleLengthFailsWithIOException() {
+        byte[] data = createRepetitiveData(10000);
+        for (ChunkCodec codec : ChunkCodecs.getCodecs()) {
+            if (codec == ChunkCodecs.GZIP) {
+                continue;
+            }
+            byte[] encoded = ChunkCodecs.encode(codec, data);
+            // the uncompressed length follows the magic bytes and the codec id
+            encoded[3] = (byte) 0x7F;
+            encoded[4] = (byte) 0xFF;
+            encoded[5] = (byte) 0xFF;
+            encoded[6] = (byte) 0xFF;
+            try {
+                ChunkCodecs.decode(encoded);
+                fail(codec.getName() + " accepted an uncompressed length of " + Integer.MAX_VALUE);
+            } catch (IOException e) {
+                // expected
+            }
+        }
+    }
+
+    @Test
+    public void testLz4RejectsWrongLength() {
+        byte[] data = createRepetitiveData(10000);
+        byte[] compressed = ChunkCodecs.LZ4.compress(data);
+        try {
+            ChunkCodecs.LZ4.decompress(compressed, 0, compressed.length, data.length - 1);
+            fail("Decompressed into too small buffer");
+        } catch (IOException e) {
+            // expected
+        }
+    }
+}
@@ -0,0 +1,85 @@
+/*
+ * Copyright 2016 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.utilities.concurrency;
+
+import com.google.common.collect.Lists;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+/**
+ */
+public class ReprioritizableBlockingQueueTest {
+
+    private int origin;
+
+    private int distance(int value) {
+        return Math.abs(value - origin);
+    }
+
+    @Test
+    public void testPollsInComparatorOrder() {
+        ReprioritizableBlockingQueue<Integer> queue = new ReprioritizableBlockingQueue<>((a, b) -> distance(a) - distance(b));
+        for (int value : new int[]{7, 3, 9, 1, 5, 0, 8, 2, 6, 4}) {
+            queue.offer(value);
+        }
+        for (int i = 0; i < 10; ++i) {
+            assertEquals((Integer) i, queue.poll());
+        }
+        assertNull(queue.poll());
+    }
+
+    @Test
+    public void testOrderOnlyChangesAfterReprioritize() {
+        ReprioritizableBlockingQueue<Integer> queue = new ReprioritizableBlockingQueue<>((a, b) -> distance(a) - distance(b));
+        for (int i = 0; i < 10; ++i) {
+            queue.offer(i);
+        }
+        assertEquals((Integer) 0, queue.poll());
+
+        origin = 9;
+        queue.reprioritize();
+        assertEquals((Integer) 9, queue.poll());
+        assertEquals((Integer) 8, queue.poll());
+
+        queue.offer(10);
+        assertEquals((Integer) 10, queue.poll());
+        assertEquals(7, queue.size());
+    }
+
+    @Test
+    public void testDrainToEmptiesQueue() {
+        ReprioritizableBlockingQueue<Integer> queue = new ReprioritizableBlockingQueue<>((a, b) -> distance(a) - distance(b));
+        for (int i = 5; i >= 0; --i) {
+            queue.offer(i);
+        }
+        List<Integer> drained = Lists.newArrayList();
+        assertEquals(2, queue.drainTo(drained, 2));
+        assertEquals(Lists.newArrayList(0, 1), drained);
+        assertEquals(4, queue.drainTo(drained));
+        assertEquals(0, queue.size());
+    }
+
+    @Test
+    public void testTimedPollOnEmptyQueue() throws InterruptedException {
+        ReprioritizableBlockingQueue<Integer> queue = new ReprioritizableBlockingQueue<>((a, b) -> distance(a) - distance(b));
+        assertNull(queue.poll(1, TimeUnit.MILLISECONDS));
+    }
+}
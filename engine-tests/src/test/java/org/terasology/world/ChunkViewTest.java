@@ -42,6 +42,7 @@
 import org.terasology.world.internal.ChunkViewCoreImpl;
 
 import java.io.IOException;
+import java.util.Random;
 
 import static org.junit.Assert.assertEquals;
 
@@ -151,6 +152,45 @@ public void testLocalToWorld() {
         assertEquals(new Vector3i(ChunkConstants.SIZE_X, ChunkConstants.SIZE_Y, ChunkConstants.SIZE_Z), chunkView.toWorldPos(Vector3i.zero()));
     }
 
+    @Test
+    public void testCopyLightMatchesSingleBlocks() {
+        Chunk[] chunks = new Chunk[9];
+        Random random = new Random(3);
+        for (int i = 0; i < chunks.length; i++) {
+            chunks[i] = createChunk(i % 3 - 1, 0, i / 3 - 1);
+            for (int j = 0; j < 512; j++) {
+                int x = random.nextInt(ChunkConstants.SIZE_X);
+                int y = random.nextInt(4);
+                int z = random.nextInt(ChunkConstants.SIZE_Z);
+                chunks[i].setSunlight(x, y, z, (byte) random.nextInt(ChunkConstants.MAX_SUNLIGHT + 1));
+                chunks[i].setLight(x, y, z, (byte) random.nextInt(ChunkConstants.MAX_LIGHT + 1));
+            }
+        }
+        ChunkViewCore chunkView = new ChunkViewCoreImpl(chunks,
+                Region3i.createFromCenterExtents(new Vector3i(0, 0, 0), new Vector3i(1, 0, 1)), new Vector3i(1, 0, 1), airBlock);
+
+        // a box across the borders of the chunks, which starts below the view
+        int minX = -2;
+        int minY = -1;
+        int minZ = -3;
+        int countX = ChunkConstants.SIZE_X + 4;
+        int countY = 5;
+        int countZ = ChunkConstants.SIZE_Z + 6;
+        byte[] sunlight = new byte[countX * countY * countZ];
+        byte[] light = new byte[sunlight.length];
+        chunkView.copyLight(minX, minY, minZ, countX, countY, countZ, sunlight, light);
+
+        int index = 0;
+        for (int y = minY; y < minY + countY; y++) {
+            for (int z = minZ; z < minZ + countZ; z++) {
+                for (int x = minX; x < minX + countX; x++, index++) {
+                    assertEquals(chunkView.getSunlight(x, y, z), sunlight[index]);
+                    assertEquals(chunkView.getLight(x, y, z), light[index]);
+                }
+            }
+        }
+    }
+
     private Chunk createChunk(int x, int y, int z) {
         return new ChunkImpl(new Vector3i(x, y, z), blockManager, biomeManager);
     }
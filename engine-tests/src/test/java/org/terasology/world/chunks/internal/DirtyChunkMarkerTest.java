@@ -0,0 +1,121 @@
+/*
+ * Copyright 2016 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.world.chunks.internal;
+
+import com.google.common.collect.Maps;
+import org.junit.Before;
+import org.junit.Test;
+import org.terasology.math.geom.Vector3i;
+import org.terasology.world.chunks.Chunk;
+import org.terasology.world.chunks.ChunkConstants;
+import org.terasology.world.chunks.ChunkProvider;
+
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ */
+public class DirtyChunkMarkerTest {
+
+    private final Map<Vector3i, Chunk> chunks = Maps.newHashMap();
+    private ChunkProvider chunkProvider;
+
+    @Before
+    public void setup() {
+        chunkProvider = mock(ChunkProvider.class);
+        for (int x = -1; x <= 1; x++) {
+            for (int y = -1; y <= 1; y++) {
+                for (int z = -1; z <= 1; z++) {
+                    chunks.put(new Vector3i(x, y, z), mock(Chunk.class));
+                }
+            }
+        }
+        when(chunkProvider.getChunk(anyInt(), anyInt(), anyInt())).thenAnswer(invocation -> {
+            Object[] args = invocation.getArguments();
+            return chunks.get(new Vector3i((Integer) args[0], (Integer) args[1], (Integer) args[2]));
+        });
+    }
+
+    @Test
+    public void testBlockInsideChunkOnlyDirtiesOwnChunk() {
+        int dirtied = DirtyChunkMarker.markDirtyAround(chunkProvider, new Vector3i(5, 7, 9));
+
+        assertEquals(1, dirtied);
+        verify(chunks.get(new Vector3i(0, 0, 0))).setDirty(true);
+        verify(chunks.get(new Vector3i(1, 0, 0)), never()).setDirty(true);
+        verify(chunks.get(new Vector3i(-1, 0, 0)), never()).setDirty(true);
+    }
+
+    @Test
+    public void testBlockOnFaceDirtiesFaceNeighbour() {
+        Set<Chunk> collected = new HashSet<>();
+        DirtyChunkMarker.collectChunksAround(chunkProvider, new Vector3i(ChunkConstants.SIZE_X - 1, 7, 9), collected);
+
+        assertEquals(2, collected.size());
+        assertTrue(collected.contains(chunks.get(new Vector3i(0, 0, 0))));
+        assertTrue(collected.contains(chunks.get(new Vector3i(1, 0, 0))));
+    }
+
+    @Test
+    public void testBlockOnEdgeDirtiesEdgeNeighbours() {
+        Set<Chunk> collected = new HashSet<>();
+        DirtyChunkMarker.collectChunksAround(chunkProvider, new Vector3i(0, 7, ChunkConstants.SIZE_Z - 1), collected);
+
+        assertEquals(4, collected.size());
+        assertTrue(collected.contains(chunks.get(new Vector3i(-1, 0, 0))));
+        assertTrue(collected.contains(chunks.get(new Vector3i(0, 0, 1))));
+        assertTrue(collected.contains(chunks.get(new Vector3i(-1, 0, 1))));
+    }
+
+    @Test
+    public void testBlockInCornerDirtiesCornerNeighbours() {
+        Set<Chunk> collected = new HashSet<>();
+        DirtyChunkMarker.collectChunksAround(chunkProvider, new Vector3i(-1, -1, -1), collected);
+
+        assertEquals(8, collected.size());
+        assertTrue(collected.contains(chunks.get(new Vector3i(-1, -1, -1))));
+        assertTrue(collected.contains(chunks.get(new Vector3i(0, 0, 0))));
+    }
+
+    @Test
+    public void testOnlyCleanChunksAreCounted() {
+        Chunk dirtyChunk = chunks.get(new Vector3i(1, 0, 0));
+        when(dirtyChunk.isDirty()).thenReturn(true);
+
+        int dirtied = DirtyChunkMarker.markDirtyAround(chunkProvider, new Vector3i(ChunkConstants.SIZE_X - 1, 7, 9));
+
+        assertEquals(1, dirtied);
+        verify(dirtyChunk).setDirty(true);
+    }
+
+    @Test
+    public void testUnloadedChunksAreSkipped() {
+        chunks.remove(new Vector3i(1, 0, 0));
+
+        int dirtied = DirtyChunkMarker.markDirtyAround(chunkProvider, new Vector3i(ChunkConstants.SIZE_X - 1, 7, 9));
+
+        assertEquals(1, dirtied);
+    }
+}
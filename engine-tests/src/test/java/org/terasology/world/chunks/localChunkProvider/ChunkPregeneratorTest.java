@@ -0,0 +1,125 @@
+/*
+ * Copyright 2016 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.world.chunks.localChunkProvider;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentMatcher;
+import org.terasology.TerasologyTestingEnvironment;
+import org.terasology.math.Region3i;
+import org.terasology.math.geom.Vector3i;
+import org.terasology.persistence.ChunkStore;
+import org.terasology.persistence.StorageManager;
+import org.terasology.world.biomes.BiomeManager;
+import org.terasology.world.block.BlockManager;
+import org.terasology.world.chunks.Chunk;
+import org.terasology.world.generator.WorldGenerator;
+
+import java.util.Collection;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.argThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ */
+public class ChunkPregeneratorTest extends TerasologyTestingEnvironment {
+
+    private static final long TIMEOUT_MS = 60000;
+
+    private WorldGenerator generator;
+    private StorageManager storageManager;
+    private LocalChunkProvider liveChunkProvider;
+
+    @Before
+    @Override
+    public void setup() throws Exception {
+        super.setup();
+        generator = mock(WorldGenerator.class);
+        storageManager = mock(StorageManager.class);
+        when(storageManager.storeGeneratedChunk(any(Chunk.class), any(Collection.class))).thenReturn(true);
+        liveChunkProvider = mock(LocalChunkProvider.class);
+    }
+
+    @Test(timeout = TIMEOUT_MS)
+    public void testStoresAllChunksOfRegion() throws InterruptedException {
+        Region3i region = Region3i.createFromMinAndSize(new Vector3i(0, 0, 0), new Vector3i(2, 2, 2));
+
+        ChunkPregenerator pregenerator = pregenerate(region);
+
+        verify(storageManager, times(region.size().x * region.size().y * region.size().z))
+                .storeGeneratedChunk(any(Chunk.class), any(Collection.class));
+        assertFalse(pregenerator.getStatus(), pregenerator.getStatus().contains("failed"));
+    }
+
+    @Test(timeout = TIMEOUT_MS)
+    public void testLeavesChunksOfTheGameToIt() throws InterruptedException {
+        Region3i region = Region3i.createFromMinAndSize(new Vector3i(0, 0, 0), new Vector3i(2, 2, 2));
+        Vector3i livePos = new Vector3i(1, 1, 1);
+        when(liveChunkProvider.isChunkLoadedOrLoading(livePos)).thenReturn(true);
+
+        pregenerate(region);
+
+        verify(storageManager, times(region.size().x * region.size().y * region.size().z - 1))
+                .storeGeneratedChunk(any(Chunk.class), any(Collection.class));
+        verify(storageManager, never()).storeGeneratedChunk(argThat(new ChunkAt(livePos)), any(Collection.class));
+    }
+
+    @Test(timeout = TIMEOUT_MS)
+    public void testSkipsStoredChunks() throws InterruptedException {
+        Region3i region = Region3i.createFromMinAndSize(new Vector3i(0, 0, 0), new Vector3i(2, 2, 2));
+        Vector3i storedPos = new Vector3i(0, 1, 0);
+        when(storageManager.loadChunkStore(storedPos)).thenReturn(mock(ChunkStore.class));
+
+        ChunkPregenerator pregenerator = pregenerate(region);
+
+        verify(storageManager, times(region.size().x * region.size().y * region.size().z - 1))
+                .storeGeneratedChunk(any(Chunk.class), any(Collection.class));
+        verify(storageManager, never()).storeGeneratedChunk(argThat(new ChunkAt(storedPos)), any(Collection.class));
+        assertTrue(pregenerator.getStatus(), pregenerator.getStatus().contains("1 were already stored"));
+    }
+
+    private ChunkPregenerator pregenerate(Region3i region) throws InterruptedException {
+        ChunkPregenerator pregenerator = new ChunkPregenerator(region, generator, context.get(BlockManager.class),
+                mock(BiomeManager.class), storageManager, liveChunkProvider);
+        pregenerator.start();
+        while (!pregenerator.isFinished()) {
+            pregenerator.update();
+            Thread.sleep(1);
+        }
+        pregenerator.update();
+        return pregenerator;
+    }
+
+    private static final class ChunkAt extends ArgumentMatcher<Chunk> {
+        private final Vector3i pos;
+
+        ChunkAt(Vector3i pos) {
+            this.pos = pos;
+        }
+
+        @Override
+        public boolean matches(Object argument) {
+            return argument instanceof Chunk && ((Chunk) argument).getPosition().equals(pos);
+        }
+    }
+}
@@ -0,0 +1,128 @@
+/*
+ * Copyright 2016 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.world.chunks.localChunkProvider;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.terasology.TerasologyTestingEnvironment;
+import org.terasology.assets.ResourceUrn;
+import org.terasology.assets.management.AssetManager;
+import org.terasology.entitySystem.entity.EntityManager;
+import org.terasology.entitySystem.entity.EntityRef;
+import org.terasology.logic.location.LocationComponent;
+import org.terasology.math.Region3i;
+import org.terasology.math.geom.Vector3f;
+import org.terasology.math.geom.Vector3i;
+import org.terasology.persistence.StorageManager;
+import org.terasology.world.biomes.BiomeManager;
+import org.terasology.world.block.Block;
+import org.terasology.world.block.BlockUri;
+import org.terasology.world.block.family.SymmetricBlockFamilyFactory;
+import org.terasology.world.block.internal.BlockManagerImpl;
+import org.terasology.world.block.loader.BlockFamilyDefinition;
+import org.terasology.world.block.loader.BlockFamilyDefinitionData;
+import org.terasology.world.block.shapes.BlockShape;
+import org.terasology.world.block.tiles.NullWorldAtlas;
+import org.terasology.world.chunks.Chunk;
+import org.terasology.world.chunks.ChunkConstants;
+import org.terasology.world.chunks.CoreChunk;
+import org.terasology.world.generation.EntityBuffer;
+import org.terasology.world.generator.WorldGenerator;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ */
+public class LocalChunkProviderTest extends TerasologyTestingEnvironment {
+
+    private static final long TIMEOUT_MS = 60000;
+    private static final int TORCH_Y = 10;
+    private static final int TORCH_Z = 10;
+
+    private LocalChunkProvider chunkProvider;
+
+    @Before
+    @Override
+    public void setup() throws Exception {
+        super.setup();
+        AssetManager assetManager = context.get(AssetManager.class);
+        BlockManagerImpl blockManager = new BlockManagerImpl(new NullWorldAtlas(), assetManager, true);
+        BlockFamilyDefinitionData torchData = new BlockFamilyDefinitionData();
+        torchData.getBaseSection().setDisplayName("Torch");
+        torchData.getBaseSection().setShape(assetManager.getAsset("engine:cube", BlockShape.class).get());
+        torchData.getBaseSection().setLuminance(ChunkConstants.MAX_LIGHT);
+        torchData.getBaseSection().setTranslucent(true);
+        torchData.setFamilyFactory(new SymmetricBlockFamilyFactory());
+        assetManager.loadAsset(new ResourceUrn("engine:torch"), torchData, BlockFamilyDefinition.class);
+        Block torch = blockManager.getBlock(new BlockUri(new ResourceUrn("engine:torch")));
+
+        // every chunk has a torch next to its border with the chunk in positive x direction
+        WorldGenerator generator = mock(WorldGenerator.class);
+        doAnswer(invocation -> {
+            CoreChunk chunk = (CoreChunk) invocation.getArguments()[0];
+            chunk.setBlock(ChunkConstants.SIZE_X - 1, TORCH_Y, TORCH_Z, torch);
+            return null;
+        }).when(generator).createChunk(any(CoreChunk.class), any(EntityBuffer.class));
+
+        chunkProvider = new LocalChunkProvider(mock(StorageManager.class), context.get(EntityManager.class), generator,
+                blockManager, mock(BiomeManager.class));
+    }
+
+    @After
+    public void shutdown() {
+        chunkProvider.shutdown();
+    }
+
+    @Test(timeout = TIMEOUT_MS)
+    public void testLightCrossesBordersOfChunksIntegratedInLaterFrames() throws InterruptedException {
+        // no budget, so only one chunk gets integrated per frame and chunks with merged lighting are left over
+        chunkProvider.setIntegrationBudget(0);
+        EntityRef player = mock(EntityRef.class);
+        when(player.exists()).thenReturn(true);
+        when(player.getComponent(LocationComponent.class)).thenReturn(new LocationComponent(new Vector3f()));
+        // loads the chunks within two chunks of the origin, the lighting of the chunks within one chunk gets merged
+        chunkProvider.addRelevanceEntity(player, new Vector3i(5, 5, 5));
+        Region3i mergedRegion = Region3i.createFromCenterExtents(Vector3i.zero(), Vector3i.one());
+
+        while (!allReady(mergedRegion)) {
+            chunkProvider.beginUpdate();
+            chunkProvider.completeUpdate();
+            Thread.sleep(1);
+        }
+
+        for (Vector3i pos : mergedRegion) {
+            Chunk chunk = chunkProvider.getChunk(pos);
+            if (mergedRegion.encompasses(pos.x - 1, pos.y, pos.z)) {
+                assertEquals("Light of torch in chunk left of " + pos, ChunkConstants.MAX_LIGHT - 1,
+                        chunk.getLight(0, TORCH_Y, TORCH_Z));
+            }
+        }
+    }
+
+    private boolean allReady(Region3i region) {
+        for (Vector3i pos : region) {
+            if (!chunkProvider.isChunkReady(pos)) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,151 @@
+/*
+ * Copyright 2016 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.world.generation;
+
+import org.junit.Test;
+import org.terasology.context.Context;
+import org.terasology.context.internal.ContextImpl;
+import org.terasology.math.Region3i;
+import org.terasology.math.geom.Vector3i;
+import org.terasology.world.generation.facets.base.BaseFacet2D;
+import org.terasology.world.generation.facets.base.BaseFacet3D;
+import org.terasology.world.generator.plugin.WorldGeneratorPluginLibrary;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+public class ColumnFacetCacheTest {
+
+    private Context context = new ContextImpl();
+
+    private final Region3i lower = Region3i.createFromMinAndSize(new Vector3i(0, 0, 0), new Vector3i(4, 4, 4));
+    private final Region3i upper = Region3i.createFromMinAndSize(new Vector3i(0, 4, 0), new Vector3i(4, 4, 4));
+    private final Region3i neighbour = Region3i.createFromMinAndSize(new Vector3i(4, 0, 0), new Vector3i(4, 4, 4));
+
+    @Test
+    public void testStackedRegionsShareColumnInvariantFacet() {
+        World world = buildWorld(ColumnFacetCache.DEFAULT_SIZE, new HeightProvider(), new HeightUpdater());
+
+        HeightFacet lowerFacet = world.getWorldData(lower).getFacet(HeightFacet.class);
+        HeightFacet upperFacet = world.getWorldData(upper).getFacet(HeightFacet.class);
+        HeightFacet neighbourFacet = world.getWorldData(neighbour).getFacet(HeightFacet.class);
+
+        assertSame(lowerFacet, upperFacet);
+        assertNotSame(lowerFacet, neighbourFacet);
+        // the updater must not be applied again to the shared facet
+        assertEquals(1, upperFacet.updates);
+    }
+
+    @Test
+    public void testCachedFacetIsVisibleToDependentProviders() {
+        World world = buildWorld(ColumnFacetCache.DEFAULT_SIZE, new HeightProvider(), new HeightUpdater(), new DensityProvider());
+
+        HeightFacet lowerFacet = world.getWorldData(lower).getFacet(HeightFacet.class);
+        Region upperRegion = world.getWorldData(upper);
+        upperRegion.getFacet(HeightFacet.class);
+        DensityFacet density = upperRegion.getFacet(DensityFacet.class);
+
+        assertSame(lowerFacet, density.height);
+        assertEquals(1, lowerFacet.updates);
+    }
+
+    @Test
+    public void testFacetWithVariantUpdaterIsNotShared() {
+        World world = buildWorld(ColumnFacetCache.DEFAULT_SIZE, new HeightProvider(), new VariantHeightUpdater());
+
+        HeightFacet lowerFacet = world.getWorldData(lower).getFacet(HeightFacet.class);
+        HeightFacet upperFacet = world.getWorldData(upper).getFacet(HeightFacet.class);
+
+        assertNotSame(lowerFacet, upperFacet);
+    }
+
+    @Test
+    public void testDisabledCache() {
+        World world = buildWorld(0, new HeightProvider(), new HeightUpdater());
+
+        HeightFacet lowerFacet = world.getWorldData(lower).getFacet(HeightFacet.class);
+        HeightFacet upperFacet = world.getWorldData(upper).getFacet(HeightFacet.class);
+
+        assertNotSame(lowerFacet, upperFacet);
+        assertEquals(1, upperFacet.updates);
+    }
+
+    private World buildWorld(int cacheSize, FacetProvider... providers) {
+        WorldBuilder worldBuilder = new WorldBuilder(context.get(WorldGeneratorPluginLibrary.class));
+        worldBuilder.setSeed(12);
+        worldBuilder.setColumnFacetCacheSize(cacheSize);
+        for (FacetProvider provider : providers) {
+            worldBuilder.addProvider(provider);
+        }
+        return worldBuilder.build();
+    }
+
+    public static class HeightFacet extends BaseFacet2D {
+        public int updates;
+
+        public HeightFacet(Region3i targetRegion, Border3D border) {
+            super(targetRegion, border);
+        }
+    }
+
+    public static class DensityFacet extends BaseFacet3D {
+        public HeightFacet height;
+
+        public DensityFacet(Region3i targetRegion, Border3D border) {
+            super(targetRegion, border);
+        }
+    }
+
+    @Produces(value = HeightFacet.class, columnInvariant = true)
+    public static class HeightProvider implements FacetProvider {
+
+        @Override
+        public void process(GeneratingRegion region) {
+            region.setRegionFacet(HeightFacet.class, new HeightFacet(region.getRegion(), region.getBorderForFacet(HeightFacet.class)));
+        }
+    }
+
+    @Updates(value = @Facet(HeightFacet.class), columnInvariant = true)
+    public static class HeightUpdater implements FacetProvider {
+
+        @Override
+        public void process(GeneratingRegion region) {
+            region.getRegionFacet(HeightFacet.class).updates++;
+        }
+    }
+
+    @Updates(@Facet(HeightFacet.class))
+    public static class VariantHeightUpdater implements FacetProvider {
+
+        @Override
+        public void process(GeneratingRegion region) {
+            region.getRegionFacet(HeightFacet.class).updates++;
+        }
+    }
+
+    @Produces(DensityFacet.class)
+    @Requires(@Facet(HeightFacet.class))
+    public static class DensityProvider implements FacetProvider {
+
+        @Override
+        public void process(GeneratingRegion region) {
+            DensityFacet facet = new DensityFacet(region.getRegion(), region.getBorderForFacet(DensityFacet.class));
+            facet.height = region.getRegionFacet(HeightFacet.class);
+            region.setRegionFacet(DensityFacet.class, facet);
+        }
+    }
+}
@@ -0,0 +1,202 @@
+/*
+ * Copyright 2016 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.world.generation;
+
+import org.junit.After;
+import org.junit.Test;
+import org.terasology.math.Region3i;
+import org.terasology.math.geom.Vector3i;
+import org.terasology.world.generation.facets.base.BaseFacet3D;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class FacetProviderGraphTest {
+
+    private final ForkJoinPool pool = new ForkJoinPool(2);
+    private final Region3i regionToGenerate = Region3i.createFromCenterExtents(new Vector3i(), 1);
+
+    @After
+    public void shutdown() {
+        pool.shutdownNow();
+    }
+
+    @Test
+    public void testIndependentProvidersRunConcurrently() {
+        CountDownLatch bothStarted = new CountDownLatch(2);
+        World world = buildWorld(new AwaitingProviderA(bothStarted), new AwaitingProviderB(bothStarted), new CombiningProvider());
+
+        FacetC facetC = world.getWorldData(regionToGenerate).getFacet(FacetC.class);
+
+        assertTrue(facetC.fromA);
+        assertTrue(facetC.fromB);
+    }
+
+    @Test
+    public void testUpdatersOfSameFacetRunInOrder() {
+        World world = buildWorld(new ProviderA(), new ProviderB(), new CombiningProvider(), new UpdaterA(), new UpdaterA2());
+
+        for (int i = 0; i < 100; i++) {
+            Region region = world.getWorldData(regionToGenerate);
+            FacetC facetC = region.getFacet(FacetC.class);
+            assertTrue(facetC.fromA);
+            assertTrue(facetC.fromB);
+            // both updates must have been applied before the facet was read
+            assertEquals(2, facetC.updatesOfA);
+        }
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testUndeclaredFacetIsRejected() {
+        World world = buildWorld(new ProviderA(), new UndeclaredProvider());
+
+        world.getWorldData(regionToGenerate).getFacet(FacetB.class);
+    }
+
+    private World buildWorld(FacetProvider... providers) {
+        WorldBuilder worldBuilder = new WorldBuilder(null);
+        worldBuilder.setSeed(12);
+        worldBuilder.setFacetProviderPool(pool);
+        for (FacetProvider provider : providers) {
+            worldBuilder.addProvider(provider);
+        }
+        return worldBuilder.build();
+    }
+
+    public static class FacetA extends BaseFacet3D {
+        public int updates;
+
+        public FacetA(Region3i targetRegion, Border3D border) {
+            super(targetRegion, border);
+        }
+    }
+
+    public static class FacetB extends BaseFacet3D {
+        public FacetB(Region3i targetRegion, Border3D border) {
+            super(targetRegion, border);
+        }
+    }
+
+    public static class FacetC extends BaseFacet3D {
+        public boolean fromA;
+        public boolean fromB;
+        public int updatesOfA;
+
+        public FacetC(Region3i targetRegion, Border3D border) {
+            super(targetRegion, border);
+        }
+    }
+
+    @Produces(FacetA.class)
+    public static class ProviderA implements FacetProvider {
+
+        @Override
+        public void process(GeneratingRegion region) {
+            region.setRegionFacet(FacetA.class, new FacetA(region.getRegion(), region.getBorderForFacet(FacetA.class)));
+        }
+    }
+
+    @Produces(FacetB.class)
+    public static class ProviderB implements FacetProvider {
+
+        @Override
+        public void process(GeneratingRegion region) {
+            region.setRegionFacet(FacetB.class, new FacetB(region.getRegion(), region.getBorderForFacet(FacetB.class)));
+        }
+    }
+
+    @Produces(FacetA.class)
+    public static class AwaitingProviderA extends ProviderA {
+        private final CountDownLatch bothStarted;
+
+        public AwaitingProviderA(CountDownLatch bothStarted) {
+            this.bothStarted = bothStarted;
+        }
+
+        @Override
+        public void process(GeneratingRegion region) {
+            awaitOther(bothStarted);
+            super.process(region);
+        }
+    }
+
+    @Produces(FacetB.class)
+    public static class AwaitingProviderB extends ProviderB {
+        private final CountDownLatch bothStarted;
+
+        public AwaitingProviderB(CountDownLatch bothStarted) {
+            this.bothStarted = bothStarted;
+        }
+
+        @Override
+        public void process(GeneratingRegion region) {
+            awaitOther(bothStarted);
+            super.process(region);
+        }
+    }
+
+    @Updates(@Facet(FacetA.class))
+    public static class UpdaterA implements FacetProvider {
+
+        @Override
+        public void process(GeneratingRegion region) {
+            region.getRegionFacet(FacetA.class).updates++;
+        }
+    }
+
+    @Updates(@Facet(FacetA.class))
+    public static class UpdaterA2 extends UpdaterA {
+    }
+
+    @Produces(FacetC.class)
+    @Requires({@Facet(FacetA.class), @Facet(FacetB.class)})
+    public static class CombiningProvider implements FacetProvider {
+
+        @Override
+        public void process(GeneratingRegion region) {
+            FacetC facet = new FacetC(region.getRegion(), region.getBorderForFacet(FacetC.class));
+            FacetA facetA = region.getRegionFacet(FacetA.class);
+            facet.fromA = facetA != null;
+            facet.updatesOfA = facetA != null ? facetA.updates : 0;
+            facet.fromB = region.getRegionFacet(FacetB.class) != null;
+            region.setRegionFacet(FacetC.class, facet);
+        }
+    }
+
+    @Produces(FacetB.class)
+    public static class UndeclaredProvider implements FacetProvider {
+
+        @Override
+        public void process(GeneratingRegion region) {
+            region.setRegionFacet(FacetB.class, new FacetB(region.getRegion(), region.getBorderForFacet(FacetB.class)));
+            region.setRegionFacet(FacetA.class, new FacetA(region.getRegion(), region.getBorderForFacet(FacetA.class)));
+        }
+    }
+
+    private static void awaitOther(CountDownLatch bothStarted) {
+        bothStarted.countDown();
+        try {
+            assertTrue("providers did not run concurrently", bothStarted.await(10, TimeUnit.SECONDS));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new AssertionError(e);
+        }
+    }
+}
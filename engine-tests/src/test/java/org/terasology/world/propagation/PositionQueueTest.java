@@ -0,0 +1,94 @@
+/*
+ * Copyright 2016 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.world.propagation;
+
+import com.google.common.collect.Lists;
+import org.junit.Test;
+import org.terasology.math.geom.Vector3i;
+
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ */
+public class PositionQueueTest {
+
+    @Test
+    public void testPositionsSurvivePacking() {
+        PositionQueue queue = new PositionQueue();
+        List<Vector3i> positions = Lists.newArrayList(new Vector3i(0, 0, 0), new Vector3i(-1, -1, -1),
+                new Vector3i(2097151, 524287, 2097151), new Vector3i(-2097152, -524288, -2097152), new Vector3i(-37, 129, 4000));
+        for (Vector3i pos : positions) {
+            assertTrue(queue.add(pos));
+        }
+
+        assertEquals(positions, contents(queue));
+    }
+
+    @Test
+    public void testDuplicatesKeepTheirPlace() {
+        PositionQueue queue = new PositionQueue();
+        queue.add(new Vector3i(1, 0, 0));
+        queue.add(new Vector3i(2, 0, 0));
+        assertFalse(queue.add(new Vector3i(1, 0, 0)));
+
+        assertEquals(2, queue.size());
+        assertEquals(Lists.newArrayList(new Vector3i(1, 0, 0), new Vector3i(2, 0, 0)), contents(queue));
+    }
+
+    @Test
+    public void testRemovedPositionIsQueuedAtTheEndWhenAddedAgain() {
+        PositionQueue queue = new PositionQueue();
+        queue.add(new Vector3i(1, 0, 0));
+        queue.add(new Vector3i(2, 0, 0));
+        assertTrue(queue.remove(new Vector3i(1, 0, 0)));
+        assertFalse(queue.remove(new Vector3i(1, 0, 0)));
+        assertEquals(1, queue.size());
+
+        queue.add(new Vector3i(1, 0, 0));
+
+        assertEquals(Lists.newArrayList(new Vector3i(2, 0, 0), new Vector3i(1, 0, 0)), contents(queue));
+    }
+
+    @Test
+    public void testClearedQueueIsReusable() {
+        PositionQueue queue = new PositionQueue();
+        for (int i = 0; i < 1000; i++) {
+            queue.add(new Vector3i(i, i, i));
+        }
+        queue.remove(new Vector3i(3, 3, 3));
+        queue.clear();
+
+        assertTrue(queue.isEmpty());
+        assertEquals(0, queue.end());
+        assertTrue(queue.add(new Vector3i(3, 3, 3)));
+        assertEquals(Lists.newArrayList(new Vector3i(3, 3, 3)), contents(queue));
+    }
+
+    private static List<Vector3i> contents(PositionQueue queue) {
+        List<Vector3i> result = Lists.newArrayList();
+        for (int i = 0; i < queue.end(); i++) {
+            Vector3i pos = new Vector3i();
+            if (queue.get(i, pos)) {
+                result.add(pos);
+            }
+        }
+        return result;
+    }
+}
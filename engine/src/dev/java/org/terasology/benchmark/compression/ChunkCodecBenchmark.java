@@ -0,0 +1,66 @@
+/*
+ * Copyright 2016 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.benchmark.compression;
+
+import org.terasology.benchmark.AbstractBenchmark;
+import org.terasology.utilities.compression.ChunkCodec;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Compresses or decompresses a set of encoded chunks with one {@link ChunkCodec} per run.
+ */
+public class ChunkCodecBenchmark extends AbstractBenchmark {
+
+    private final ChunkCodec codec;
+    private final List<byte[]> chunks;
+    private final boolean decompress;
+
+    private byte[][] compressed;
+
+    public ChunkCodecBenchmark(ChunkCodec codec, List<byte[]> chunks, boolean decompress) {
+        super(codec.getName() + (decompress ? " decompress " : " compress ") + chunks.size() + " chunks", 5, new int[]{20});
+        this.codec = codec;
+        this.chunks = chunks;
+        this.decompress = decompress;
+    }
+
+    @Override
+    public void setup() {
+        compressed = new byte[chunks.size()][];
+        for (int i = 0; i < compressed.length; i++) {
+            compressed[i] = codec.compress(chunks.get(i));
+        }
+    }
+
+    @Override
+    public void run() {
+        if (decompress) {
+            try {
+                for (int i = 0; i < compressed.length; i++) {
+                    codec.decompress(compressed[i], 0, compressed[i].length, chunks.get(i).length);
+                }
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            }
+        } else {
+            for (byte[] chunk : chunks) {
+                codec.compress(chunk);
+            }
+        }
+    }
+}
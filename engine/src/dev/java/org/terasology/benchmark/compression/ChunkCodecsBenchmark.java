@@ -0,0 +1,143 @@
+/*
+ * Copyright 2016 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.benchmark.compression;
+
+import com.google.common.collect.Lists;
+import org.terasology.benchmark.Benchmark;
+import org.terasology.benchmark.BenchmarkResult;
+import org.terasology.benchmark.Benchmarks;
+import org.terasology.benchmark.PrintToConsoleCallback;
+import org.terasology.persistence.internal.RegionFile;
+import org.terasology.persistence.internal.StoragePathProvider;
+import org.terasology.utilities.compression.ChunkCodec;
+import org.terasology.utilities.compression.ChunkCodecs;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileSystem;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+
+/**
+ * Compares the compression ratio and speed of the {@link ChunkCodecs} on the chunks of an existing save game.
+ * <br><br>
+ * Expects the world directory of a save game (e.g. saves/Game/worlds/main) that stores its chunks as zips, region files
+ * or single chunk files as argument.
+ */
+public final class ChunkCodecsBenchmark {
+
+    private static final int MAX_CHUNKS = 2000;
+
+    private ChunkCodecsBenchmark() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 1) {
+            System.out.println("Usage: ChunkCodecsBenchmark <world directory of a save game>");
+            return;
+        }
+        List<byte[]> chunks = loadChunks(Paths.get(args[0]));
+        if (chunks.isEmpty()) {
+            System.out.println("No chunks found in " + args[0]);
+            return;
+        }
+
+        long totalSize = 0;
+        for (byte[] chunk : chunks) {
+            totalSize += chunk.length;
+        }
+        System.out.println(String.format("%d chunks, %.1f MiB uncompressed", chunks.size(), totalSize / 1048576.0));
+        for (ChunkCodec codec : ChunkCodecs.getCodecs()) {
+            long compressedSize = 0;
+            for (byte[] chunk : chunks) {
+                compressedSize += codec.compress(chunk).length;
+            }
+            System.out.println(String.format("%-14s ratio %.2f", codec.getName(), (double) totalSize / compressedSize));
+        }
+
+        final List<Benchmark> benchmarks = Lists.newArrayList();
+        for (ChunkCodec codec : ChunkCodecs.getCodecs()) {
+            benchmarks.add(new ChunkCodecBenchmark(codec, chunks, false));
+            benchmarks.add(new ChunkCodecBenchmark(codec, chunks, true));
+        }
+        List<BenchmarkResult> results = Benchmarks.execute(benchmarks, new PrintToConsoleCallback());
+
+        for (int i = 0; i + 1 < results.size(); i += 2) {
+            String codecName = ChunkCodecs.getCodecs().get(i / 2).getName();
+            System.out.println(String.format("%-14s compress %s, decompress %s", codecName,
+                    formatThroughput(results.get(i), totalSize), formatThroughput(results.get(i + 1), totalSize)));
+        }
+    }
+
+    /**
+     * @return the uncompressed megabytes per second processed by the measured runs of the benchmark.
+     */
+    private static String formatThroughput(BenchmarkResult result, long totalSize) {
+        long runs = 0;
+        long millis = 0;
+        for (int rep = 0; rep < result.getRepetitions(); rep++) {
+            runs += result.getRepetitions(rep);
+            millis += result.getRunTime(rep);
+        }
+        if (result.isAborted() || millis == 0) {
+            return "n/a";
+        }
+        return String.format("%.1f MB/s", runs * totalSize / 1000.0 / millis);
+    }
+
+    private static List<byte[]> loadChunks(Path worldDirectory) throws IOException {
+        List<byte[]> chunks = Lists.newArrayList();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(worldDirectory)) {
+            for (Path path : stream) {
+                String fileName = path.getFileName().toString();
+                if (fileName.endsWith(".chunks.zip")) {
+                    try (FileSystem zip = FileSystems.newFileSystem(path, null)) {
+                        for (Path root : zip.getRootDirectories()) {
+                            try (DirectoryStream<Path> entries = Files.newDirectoryStream(root)) {
+                                for (Path entry : entries) {
+                                    addChunk(chunks, Files.readAllBytes(entry));
+                                }
+                            }
+                        }
+                    }
+                } else if (fileName.endsWith(".region")) {
+                    int entryCount = new StoragePathProvider(worldDirectory).getRegionFileEntryCount();
+                    try (RegionFile regionFile = RegionFile.open(path, entryCount)) {
+                        for (int index = 0; index < entryCount && chunks.size() < MAX_CHUNKS; index++) {
+                            byte[] storedData = regionFile.read(index);
+                            if (storedData != null) {
+                                addChunk(chunks, storedData);
+                            }
+                        }
+                    }
+                } else if (fileName.endsWith(".chunk")) {
+                    addChunk(chunks, Files.readAllBytes(path));
+                }
+                if (chunks.size() >= MAX_CHUNKS) {
+                    break;
+                }
+            }
+        }
+        return chunks;
+    }
+
+    private static void addChunk(List<byte[]> chunks, byte[] storedData) throws IOException {
+        chunks.add(ChunkCodecs.decode(storedData));
+    }
+}
@@ -0,0 +1,86 @@
+/*
+ * Copyright 2016 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.benchmark.concurrency;
+
+import org.terasology.benchmark.AbstractBenchmark;
+import org.terasology.utilities.concurrency.DynamicPriorityBlockingQueue;
+import org.terasology.utilities.concurrency.ReprioritizableBlockingQueue;
+import org.terasology.utilities.random.FastRandom;
+
+import java.util.Comparator;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Measures the cost of taking the most relevant task out of a queue with a fixed number of pending tasks, the way the
+ * chunk generator and chunk updater threads do. Each run takes one task and queues a new one, so the amount of pending
+ * tasks stays constant. Every 100 runs the "camera" moves, which forces a reprioritization of the queue.
+ */
+public class PriorityQueueBenchmark extends AbstractBenchmark {
+
+    private static final int MOVE_INTERVAL = 100;
+
+    private final int pendingTasks;
+    private final boolean reprioritizable;
+
+    private BlockingQueue<int[]> queue;
+    private FastRandom random;
+    private int runs;
+
+    private volatile int cameraX;
+    private volatile int cameraZ;
+
+    public PriorityQueueBenchmark(int pendingTasks, boolean reprioritizable) {
+        super((reprioritizable ? "ReprioritizableBlockingQueue" : "DynamicPriorityBlockingQueue") + " take with " + pendingTasks + " pending tasks",
+                1000, new int[]{10000});
+        this.pendingTasks = pendingTasks;
+        this.reprioritizable = reprioritizable;
+    }
+
+    @Override
+    public void setup() {
+        Comparator<int[]> comparator = (a, b) -> distance(a) - distance(b);
+        if (reprioritizable) {
+            queue = new ReprioritizableBlockingQueue<>(comparator);
+        } else {
+            queue = new DynamicPriorityBlockingQueue<>(comparator);
+        }
+        random = new FastRandom(0L);
+        for (int i = 0; i < pendingTasks; ++i) {
+            queue.offer(randomPosition());
+        }
+    }
+
+    @Override
+    public void run() {
+        if (++runs % MOVE_INTERVAL == 0) {
+            cameraX = random.nextInt(-16, 16);
+            cameraZ = random.nextInt(-16, 16);
+            if (reprioritizable) {
+                ((ReprioritizableBlockingQueue<int[]>) queue).reprioritize();
+            }
+        }
+        queue.poll();
+        queue.offer(randomPosition());
+    }
+
+    private int[] randomPosition() {
+        return new int[]{random.nextInt(-64, 64), random.nextInt(-64, 64)};
+    }
+
+    private int distance(int[] pos) {
+        return Math.abs(pos[0] - cameraX) + Math.abs(pos[1] - cameraZ);
+    }
+}
@@ -39,7 +39,13 @@ public static void main(String[] args) {
 
         benchmarks.add(new EntityCreateBenchmark());
         benchmarks.add(new IterateSingleComponentBenchmark());
-        benchmarks.add(new IterateMultipleComponentBenchmark());
+        for (int entityCount : new int[]{1000, 100000}) {
+            benchmarks.add(new IterateMultipleComponentBenchmark(entityCount, false));
+            benchmarks.add(new IterateMultipleComponentBenchmark(entityCount, true));
+        }
+        for (int handlerCount : new int[]{20, 200}) {
+            benchmarks.add(new EventSendBenchmark(handlerCount));
+        }
         Benchmarks.execute(benchmarks, new PrintToConsoleCallback());
 
     }
@@ -0,0 +1,151 @@
+/*
+ * Copyright 2016 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.benchmark.entitySystem;
+
+import com.google.common.collect.Lists;
+import org.terasology.benchmark.AbstractBenchmark;
+import org.terasology.config.Config;
+import org.terasology.context.Context;
+import org.terasology.context.internal.ContextImpl;
+import org.terasology.entitySystem.Component;
+import org.terasology.entitySystem.entity.EntityRef;
+import org.terasology.entitySystem.entity.internal.PojoEntityManager;
+import org.terasology.entitySystem.event.Event;
+import org.terasology.entitySystem.event.internal.EventReceiver;
+import org.terasology.entitySystem.event.internal.EventSystemImpl;
+import org.terasology.entitySystem.metadata.EntitySystemLibrary;
+import org.terasology.logic.characters.CharacterComponent;
+import org.terasology.logic.characters.CharacterMovementComponent;
+import org.terasology.logic.common.DisplayNameComponent;
+import org.terasology.logic.inventory.ItemComponent;
+import org.terasology.logic.location.LocationComponent;
+import org.terasology.network.NetworkComponent;
+import org.terasology.network.internal.NetworkSystemImpl;
+import org.terasology.persistence.typeHandling.TypeSerializationLibrary;
+import org.terasology.physics.components.RigidBodyComponent;
+import org.terasology.reflection.copy.CopyStrategyLibrary;
+import org.terasology.reflection.reflect.ReflectionReflectFactory;
+import org.terasology.rendering.logic.LightComponent;
+import org.terasology.rendering.logic.MeshComponent;
+import org.terasology.utilities.random.FastRandom;
+import org.terasology.world.block.BlockComponent;
+
+import java.util.List;
+
+/**
+ * Sends events to entities with varying components, with a number of handlers registered that filter on one or two
+ * of those components, similar to the handlers of a game with a few modules.
+ */
+public class EventSendBenchmark extends AbstractBenchmark {
+
+    private static final int ENTITY_COUNT = 1000;
+
+    private static final List<Class<? extends Component>> COMPONENT_TYPES = Lists.newArrayList(
+            LocationComponent.class, MeshComponent.class, BlockComponent.class, NetworkComponent.class,
+            CharacterComponent.class, CharacterMovementComponent.class, DisplayNameComponent.class,
+            LightComponent.class, ItemComponent.class, RigidBodyComponent.class);
+
+    private final int handlerCount;
+
+    private EventSystemImpl eventSystem;
+    private List<EntityRef> entities;
+    private long eventsSent;
+    private long startTime;
+    private long sendTime;
+
+    public EventSendBenchmark(int handlerCount) {
+        super("Send events with " + handlerCount + " handlers to " + ENTITY_COUNT + " entities", 1000, new int[]{5000});
+        this.handlerCount = handlerCount;
+    }
+
+    @Override
+    public void setup() {
+        Context context = new ContextImpl();
+        context.put(Config.class, new Config());
+        ReflectionReflectFactory reflectFactory = new ReflectionReflectFactory();
+        TypeSerializationLibrary serializationLibrary = new TypeSerializationLibrary(reflectFactory, new CopyStrategyLibrary(reflectFactory));
+        EntitySystemLibrary entitySystemLibrary = new EntitySystemLibrary(context, serializationLibrary);
+        eventSystem = new EventSystemImpl(entitySystemLibrary.getEventLibrary(), new NetworkSystemImpl(null, context));
+
+        FastRandom rand = new FastRandom(0L);
+        for (int i = 0; i < handlerCount; ++i) {
+            int priority = rand.nextInt(-2, 2);
+            Class<? extends Component> first = COMPONENT_TYPES.get(rand.nextInt(COMPONENT_TYPES.size()));
+            if (i % 10 == 0) {
+                eventSystem.registerEventReceiver(new CountingReceiver(), BenchmarkEvent.class, priority);
+            } else if (rand.nextBoolean()) {
+                eventSystem.registerEventReceiver(new CountingReceiver(), BenchmarkEvent.class, priority, first);
+            } else {
+                Class<? extends Component> second = COMPONENT_TYPES.get(rand.nextInt(COMPONENT_TYPES.size()));
+                eventSystem.registerEventReceiver(new CountingReceiver(), BenchmarkEvent.class, priority, first, second);
+            }
+        }
+
+        PojoEntityManager entityManager = new PojoEntityManager();
+        entities = Lists.newArrayList();
+        for (int i = 0; i < ENTITY_COUNT; ++i) {
+            List<Component> components = Lists.newArrayList();
+            for (Class<? extends Component> componentType : COMPONENT_TYPES) {
+                if (rand.nextFloat() < 0.3f) {
+                    try {
+                        components.add(componentType.newInstance());
+                    } catch (InstantiationException | IllegalAccessException e) {
+                        throw new RuntimeException(e);
+                    }
+                }
+            }
+            entities.add(entityManager.create(components));
+        }
+    }
+
+    @Override
+    public void prerun() {
+        startTime = System.nanoTime();
+        eventsSent = 0;
+    }
+
+    @Override
+    public void run() {
+        for (EntityRef entity : entities) {
+            eventSystem.send(entity, new BenchmarkEvent());
+        }
+        eventsSent += entities.size();
+    }
+
+    @Override
+    public void postrun() {
+        sendTime = System.nanoTime() - startTime;
+    }
+
+    @Override
+    public void finish(boolean aborted) {
+        if (!aborted && sendTime > 0) {
+            System.out.println(String.format("%.0f events/second", eventsSent * 1e9 / sendTime));
+        }
+    }
+
+    public static class BenchmarkEvent implements Event {
+    }
+
+    private static class CountingReceiver implements EventReceiver<BenchmarkEvent> {
+        private int received;
+
+        @Override
+        public void onEvent(BenchmarkEvent event, EntityRef entity) {
+            received++;
+        }
+    }
+}
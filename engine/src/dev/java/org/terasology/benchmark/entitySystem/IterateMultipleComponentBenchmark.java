@@ -29,22 +29,29 @@
 import java.util.List;
 
 /**
- *
+ * Iterates the entities with both a mesh and a location, either searching for them on each run or using the component
+ * query index of the {@link PojoEntityManager}.
  */
 public class IterateMultipleComponentBenchmark extends AbstractBenchmark {
 
+    private final int entityCount;
+    private final boolean queryIndexEnabled;
+
     private List<List<Component>> rawEntityData;
     private PojoEntityManager entityManager;
 
-    public IterateMultipleComponentBenchmark() {
-        super("Iterate entities by multiple components", 10000, new int[]{10000});
+    public IterateMultipleComponentBenchmark(int entityCount, boolean queryIndexEnabled) {
+        super("Iterate " + entityCount + " entities by multiple components" + (queryIndexEnabled ? " (indexed)" : ""),
+                10000000 / entityCount, new int[]{10000000 / entityCount});
+        this.entityCount = entityCount;
+        this.queryIndexEnabled = queryIndexEnabled;
     }
 
     @Override
     public void setup() {
         FastRandom rand = new FastRandom(0L);
         rawEntityData = Lists.newArrayList();
-        for (int i = 0; i < 1000; ++i) {
+        for (int i = 0; i < entityCount; ++i) {
             List<Component> entityData = Lists.newArrayList();
             if (rand.nextFloat() < 0.75f) {
                 entityData.add(new LocationComponent());
@@ -59,6 +66,7 @@ public void setup() {
         }
 
         entityManager = new PojoEntityManager();
+        entityManager.setComponentQueryIndexEnabled(queryIndexEnabled);
         for (List<Component> rawEntity : rawEntityData) {
             entityManager.create(rawEntity);
         }
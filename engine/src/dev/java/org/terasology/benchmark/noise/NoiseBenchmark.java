@@ -0,0 +1,119 @@
+/*
+ * Copyright 2016 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.benchmark.noise;
+
+import com.google.common.collect.Lists;
+import org.terasology.benchmark.AbstractBenchmark;
+import org.terasology.benchmark.Benchmark;
+import org.terasology.benchmark.Benchmarks;
+import org.terasology.benchmark.PrintToConsoleCallback;
+import org.terasology.utilities.procedural.BrownianNoise;
+import org.terasology.utilities.procedural.Noise;
+import org.terasology.utilities.procedural.PerlinNoise;
+import org.terasology.utilities.procedural.SimplexNoise;
+
+import java.util.List;
+import java.util.function.LongFunction;
+
+/**
+ * Compares the point by point evaluation of noise with the bulk evaluation of the same grid. The grid spacing matches
+ * the key values of a {@code SubSampledNoise} with zoom 0.004 and sample rate 4, as used by the perlin world generator.
+ */
+public final class NoiseBenchmark extends AbstractBenchmark {
+
+    private static final int SIZE_2D = 128;
+    private static final int SIZE_3D = 32;
+    private static final float STEP = 0.016f;
+
+    private final LongFunction<Noise> factory;
+    private final boolean bulk;
+    private final boolean threeDimensional;
+
+    private Noise noise;
+    private float[] xs;
+    private float[] ys;
+    private float[] zs;
+    private float[] result;
+    private float sink;
+
+    public NoiseBenchmark(String name, LongFunction<Noise> factory, boolean bulk, boolean threeDimensional) {
+        super((bulk ? "Bulk " : "Scalar ") + name + (threeDimensional ? " 3D, " + SIZE_3D + "^3" : " 2D, " + SIZE_2D + "^2") + " samples",
+                20, new int[]{200});
+        this.factory = factory;
+        this.bulk = bulk;
+        this.threeDimensional = threeDimensional;
+    }
+
+    public static void main(String[] args) {
+        final List<Benchmark> benchmarks = Lists.newArrayList();
+        for (boolean threeDimensional : new boolean[]{false, true}) {
+            for (boolean bulk : new boolean[]{false, true}) {
+                benchmarks.add(new NoiseBenchmark("perlin", PerlinNoise::new, bulk, threeDimensional));
+                benchmarks.add(new NoiseBenchmark("simplex", SimplexNoise::new, bulk, threeDimensional));
+                benchmarks.add(new NoiseBenchmark("brownian perlin (8 octaves)", seed -> new BrownianNoise(new PerlinNoise(seed), 8),
+                        bulk, threeDimensional));
+            }
+        }
+        Benchmarks.execute(benchmarks, new PrintToConsoleCallback());
+    }
+
+    @Override
+    public void setup() {
+        noise = factory.apply(12);
+        int size = threeDimensional ? SIZE_3D : SIZE_2D;
+        xs = axis(size, 10.3f);
+        ys = axis(size, -2.7f);
+        zs = axis(threeDimensional ? size : 1, 0.5f);
+        result = new float[xs.length * ys.length * zs.length];
+    }
+
+    @Override
+    public void run() {
+        if (bulk) {
+            if (threeDimensional) {
+                noise.noise(result, xs, ys, zs);
+            } else {
+                noise.noise(result, xs, ys);
+            }
+        } else {
+            int index = 0;
+            for (float z : zs) {
+                for (float y : ys) {
+                    for (float x : xs) {
+                        result[index++] = threeDimensional ? noise.noise(x, y, z) : noise.noise(x, y);
+                    }
+                }
+            }
+        }
+        // keep the results alive
+        sink += result[result.length / 2];
+    }
+
+    @Override
+    public void finish(boolean aborted) {
+        if (sink == Float.MAX_VALUE) {
+            System.out.println(sink);
+        }
+    }
+
+    private static float[] axis(int size, float origin) {
+        float[] positions = new float[size];
+        for (int i = 0; i < size; i++) {
+            positions[i] = origin + i * STEP;
+        }
+        return positions;
+    }
+}
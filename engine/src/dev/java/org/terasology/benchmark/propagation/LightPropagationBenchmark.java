@@ -0,0 +1,173 @@
+/*
+ * Copyright 2016 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.benchmark.propagation;
+
+import com.google.common.collect.Lists;
+import org.terasology.benchmark.AbstractBenchmark;
+import org.terasology.benchmark.Benchmark;
+import org.terasology.benchmark.Benchmarks;
+import org.terasology.benchmark.PrintToConsoleCallback;
+import org.terasology.math.Side;
+import org.terasology.math.geom.Vector3i;
+import org.terasology.world.block.Block;
+import org.terasology.world.chunks.ChunkConstants;
+import org.terasology.world.propagation.BatchPropagator;
+import org.terasology.world.propagation.BlockChange;
+import org.terasology.world.propagation.PropagatorWorldView;
+import org.terasology.world.propagation.StandardBatchPropagator;
+import org.terasology.world.propagation.light.LightPropagationRules;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Relights a fully built 3x3x3 chunk neighbourhood with the {@link StandardBatchPropagator}: a number of light sources
+ * is placed in the caves of the terrain and removed again, so that every run spreads and then purges the same light.
+ */
+public final class LightPropagationBenchmark extends AbstractBenchmark {
+
+    private static final int SIZE_X = 3 * ChunkConstants.SIZE_X;
+    private static final int SIZE_Y = 3 * ChunkConstants.SIZE_Y;
+    private static final int SIZE_Z = 3 * ChunkConstants.SIZE_Z;
+
+    private final int lightSources;
+
+    private Block air;
+    private Block stone;
+    private Block torch;
+    private NeighbourhoodView world;
+    private BatchPropagator propagator;
+    private List<BlockChange> placements;
+    private List<BlockChange> removals;
+
+    public LightPropagationBenchmark(int lightSources) {
+        super("Relight 3x3x3 chunks with " + lightSources + " light sources", 10, new int[]{50});
+        this.lightSources = lightSources;
+    }
+
+    public static void main(String[] args) {
+        final List<Benchmark> benchmarks = Lists.newArrayList();
+        for (int lightSources : new int[]{1, 100, 2000}) {
+            benchmarks.add(new LightPropagationBenchmark(lightSources));
+        }
+        Benchmarks.execute(benchmarks, new PrintToConsoleCallback());
+    }
+
+    @Override
+    public void setup() {
+        air = new Block();
+        air.setTranslucent(true);
+        stone = new Block();
+        for (Side side : Side.values()) {
+            stone.setFullSide(side, true);
+        }
+        torch = new Block();
+        torch.setTranslucent(true);
+        torch.setLuminance((byte) 14);
+
+        Random random = new Random(1);
+        world = new NeighbourhoodView(air);
+        for (int x = 0; x < SIZE_X; x++) {
+            for (int z = 0; z < SIZE_Z; z++) {
+                int height = SIZE_Y / 2 + (int) (8 * Math.sin(x * 0.2) * Math.cos(z * 0.15));
+                for (int y = 0; y < height; y++) {
+                    // leave some caves in the ground, so that light spreads in all directions
+                    boolean cave = y > 8 && random.nextInt(3) == 0;
+                    world.setBlock(x, y, z, cave ? air : stone);
+                }
+            }
+        }
+
+        placements = Lists.newArrayListWithCapacity(lightSources);
+        removals = Lists.newArrayListWithCapacity(lightSources);
+        while (placements.size() < lightSources) {
+            Vector3i pos = new Vector3i(random.nextInt(SIZE_X), random.nextInt(SIZE_Y), random.nextInt(SIZE_Z));
+            if (world.getBlock(pos.x, pos.y, pos.z) == air) {
+                world.setBlock(pos.x, pos.y, pos.z, torch);
+                placements.add(new BlockChange(pos, air, torch));
+                removals.add(new BlockChange(pos, torch, air));
+            }
+        }
+        for (BlockChange removal : removals) {
+            world.setBlock(removal.getPosition().x, removal.getPosition().y, removal.getPosition().z, air);
+        }
+        propagator = new StandardBatchPropagator(new LightPropagationRules(), world);
+    }
+
+    @Override
+    public void run() {
+        for (BlockChange placement : placements) {
+            world.setBlock(placement.getPosition().x, placement.getPosition().y, placement.getPosition().z, torch);
+        }
+        propagator.process(placements);
+        for (BlockChange removal : removals) {
+            world.setBlock(removal.getPosition().x, removal.getPosition().y, removal.getPosition().z, air);
+        }
+        propagator.process(removals);
+    }
+
+    /**
+     * A world made of the blocks and light values of 3x3x3 chunks, without the overhead of chunks.
+     */
+    private static final class NeighbourhoodView implements PropagatorWorldView {
+        private final Block[] blocks = new Block[SIZE_X * SIZE_Y * SIZE_Z];
+        private final byte[] values = new byte[blocks.length];
+
+        NeighbourhoodView(Block fill) {
+            Arrays.fill(blocks, fill);
+        }
+
+        Block getBlock(int x, int y, int z) {
+            return blocks[index(x, y, z)];
+        }
+
+        void setBlock(int x, int y, int z, Block block) {
+            blocks[index(x, y, z)] = block;
+        }
+
+        @Override
+        public byte getValueAt(Vector3i pos) {
+            if (!contains(pos)) {
+                return UNAVAILABLE;
+            }
+            return values[index(pos.x, pos.y, pos.z)];
+        }
+
+        @Override
+        public void setValueAt(Vector3i pos, byte value) {
+            if (contains(pos)) {
+                values[index(pos.x, pos.y, pos.z)] = value;
+            }
+        }
+
+        @Override
+        public Block getBlockAt(Vector3i pos) {
+            if (!contains(pos)) {
+                return null;
+            }
+            return blocks[index(pos.x, pos.y, pos.z)];
+        }
+
+        private static boolean contains(Vector3i pos) {
+            return pos.x >= 0 && pos.x < SIZE_X && pos.y >= 0 && pos.y < SIZE_Y && pos.z >= 0 && pos.z < SIZE_Z;
+        }
+
+        private static int index(int x, int y, int z) {
+            return x + SIZE_X * (z + SIZE_Z * y);
+        }
+    }
+}
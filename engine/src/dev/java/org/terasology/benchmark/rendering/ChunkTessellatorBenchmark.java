@@ -0,0 +1,394 @@
+/*
+ * Copyright 2016 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.benchmark.rendering;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import org.terasology.benchmark.AbstractBenchmark;
+import org.terasology.benchmark.Benchmark;
+import org.terasology.benchmark.Benchmarks;
+import org.terasology.benchmark.PrintToConsoleCallback;
+import org.terasology.math.Region3i;
+import org.terasology.math.Side;
+import org.terasology.math.TeraMath;
+import org.terasology.math.geom.Vector2f;
+import org.terasology.math.geom.Vector3f;
+import org.terasology.math.geom.Vector3i;
+import org.terasology.rendering.primitives.ChunkMesh;
+import org.terasology.rendering.primitives.ChunkTessellator;
+import org.terasology.world.biomes.Biome;
+import org.terasology.world.block.Block;
+import org.terasology.world.block.BlockAppearance;
+import org.terasology.world.block.BlockPart;
+import org.terasology.world.block.shapes.BlockMeshPart;
+import org.terasology.world.chunks.ChunkConstants;
+import org.terasology.world.internal.ChunkViewCore;
+import org.terasology.world.liquid.LiquidData;
+
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Tessellates a fixed set of chunks with hilly, partly flooded terrain and caves, one chunk per run, so the average
+ * time per run is the inverse of the chunks per second. The memory allocated per chunk is printed when the benchmark
+ * finishes; it includes the mesh data, which is allocated no matter how the mesh gets generated.
+ * <p>
+ * The share of the tessellation time spent on calculating the lighting of the vertices is printed as well, for each
+ * way of sampling the light.
+ */
+public final class ChunkTessellatorBenchmark extends AbstractBenchmark {
+
+    private static final int CHUNK_COUNT = 8;
+    private static final int SEA_LEVEL = 28;
+
+    private final com.sun.management.ThreadMXBean threadBean =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    private final boolean cachedLighting;
+    private final boolean bulkLighting;
+
+    private ChunkTessellator tessellator;
+    private List<TerrainView> chunks;
+    private int chunkIndex;
+    private long allocatedBytes;
+    private long tessellatedChunks;
+    private long tessellationTime;
+    private long lightingTime;
+
+    public ChunkTessellatorBenchmark() {
+        this(true, false);
+    }
+
+    /**
+     * @param cachedLighting whether the light values are cached per block corner
+     * @param bulkLighting   whether the cached light values are copied from the chunk view in bulk
+     */
+    public ChunkTessellatorBenchmark(boolean cachedLighting, boolean bulkLighting) {
+        super("Tessellate " + CHUNK_COUNT + " terrain chunks ("
+                + (!cachedLighting ? "uncached" : bulkLighting ? "bulk cached" : "cached") + " lighting)",
+                100, new int[]{500});
+        this.cachedLighting = cachedLighting;
+        this.bulkLighting = bulkLighting;
+    }
+
+    public static void main(String[] args) {
+        final List<Benchmark> benchmarks = Lists.newArrayList();
+        benchmarks.add(new ChunkTessellatorBenchmark(false, false));
+        benchmarks.add(new ChunkTessellatorBenchmark(true, false));
+        benchmarks.add(new ChunkTessellatorBenchmark(true, true));
+        Benchmarks.execute(benchmarks, new PrintToConsoleCallback());
+    }
+
+    @Override
+    public void setup() {
+        Block air = new Block();
+        air.setTranslucent(true);
+        air.setShadowCasting(false);
+        air.setMeshGenerator(null);
+        Block stone = createCube(false);
+        Block water = createCube(true);
+        water.setWater(true);
+        water.setLiquid(true);
+        water.setTranslucent(true);
+
+        tessellator = new ChunkTessellator(null);
+        tessellator.setLightCaching(cachedLighting, bulkLighting);
+        chunks = Lists.newArrayListWithCapacity(CHUNK_COUNT);
+        Random random = new Random(5);
+        for (int i = 0; i < CHUNK_COUNT; i++) {
+            chunks.add(new TerrainView(air, stone, water, random));
+        }
+        chunkIndex = 0;
+        allocatedBytes = 0;
+        tessellatedChunks = 0;
+        tessellationTime = 0;
+        lightingTime = 0;
+    }
+
+    private static Block createCube(boolean translucent) {
+        Map<BlockPart, BlockMeshPart> parts = Maps.newEnumMap(BlockPart.class);
+        Map<BlockPart, Vector2f> atlasPositions = Maps.newEnumMap(BlockPart.class);
+        for (Side side : Side.values()) {
+            parts.put(BlockPart.fromSide(side), createFace(side));
+            atlasPositions.put(BlockPart.fromSide(side), new Vector2f());
+        }
+        Block block = new Block();
+        block.setPrimaryAppearance(new BlockAppearance(parts, atlasPositions));
+        block.setTranslucent(translucent);
+        for (Side side : Side.values()) {
+            block.setFullSide(side, true);
+            block.setLoweredLiquidMesh(side, parts.get(BlockPart.fromSide(side)));
+        }
+        return block;
+    }
+
+    private static BlockMeshPart createFace(Side side) {
+        Vector3i normal = side.getVector3i();
+        // two axes spanning the face
+        Vector3f u = new Vector3f(normal.y != 0 ? 1 : 0, normal.y == 0 ? 1 : 0, 0);
+        Vector3f v = new Vector3f(normal.x, normal.y, normal.z).cross(u);
+        Vector3f[] vertices = new Vector3f[4];
+        Vector3f[] normals = new Vector3f[4];
+        Vector2f[] texCoords = new Vector2f[4];
+        for (int i = 0; i < 4; i++) {
+            float su = i == 1 || i == 2 ? 0.5f : -0.5f;
+            float sv = i >= 2 ? 0.5f : -0.5f;
+            vertices[i] = new Vector3f(0.5f * normal.x + su * u.x + sv * v.x, 0.5f * normal.y + su * u.y + sv * v.y,
+                    0.5f * normal.z + su * u.z + sv * v.z);
+            normals[i] = new Vector3f(normal.x, normal.y, normal.z);
+            texCoords[i] = new Vector2f(su + 0.5f, sv + 0.5f);
+        }
+        return new BlockMeshPart(vertices, normals, texCoords, new int[]{0, 1, 2, 0, 2, 3});
+    }
+
+    @Override
+    public void run() {
+        TerrainView chunk = chunks.get(chunkIndex);
+        chunkIndex = (chunkIndex + 1) % chunks.size();
+
+        long threadId = Thread.currentThread().getId();
+        long allocatedBefore = threadBean.getThreadAllocatedBytes(threadId);
+        long start = System.nanoTime();
+        ChunkMesh mesh = tessellator.generateMesh(chunk, ChunkConstants.SIZE_Y, 0);
+        tessellationTime += System.nanoTime() - start;
+        allocatedBytes += threadBean.getThreadAllocatedBytes(threadId) - allocatedBefore;
+        lightingTime += mesh.getTimeToCalculateLighting();
+        tessellatedChunks++;
+    }
+
+    @Override
+    public void finish(boolean aborted) {
+        if (!aborted && tessellatedChunks > 0) {
+            System.out.println("Allocated " + allocatedBytes / tessellatedChunks / 1024 + " KiB per chunk");
+            System.out.println(String.format("Lighting took %.1f%% of the tessellation time, %d microseconds per chunk",
+                    100.0 * lightingTime / tessellationTime, lightingTime / tessellatedChunks / 1000));
+        }
+    }
+
+    /**
+     * The blocks and light values of a chunk and the blocks around it, without the overhead of chunks.
+     */
+    private static final class TerrainView implements ChunkViewCore {
+        private static final int SIZE_X = ChunkConstants.SIZE_X + 2;
+        private static final int SIZE_Y = ChunkConstants.SIZE_Y + 2;
+        private static final int SIZE_Z = ChunkConstants.SIZE_Z + 2;
+
+        private final Block air;
+        private final Block[] blocks = new Block[SIZE_X * SIZE_Y * SIZE_Z];
+        private final byte[] sunlight = new byte[blocks.length];
+        private final byte[] light = new byte[blocks.length];
+
+        TerrainView(Block air, Block stone, Block water, Random random) {
+            this.air = air;
+            Arrays.fill(blocks, air);
+            float phaseX = random.nextFloat() * 10;
+            float phaseZ = random.nextFloat() * 10;
+            for (int x = -1; x <= ChunkConstants.SIZE_X; x++) {
+                for (int z = -1; z <= ChunkConstants.SIZE_Z; z++) {
+                    int height = SEA_LEVEL + (int) (10 * Math.sin(x * 0.2 + phaseX) * Math.cos(z * 0.15 + phaseZ));
+                    for (int y = -1; y <= ChunkConstants.SIZE_Y; y++) {
+                        int index = index(x, y, z);
+                        if (y < height) {
+                            // leave some caves in the ground
+                            boolean cave = y > 4 && random.nextInt(4) == 0;
+                            blocks[index] = cave ? air : stone;
+                        } else if (y < SEA_LEVEL) {
+                            blocks[index] = water;
+                        } else {
+                            sunlight[index] = ChunkConstants.MAX_SUNLIGHT;
+                        }
+                        if (blocks[index] == air && random.nextInt(16) == 0) {
+                            light[index] = (byte) random.nextInt(ChunkConstants.MAX_LIGHT + 1);
+                        }
+                    }
+                }
+            }
+        }
+
+        private static int index(int x, int y, int z) {
+            return (x + 1) + SIZE_X * ((z + 1) + SIZE_Z * (y + 1));
+        }
+
+        private static boolean contains(int x, int y, int z) {
+            return x >= -1 && x < SIZE_X - 1 && y >= -1 && y < SIZE_Y - 1 && z >= -1 && z < SIZE_Z - 1;
+        }
+
+        @Override
+        public Block getBlock(float x, float y, float z) {
+            return getBlock(TeraMath.floorToInt(x + 0.5f), TeraMath.floorToInt(y + 0.5f), TeraMath.floorToInt(z + 0.5f));
+        }
+
+        @Override
+        public Block getBlock(Vector3i pos) {
+            return getBlock(pos.x, pos.y, pos.z);
+        }
+
+        @Override
+        public Block getBlock(int x, int y, int z) {
+            return contains(x, y, z) ? blocks[index(x, y, z)] : air;
+        }
+
+        @Override
+        public Biome getBiome(float x, float y, float z) {
+            return null;
+        }
+
+        @Override
+        public Biome getBiome(Vector3i pos) {
+            return null;
+        }
+
+        @Override
+        public Biome getBiome(int x, int y, int z) {
+            return null;
+        }
+
+        @Override
+        public byte getSunlight(float x, float y, float z) {
+            return getSunlight(TeraMath.floorToInt(x + 0.5f), TeraMath.floorToInt(y + 0.5f), TeraMath.floorToInt(z + 0.5f));
+        }
+
+        @Override
+        public byte getSunlight(Vector3i pos) {
+            return getSunlight(pos.x, pos.y, pos.z);
+        }
+
+        @Override
+        public byte getSunlight(int x, int y, int z) {
+            return contains(x, y, z) ? sunlight[index(x, y, z)] : 0;
+        }
+
+        @Override
+        public byte getLight(float x, float y, float z) {
+            return getLight(TeraMath.floorToInt(x + 0.5f), TeraMath.floorToInt(y + 0.5f), TeraMath.floorToInt(z + 0.5f));
+        }
+
+        @Override
+        public byte getLight(Vector3i pos) {
+            return getLight(pos.x, pos.y, pos.z);
+        }
+
+        @Override
+        public byte getLight(int x, int y, int z) {
+            return contains(x, y, z) ? light[index(x, y, z)] : 0;
+        }
+
+        @Override
+        public void setLight(Vector3i pos, byte lightLevel) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void setLight(int x, int y, int z, byte lightLevel) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void setSunlight(Vector3i pos, byte lightLevel) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void setSunlight(int x, int y, int z, byte lightLevel) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void copyLight(int minX, int minY, int minZ, int countX, int countY, int countZ,
+                              byte[] targetSunlight, byte[] targetLight) {
+            int index = 0;
+            for (int y = minY; y < minY + countY; y++) {
+                for (int z = minZ; z < minZ + countZ; z++) {
+                    for (int x = minX; x < minX + countX; x++, index++) {
+                        targetSunlight[index] = getSunlight(x, y, z);
+                        targetLight[index] = getLight(x, y, z);
+                    }
+                }
+            }
+        }
+
+        @Override
+        public void setBlock(Vector3i pos, Block type) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void setBlock(int x, int y, int z, Block type) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void setBiome(Vector3i pos, Biome biome) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void setBiome(int x, int y, int z, Biome biome) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public LiquidData getLiquid(Vector3i pos) {
+            return new LiquidData();
+        }
+
+        @Override
+        public LiquidData getLiquid(int x, int y, int z) {
+            return new LiquidData();
+        }
+
+        @Override
+        public void setLiquid(Vector3i pos, LiquidData newState) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void setLiquid(int x, int y, int z, LiquidData newState) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Vector3i toWorldPos(Vector3i localPos) {
+            return new Vector3i(localPos);
+        }
+
+        @Override
+        public Region3i getWorldRegion() {
+            return Region3i.createFromMinAndSize(Vector3i.zero(), ChunkConstants.CHUNK_SIZE);
+        }
+
+        @Override
+        public Region3i getChunkRegion() {
+            return Region3i.createFromMinAndSize(Vector3i.zero(), Vector3i.one());
+        }
+
+        @Override
+        public void setDirtyAround(Vector3i blockPos) {
+        }
+
+        @Override
+        public void setDirtyAround(Region3i blockRegion) {
+        }
+
+        @Override
+        public boolean isValidView() {
+            return true;
+        }
+    }
+}
@@ -0,0 +1,186 @@
+/*
+ * Copyright 2016 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.benchmark.worldgen;
+
+import com.google.common.collect.Lists;
+import org.terasology.benchmark.AbstractBenchmark;
+import org.terasology.benchmark.Benchmark;
+import org.terasology.benchmark.Benchmarks;
+import org.terasology.benchmark.PrintToConsoleCallback;
+import org.terasology.math.Region3i;
+import org.terasology.math.TeraMath;
+import org.terasology.math.geom.BaseVector2i;
+import org.terasology.math.geom.Rect2i;
+import org.terasology.math.geom.Vector2f;
+import org.terasology.math.geom.Vector3i;
+import org.terasology.utilities.procedural.BrownianNoise;
+import org.terasology.utilities.procedural.PerlinNoise;
+import org.terasology.utilities.procedural.SubSampledNoise;
+import org.terasology.world.chunks.ChunkConstants;
+import org.terasology.world.generation.Facet;
+import org.terasology.world.generation.FacetProvider;
+import org.terasology.world.generation.GeneratingRegion;
+import org.terasology.world.generation.Produces;
+import org.terasology.world.generation.Region;
+import org.terasology.world.generation.Requires;
+import org.terasology.world.generation.Updates;
+import org.terasology.world.generation.World;
+import org.terasology.world.generation.WorldBuilder;
+import org.terasology.world.generation.facets.DensityFacet;
+import org.terasology.world.generation.facets.SeaLevelFacet;
+import org.terasology.world.generation.facets.SurfaceHeightFacet;
+
+import java.util.List;
+
+/**
+ * Generates the facets that the rasterizers of the perlin world generator request, chunk by chunk and column by
+ * column, with and without sharing the 2D facets between vertically stacked chunks. Every run generates a single
+ * chunk, so the average time per run is the inverse of the chunks per second.
+ * <p>
+ * The providers mirror the 2D part of the perlin world generator of the Core module, which the engine cannot depend on.
+ */
+public final class ColumnFacetCacheBenchmark extends AbstractBenchmark {
+
+    private static final int SEA_LEVEL = 32;
+
+    private final int columnFacetCacheSize;
+    private final int chunksPerColumn;
+
+    private World world;
+    private int chunkIndex;
+
+    public ColumnFacetCacheBenchmark(int columnFacetCacheSize, int chunksPerColumn) {
+        super("Generate " + chunksPerColumn + " chunks per column, column facet cache size " + columnFacetCacheSize,
+                200, new int[]{2000});
+        this.columnFacetCacheSize = columnFacetCacheSize;
+        this.chunksPerColumn = chunksPerColumn;
+    }
+
+    public static void main(String[] args) {
+        final List<Benchmark> benchmarks = Lists.newArrayList();
+        for (int chunksPerColumn : new int[]{4, 8}) {
+            benchmarks.add(new ColumnFacetCacheBenchmark(0, chunksPerColumn));
+            benchmarks.add(new ColumnFacetCacheBenchmark(512, chunksPerColumn));
+        }
+        Benchmarks.execute(benchmarks, new PrintToConsoleCallback());
+    }
+
+    @Override
+    public void setup() {
+        WorldBuilder worldBuilder = new WorldBuilder(null)
+                .setSeaLevel(SEA_LEVEL)
+                .setColumnFacetCacheSize(columnFacetCacheSize)
+                .addProvider(new SeaLevelProvider())
+                .addProvider(new SurfaceProvider())
+                .addProvider(new HillsProvider())
+                .addProvider(new DensityProvider());
+        worldBuilder.setSeed(12);
+        world = worldBuilder.build();
+        world.initialize();
+        chunkIndex = 0;
+    }
+
+    @Override
+    public void run() {
+        // never revisit a column, so that only vertically stacked chunks can share facets
+        int column = chunkIndex / chunksPerColumn;
+        int columnX = column % 64;
+        int columnZ = column / 64;
+        int chunkY = chunkIndex % chunksPerColumn;
+        chunkIndex++;
+
+        Vector3i min = new Vector3i(columnX * ChunkConstants.SIZE_X, chunkY * ChunkConstants.SIZE_Y, columnZ * ChunkConstants.SIZE_Z);
+        Region region = world.getWorldData(Region3i.createFromMinAndSize(min, ChunkConstants.CHUNK_SIZE));
+        region.getFacet(DensityFacet.class);
+        region.getFacet(SurfaceHeightFacet.class);
+    }
+
+    @Produces(value = SeaLevelFacet.class, columnInvariant = true)
+    private static final class SeaLevelProvider implements FacetProvider {
+
+        @Override
+        public void process(GeneratingRegion region) {
+            SeaLevelFacet facet = new SeaLevelFacet(region.getRegion(), region.getBorderForFacet(SeaLevelFacet.class));
+            facet.setSeaLevel(SEA_LEVEL);
+            region.setRegionFacet(SeaLevelFacet.class, facet);
+        }
+    }
+
+    @Produces(value = SurfaceHeightFacet.class, columnInvariant = true)
+    @Requires(@Facet(SeaLevelFacet.class))
+    private static final class SurfaceProvider implements FacetProvider {
+        private SubSampledNoise surfaceNoise;
+
+        @Override
+        public void setSeed(long seed) {
+            surfaceNoise = new SubSampledNoise(new BrownianNoise(new PerlinNoise(seed), 8), new Vector2f(0.004f, 0.004f), 4);
+        }
+
+        @Override
+        public void process(GeneratingRegion region) {
+            SurfaceHeightFacet facet = new SurfaceHeightFacet(region.getRegion(), region.getBorderForFacet(SurfaceHeightFacet.class));
+            float seaLevel = region.getRegionFacet(SeaLevelFacet.class).getSeaLevel();
+            float[] noise = surfaceNoise.noise(facet.getWorldRegion());
+            for (int i = 0; i < noise.length; ++i) {
+                noise[i] = seaLevel + seaLevel * ((noise[i] * 2.11f + 1f) / 2f);
+            }
+            facet.set(noise);
+            region.setRegionFacet(SurfaceHeightFacet.class, facet);
+        }
+    }
+
+    @Updates(value = @Facet(SurfaceHeightFacet.class), columnInvariant = true)
+    private static final class HillsProvider implements FacetProvider {
+        private SubSampledNoise hillNoise;
+
+        @Override
+        public void setSeed(long seed) {
+            hillNoise = new SubSampledNoise(new BrownianNoise(new PerlinNoise(seed + 4)), new Vector2f(0.0008f, 0.0008f), 4);
+        }
+
+        @Override
+        public void process(GeneratingRegion region) {
+            SurfaceHeightFacet facet = region.getRegionFacet(SurfaceHeightFacet.class);
+            float[] hillData = hillNoise.noise(facet.getWorldRegion());
+            float[] heightData = facet.getInternal();
+            for (int i = 0; i < heightData.length; ++i) {
+                heightData[i] += 128 * TeraMath.clamp(hillData[i] * 2.12f - 0.1f);
+            }
+        }
+    }
+
+    @Produces(DensityFacet.class)
+    @Requires(@Facet(SurfaceHeightFacet.class))
+    private static final class DensityProvider implements FacetProvider {
+
+        @Override
+        public void process(GeneratingRegion region) {
+            SurfaceHeightFacet surfaceHeight = region.getRegionFacet(SurfaceHeightFacet.class);
+            DensityFacet facet = new DensityFacet(region.getRegion(), region.getBorderForFacet(DensityFacet.class));
+
+            Region3i area = region.getRegion();
+            Rect2i rect = Rect2i.createFromMinAndMax(facet.getRelativeRegion().minX(), facet.getRelativeRegion().minZ(),
+                    facet.getRelativeRegion().maxX(), facet.getRelativeRegion().maxZ());
+            for (BaseVector2i pos : rect.contents()) {
+                float height = surfaceHeight.get(pos);
+                for (int y = facet.getRelativeRegion().minY(); y <= facet.getRelativeRegion().maxY(); ++y) {
+                    facet.set(pos.x(), y, pos.y(), height - area.minY() - y);
+                }
+            }
+            region.setRegionFacet(DensityFacet.class, facet);
+        }
+    }
+}
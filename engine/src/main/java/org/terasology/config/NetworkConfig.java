@@ -27,6 +27,12 @@
  */
 public class NetworkConfig {
 
+    /**
+     * The default of {@link #getChunkBytesPerKilobit()}. Chunks get compressed by the channel, so this is larger than
+     * the 125 bytes a kilobit actually carries.
+     */
+    public static final int DEFAULT_CHUNK_BYTES_PER_KILOBIT = 500;
+
     private List<ServerInfo> servers = Lists.newArrayList(new ServerInfo("localhost", "localhost", TerasologyConstants.DEFAULT_PORT));
 
     /**
@@ -34,6 +40,11 @@ public class NetworkConfig {
      */
     private int upstreamBandwidth;
 
+    /**
+     * Encoded chunk bytes that may be sent to a client per kilobit of its share of the upstream bandwidth
+     */
+    private int chunkBytesPerKilobit = DEFAULT_CHUNK_BYTES_PER_KILOBIT;
+
     /**
      * The port that is used for hosting
      */
@@ -44,6 +55,12 @@ public class NetworkConfig {
      */
     private String masterServer = "meta.terasology.org";
 
+    /**
+     * The name of the chunk codec that compresses the data sent to clients, see
+     * {@link org.terasology.utilities.compression.ChunkCodecs}. With "gzip" the data is sent as one deflate stream.
+     */
+    private String compressionCodec = "gzip";
+
     public void clear() {
         servers.clear();
     }
@@ -56,6 +73,14 @@ public void setUpstreamBandwidth(int upstreamBandwidth) {
         this.upstreamBandwidth = upstreamBandwidth;
     }
 
+    public int getChunkBytesPerKilobit() {
+        return chunkBytesPerKilobit;
+    }
+
+    public void setChunkBytesPerKilobit(int chunkBytesPerKilobit) {
+        this.chunkBytesPerKilobit = chunkBytesPerKilobit;
+    }
+
     public int getServerPort() {
         return serverPort;
     }
@@ -83,4 +108,12 @@ public String getMasterServer() {
     public void setMasterServer(String masterServer) {
         this.masterServer = masterServer;
     }
+
+    public String getCompressionCodec() {
+        return compressionCodec;
+    }
+
+    public void setCompressionCodec(String compressionCodec) {
+        this.compressionCodec = compressionCodec;
+    }
 }
@@ -76,6 +76,8 @@ public class RenderingConfig extends AbstractSubscribable {
     public static final String SCREENSHOT_FORMAT = "ScreenshotFormat";
     public static final String DUMP_SHADERS = "DumpShaders";
     public static final String VOLUMETRIC_FOG = "VolumetricFog";
+    public static final String GREEDY_MESHING = "GreedyMeshing";
+    public static final String COMPACT_CHUNK_VERTICES = "CompactChunkVertices";
 
     private PixelFormat pixelFormat;
     private int windowPosX;
@@ -121,6 +123,8 @@ public class RenderingConfig extends AbstractSubscribable {
     private int fboScale;
     private boolean dumpShaders;
     private boolean volumetricFog;
+    private boolean greedyMeshing;
+    private boolean compactChunkVertices;
     private ScreenshotSize screenshotSize;
     private String screenshotFormat;
     private PerspectiveCameraSettings cameraSettings;
@@ -657,4 +661,30 @@ public void setVolumetricFog(boolean volumetricFog) {
         propertyChangeSupport.firePropertyChange(VOLUMETRIC_FOG, oldValue, this.volumetricFog);
     }
 
+    /**
+     * @return true if coplanar faces of adjacent cube blocks get merged into larger quads when tessellating chunks.
+     */
+    public boolean isGreedyMeshing() {
+        return greedyMeshing;
+    }
+
+    public void setGreedyMeshing(boolean greedyMeshing) {
+        boolean oldValue = this.greedyMeshing;
+        this.greedyMeshing = greedyMeshing;
+        propertyChangeSupport.firePropertyChange(GREEDY_MESHING, oldValue, this.greedyMeshing);
+    }
+
+    /**
+     * @return true if chunk meshes store their vertices in the compact layout, which needs less than half the memory.
+     */
+    public boolean isCompactChunkVertices() {
+        return compactChunkVertices;
+    }
+
+    public void setCompactChunkVertices(boolean compactChunkVertices) {
+        boolean oldValue = this.compactChunkVertices;
+        this.compactChunkVertices = compactChunkVertices;
+        propertyChangeSupport.firePropertyChange(COMPACT_CHUNK_VERTICES, oldValue, this.compactChunkVertices);
+    }
+
 }
@@ -31,6 +31,10 @@ public class SystemConfig {
     private boolean debugEnabled;
     private boolean monitoringEnabled;
     private boolean writeSaveGamesEnabled;
+    private boolean storeChunksInRegionFiles;
+    private int chunkSaveThreads;
+    private String chunkCodec;
+    private long chunkIntegrationBudgetInMicros;
     private String locale;
 
     public long getDayNightLengthInMs() {
@@ -93,6 +97,53 @@ public void setWriteSaveGamesEnabled(boolean writeSaveGamesEnabled) {
         this.writeSaveGamesEnabled = writeSaveGamesEnabled;
     }
 
+    /**
+     * @return true if the chunks of new and loaded save games should be stored in region files instead of zips.
+     */
+    public boolean isStoreChunksInRegionFiles() {
+        return storeChunksInRegionFiles;
+    }
+
+    public void setStoreChunksInRegionFiles(boolean storeChunksInRegionFiles) {
+        this.storeChunksInRegionFiles = storeChunksInRegionFiles;
+    }
+
+    /**
+     * @return the number of threads that encode and write chunks while saving. With one thread or less the chunks
+     * get written by the save thread itself.
+     */
+    public int getChunkSaveThreads() {
+        return chunkSaveThreads;
+    }
+
+    public void setChunkSaveThreads(int chunkSaveThreads) {
+        this.chunkSaveThreads = chunkSaveThreads;
+    }
+
+    /**
+     * @return the name of the codec with which chunks get compressed when saved, see
+     * {@link org.terasology.utilities.compression.ChunkCodecs}. Chunks of any codec can be loaded.
+     */
+    public String getChunkCodec() {
+        return chunkCodec;
+    }
+
+    public void setChunkCodec(String chunkCodec) {
+        this.chunkCodec = chunkCodec;
+    }
+
+    /**
+     * @return the time per frame in microseconds that may be spent sending the events and creating the entities of chunks,
+     * whose generation or loading has finished.
+     */
+    public long getChunkIntegrationBudgetInMicros() {
+        return chunkIntegrationBudgetInMicros;
+    }
+
+    public void setChunkIntegrationBudgetInMicros(long chunkIntegrationBudgetInMicros) {
+        this.chunkIntegrationBudgetInMicros = chunkIntegrationBudgetInMicros;
+    }
+
     public Locale getLocale() {
         if (locale == null) {
             setLocale(Locale.getDefault(Category.DISPLAY));
@@ -22,7 +22,8 @@
 import java.io.IOException;
 
 /**
- * Repairs the save game when it is in an inconsistent state after a crash.
+ * Repairs the save game when it is in an inconsistent state after a crash. Chunks that are not stored in the
+ * configured format yet get converted too.
  *
  */
 public class EnsureSaveGameConsistency implements LoadProcess {
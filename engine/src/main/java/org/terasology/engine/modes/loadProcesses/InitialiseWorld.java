@@ -33,6 +33,7 @@
 import org.terasology.logic.players.LocalPlayer;
 import org.terasology.module.ModuleEnvironment;
 import org.terasology.persistence.StorageManager;
+import org.terasology.persistence.internal.ChunkStorageMode;
 import org.terasology.persistence.internal.ReadOnlyStorageManager;
 import org.terasology.persistence.internal.ReadWriteStorageManager;
 import org.terasology.rendering.backdrop.BackdropProvider;
@@ -119,11 +120,13 @@ public boolean step() {
         EngineEntityManager entityManager = (EngineEntityManager) context.get(EntityManager.class);
         boolean writeSaveGamesEnabled = context.get(Config.class).getSystem().isWriteSaveGamesEnabled();
         Path savePath = isQuickLoad ? PathManager.getInstance().getSavePath(gameManifest.getTitle()).resolve(gameManifest.getTitle() + " Quick Save") : PathManager.getInstance().getSavePath(gameManifest.getTitle());
+        ChunkStorageMode chunkStorageMode = context.get(Config.class).getSystem().isStoreChunksInRegionFiles()
+                ? ChunkStorageMode.REGION_FILES : ChunkStorageMode.REGION_ZIPS;
         StorageManager storageManager;
         try {
             storageManager = writeSaveGamesEnabled
-                    ? new ReadWriteStorageManager(savePath, environment, entityManager, blockManager, biomeManager)
-                    : new ReadOnlyStorageManager(savePath, environment, entityManager, blockManager, biomeManager);
+                    ? new ReadWriteStorageManager(savePath, environment, entityManager, blockManager, biomeManager, chunkStorageMode)
+                    : new ReadOnlyStorageManager(savePath, environment, entityManager, blockManager, biomeManager, chunkStorageMode);
         } catch (IOException e) {
             logger.error("Unable to create storage manager!", e);
             context.get(GameEngine.class).changeState(new StateMainMenu("Unable to create storage manager!"));
@@ -132,6 +135,7 @@ public boolean step() {
         context.put(StorageManager.class, storageManager);
         LocalChunkProvider chunkProvider = new LocalChunkProvider(storageManager, entityManager, worldGenerator,
                 blockManager, biomeManager);
+        chunkProvider.setIntegrationBudget(context.get(Config.class).getSystem().getChunkIntegrationBudgetInMicros());
         context.get(ComponentSystemManager.class).register(new RelevanceSystem(chunkProvider), "engine:relevanceSystem");
         Block unloadedBlock = blockManager.getBlock(BlockManager.UNLOADED_ID);
         WorldProviderCoreImpl worldProviderCore = new WorldProviderCoreImpl(worldInfo, chunkProvider, unloadedBlock, context);
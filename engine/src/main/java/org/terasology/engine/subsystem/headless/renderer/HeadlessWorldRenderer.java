@@ -100,11 +100,17 @@ public Camera getLightCamera() {
     @Override
     public void update(float delta) {
 
-        worldProvider.processPropagation();
-
         // Free unused space
-        PerformanceMonitor.startActivity("Update Chunk Cache");
+        PerformanceMonitor.startActivity("Complete chunk update");
         chunkProvider.completeUpdate();
+        PerformanceMonitor.endActivity();
+
+        // The light merges of the chunk provider are complete, they don't write to chunks while the light propagates
+        PerformanceMonitor.startActivity("Update Lighting");
+        worldProvider.processPropagation();
+        PerformanceMonitor.endActivity();
+
+        PerformanceMonitor.startActivity("Begin chunk update");
         chunkProvider.beginUpdate();
         PerformanceMonitor.endActivity();
 
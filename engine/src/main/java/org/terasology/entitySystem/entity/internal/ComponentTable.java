@@ -19,22 +19,70 @@
 import com.google.common.collect.Maps;
 import gnu.trove.iterator.TLongIterator;
 import gnu.trove.iterator.TLongObjectIterator;
+import gnu.trove.list.TLongList;
+import gnu.trove.list.array.TLongArrayList;
 import gnu.trove.map.TLongObjectMap;
 import gnu.trove.map.hash.TLongObjectHashMap;
 import gnu.trove.set.TLongSet;
 import gnu.trove.set.hash.TLongHashSet;
 import org.terasology.entitySystem.Component;
 
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * A table for storing entities and components. Focused on allowing iteration across a components of a given type
+ * <br><br>
+ * Optionally the table keeps an index of the entities matching each combination of component types that has been
+ * queried with {@link #getEntitiesWith(Class[])}. The index gets updated whenever a component is added or removed, so
+ * repeated queries only cost as much as there are matching entities. As every index adds to the cost of adding and
+ * removing its components, only the {@link #MAX_INDEXED_QUERIES} most recently used queries are indexed.
+ * <br><br>
+ * Several threads may query the table at once, indexes are only added and dropped while holding a lock.
  *
  */
 class ComponentTable {
+    /**
+     * The maximum number of indexed queries, the least recently used one is dropped to make room for a new one
+     */
+    static final int MAX_INDEXED_QUERIES = 64;
+
     private Map<Class<?>, TLongObjectMap<Component>> store = Maps.newConcurrentMap();
 
+    private volatile boolean queryIndexEnabled = true;
+
+    /**
+     * The indexed queries, listed under each of the component types they consist of. The lists are copied on write,
+     * so that they can be iterated while queries get added or dropped.
+     */
+    private final Map<Class<?>, List<EntityQuery>> queriesByComponent = Maps.newConcurrentMap();
+
+    /**
+     * All indexed queries, guarded by itself. Adding and dropping queries is synchronized on it.
+     */
+    private final List<EntityQuery> indexedQueries = Lists.newArrayList();
+
+    private final AtomicLong queryClock = new AtomicLong();
+
+    /**
+     * @param enabled whether {@link #getEntitiesWith(Class[])} should index the entities matching each query, instead
+     *                of searching for them on every call.
+     */
+    public void setQueryIndexEnabled(boolean enabled) {
+        this.queryIndexEnabled = enabled;
+        if (!enabled) {
+            clearQueries();
+        }
+    }
+
+    public boolean isQueryIndexEnabled() {
+        return queryIndexEnabled;
+    }
+
     public <T extends Component> T get(long entityId, Class<T> componentClass) {
         TLongObjectMap<Component> entityMap = store.get(componentClass);
         if (entityMap != null) {
@@ -49,7 +97,11 @@ public Component put(long entityId, Component component) {
             entityMap = new TLongObjectHashMap<>();
             store.put(component.getClass(), entityMap);
         }
-        return entityMap.put(entityId, component);
+        Component oldComponent = entityMap.put(entityId, component);
+        if (oldComponent == null) {
+            onComponentAdded(entityId, component.getClass());
+        }
+        return oldComponent;
     }
 
     /**
@@ -60,7 +112,11 @@ public Component put(long entityId, Component component) {
     public <T extends Component> Component remove(long entityId, Class<T> componentClass) {
         TLongObjectMap<Component> entityMap = store.get(componentClass);
         if (entityMap != null) {
-            return entityMap.remove(entityId);
+            Component removed = entityMap.remove(entityId);
+            if (removed != null) {
+                onComponentRemoved(entityId, componentClass);
+            }
+            return removed;
         }
         return null;
     }
@@ -72,6 +128,7 @@ public List<Component> removeAndReturnComponentsOf(long entityId) {
             Component component = entityMap.remove(entityId);
             if (component != null) {
                 componentList.add(component);
+                onComponentRemoved(entityId, component.getClass());
             }
         }
         return componentList;
@@ -79,12 +136,23 @@ public List<Component> removeAndReturnComponentsOf(long entityId) {
 
     public void remove(long entityId) {
         for (TLongObjectMap<Component> entityMap : store.values()) {
-            entityMap.remove(entityId);
+            Component component = entityMap.remove(entityId);
+            if (component != null) {
+                onComponentRemoved(entityId, component.getClass());
+            }
         }
     }
 
     public void clear() {
         store.clear();
+        clearQueries();
+    }
+
+    private void clearQueries() {
+        synchronized (indexedQueries) {
+            indexedQueries.clear();
+            queriesByComponent.clear();
+        }
     }
 
     public int getComponentCount(Class<? extends Component> componentClass) {
@@ -149,4 +217,182 @@ public int numEntities() {
         return idSet.size();
     }
 
+    /**
+     * @return the ids of all entities that have all of the given components. The list is a snapshot, it does not
+     *         change when components get added or removed later on, and it must not be modified.
+     */
+    public TLongList getEntitiesWith(Class<? extends Component>[] componentClasses) {
+        if (!queryIndexEnabled) {
+            return findEntitiesWith(componentClasses);
+        }
+        EntityQuery query = getQuery(componentClasses);
+        if (query == null) {
+            query = createQuery(componentClasses);
+        }
+        query.lastUse = queryClock.incrementAndGet();
+        return query.getSnapshot();
+    }
+
+    /**
+     * Counts the entities that have all of the given components. Uses the index of the query if there is one, but
+     * does not create one.
+     */
+    public int getCountOfEntitiesWith(Class<? extends Component>[] componentClasses) {
+        EntityQuery query = queryIndexEnabled ? getQuery(componentClasses) : null;
+        if (query != null) {
+            return query.size();
+        }
+        TLongObjectMap<Component> primeMap = store.get(componentClasses[0]);
+        if (primeMap == null) {
+            return 0;
+        }
+        int count = 0;
+        TLongObjectIterator<Component> primeIterator = primeMap.iterator();
+        while (primeIterator.hasNext()) {
+            primeIterator.advance();
+            if (hasAll(primeIterator.key(), componentClasses, 1)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * @return the number of queries with an index, for tests.
+     */
+    int getIndexedQueryCount() {
+        synchronized (indexedQueries) {
+            return indexedQueries.size();
+        }
+    }
+
+    private TLongList findEntitiesWith(Class<? extends Component>[] componentClasses) {
+        TLongObjectMap<Component> primeMap = store.get(componentClasses[0]);
+        if (primeMap == null) {
+            return new TLongArrayList(0);
+        }
+        TLongList idList = new TLongArrayList();
+        TLongObjectIterator<Component> primeIterator = primeMap.iterator();
+        while (primeIterator.hasNext()) {
+            primeIterator.advance();
+            long id = primeIterator.key();
+            if (hasAll(id, componentClasses, 1)) {
+                idList.add(id);
+            }
+        }
+        return idList;
+    }
+
+    private boolean hasAll(long entityId, Class<?>[] componentClasses, int start) {
+        for (int i = start; i < componentClasses.length; ++i) {
+            TLongObjectMap<Component> entityMap = store.get(componentClasses[i]);
+            if (entityMap == null || !entityMap.containsKey(entityId)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private EntityQuery getQuery(Class<?>[] componentClasses) {
+        List<EntityQuery> candidates = queriesByComponent.get(componentClasses[0]);
+        if (candidates != null) {
+            for (EntityQuery query : candidates) {
+                if (Arrays.equals(query.componentClasses, componentClasses)) {
+                    return query;
+                }
+            }
+        }
+        return null;
+    }
+
+    private EntityQuery createQuery(Class<? extends Component>[] componentClasses) {
+        synchronized (indexedQueries) {
+            EntityQuery query = getQuery(componentClasses);
+            if (query != null) {
+                return query;
+            }
+            if (indexedQueries.size() >= MAX_INDEXED_QUERIES) {
+                dropLeastRecentlyUsedQuery();
+            }
+            query = new EntityQuery(componentClasses.clone());
+            // the query receives changes once registered, but they wait until its initial members have been found
+            synchronized (query) {
+                indexedQueries.add(query);
+                for (Class<?> componentClass : query.componentClasses) {
+                    List<EntityQuery> queries = queriesByComponent.computeIfAbsent(componentClass,
+                            key -> new CopyOnWriteArrayList<>());
+                    if (!queries.contains(query)) {
+                        queries.add(query);
+                    }
+                }
+                query.members.addAll(findEntitiesWith(componentClasses));
+            }
+            return query;
+        }
+    }
+
+    private void dropLeastRecentlyUsedQuery() {
+        EntityQuery leastRecentlyUsed = indexedQueries.get(0);
+        for (EntityQuery query : indexedQueries) {
+            if (query.lastUse < leastRecentlyUsed.lastUse) {
+                leastRecentlyUsed = query;
+            }
+        }
+        indexedQueries.remove(leastRecentlyUsed);
+        for (Class<?> componentClass : leastRecentlyUsed.componentClasses) {
+            queriesByComponent.get(componentClass).remove(leastRecentlyUsed);
+        }
+    }
+
+    private void onComponentAdded(long entityId, Class<?> componentClass) {
+        for (EntityQuery query : queriesByComponent.getOrDefault(componentClass, Collections.emptyList())) {
+            if (hasAll(entityId, query.componentClasses, 0)) {
+                query.add(entityId);
+            }
+        }
+    }
+
+    private void onComponentRemoved(long entityId, Class<?> componentClass) {
+        for (EntityQuery query : queriesByComponent.getOrDefault(componentClass, Collections.emptyList())) {
+            query.remove(entityId);
+        }
+    }
+
+    /**
+     * The entities having all components of a set of component types. The snapshot handed out to callers gets
+     * replaced rather than modified when the members change, so that callers can keep iterating over it.
+     */
+    private static final class EntityQuery {
+        private final Class<?>[] componentClasses;
+        private final TLongSet members = new TLongHashSet();
+        private TLongList snapshot;
+        private volatile long lastUse;
+
+        private EntityQuery(Class<?>[] componentClasses) {
+            this.componentClasses = componentClasses;
+        }
+
+        private synchronized void add(long entityId) {
+            if (members.add(entityId)) {
+                snapshot = null;
+            }
+        }
+
+        private synchronized void remove(long entityId) {
+            if (members.remove(entityId)) {
+                snapshot = null;
+            }
+        }
+
+        private synchronized int size() {
+            return members.size();
+        }
+
+        private synchronized TLongList getSnapshot() {
+            if (snapshot == null) {
+                snapshot = new TLongArrayList(members);
+            }
+            return snapshot;
+        }
+    }
 }
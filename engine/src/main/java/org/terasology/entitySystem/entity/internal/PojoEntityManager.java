@@ -24,7 +24,6 @@
 import gnu.trove.iterator.TLongIterator;
 import gnu.trove.iterator.TLongObjectIterator;
 import gnu.trove.list.TLongList;
-import gnu.trove.list.array.TLongArrayList;
 import gnu.trove.set.TLongSet;
 import gnu.trove.set.hash.TLongHashSet;
 
@@ -96,6 +95,14 @@ public void setPrefabManager(PrefabManager prefabManager) {
         this.prefabManager = prefabManager;
     }
 
+    /**
+     * @param enabled whether the entities matching each combination of components passed to
+     *                {@link #getEntitiesWith(Class[])} should be indexed. Enabled by default.
+     */
+    public void setComponentQueryIndexEnabled(boolean enabled) {
+        store.setQueryIndexEnabled(enabled);
+    }
+
     @Override
     public void clear() {
         entityCache.values().forEach(BaseEntityRef::invalidate);
@@ -306,45 +313,7 @@ public final Iterable<EntityRef> getEntitiesWith(Class<? extends Component>... c
         if (componentClasses.length == 0) {
             return getAllEntities();
         }
-        if (componentClasses.length == 1) {
-            return iterateEntities(componentClasses[0]);
-        }
-        TLongList idList = new TLongArrayList();
-        TLongObjectIterator<? extends Component> primeIterator = store.componentIterator(componentClasses[0]);
-        if (primeIterator == null) {
-            return Collections.emptyList();
-        }
-
-        while (primeIterator.hasNext()) {
-            primeIterator.advance();
-            long id = primeIterator.key();
-            boolean discard = false;
-            for (int i = 1; i < componentClasses.length; ++i) {
-                if (store.get(id, componentClasses[i]) == null) {
-                    discard = true;
-                    break;
-                }
-            }
-            if (!discard) {
-                idList.add(primeIterator.key());
-            }
-        }
-        return new EntityIterable(idList);
-    }
-
-    private Iterable<EntityRef> iterateEntities(Class<? extends Component> componentClass) {
-        TLongList idList = new TLongArrayList();
-        TLongObjectIterator<? extends Component> primeIterator = store.componentIterator(componentClass);
-        if (primeIterator == null) {
-            return Collections.emptyList();
-        }
-
-        while (primeIterator.hasNext()) {
-            primeIterator.advance();
-            long id = primeIterator.key();
-            idList.add(primeIterator.key());
-        }
-        return new EntityIterable(idList);
+        return new EntityIterable(store.getEntitiesWith(componentClasses));
     }
 
     @Override
@@ -736,7 +705,7 @@ public final int getCountOfEntitiesWith(Class<? extends Component>... componentC
             case 1:
                 return store.getComponentCount(componentClasses[0]);
             default:
-                return Lists.newArrayList(getEntitiesWith(componentClasses)).size();
+                return store.getCountOfEntitiesWith(componentClasses);
         }
     }
 
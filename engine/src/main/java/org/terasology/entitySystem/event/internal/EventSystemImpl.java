@@ -56,7 +56,6 @@
 import java.lang.reflect.Modifier;
 import java.util.Arrays;
 import java.util.Collection;
-import java.util.Collections;
 import java.util.Comparator;
 import java.util.Iterator;
 import java.util.List;
@@ -76,6 +75,11 @@ public class EventSystemImpl implements EventSystem {
     private SetMultimap<Class<? extends Event>, EventHandlerInfo> generalHandlers = HashMultimap.create();
     private Comparator<EventHandlerInfo> priorityComparator = new EventHandlerPriorityComparator();
 
+    /**
+     * The handlers of each event type, sorted and ready to be invoked. Cleared whenever handlers change.
+     */
+    private Map<Class<? extends Event>, DispatchTable> dispatchTables = Maps.newHashMap();
+
     // Event metadata
     private BiMap<SimpleUri, Class<? extends Event>> eventIdMap = HashBiMap.create();
     private SetMultimap<Class<? extends Event>, Class<? extends Event>> childEvents = HashMultimap.create();
@@ -174,6 +178,7 @@ public void registerEventHandler(ComponentSystem handler) {
 
     @Override
     public void unregisterEventHandler(ComponentSystem handler) {
+        dispatchTables.clear();
         for (SetMultimap<Class<? extends Component>, EventHandlerInfo> eventHandlers : componentSpecificHandlers.values()) {
             Iterator<EventHandlerInfo> eventHandlerIterator = eventHandlers.values().iterator();
             while (eventHandlerIterator.hasNext()) {
@@ -194,6 +199,7 @@ public void unregisterEventHandler(ComponentSystem handler) {
     }
 
     private void addEventHandler(Class<? extends Event> type, EventHandlerInfo handler, Collection<Class<? extends Component>> components) {
+        dispatchTables.clear();
         if (components.isEmpty()) {
             generalHandlers.put(type, handler);
             for (Class<? extends Event> childType : childEvents.get(type)) {
@@ -231,6 +237,7 @@ public <T extends Event> void registerEventReceiver(EventReceiver<T> eventReceiv
 
     @Override
     public <T extends Event> void unregisterEventReceiver(EventReceiver<T> eventReceiver, Class<T> eventClass, Class<? extends Component>... componentTypes) {
+        dispatchTables.clear();
         SetMultimap<Class<? extends Component>, EventHandlerInfo> eventHandlerMap = componentSpecificHandlers.get(eventClass);
         if (eventHandlerMap != null) {
             ReceiverEventHandlerInfo testReceiver = new ReceiverEventHandlerInfo<>(eventReceiver, 0, componentTypes);
@@ -250,9 +257,7 @@ public void send(EntityRef entity, Event event) {
         } else {
             networkReplicate(entity, event);
 
-            Set<EventHandlerInfo> selectedHandlersSet = selectEventHandlers(event.getClass(), entity);
-            List<EventHandlerInfo> selectedHandlers = Lists.newArrayList(selectedHandlersSet);
-            Collections.sort(selectedHandlers, priorityComparator);
+            EventHandlerInfo[] selectedHandlers = getDispatchTable(event.getClass()).getHandlers(entity);
 
             if (event instanceof ConsumableEvent) {
                 sendConsumableEvent(entity, event, selectedHandlers);
@@ -262,7 +267,7 @@ public void send(EntityRef entity, Event event) {
         }
     }
 
-    private void sendStandardEvent(EntityRef entity, Event event, List<EventHandlerInfo> selectedHandlers) {
+    private void sendStandardEvent(EntityRef entity, Event event, EventHandlerInfo[] selectedHandlers) {
         for (EventHandlerInfo handler : selectedHandlers) {
             // Check isValid at each stage in case components were removed.
             if (handler.isValidFor(entity)) {
@@ -271,7 +276,7 @@ private void sendStandardEvent(EntityRef entity, Event event, List<EventHandlerI
         }
     }
 
-    private void sendConsumableEvent(EntityRef entity, Event event, List<EventHandlerInfo> selectedHandlers) {
+    private void sendConsumableEvent(EntityRef entity, Event event, EventHandlerInfo[] selectedHandlers) {
         ConsumableEvent consumableEvent = (ConsumableEvent) event;
         for (EventHandlerInfo handler : selectedHandlers) {
             // Check isValid at each stage in case components were removed.
@@ -348,50 +353,196 @@ public void send(EntityRef entity, Event event, Component component) {
         if (Thread.currentThread() != mainThread) {
             pendingEvents.offer(new PendingEvent(entity, event, component));
         } else {
-            SetMultimap<Class<? extends Component>, EventHandlerInfo> handlers = componentSpecificHandlers.get(event.getClass());
-            if (handlers != null) {
-                List<EventHandlerInfo> eventHandlers = Lists.newArrayList(handlers.get(component.getClass()));
-                Collections.sort(eventHandlers, priorityComparator);
-                for (EventHandlerInfo eventHandler : eventHandlers) {
-                    if (eventHandler.isValidFor(entity)) {
-                        eventHandler.invoke(entity, event);
-                    }
+            for (EventHandlerInfo eventHandler : getDispatchTable(event.getClass()).getHandlers(component.getClass())) {
+                if (eventHandler.isValidFor(entity)) {
+                    eventHandler.invoke(entity, event);
                 }
             }
         }
     }
 
-    private Set<EventHandlerInfo> selectEventHandlers(Class<? extends Event> eventType, EntityRef entity) {
-        Set<EventHandlerInfo> result = Sets.newHashSet();
-        result.addAll(generalHandlers.get(eventType));
-        SetMultimap<Class<? extends Component>, EventHandlerInfo> handlers = componentSpecificHandlers.get(eventType);
-        if (handlers == null) {
-            return result;
+    private DispatchTable getDispatchTable(Class<? extends Event> eventType) {
+        DispatchTable table = dispatchTables.get(eventType);
+        if (table == null) {
+            table = new DispatchTable(generalHandlers.get(eventType), componentSpecificHandlers.get(eventType), priorityComparator);
+            dispatchTables.put(eventType, table);
+        }
+        return table;
+    }
+
+    private static class EventHandlerPriorityComparator implements Comparator<EventHandlerInfo> {
+
+        @Override
+        public int compare(EventHandlerInfo o1, EventHandlerInfo o2) {
+            return o2.getPriority() - o1.getPriority();
+        }
+    }
+
+    /**
+     * The handlers of one event type. For every combination of the relevant components an entity has, the handlers it
+     * receives the event with are selected and sorted once, so that sending an event only requires checking which of
+     * the relevant components the entity has.
+     * <br><br>
+     * Only used from the main thread.
+     */
+    private static final class DispatchTable {
+        /**
+         * The amount of component combinations to remember, to bound the memory use with unusual entities
+         */
+        private static final int MAX_PLANS = 1024;
+
+        private final EventHandlerInfo[] generalPlan;
+        private final SetMultimap<Class<? extends Component>, EventHandlerInfo> componentHandlers;
+        private final Comparator<EventHandlerInfo> priorityComparator;
+
+        private final List<Class<? extends Component>> relevantComponents = Lists.newArrayList();
+        private final Map<EventHandlerInfo, ComponentSignature> requiredComponents = Maps.newHashMap();
+        private final Map<ComponentSignature, EventHandlerInfo[]> plans = Maps.newHashMap();
+        private final Map<Class<? extends Component>, EventHandlerInfo[]> componentPlans = Maps.newHashMap();
+        private final ComponentSignature probe;
+
+        DispatchTable(Collection<EventHandlerInfo> generalHandlers,
+                      SetMultimap<Class<? extends Component>, EventHandlerInfo> componentHandlers,
+                      Comparator<EventHandlerInfo> priorityComparator) {
+            this.priorityComparator = priorityComparator;
+            this.generalPlan = sort(generalHandlers);
+            this.componentHandlers = (componentHandlers != null) ? componentHandlers : HashMultimap.create();
+
+            for (EventHandlerInfo handler : this.componentHandlers.values()) {
+                for (Class<? extends Component> component : handler.getFilterComponents()) {
+                    if (!relevantComponents.contains(component)) {
+                        relevantComponents.add(component);
+                    }
+                }
+            }
+            for (EventHandlerInfo handler : this.componentHandlers.values()) {
+                ComponentSignature signature = new ComponentSignature(relevantComponents.size());
+                for (Class<? extends Component> component : handler.getFilterComponents()) {
+                    signature.set(relevantComponents.indexOf(component));
+                }
+                signature.updateHash();
+                requiredComponents.put(handler, signature);
+            }
+            probe = new ComponentSignature(relevantComponents.size());
         }
 
-        for (Class<? extends Component> compClass : handlers.keySet()) {
-            if (entity.hasComponent(compClass)) {
-                for (EventHandlerInfo eventHandler : handlers.get(compClass)) {
-                    if (eventHandler.isValidFor(entity)) {
-                        result.add(eventHandler);
+        /**
+         * @return the handlers to send an event to the given entity with, in the order they should be invoked.
+         */
+        EventHandlerInfo[] getHandlers(EntityRef entity) {
+            if (relevantComponents.isEmpty()) {
+                return generalPlan;
+            }
+            probe.clear();
+            for (int i = 0; i < relevantComponents.size(); ++i) {
+                if (entity.hasComponent(relevantComponents.get(i))) {
+                    probe.set(i);
+                }
+            }
+            probe.updateHash();
+            EventHandlerInfo[] plan = plans.get(probe);
+            if (plan == null) {
+                ComponentSignature signature = probe.copy();
+                List<EventHandlerInfo> selected = Lists.newArrayList(generalPlan);
+                for (Map.Entry<EventHandlerInfo, ComponentSignature> entry : requiredComponents.entrySet()) {
+                    if (signature.containsAll(entry.getValue())) {
+                        selected.add(entry.getKey());
                     }
                 }
+                plan = sort(selected);
+                if (plans.size() >= MAX_PLANS) {
+                    plans.clear();
+                }
+                plans.put(signature, plan);
             }
+            return plan;
+        }
+
+        /**
+         * @return the handlers to send an event about the given component with, in the order they should be invoked.
+         */
+        EventHandlerInfo[] getHandlers(Class<? extends Component> component) {
+            EventHandlerInfo[] plan = componentPlans.get(component);
+            if (plan == null) {
+                plan = sort(componentHandlers.get(component));
+                componentPlans.put(component, plan);
+            }
+            return plan;
+        }
+
+        private EventHandlerInfo[] sort(Collection<EventHandlerInfo> handlers) {
+            EventHandlerInfo[] result = handlers.toArray(new EventHandlerInfo[handlers.size()]);
+            Arrays.sort(result, priorityComparator);
+            return result;
         }
-        return result;
     }
 
-    private static class EventHandlerPriorityComparator implements Comparator<EventHandlerInfo> {
+    /**
+     * A set of components, as bits of the indices of the relevant components of a {@link DispatchTable}.
+     */
+    private static final class ComponentSignature {
+        private final long[] words;
+        private int hash;
+
+        ComponentSignature(int componentCount) {
+            words = new long[(componentCount + 63) >>> 6];
+        }
+
+        private ComponentSignature(long[] words, int hash) {
+            this.words = words;
+            this.hash = hash;
+        }
+
+        void set(int index) {
+            words[index >>> 6] |= 1L << index;
+        }
+
+        void clear() {
+            Arrays.fill(words, 0L);
+        }
+
+        void updateHash() {
+            hash = Arrays.hashCode(words);
+        }
+
+        boolean containsAll(ComponentSignature other) {
+            for (int i = 0; i < words.length; ++i) {
+                if ((words[i] & other.words[i]) != other.words[i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        ComponentSignature copy() {
+            return new ComponentSignature(words.clone(), hash);
+        }
 
         @Override
-        public int compare(EventHandlerInfo o1, EventHandlerInfo o2) {
-            return o2.getPriority() - o1.getPriority();
+        public boolean equals(Object obj) {
+            if (obj == this) {
+                return true;
+            }
+            if (obj instanceof ComponentSignature) {
+                return Arrays.equals(words, ((ComponentSignature) obj).words);
+            }
+            return false;
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
         }
     }
 
     private interface EventHandlerInfo {
         boolean isValidFor(EntityRef entity);
 
+        /**
+         * @return the components an entity must have to receive the event with this handler.
+         */
+        Collection<Class<? extends Component>> getFilterComponents();
+
         void invoke(EntityRef entity, Event event);
 
         int getPriority();
@@ -428,6 +579,11 @@ public boolean isValidFor(EntityRef entity) {
             return true;
         }
 
+        @Override
+        public Collection<Class<? extends Component>> getFilterComponents() {
+            return filterComponents;
+        }
+
         @Override
         public void invoke(EntityRef entity, Event event) {
             try {
@@ -490,6 +646,11 @@ public boolean isValidFor(EntityRef entity) {
             return true;
         }
 
+        @Override
+        public Collection<Class<? extends Component>> getFilterComponents() {
+            return filterComponents;
+        }
+
         @Override
         public void invoke(EntityRef entity, Event event) {
             try {
@@ -546,6 +707,11 @@ public boolean isValidFor(EntityRef entity) {
             return true;
         }
 
+        @Override
+        public Collection<Class<? extends Component>> getFilterComponents() {
+            return Arrays.asList(components);
+        }
+
         @Override
         public void invoke(EntityRef entity, Event event) {
             receiver.onEvent((T) event, entity);
@@ -0,0 +1,85 @@
+/*
+ * Copyright 2016 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.monitoring;
+
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableSortedMap;
+import com.google.common.collect.Maps;
+
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Keeps named, monotonically increasing counters (cache hits, bytes written, chunks processed, ...).
+ * <br><br>
+ * In contrast to the {@link PerformanceMonitor} the counters may be increased from any thread. They are meant for
+ * background systems like storage or the chunk pipeline whose work does not happen inside of the main loop.
+ */
+public final class CounterMonitor {
+
+    private static final Map<String, LongAdder> COUNTERS = Maps.newConcurrentMap();
+
+    private CounterMonitor() {
+    }
+
+    /**
+     * Increases the counter with the given name by one.
+     *
+     * @param name the name of the counter, the counter gets created if it does not exist yet.
+     */
+    public static void increment(String name) {
+        getCounter(name).increment();
+    }
+
+    /**
+     * Increases the counter with the given name by the given amount.
+     *
+     * @param name   the name of the counter, the counter gets created if it does not exist yet.
+     * @param amount the amount to add to the counter
+     */
+    public static void add(String name, long amount) {
+        getCounter(name).add(amount);
+    }
+
+    /**
+     * @return the current value of the counter or 0 if the counter does not exist.
+     */
+    public static long get(String name) {
+        LongAdder counter = COUNTERS.get(name);
+        return counter != null ? counter.sum() : 0;
+    }
+
+    /**
+     * @return a snapshot of all counters, sorted by name.
+     */
+    public static SortedMap<String, Long> getCounters() {
+        ImmutableSortedMap.Builder<String, Long> builder = ImmutableSortedMap.naturalOrder();
+        for (Map.Entry<String, LongAdder> entry : COUNTERS.entrySet()) {
+            builder.put(entry.getKey(), entry.getValue().sum());
+        }
+        return builder.build();
+    }
+
+    private static LongAdder getCounter(String name) {
+        Preconditions.checkNotNull(name, "The parameter 'name' must not be null");
+        LongAdder counter = COUNTERS.get(name);
+        if (counter == null) {
+            counter = COUNTERS.computeIfAbsent(name, key -> new LongAdder());
+        }
+        return counter;
+    }
+}
@@ -20,6 +20,8 @@
 import org.terasology.monitoring.impl.PerformanceMonitorImpl;
 import org.terasology.monitoring.impl.PerformanceMonitorInternal;
 
+import java.nio.file.Path;
+
 /**
  * Maintains a running average of execution times and memory allocated by different activities.
  * Activities call to denote when they start and stop.
@@ -27,8 +29,9 @@
  * Activities may be nested, and while a nested activity is running the collection of data from outer activities
  * is paused: time passing and allocated memory are not assigned to them.
  * <br><br>
- * Performance monitor is intended only for use by the main thread of Terasology, and does not handle
- * activities being started and ended on other threads at this time.
+ * Activities can be started and ended on any thread, each thread has its own activities. Activities of threads other
+ * than the main thread are reported with the thread group as prefix of their name, e.g. "Chunk-Generator: Generate
+ * chunk", and become visible with the next {@link #rollCycle()}.
  */
 public final class PerformanceMonitor {
     private static PerformanceMonitorInternal instance;
@@ -130,9 +133,12 @@ public static TObjectDoubleMap<String> getDecayingSpikes() {
      * Activities may be nested, and while a nested activity is running the collection of data from
      * outer activities is paused and allocated memory is not assigned to them.
      * <br><br>
-     * No guarantee can be given that the memory allocated during the execution of an activity is
-     * entirely due to the activity. Other threads for example might increase or decrease the
-     * figure.
+     * Where the JVM supports it only memory allocated by the thread running the activity is counted.
+     * Otherwise no guarantee can be given that the memory allocated during the execution of an activity
+     * is entirely due to the activity. Other threads for example might increase or decrease the figure.
+     * <br><br>
+     * Reading the allocation counter adds to the time of every activity, so allocations are only measured for a few
+     * seconds after they were last queried. The first query therefore returns no allocations.
      *
      * @return a mapping from activity name to running mean of allocated memory.
      */
@@ -140,17 +146,89 @@ public static TObjectDoubleMap<String> getAllocationMean() {
         return instance.getAllocationMean();
     }
 
+    /**
+     * Returns a mapping from the name of a thread group to a running mean of the time its threads spent in activities,
+     * over a number of cycles. A thread group consists of all threads with the same name apart from their number, e.g.
+     * all threads of the chunk generator.
+     * <br><br>
+     * The time of all threads of a group adds up, so a group of four busy threads can exceed the length of a cycle.
+     * The main thread is not part of any group.
+     *
+     * @return a mapping from thread group name to running mean of execution times.
+     */
+    public static TObjectDoubleMap<String> getThreadGroupRunningMean() {
+        return instance.getThreadGroupRunningMean();
+    }
+
+    /**
+     * Returns a mapping from the name of a thread group to a running mean of the memory its threads allocated during
+     * activities, over a number of cycles. See {@link #getThreadGroupRunningMean()} for what makes up a thread group.
+     *
+     * @return a mapping from thread group name to running mean of allocated memory.
+     */
+    public static TObjectDoubleMap<String> getThreadGroupAllocationMean() {
+        return instance.getThreadGroupAllocationMean();
+    }
+
+    /**
+     * Starts recording the start and end of every activity on every thread, so that they can be written to a trace
+     * file with {@link #dumpTrace(Path)}. Only the most recent activities of each thread are kept.
+     * <br><br>
+     * Has no effect while the Performance Monitoring system is disabled.
+     */
+    public static void startTraceRecording() {
+        instance.startTraceRecording();
+    }
+
+    /**
+     * Stops recording activities for traces. Activities recorded so far can still be dumped.
+     */
+    public static void stopTraceRecording() {
+        instance.stopTraceRecording();
+    }
+
+    /**
+     * @return true if activities are currently recorded for traces.
+     */
+    public static boolean isTraceRecording() {
+        return instance.isTraceRecording();
+    }
+
+    /**
+     * Makes the Performance Monitoring system dump a trace automatically whenever a cycle takes longer than the given
+     * threshold while trace recording is active. Automatic dumps are at least 30 seconds apart.
+     *
+     * @param thresholdMs the cycle length in milliseconds that triggers a dump, zero or less disables the trigger.
+     * @param directory   the directory the traces get written to.
+     */
+    public static void setTraceTriggerThreshold(float thresholdMs, Path directory) {
+        instance.setTraceTriggerThreshold(thresholdMs, directory);
+    }
+
+    /**
+     * Writes the activities recorded since trace recording started to the given file, in the Chrome trace event
+     * format. The file can be opened with chrome://tracing or Perfetto.
+     * <br><br>
+     * The activities are copied immediately, the file is written by a background thread.
+     *
+     * @param file the file to write.
+     */
+    public static void dumpTrace(Path file) {
+        instance.dumpTrace(file);
+    }
+
     /**
      * Enables or disables the Performance Monitoring system.
      * <br><br>
      * When disabled all data is purged and calls to startActivity()/endActivity() and rollCycle() are ignored.
+     * While trace recording is active the system cannot be disabled.
      *
      * @param enabled True turns the Performance Monitoring system ON. False turns it OFF.
      */
     public static void setEnabled(boolean enabled) {
         if (enabled && !(instance instanceof PerformanceMonitorImpl)) {
             instance = new PerformanceMonitorImpl();
-        } else if (!enabled && !(instance instanceof NullPerformanceMonitor)) {
+        } else if (!enabled && !(instance instanceof NullPerformanceMonitor) && !instance.isTraceRecording()) {
             instance = new NullPerformanceMonitor();
         }
     }
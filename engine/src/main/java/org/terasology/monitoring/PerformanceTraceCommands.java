@@ -0,0 +1,72 @@
+/*
+ * Copyright 2016 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.monitoring;
+
+import org.terasology.engine.paths.PathManager;
+import org.terasology.entitySystem.systems.BaseComponentSystem;
+import org.terasology.entitySystem.systems.RegisterSystem;
+import org.terasology.logic.console.commandSystem.annotations.Command;
+import org.terasology.logic.console.commandSystem.annotations.CommandParam;
+import org.terasology.logic.permission.PermissionManager;
+
+import java.nio.file.Path;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+
+/**
+ * Commands to record activity traces of the performance monitor, e.g. to find the cause of frame hitches on a
+ * headless server. Traces are written to the "traces" directory in the log directory.
+ */
+@RegisterSystem
+public class PerformanceTraceCommands extends BaseComponentSystem {
+
+    private static final String TRACE_DIR = "traces";
+
+    @Command(shortDescription = "Starts recording activities for traces",
+            helpText = "Optionally a trace is written automatically whenever a frame takes longer than the given number of milliseconds",
+            runOnServer = true, requiredPermission = PermissionManager.SERVER_MANAGEMENT_PERMISSION)
+    public String startTrace(@CommandParam(value = "hitchThresholdMs", required = false) Float hitchThreshold) {
+        PerformanceMonitor.setEnabled(true);
+        PerformanceMonitor.startTraceRecording();
+        if (hitchThreshold != null && hitchThreshold > 0) {
+            PerformanceMonitor.setTraceTriggerThreshold(hitchThreshold, getTracePath());
+            return "Recording activities, frames longer than " + hitchThreshold + " ms are written to " + getTracePath();
+        }
+        PerformanceMonitor.setTraceTriggerThreshold(0, getTracePath());
+        return "Recording activities, use dumpTrace to write them to a file";
+    }
+
+    @Command(shortDescription = "Stops recording activities for traces",
+            runOnServer = true, requiredPermission = PermissionManager.SERVER_MANAGEMENT_PERMISSION)
+    public String stopTrace() {
+        PerformanceMonitor.stopTraceRecording();
+        PerformanceMonitor.setTraceTriggerThreshold(0, getTracePath());
+        return "Stopped recording activities";
+    }
+
+    @Command(shortDescription = "Writes the recorded activities to a Chrome trace file",
+            helpText = "The file can be opened with chrome://tracing or Perfetto",
+            runOnServer = true, requiredPermission = PermissionManager.SERVER_MANAGEMENT_PERMISSION)
+    public String dumpTrace() {
+        Path file = getTracePath().resolve("trace-" + new SimpleDateFormat("yyyyMMdd-HHmmss").format(new Date()) + ".json");
+        PerformanceMonitor.dumpTrace(file);
+        return "Writing trace to " + file;
+    }
+
+    private Path getTracePath() {
+        return PathManager.getInstance().getLogPath().resolve(TRACE_DIR);
+    }
+}
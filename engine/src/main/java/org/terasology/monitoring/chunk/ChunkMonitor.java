@@ -19,6 +19,7 @@
 import com.google.common.collect.Maps;
 import com.google.common.eventbus.EventBus;
 import org.terasology.math.geom.Vector3i;
+import org.terasology.monitoring.CounterMonitor;
 import org.terasology.rendering.primitives.ChunkMesh;
 import org.terasology.world.chunks.Chunk;
 import org.terasology.world.chunks.ChunkProvider;
@@ -28,6 +29,17 @@
 
 public final class ChunkMonitor {
 
+    /**
+     * The name of the {@link CounterMonitor} counter of the blocks changed in the world
+     */
+    public static final String BLOCK_EDITS_COUNTER = "Chunks - block edits";
+
+    /**
+     * The name of the {@link CounterMonitor} counter of the chunks which got marked dirty, and so will be
+     * re-tessellated, because of changed blocks or the light changes propagated from them
+     */
+    public static final String BLOCK_EDIT_REMESHES_COUNTER = "Chunks - re-meshes triggered by block edits";
+
     private static final EventBus EVENT_BUS = new EventBus("ChunkMonitor");
     private static final Map<Vector3i, ChunkMonitorEntry> CHUNKS = Maps.newConcurrentMap();
 
@@ -92,6 +104,22 @@ public static void fireChunkTessellated(Vector3i chunkPos, ChunkMesh mesh) {
         post(new ChunkMonitorEvent.Tessellated(chunkPos, mesh));
     }
 
+    public static void fireBlocksEdited(int blockCount) {
+        CounterMonitor.add(BLOCK_EDITS_COUNTER, blockCount);
+    }
+
+    public static void fireChunksDirtied(int chunkCount) {
+        CounterMonitor.add(BLOCK_EDIT_REMESHES_COUNTER, chunkCount);
+    }
+
+    /**
+     * @return the average number of chunks re-tessellated per changed block, or 0 if no block has been changed yet
+     */
+    public static double getRemeshesPerBlockEdit() {
+        long edits = CounterMonitor.get(BLOCK_EDITS_COUNTER);
+        return edits == 0 ? 0 : (double) CounterMonitor.get(BLOCK_EDIT_REMESHES_COUNTER) / edits;
+    }
+
     public static synchronized void getChunks(List<ChunkMonitorEntry> output) {
         Preconditions.checkNotNull(output, "The parameter 'output' must not be null");
         output.addAll(CHUNKS.values());
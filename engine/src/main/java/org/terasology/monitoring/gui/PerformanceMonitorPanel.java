@@ -17,6 +17,7 @@
 
 import com.google.common.base.Preconditions;
 import gnu.trove.map.TObjectDoubleMap;
+import gnu.trove.map.hash.TObjectDoubleHashMap;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.terasology.monitoring.PerformanceMonitor;
@@ -39,6 +40,11 @@
 public class PerformanceMonitorPanel extends JPanel {
     private static final Logger logger = LoggerFactory.getLogger(PerformanceMonitorPanel.class);
 
+    /**
+     * Appended to thread group names, to list the total of all activities of a thread group
+     */
+    private static final String THREAD_GROUP_SUFFIX = " (all threads)";
+
     private final HeaderPanel header;
     private final JList list;
 
@@ -58,6 +64,7 @@ private static class HeaderPanel extends JPanel {
         private final JLabel lName = new JLabel("Title");
         private final JLabel lMean = new JLabel("Running Means");
         private final JLabel lSpike = new JLabel("Decaying Spikes");
+        private final JLabel lAllocation = new JLabel("Allocations");
 
         HeaderPanel() {
             setLayout(new FlowLayout(FlowLayout.LEFT, 4, 2));
@@ -65,6 +72,7 @@ private static class HeaderPanel extends JPanel {
             add(lName);
             add(lMean);
             add(lSpike);
+            add(lAllocation);
         }
 
         public void setNameSize(Dimension d) {
@@ -79,6 +87,7 @@ private static class Entry implements Comparable<Entry> {
         public boolean active;
         public double mean;
         public double spike;
+        public double allocation;
 
         Entry(String name) {
             this.name = (name == null) ? "" : name;
@@ -131,6 +140,7 @@ private static class MyRenderer extends JPanel {
             private final JLabel lName = new JLabel();
             private final JLabel lMean = new JLabel();
             private final JLabel lSpike = new JLabel();
+            private final JLabel lAllocation = new JLabel();
 
             private Dimension dName = new Dimension(0, 0);
 
@@ -148,9 +158,14 @@ private static class MyRenderer extends JPanel {
                 lSpike.setForeground(Color.gray);
                 lSpike.setPreferredSize(header.lSpike.getPreferredSize());
 
+                lAllocation.setHorizontalAlignment(SwingConstants.RIGHT);
+                lAllocation.setForeground(Color.gray);
+                lAllocation.setPreferredSize(header.lAllocation.getPreferredSize());
+
                 add(lName);
                 add(lMean);
                 add(lSpike);
+                add(lAllocation);
             }
 
             public void setEntry(Entry entry) {
@@ -167,10 +182,12 @@ public void setEntry(Entry entry) {
 
                     lMean.setText("  " + format.format(entry.mean) + " ms");
                     lSpike.setText("  " + format.format(entry.spike) + " ms");
+                    lAllocation.setText("  " + format.format(entry.allocation / 1024) + " KB");
                 } else {
                     lName.setText("");
                     lMean.setText("");
                     lSpike.setText("");
+                    lAllocation.setText("");
                 }
             }
         }
@@ -189,7 +206,17 @@ private PerformanceListModel() {
                     while (true) {
                         Thread.sleep(1000);
                         try (ThreadActivity ignored = ThreadMonitor.startThreadActivity("Poll")) {
-                            updateEntries(PerformanceMonitor.getRunningMean(), PerformanceMonitor.getDecayingSpikes());
+                            TObjectDoubleMap<String> means = new TObjectDoubleHashMap<>(PerformanceMonitor.getRunningMean());
+                            TObjectDoubleMap<String> allocations = new TObjectDoubleHashMap<>(PerformanceMonitor.getAllocationMean());
+                            PerformanceMonitor.getThreadGroupRunningMean().forEachEntry((group, value) -> {
+                                means.put(group + THREAD_GROUP_SUFFIX, value);
+                                return true;
+                            });
+                            PerformanceMonitor.getThreadGroupAllocationMean().forEachEntry((group, value) -> {
+                                allocations.put(group + THREAD_GROUP_SUFFIX, value);
+                                return true;
+                            });
+                            updateEntries(means, PerformanceMonitor.getDecayingSpikes(), allocations);
                         }
                     }
                 } catch (Exception e) {
@@ -214,7 +241,7 @@ private void invokeContentsChanged(final int a, final int b) {
             SwingUtilities.invokeLater(() -> fireContentsChanged(source, a, b));
         }
 
-        private void updateEntries(TObjectDoubleMap<String> means, TObjectDoubleMap<String> spikes) {
+        private void updateEntries(TObjectDoubleMap<String> means, TObjectDoubleMap<String> spikes, TObjectDoubleMap<String> allocations) {
             if (means != null) {
                 for (final Entry entry : list) {
                     entry.active = false;
@@ -238,6 +265,13 @@ private void updateEntries(TObjectDoubleMap<String> means, TObjectDoubleMap<Stri
                     }
                     return true;
                 });
+                allocations.forEachEntry((key, value) -> {
+                    Entry entry = map.get(key);
+                    if (entry != null) {
+                        entry.allocation = value;
+                    }
+                    return true;
+                });
                 Collections.sort(list);
                 invokeContentsChanged(0, list.size() - 1);
             }
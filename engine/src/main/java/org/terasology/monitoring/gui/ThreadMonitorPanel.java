@@ -86,6 +86,7 @@ private static class MyRenderer extends JPanel {
             private final JLabel lName = new JLabel();
             private final JLabel lId = new JLabel();
             private final JLabel lCounters = new JLabel();
+            private final JLabel lUsage = new JLabel();
             private final JLabel lActive = new JLabel();
             private final JPanel pError = new JPanel();
             private final JLabel lErrorSpacer = new JLabel();
@@ -107,12 +108,14 @@ private static class MyRenderer extends JPanel {
                 lId.setHorizontalAlignment(SwingConstants.RIGHT);
                 lName.setForeground(Color.blue);
                 lCounters.setForeground(Color.gray);
+                lUsage.setForeground(Color.gray);
 
                 pList.setLayout(new FlowLayout(FlowLayout.LEFT, 4, 2));
                 pList.setBackground(BACKGROUND);
                 pList.add(lId);
                 pList.add(lName);
                 pList.add(lCounters);
+                pList.add(lUsage);
 
                 pError.setVisible(false);
                 pError.setLayout(new FlowLayout(FlowLayout.LEFT, 4, 2));
@@ -145,6 +148,8 @@ public void setMonitor(SingleThreadMonitor monitor) {
                     lId.setPreferredSize(dId);
 
                     lCounters.setText(monitor.getLastTask());
+                    lUsage.setText(String.format("(%.1f s busy, %d MB allocated)", monitor.getBusyTime() / 1000.0,
+                            monitor.getAllocatedMemory() / (1024 * 1024)));
 
                     if (monitor.isAlive()) {
                         if (monitor.isActive()) {
@@ -168,6 +173,7 @@ public void setMonitor(SingleThreadMonitor monitor) {
                 } else {
                     lName.setText("");
                     lId.setText("");
+                    lUsage.setText("");
                     lActive.setText("");
                 }
             }
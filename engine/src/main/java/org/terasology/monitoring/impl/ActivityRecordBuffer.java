@@ -0,0 +1,107 @@
+/*
+ * Copyright 2016 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.monitoring.impl;
+
+/**
+ * A ring buffer of finished activities, written by a single thread and read by another one without locking.
+ * <br><br>
+ * When the buffer is full new records are dropped rather than blocking the recording thread.
+ */
+final class ActivityRecordBuffer {
+
+    private final String[] names;
+    private final long[] times;
+    private final long[] allocations;
+    private final int mask;
+
+    /**
+     * Only written by the recording thread, the volatile write publishes the record data.
+     */
+    private volatile long writeIndex;
+
+    /**
+     * Only written by the reading thread.
+     */
+    private volatile long readIndex;
+
+    private volatile long droppedRecords;
+
+    /**
+     * @param capacity the maximum number of unread records, must be a power of two.
+     */
+    ActivityRecordBuffer(int capacity) {
+        if (Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("Capacity must be a power of two: " + capacity);
+        }
+        names = new String[capacity];
+        times = new long[capacity];
+        allocations = new long[capacity];
+        mask = capacity - 1;
+    }
+
+    /**
+     * Called by the recording thread only.
+     *
+     * @return false if the record was dropped because the buffer is full.
+     */
+    boolean add(String name, long time, long allocated) {
+        long index = writeIndex;
+        if (index - readIndex > mask) {
+            droppedRecords++;
+            return false;
+        }
+        int slot = (int) index & mask;
+        names[slot] = name;
+        times[slot] = time;
+        allocations[slot] = allocated;
+        writeIndex = index + 1;
+        return true;
+    }
+
+    /**
+     * Passes all records added so far to the consumer and removes them. Called by the reading thread only.
+     *
+     * @return the number of records read.
+     */
+    int drain(RecordConsumer consumer) {
+        long start = readIndex;
+        long end = writeIndex;
+        for (long index = start; index < end; index++) {
+            int slot = (int) index & mask;
+            consumer.accept(names[slot], times[slot], allocations[slot]);
+            names[slot] = null;
+        }
+        readIndex = end;
+        return (int) (end - start);
+    }
+
+    /**
+     * @return the number of records dropped since the buffer was created.
+     */
+    long getDroppedRecords() {
+        return droppedRecords;
+    }
+
+    @FunctionalInterface
+    interface RecordConsumer {
+        /**
+         * @param name      the name of the activity
+         * @param time      the time spent in the activity itself, in nanoseconds
+         * @param allocated the memory allocated by the activity itself, in bytes
+         */
+        void accept(String name, long time, long allocated);
+    }
+}
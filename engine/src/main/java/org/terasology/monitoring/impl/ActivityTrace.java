@@ -0,0 +1,102 @@
+/*
+ * Copyright 2016 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.monitoring.impl;
+
+/**
+ * The most recent activities of one thread, kept for trace exports. Once the trace is full the oldest activities get
+ * overwritten.
+ * <br><br>
+ * Only the owning thread adds activities, copies may be taken from any thread.
+ */
+final class ActivityTrace {
+    private final String threadName;
+    private final long threadId;
+    private final String[] names;
+    private final long[] beginTimes;
+    private final long[] endTimes;
+    private int next;
+    private int size;
+
+    ActivityTrace(Thread thread, int capacity) {
+        this(thread.getName(), thread.getId(), capacity);
+    }
+
+    private ActivityTrace(String threadName, long threadId, int capacity) {
+        this.threadName = threadName;
+        this.threadId = threadId;
+        this.names = new String[capacity];
+        this.beginTimes = new long[capacity];
+        this.endTimes = new long[capacity];
+    }
+
+    /**
+     * @param activityName the name of the finished activity.
+     * @param beginTime    the {@link System#nanoTime()} the activity started at.
+     * @param endTime      the {@link System#nanoTime()} the activity ended at.
+     */
+    synchronized void add(String activityName, long beginTime, long endTime) {
+        names[next] = activityName;
+        beginTimes[next] = beginTime;
+        endTimes[next] = endTime;
+        next = (next + 1) % names.length;
+        if (size < names.length) {
+            size++;
+        }
+    }
+
+    /**
+     * @param since the earliest begin time of activities to include.
+     * @return a copy of the activities which began no earlier than the given time, oldest first.
+     */
+    synchronized ActivityTrace copy(long since) {
+        ActivityTrace result = new ActivityTrace(threadName, threadId, Math.max(1, size));
+        int first = (next - size + names.length) % names.length;
+        for (int i = 0; i < size; i++) {
+            int index = (first + i) % names.length;
+            if (beginTimes[index] >= since) {
+                result.names[result.size] = names[index];
+                result.beginTimes[result.size] = beginTimes[index];
+                result.endTimes[result.size] = endTimes[index];
+                result.size++;
+            }
+        }
+        return result;
+    }
+
+    String getThreadName() {
+        return threadName;
+    }
+
+    long getThreadId() {
+        return threadId;
+    }
+
+    int size() {
+        return size;
+    }
+
+    String getName(int index) {
+        return names[index];
+    }
+
+    long getBeginTime(int index) {
+        return beginTimes[index];
+    }
+
+    long getEndTime(int index) {
+        return endTimes[index];
+    }
+}
@@ -0,0 +1,79 @@
+/*
+ * Copyright 2016 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.monitoring.impl;
+
+import com.google.gson.stream.JsonWriter;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Writes activity traces in the trace event format of the Chrome tracing tools (chrome://tracing or Perfetto). Every
+ * thread becomes a track, every activity a complete ("X") event on it.
+ */
+final class ChromeTraceWriter {
+    private static final double NANOS_PER_MICRO = 1000.0;
+    private static final int PROCESS_ID = 1;
+
+    private ChromeTraceWriter() {
+    }
+
+    /**
+     * @param file   the file to write, existing files get replaced.
+     * @param traces the traces to write, activity times are written relative to the given origin.
+     * @param origin the {@link System#nanoTime()} the trace starts at.
+     * @return the number of activities written.
+     * @throws IOException if the file could not be written.
+     */
+    static int write(Path file, List<ActivityTrace> traces, long origin) throws IOException {
+        int written = 0;
+        try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8);
+             JsonWriter json = new JsonWriter(writer)) {
+            json.beginObject();
+            json.name("displayTimeUnit").value("ms");
+            json.name("traceEvents").beginArray();
+            for (ActivityTrace trace : traces) {
+                json.beginObject();
+                json.name("name").value("thread_name");
+                json.name("ph").value("M");
+                json.name("pid").value(PROCESS_ID);
+                json.name("tid").value(trace.getThreadId());
+                json.name("args").beginObject().name("name").value(trace.getThreadName()).endObject();
+                json.endObject();
+
+                for (int i = 0; i < trace.size(); i++) {
+                    json.beginObject();
+                    json.name("name").value(trace.getName(i));
+                    json.name("cat").value("activity");
+                    json.name("ph").value("X");
+                    json.name("pid").value(PROCESS_ID);
+                    json.name("tid").value(trace.getThreadId());
+                    json.name("ts").value((trace.getBeginTime(i) - origin) / NANOS_PER_MICRO);
+                    json.name("dur").value((trace.getEndTime(i) - trace.getBeginTime(i)) / NANOS_PER_MICRO);
+                    json.endObject();
+                    written++;
+                }
+            }
+            json.endArray();
+            json.endObject();
+        }
+        return written;
+    }
+}
@@ -19,6 +19,8 @@
 import gnu.trove.map.hash.TObjectDoubleHashMap;
 import org.terasology.monitoring.Activity;
 
+import java.nio.file.Path;
+
 /**
  */
 public class NullPerformanceMonitor implements PerformanceMonitorInternal {
@@ -53,4 +55,35 @@ public TObjectDoubleMap<String> getAllocationMean() {
         return metrics;
     }
 
+    @Override
+    public TObjectDoubleMap<String> getThreadGroupRunningMean() {
+        return metrics;
+    }
+
+    @Override
+    public TObjectDoubleMap<String> getThreadGroupAllocationMean() {
+        return metrics;
+    }
+
+    @Override
+    public void startTraceRecording() {
+    }
+
+    @Override
+    public void stopTraceRecording() {
+    }
+
+    @Override
+    public boolean isTraceRecording() {
+        return false;
+    }
+
+    @Override
+    public void setTraceTriggerThreshold(float thresholdMs, Path directory) {
+    }
+
+    @Override
+    public void dumpTrace(Path file) {
+    }
+
 }
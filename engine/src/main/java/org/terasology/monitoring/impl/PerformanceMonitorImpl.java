@@ -1,5 +1,5 @@
 /*
- * Copyright 2013 MovingBlocks
+ * Copyright 2016 MovingBlocks
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,269 +16,458 @@
 package org.terasology.monitoring.impl;
 
 import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
 import com.google.common.collect.Queues;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import gnu.trove.map.TObjectDoubleMap;
 import gnu.trove.map.TObjectLongMap;
 import gnu.trove.map.hash.TObjectDoubleHashMap;
 import gnu.trove.map.hash.TObjectLongHashMap;
-import gnu.trove.procedure.TObjectDoubleProcedure;
 import gnu.trove.procedure.TObjectLongProcedure;
-import org.terasology.engine.EngineTime;
-import org.terasology.engine.Time;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.terasology.monitoring.Activity;
-import org.terasology.registry.CoreRegistry;
+import org.terasology.monitoring.CounterMonitor;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.SimpleDateFormat;
+import java.util.Date;
 import java.util.Deque;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
 
 /**
  * Active implementation of Performance Monitor
+ * <br><br>
+ * Every thread keeps its own stack of running activities, so recording does not need any locking. The main thread
+ * adds finished activities to the data of the current cycle directly. Other threads put them into a ring buffer, which
+ * gets emptied into the current cycle on {@link #rollCycle()}.
+ * <br><br>
+ * Activities of other threads are reported with the name of their thread group as prefix, e.g.
+ * "Chunk-Generator: Generate chunk". The thread group is the thread name without its number, so all threads of a
+ * {@link org.terasology.utilities.concurrency.TaskMaster} share one group.
+ * <br><br>
+ * While trace recording is active every thread additionally keeps its most recent activities with their start and end
+ * times. Dumps of these are written as Chrome trace files by a background thread, either on request or automatically
+ * after a cycle took longer than the trigger threshold.
  */
 // TODO: Check to ensure activities are being started and stopped correctly
 // TODO: Remove activities with 0 time
 public class PerformanceMonitorImpl implements PerformanceMonitorInternal {
     private static final int RETAINED_CYCLES = 60;
     private static final double DECAY_RATE = 0.98;
-    private static final Activity OFF_THREAD_ACTIVITY = new NullActivity();
-    // NullActivity instances are used by the NullPerformanceMonitor and for processes NOT running
-    // on the main thread. Not strictly necessary (these processes are ignored by the PerformanceMonitor
-    // anyway) an instance of this class offers a slight performance improvement over standard Activity
-    // implementations as it doesn't call the PerformanceMonitor.endActivity() method.
+    private static final double NANOS_PER_MS = 1000000.0;
+    private static final int RECORD_BUFFER_SIZE = 8192;
+    private static final Pattern THREAD_NUMBER = Pattern.compile("-\\d+$");
+    private static final int TRACE_CAPACITY = 32768;
+    private static final long TRACE_TRIGGER_COOLDOWN = TimeUnit.SECONDS.toNanos(30);
 
-    private final Activity activityInstance = new ActivityInstance();
+    /**
+     * How long allocations keep being measured after they were last queried
+     */
+    private static final long ALLOCATION_QUERY_TIMEOUT = TimeUnit.SECONDS.toNanos(5);
+
+    /**
+     * The allocation counter value of activities started or resumed while allocations were not measured
+     */
+    private static final long NOT_MEASURED = -1;
 
-    private final Deque<ActivityInfo> activityStack;
+    private static final Logger logger = LoggerFactory.getLogger(PerformanceMonitorImpl.class);
 
-    private final List<TObjectLongMap<String>> executionData;
-    private final List<TObjectLongMap<String>> allocationData;
+    private final Activity activityInstance = new ActivityInstance();
 
-    private TObjectLongMap<String> currentExecutionData;
-    private TObjectLongMap<String> currentAllocationData;
-    private final TObjectLongMap<String> runningExecutionTotals;
-    private final TObjectLongMap<String> runningAllocationTotals;
-    private final TObjectDoubleMap<String> spikeData;
+    private final ThreadLocal<ThreadRecorder> threadRecorders = ThreadLocal.withInitial(this::createThreadRecorder);
+    private final List<ThreadRecorder> offThreadRecorders = new CopyOnWriteArrayList<>();
+    private ThreadRecorder mainThreadRecorder;
 
-    private final TObjectDoubleProcedure<String> decayLargestExecutionTime;
-    private final TObjectLongProcedure<String> updateExecutionTimeTotalAndSpikeData;
-    private final TObjectLongProcedure<String> updateAllocatedMemoryTotal;
-    private final TObjectLongProcedure<String> removeExpiredExecutionTimeValueFromTotal;
-    private final TObjectLongProcedure<String> removeExpiredAllocatedMemoryValueFromTotal;
+    private final CycleHistory executionHistory = new CycleHistory();
+    private final CycleHistory allocationHistory = new CycleHistory();
+    private final CycleHistory threadGroupExecutionHistory = new CycleHistory();
+    private final CycleHistory threadGroupAllocationHistory = new CycleHistory();
+    private final TObjectDoubleMap<String> spikeData = new TObjectDoubleHashMap<>();
 
-    private final SetterOfActivityToRunningMeanMapEntry setExecutionTimeRunningMean;
-    private final SetterOfActivityToRunningMeanMapEntry setAllocatedMemoryRunningMean;
+    private final TObjectLongProcedure<String> updateSpikeData = (activityName, latestExecutionTime) -> {
+        double latestSpike = latestExecutionTime / NANOS_PER_MS;
+        if (latestSpike > spikeData.get(activityName)) {
+            spikeData.put(activityName, latestSpike);
+        }
+        return true;
+    };
 
     private final Thread mainThread;
-    private final EngineTime timer;
+
+    private volatile boolean traceRecording;
+
+    /**
+     * Whether the memory allocated by activities is measured. Reading the allocation counter is not free, so it is
+     * only done while the allocations get queried, e.g. by a metrics mode showing them.
+     */
+    private volatile boolean allocationTracking;
+    private volatile long lastAllocationQuery;
+    private long traceStart;
+    private long traceTriggerThreshold;
+    private Path traceTriggerDirectory;
+    private long lastCycleStart = System.nanoTime();
+    private long lastTraceTrigger;
+    private ExecutorService traceWriter;
 
     public PerformanceMonitorImpl() {
-        activityStack  = Queues.newArrayDeque();
-        executionData  = Lists.newLinkedList();
-        allocationData = Lists.newLinkedList();
-        currentExecutionData = new TObjectLongHashMap<>();
-        currentAllocationData = new TObjectLongHashMap<>();
-        runningExecutionTotals = new TObjectLongHashMap<>();
-        runningAllocationTotals = new TObjectLongHashMap<>();
-        spikeData = new TObjectDoubleHashMap<>();
-
-        decayLargestExecutionTime  = new DecayerOfActivityLargestExecutionTime();
-        updateExecutionTimeTotalAndSpikeData = new UpdaterOfActivityExecutionTimeTotalAndSpikeData();
-        updateAllocatedMemoryTotal = new UpdaterOfActivityAllocatedMemoryTotal();
-        removeExpiredExecutionTimeValueFromTotal  = new RemoverFromTotalOfActivityExpiredExecutionTimeValue();
-        removeExpiredAllocatedMemoryValueFromTotal = new RemoverFromTotalOfActivityExpiredAllocatedMemoryValue();
-
-        setExecutionTimeRunningMean = new SetterOfActivityToRunningMeanMapEntry();
-        setAllocatedMemoryRunningMean = new SetterOfActivityToRunningMeanMapEntry();
-
-        timer = (EngineTime) CoreRegistry.get(Time.class);
         mainThread = Thread.currentThread();
     }
 
     @Override
     public void rollCycle() {
-        executionData.add(currentExecutionData);
-        allocationData.add(currentAllocationData);
+        synchronized (this) {
+            for (ThreadRecorder recorder : offThreadRecorders) {
+                recorder.collect();
+                if (!recorder.thread.isAlive()) {
+                    recorder.collect();
+                    offThreadRecorders.remove(recorder);
+                }
+            }
 
-        spikeData.forEachEntry(decayLargestExecutionTime);
-        currentExecutionData.forEachEntry(updateExecutionTimeTotalAndSpikeData);
-        currentAllocationData.forEachEntry(updateAllocatedMemoryTotal);
+            spikeData.transformValues(value -> value * DECAY_RATE);
+            executionHistory.getCurrent().forEachEntry(updateSpikeData);
 
-        while (executionData.size() > RETAINED_CYCLES) {
-            executionData.get(0).forEachEntry(removeExpiredExecutionTimeValueFromTotal);
-            executionData.remove(0);
+            executionHistory.roll();
+            allocationHistory.roll();
+            threadGroupExecutionHistory.roll();
+            threadGroupAllocationHistory.roll();
         }
 
-        while (allocationData.size() > RETAINED_CYCLES) {
-            allocationData.get(0).forEachEntry(removeExpiredAllocatedMemoryValueFromTotal);
-            allocationData.remove(0);
+        long cycleStart = System.nanoTime();
+        if (allocationTracking && cycleStart - lastAllocationQuery > ALLOCATION_QUERY_TIMEOUT) {
+            allocationTracking = false;
         }
-
-        currentExecutionData = new TObjectLongHashMap<>();
-        currentAllocationData = new TObjectLongHashMap<>();
+        if (traceRecording && traceTriggerThreshold > 0 && cycleStart - lastCycleStart > traceTriggerThreshold
+                && cycleStart - lastTraceTrigger > TRACE_TRIGGER_COOLDOWN) {
+            lastTraceTrigger = cycleStart;
+            String fileName = "trace-" + new SimpleDateFormat("yyyyMMdd-HHmmss-SSS").format(new Date()) + ".json";
+            logger.info("Cycle took {} ms, writing trace {}", TimeUnit.NANOSECONDS.toMillis(cycleStart - lastCycleStart), fileName);
+            dumpTrace(traceTriggerDirectory.resolve(fileName));
+        }
+        lastCycleStart = cycleStart;
     }
 
     @Override
     public Activity startActivity(String activityName) {
-        if (Thread.currentThread() != mainThread) {
-            return OFF_THREAD_ACTIVITY;
-        }
+        threadRecorders.get().start(activityName);
+        return activityInstance;
+    }
 
-        ActivityInfo newActivity = new ActivityInfo(activityName).initialize();
+    @Override
+    public void endActivity() {
+        threadRecorders.get().end();
+    }
 
-        if (!activityStack.isEmpty()) {
-            ActivityInfo currentActivity = activityStack.peek();
-            currentActivity.ownTime += newActivity.startTime - ((currentActivity.resumeTime > 0) ? currentActivity.resumeTime : currentActivity.startTime);
-            currentActivity.ownMem += (currentActivity.startMem - newActivity.startMem > 0) ? currentActivity.startMem - newActivity.startMem : 0;
-        }
+    @Override
+    public synchronized TObjectDoubleMap<String> getRunningMean() {
+        return executionHistory.getMeans(NANOS_PER_MS);
+    }
 
-        activityStack.push(newActivity);
-        return activityInstance;
+    @Override
+    public synchronized TObjectDoubleMap<String> getDecayingSpikes() {
+        return new TObjectDoubleHashMap<>(spikeData);
     }
 
     @Override
-    public void endActivity() {
-        if (Thread.currentThread() != mainThread || activityStack.isEmpty()) {
-            return;
-        }
+    public synchronized TObjectDoubleMap<String> getAllocationMean() {
+        trackAllocations();
+        return allocationHistory.getMeans(1.0);
+    }
 
-        ActivityInfo oldActivity = activityStack.pop();
+    @Override
+    public synchronized TObjectDoubleMap<String> getThreadGroupRunningMean() {
+        return threadGroupExecutionHistory.getMeans(NANOS_PER_MS);
+    }
 
-        long endTime = timer.getRealTimeInMs();
-        long totalTime = (oldActivity.resumeTime > 0) ? oldActivity.ownTime + endTime - oldActivity.resumeTime : endTime - oldActivity.startTime;
-        currentExecutionData.adjustOrPutValue(oldActivity.name, totalTime, totalTime);
-        
-        long endMem = Runtime.getRuntime().freeMemory();
-        long totalMem = (oldActivity.startMem - endMem > 0) ? oldActivity.startMem - endMem + oldActivity.ownMem : oldActivity.ownMem;
-        currentAllocationData.adjustOrPutValue(oldActivity.name, totalMem, totalMem);
+    @Override
+    public synchronized TObjectDoubleMap<String> getThreadGroupAllocationMean() {
+        trackAllocations();
+        return threadGroupAllocationHistory.getMeans(1.0);
+    }
 
-        if (!activityStack.isEmpty()) {
-            ActivityInfo currentActivity = activityStack.peek();
-            currentActivity.resumeTime = endTime;
-            currentActivity.startMem = endMem;
-        }
+    /**
+     * Measures the allocations of the activities for a while, the values queried first will therefore be empty.
+     */
+    private void trackAllocations() {
+        lastAllocationQuery = System.nanoTime();
+        allocationTracking = true;
+    }
+
+    private long getAllocatedBytes() {
+        return allocationTracking ? ThreadAllocationCounter.get() : NOT_MEASURED;
     }
 
     @Override
-    public TObjectDoubleMap<String> getRunningMean() {
-        TObjectDoubleMap<String> activityToMeanMap = new TObjectDoubleHashMap<>();
-        setExecutionTimeRunningMean.setActivityToMeanMap(activityToMeanMap);
-        setExecutionTimeRunningMean.setFactor(1.0 / executionData.size());
+    public void startTraceRecording() {
+        if (!traceRecording) {
+            traceStart = System.nanoTime();
+            traceRecording = true;
+        }
+    }
 
-        runningExecutionTotals.forEachEntry(setExecutionTimeRunningMean);
+    @Override
+    public void stopTraceRecording() {
+        traceRecording = false;
+    }
 
-        return activityToMeanMap;
+    @Override
+    public boolean isTraceRecording() {
+        return traceRecording;
     }
 
     @Override
-    public TObjectDoubleMap<String> getDecayingSpikes() {
-        return spikeData;
+    public void setTraceTriggerThreshold(float thresholdMs, Path directory) {
+        traceTriggerThreshold = (long) (thresholdMs * NANOS_PER_MS);
+        traceTriggerDirectory = directory;
     }
 
     @Override
-    public TObjectDoubleMap<String> getAllocationMean() {
-        TObjectDoubleMap<String> activityToMeanMap = new TObjectDoubleHashMap<>();
-        setAllocatedMemoryRunningMean.setActivityToMeanMap(activityToMeanMap);
-        setAllocatedMemoryRunningMean.setFactor(1.0 / allocationData.size());
+    public void dumpTrace(Path file) {
+        List<ActivityTrace> traces = Lists.newArrayList();
+        addTraceCopy(mainThreadRecorder, traces);
+        for (ThreadRecorder recorder : offThreadRecorders) {
+            addTraceCopy(recorder, traces);
+        }
+        long origin = traceStart;
+        if (traceWriter == null) {
+            traceWriter = Executors.newSingleThreadExecutor(new ThreadFactoryBuilder().setNameFormat("Trace-Writer-%d").setDaemon(true).build());
+        }
+        traceWriter.execute(() -> {
+            try {
+                Files.createDirectories(file.toAbsolutePath().getParent());
+                int written = ChromeTraceWriter.write(file, traces, origin);
+                logger.info("Wrote {} activities to trace {}", written, file);
+            } catch (IOException e) {
+                logger.error("Failed to write trace {}", file, e);
+            }
+        });
+    }
 
-        runningAllocationTotals.forEachEntry(setAllocatedMemoryRunningMean);
+    private void addTraceCopy(ThreadRecorder recorder, List<ActivityTrace> traces) {
+        if (recorder != null && recorder.trace != null) {
+            traces.add(recorder.trace.copy(traceStart));
+        }
+    }
+
+    private ThreadRecorder createThreadRecorder() {
+        Thread thread = Thread.currentThread();
+        if (thread == mainThread) {
+            mainThreadRecorder = new ThreadRecorder(thread, null);
+            return mainThreadRecorder;
+        }
+        ThreadRecorder recorder = new ThreadRecorder(thread, THREAD_NUMBER.matcher(thread.getName()).replaceFirst(""));
+        offThreadRecorders.add(recorder);
+        return recorder;
+    }
 
-        return activityToMeanMap;
+    /**
+     * Adds the data of a finished activity of the main thread to the current cycle. Only called on the main thread or
+     * while holding the lock of the monitor.
+     */
+    private void addToCurrentCycle(String activityName, long time, long allocated) {
+        executionHistory.add(activityName, time);
+        allocationHistory.add(activityName, allocated);
     }
 
-    private class ActivityInfo {
-        public String name;
-        public long startTime;
-        public long resumeTime;
-        public long ownTime;
-        public long startMem;
-        public long ownMem;
+    private static class ActivityInfo {
+        private String name;
+        private String unqualifiedName;
+        private long beginTime;
+        private long startTime;
+        private long ownTime;
+        private long startMem;
+        private long ownMem;
 
-         ActivityInfo(String activityName) {
+        ActivityInfo(String activityName, String unqualifiedName) {
             this.name = activityName;
+            this.unqualifiedName = unqualifiedName;
         }
 
-        public ActivityInfo initialize() {
-            this.startTime = timer.getRealTimeInMs();
-            this.startMem = Runtime.getRuntime().freeMemory();
+        /**
+         * @param mem the allocation counter, or NOT_MEASURED
+         */
+        public ActivityInfo initialize(long mem) {
+            this.startTime = System.nanoTime();
+            this.beginTime = startTime;
+            this.startMem = mem;
             return this;
         }
-    }
 
-    private class ActivityInstance implements Activity {
+        /**
+         * Stops counting time and memory for this activity, while a nested activity runs.
+         */
+        public void pause(long time, long mem) {
+            ownTime += time - startTime;
+            if (startMem != NOT_MEASURED && mem != NOT_MEASURED) {
+                ownMem += Math.max(0, mem - startMem);
+            }
+        }
 
-        @Override
-        public void close() {
-            endActivity();
+        public void resume(long time, long mem) {
+            startTime = time;
+            startMem = mem;
         }
     }
 
-    private class DecayerOfActivityLargestExecutionTime implements TObjectDoubleProcedure<String> {
-        @Override
-        public boolean execute(String activityName, double executionTime) {
-            spikeData.put(activityName, executionTime * DECAY_RATE);
-            return true;
+    /**
+     * The activities of one thread. Only accessed by that thread, except for the buffer of finished activities.
+     */
+    private final class ThreadRecorder {
+        private final Thread thread;
+        private final String threadGroup;
+        private final Deque<ActivityInfo> activityStack = Queues.newArrayDeque();
+        private final Map<String, String> qualifiedNames = Maps.newHashMap();
+        private final ActivityRecordBuffer finishedActivities;
+        private final ActivityRecordBuffer.RecordConsumer collector;
+        private long reportedDrops;
+        private volatile ActivityTrace trace;
+
+        /**
+         * @param threadGroup the group of the thread, or null for the main thread.
+         */
+        ThreadRecorder(Thread thread, String threadGroup) {
+            this.thread = thread;
+            this.threadGroup = threadGroup;
+            if (threadGroup != null) {
+                finishedActivities = new ActivityRecordBuffer(RECORD_BUFFER_SIZE);
+                collector = (activityName, time, allocated) -> {
+                    addToCurrentCycle(activityName, time, allocated);
+                    threadGroupExecutionHistory.add(threadGroup, time);
+                    threadGroupAllocationHistory.add(threadGroup, allocated);
+                };
+            } else {
+                finishedActivities = null;
+                collector = null;
+            }
         }
-    }
 
-    private class UpdaterOfActivityExecutionTimeTotalAndSpikeData implements TObjectLongProcedure<String> {
-        double latestSpike;
+        void start(String activityName) {
+            ActivityInfo newActivity = new ActivityInfo(qualify(activityName), activityName).initialize(getAllocatedBytes());
+            if (!activityStack.isEmpty()) {
+                activityStack.peek().pause(newActivity.startTime, newActivity.startMem);
+            }
+            activityStack.push(newActivity);
+        }
 
-        @Override
-        public boolean execute(String activityName, long latestExecutionTime) {
-            runningExecutionTotals.adjustOrPutValue(activityName, latestExecutionTime, latestExecutionTime);
-            latestSpike = spikeData.get(activityName);
-            if (latestExecutionTime > latestSpike) {
-                spikeData.put(activityName, latestExecutionTime);
+        void end() {
+            if (activityStack.isEmpty()) {
+                return;
+            }
+            ActivityInfo oldActivity = activityStack.pop();
+
+            long endTime = System.nanoTime();
+            long endMem = getAllocatedBytes();
+            oldActivity.pause(endTime, endMem);
+            if (finishedActivities == null) {
+                addToCurrentCycle(oldActivity.name, oldActivity.ownTime, oldActivity.ownMem);
+            } else {
+                finishedActivities.add(oldActivity.name, oldActivity.ownTime, oldActivity.ownMem);
+            }
+            if (traceRecording) {
+                if (trace == null) {
+                    trace = new ActivityTrace(thread, TRACE_CAPACITY);
+                }
+                trace.add(oldActivity.unqualifiedName, oldActivity.beginTime, endTime);
+            }
+
+            if (!activityStack.isEmpty()) {
+                activityStack.peek().resume(endTime, endMem);
             }
-            return true;
         }
-    }
 
-    private class UpdaterOfActivityAllocatedMemoryTotal implements TObjectLongProcedure<String> {
-        @Override
-        public boolean execute(String activityName, long latestAllocatedMemory) {
-            runningAllocationTotals.adjustOrPutValue(activityName, latestAllocatedMemory, latestAllocatedMemory);
-            return true;
+        private String qualify(String activityName) {
+            if (threadGroup == null) {
+                return activityName;
+            }
+            String qualifiedName = qualifiedNames.get(activityName);
+            if (qualifiedName == null) {
+                qualifiedName = threadGroup + ": " + activityName;
+                qualifiedNames.put(activityName, qualifiedName);
+            }
+            return qualifiedName;
         }
-    }
 
-    private class RemoverFromTotalOfActivityExpiredExecutionTimeValue implements TObjectLongProcedure<String> {
-        @Override
-        public boolean execute(String activityName, long expiredExecutionTime) {
-            runningExecutionTotals.adjustValue(activityName, -expiredExecutionTime);
-            return true;
+        /**
+         * Moves the finished activities into the current cycle. Called with the lock of the monitor held.
+         */
+        void collect() {
+            finishedActivities.drain(collector);
+            long dropped = finishedActivities.getDroppedRecords();
+            if (dropped > reportedDrops) {
+                CounterMonitor.add("Performance monitor - dropped activities", dropped - reportedDrops);
+                reportedDrops = dropped;
+            }
         }
     }
 
+    private final class ActivityInstance implements Activity {
 
-    private class RemoverFromTotalOfActivityExpiredAllocatedMemoryValue implements TObjectLongProcedure<String> {
         @Override
-        public boolean execute(String activityName, long expiredAllocatedMemory) {
-            runningAllocationTotals.adjustValue(activityName, -expiredAllocatedMemory);
-            return true;
+        public void close() {
+            endActivity();
         }
     }
 
-    private class SetterOfActivityToRunningMeanMapEntry implements TObjectLongProcedure<String> {
-        private TObjectDoubleMap<String> activityToMeanMap;
-        private double factor;
+    /**
+     * Per activity values of the current and a number of past cycles, along with their totals.
+     */
+    private static final class CycleHistory {
+        private final Deque<TObjectLongMap<String>> pastCycles = Queues.newArrayDeque();
+        private final TObjectLongMap<String> totals = new TObjectLongHashMap<>();
+        private TObjectLongMap<String> currentCycle = new TObjectLongHashMap<>();
 
-        public SetterOfActivityToRunningMeanMapEntry setActivityToMeanMap(TObjectDoubleMap<String> newActivityToMeanMap) {
-            this.activityToMeanMap = newActivityToMeanMap;
-            return this;
+        private final TObjectLongProcedure<String> addToTotals = (activityName, value) -> {
+            totals.adjustOrPutValue(activityName, value, value);
+            return true;
+        };
+        private final TObjectLongProcedure<String> removeFromTotals = (activityName, value) -> {
+            totals.adjustValue(activityName, -value);
+            return true;
+        };
+
+        void add(String activityName, long value) {
+            currentCycle.adjustOrPutValue(activityName, value, value);
         }
 
-        public SetterOfActivityToRunningMeanMapEntry setFactor(double newFactor) {
-            this.factor = newFactor;
-            return this;
+        TObjectLongMap<String> getCurrent() {
+            return currentCycle;
         }
 
-        @Override
-        public boolean execute(String activityName, long total) {
-            if (total > 0) {
-                activityToMeanMap.put(activityName, total * factor);
+        void roll() {
+            currentCycle.forEachEntry(addToTotals);
+            pastCycles.addLast(currentCycle);
+            while (pastCycles.size() > RETAINED_CYCLES) {
+                pastCycles.removeFirst().forEachEntry(removeFromTotals);
             }
-            return true;
+            currentCycle = new TObjectLongHashMap<>();
         }
-    }
 
+        /**
+         * @param unit the value that counts as one in the result, e.g. the nanoseconds per millisecond.
+         * @return the mean per cycle of each activity with a positive total.
+         */
+        TObjectDoubleMap<String> getMeans(double unit) {
+            TObjectDoubleMap<String> activityToMeanMap = new TObjectDoubleHashMap<>();
+            if (pastCycles.isEmpty()) {
+                return activityToMeanMap;
+            }
+            double factor = 1.0 / (unit * pastCycles.size());
+            totals.forEachEntry((activityName, total) -> {
+                if (total > 0) {
+                    activityToMeanMap.put(activityName, total * factor);
+                }
+                return true;
+            });
+            return activityToMeanMap;
+        }
+    }
 }
@@ -18,6 +18,8 @@
 import gnu.trove.map.TObjectDoubleMap;
 import org.terasology.monitoring.Activity;
 
+import java.nio.file.Path;
+
 /**
  * Base interface for performance monitor implementations.
  *
@@ -34,4 +36,18 @@ public interface PerformanceMonitorInternal {
     TObjectDoubleMap<String> getDecayingSpikes();
 
     TObjectDoubleMap<String> getAllocationMean();
+
+    TObjectDoubleMap<String> getThreadGroupRunningMean();
+
+    TObjectDoubleMap<String> getThreadGroupAllocationMean();
+
+    void startTraceRecording();
+
+    void stopTraceRecording();
+
+    boolean isTraceRecording();
+
+    void setTraceTriggerThreshold(float thresholdMs, Path directory);
+
+    void dumpTrace(Path file);
 }
@@ -46,4 +46,14 @@ public interface SingleThreadMonitor extends Comparable<SingleThreadMonitor> {
     void endTask();
 
     String getLastTask();
+
+    /**
+     * @return the time the thread spent in tasks, in milliseconds.
+     */
+    long getBusyTime();
+
+    /**
+     * @return the memory the thread allocated during tasks, in bytes.
+     */
+    long getAllocatedMemory();
 }
@@ -28,6 +28,7 @@
 import java.util.Deque;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
 
 public class SingleThreadMonitorImpl implements SingleThreadMonitor {
 
@@ -43,6 +44,11 @@ public class SingleThreadMonitorImpl implements SingleThreadMonitor {
     private boolean active;
     private String lastTask = "";
 
+    private long taskStartTime;
+    private long taskStartMemory;
+    private long busyTime;
+    private long allocatedMemory;
+
     public SingleThreadMonitorImpl(Thread thread) {
         Preconditions.checkNotNull(thread, "The parameter 'thread' must not be null");
         this.name = thread.getName();
@@ -117,13 +123,29 @@ public final synchronized void beginTask(String task) {
         }
         active = true;
         lastTask = task;
+        taskStartTime = System.nanoTime();
+        taskStartMemory = ThreadAllocationCounter.get();
     }
 
     @Override
     public final synchronized void endTask() {
+        if (active) {
+            busyTime += System.nanoTime() - taskStartTime;
+            allocatedMemory += Math.max(0, ThreadAllocationCounter.get() - taskStartMemory);
+        }
         active = false;
     }
 
+    @Override
+    public final synchronized long getBusyTime() {
+        return TimeUnit.NANOSECONDS.toMillis(busyTime);
+    }
+
+    @Override
+    public final synchronized long getAllocatedMemory() {
+        return allocatedMemory;
+    }
+
     @Override
     public String toString() {
         final StringBuilder b = new StringBuilder(100);
@@ -0,0 +1,88 @@
+/*
+ * Copyright 2016 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.monitoring.impl;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+/**
+ * Measures the memory allocated by the current thread.
+ * <br><br>
+ * Uses the allocation counter of the JVM where available, preferably through the variant for the current thread which
+ * does not have to look up the thread. Otherwise it falls back to the used heap, which also includes the allocations of
+ * other threads and drops whenever the garbage collector runs.
+ */
+final class ThreadAllocationCounter {
+
+    private static final com.sun.management.ThreadMXBean THREAD_MX_BEAN = getThreadAllocationBean();
+
+    /**
+     * The getCurrentThreadAllocatedBytes() method of the bean, which newer JVMs provide, or null
+     */
+    private static final MethodHandle CURRENT_THREAD_ALLOCATED_BYTES = getCurrentThreadAllocatedBytes();
+
+    private ThreadAllocationCounter() {
+    }
+
+    private static com.sun.management.ThreadMXBean getThreadAllocationBean() {
+        try {
+            ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+            if (bean instanceof com.sun.management.ThreadMXBean) {
+                com.sun.management.ThreadMXBean allocationBean = (com.sun.management.ThreadMXBean) bean;
+                if (allocationBean.isThreadAllocatedMemorySupported() && allocationBean.isThreadAllocatedMemoryEnabled()) {
+                    return allocationBean;
+                }
+            }
+        } catch (LinkageError | SecurityException e) {
+            // not a HotSpot based JVM, use the fallback
+        }
+        return null;
+    }
+
+    private static MethodHandle getCurrentThreadAllocatedBytes() {
+        if (THREAD_MX_BEAN == null) {
+            return null;
+        }
+        try {
+            return MethodHandles.publicLookup().findVirtual(com.sun.management.ThreadMXBean.class,
+                    "getCurrentThreadAllocatedBytes", MethodType.methodType(long.class)).bindTo(THREAD_MX_BEAN);
+        } catch (NoSuchMethodException | IllegalAccessException e) {
+            // an older JVM, look up the current thread by its id instead
+            return null;
+        }
+    }
+
+    /**
+     * @return a counter of allocated bytes. Only the difference between two values of the same thread is meaningful.
+     */
+    static long get() {
+        if (CURRENT_THREAD_ALLOCATED_BYTES != null) {
+            try {
+                return (long) CURRENT_THREAD_ALLOCATED_BYTES.invokeExact();
+            } catch (Throwable e) {
+                throw new IllegalStateException("Failed to get the bytes allocated by the current thread", e);
+            }
+        }
+        if (THREAD_MX_BEAN != null) {
+            return THREAD_MX_BEAN.getThreadAllocatedBytes(Thread.currentThread().getId());
+        }
+        Runtime runtime = Runtime.getRuntime();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
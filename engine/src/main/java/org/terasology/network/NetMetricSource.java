@@ -42,4 +42,9 @@ public interface NetMetricSource {
      * @return The amount of bytes sent since last time this method was called
      */
     int getSentBytesSinceLastCall();
+
+    /**
+     * @return The amount of chunks that are ready to be sent to the other side but have not been sent yet
+     */
+    int getChunkSendBacklog();
 }
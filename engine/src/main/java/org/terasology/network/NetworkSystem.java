@@ -64,5 +64,10 @@ public interface NetworkSystem extends BlockRegistrationListener {
 
     int getOutgoingBytesDelta();
 
+    /**
+     * @return The number of chunks that are ready to be sent to clients but have not been sent yet
+     */
+    int getChunkSendBacklog();
+
     void forceDisconnect(Client client);
 }
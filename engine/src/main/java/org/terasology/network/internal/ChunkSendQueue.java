@@ -0,0 +1,95 @@
+/*
+ * Copyright 2016 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.network.internal;
+
+import com.google.common.collect.Maps;
+import org.terasology.math.geom.Vector3i;
+import org.terasology.utilities.concurrency.ReprioritizableBlockingQueue;
+import org.terasology.world.chunks.Chunk;
+
+import java.util.Map;
+
+/**
+ * The chunks that are ready to be sent to a client, handed out nearest to the center (the chunk of the client's
+ * character) first.
+ * <br><br>
+ * The positions are kept in a heap, which only gets reordered when the center moves into another chunk. Chunks that
+ * are removed before they were sent stay in the heap until they are polled or the heap gets compacted.
+ */
+class ChunkSendQueue {
+    private static final int COMPACT_THRESHOLD = 256;
+
+    private final Map<Vector3i, Chunk> chunks = Maps.newHashMap();
+    private final Vector3i center = new Vector3i();
+    private final ReprioritizableBlockingQueue<Vector3i> order =
+            new ReprioritizableBlockingQueue<>((a, b) -> Integer.compare(a.distanceSquared(center), b.distanceSquared(center)));
+
+    /**
+     * @param pos   the position of the chunk.
+     * @param chunk the chunk, replaces a queued chunk at the same position.
+     */
+    public void add(Vector3i pos, Chunk chunk) {
+        if (chunks.put(pos, chunk) == null) {
+            order.offer(pos);
+        }
+    }
+
+    public void remove(Vector3i pos) {
+        if (chunks.remove(pos) != null) {
+            if (chunks.isEmpty()) {
+                order.clear();
+            } else if (order.size() > 2 * chunks.size() + COMPACT_THRESHOLD) {
+                order.clear();
+                chunks.keySet().forEach(order::offer);
+            }
+        }
+    }
+
+    /**
+     * @param newCenter the position of the chunk to send chunks around.
+     */
+    public void setCenter(Vector3i newCenter) {
+        if (!center.equals(newCenter)) {
+            center.set(newCenter);
+            order.reprioritize();
+        }
+    }
+
+    /**
+     * Removes the chunk nearest to the center.
+     *
+     * @return the chunk nearest to the center, or null if no chunk is queued.
+     */
+    public Chunk poll() {
+        Vector3i pos = order.poll();
+        while (pos != null) {
+            Chunk chunk = chunks.remove(pos);
+            if (chunk != null) {
+                return chunk;
+            }
+            pos = order.poll();
+        }
+        return null;
+    }
+
+    public boolean isEmpty() {
+        return chunks.isEmpty();
+    }
+
+    public int size() {
+        return chunks.size();
+    }
+}
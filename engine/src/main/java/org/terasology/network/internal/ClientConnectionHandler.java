@@ -34,6 +34,8 @@
 import org.terasology.network.JoinStatus;
 import org.terasology.protobuf.NetData;
 import org.terasology.registry.CoreRegistry;
+import org.terasology.utilities.compression.ChunkCodec;
+import org.terasology.utilities.compression.ChunkCodecs;
 
 import java.io.BufferedOutputStream;
 import java.io.IOException;
@@ -218,6 +220,10 @@ private void receiveModule(ChannelHandlerContext channelHandlerContext, NetData.
     private void completeJoin(ChannelHandlerContext channelHandlerContext, NetData.JoinCompleteMessage joinComplete) {
         logger.info("Join complete received");
         server.setClientId(joinComplete.getClientId());
+        if (joinComplete.hasCompressionCodec()) {
+            // the following frames are compressed with the codec, this runs before the next frame gets decoded
+            channelHandlerContext.getPipeline().get(CompressionDecoder.class).switchToCodecFrames();
+        }
 
         channelHandlerContext.getPipeline().remove(this);
         channelHandlerContext.getPipeline().get(ClientHandler.class).joinComplete(server);
@@ -259,6 +265,9 @@ private void sendJoin(ChannelHandlerContext channelHandlerContext) {
         bldr.setName(config.getPlayer().getName());
         bldr.setViewDistanceLevel(config.getRendering().getViewDistance().getIndex());
         bldr.setColor(clrbldr.setRgba(config.getPlayer().getColor().rgba()).build());
+        for (ChunkCodec codec : ChunkCodecs.getCodecs()) {
+            bldr.addSupportedCompressionCodec(codec.getId());
+        }
 
         channelHandlerContext.getChannel().write(NetData.NetMessage.newBuilder().setJoin(bldr).build());
     }
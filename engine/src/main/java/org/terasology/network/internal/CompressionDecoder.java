@@ -0,0 +1,111 @@
+/*
+ * Copyright 2016 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.network.internal;
+
+import org.jboss.netty.buffer.ChannelBuffer;
+import org.jboss.netty.buffer.ChannelBuffers;
+import org.jboss.netty.channel.Channel;
+import org.jboss.netty.channel.ChannelEvent;
+import org.jboss.netty.channel.ChannelHandlerContext;
+import org.jboss.netty.channel.ChannelState;
+import org.jboss.netty.channel.ChannelStateEvent;
+import org.jboss.netty.handler.codec.frame.CorruptedFrameException;
+import org.jboss.netty.handler.codec.oneone.OneToOneDecoder;
+import org.terasology.utilities.compression.ChunkCodec;
+import org.terasology.utilities.compression.ChunkCodecs;
+
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+/**
+ * Decompresses the frames written by a {@link CompressionEncoder}, or by Netty's ZlibEncoder.
+ * <br><br>
+ * The frames are read as one continuous zlib stream until {@link #switchToCodecFrames()} gets called, which has to
+ * happen while the last frame of the stream is being handled.
+ */
+public class CompressionDecoder extends OneToOneDecoder {
+    static final int MAX_UNCOMPRESSED_LENGTH = 64 * 1024 * 1024;
+
+    private final Inflater inflater = new Inflater();
+    private final byte[] inflateBuffer = new byte[8192];
+    private boolean codecFrames;
+
+    /**
+     * From now on every frame starts with the id of the codec it was compressed with.
+     */
+    public void switchToCodecFrames() {
+        codecFrames = true;
+    }
+
+    @Override
+    public void handleUpstream(ChannelHandlerContext ctx, ChannelEvent evt) throws Exception {
+        super.handleUpstream(ctx, evt);
+        if (evt instanceof ChannelStateEvent && ((ChannelStateEvent) evt).getState() == ChannelState.OPEN
+                && Boolean.FALSE.equals(((ChannelStateEvent) evt).getValue())) {
+            inflater.end();
+        }
+    }
+
+    @Override
+    protected Object decode(ChannelHandlerContext ctx, Channel channel, Object msg) throws Exception {
+        if (!(msg instanceof ChannelBuffer)) {
+            return msg;
+        }
+        ChannelBuffer compressed = (ChannelBuffer) msg;
+        if (!codecFrames) {
+            byte[] data = new byte[compressed.readableBytes()];
+            compressed.readBytes(data);
+            return inflate(data);
+        }
+
+        int codecId = compressed.readUnsignedByte();
+        ChunkCodec codec = ChunkCodecs.getById(codecId);
+        if (codec == null) {
+            throw new CorruptedFrameException("Frame compressed with unknown codec " + codecId);
+        }
+        int uncompressedLength = compressed.readInt();
+        if (uncompressedLength < 0 || uncompressedLength > MAX_UNCOMPRESSED_LENGTH) {
+            throw new CorruptedFrameException("Invalid uncompressed frame length " + uncompressedLength);
+        }
+        byte[] data = new byte[compressed.readableBytes()];
+        compressed.readBytes(data);
+        return ChannelBuffers.wrappedBuffer(codec.decompress(data, 0, data.length, uncompressedLength));
+    }
+
+    private ChannelBuffer inflate(byte[] data) throws CorruptedFrameException {
+        ChannelBuffer result = ChannelBuffers.dynamicBuffer(data.length * 2 + 16);
+        inflater.setInput(data);
+        try {
+            while (true) {
+                int inflated = inflater.inflate(inflateBuffer);
+                if (inflated == 0) {
+                    if (inflater.needsDictionary()) {
+                        throw new CorruptedFrameException("Deflate stream requires a dictionary");
+                    }
+                    break;
+                }
+                if (result.writerIndex() + inflated > MAX_UNCOMPRESSED_LENGTH) {
+                    throw new CorruptedFrameException("Frame inflates to more than " + MAX_UNCOMPRESSED_LENGTH
+                            + " bytes");
+                }
+                result.writeBytes(inflateBuffer, 0, inflated);
+            }
+        } catch (DataFormatException e) {
+            throw new CorruptedFrameException("Corrupt deflate stream", e);
+        }
+        return result;
+    }
+}
@@ -0,0 +1,115 @@
+/*
+ * Copyright 2016 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.network.internal;
+
+import org.jboss.netty.buffer.ChannelBuffer;
+import org.jboss.netty.buffer.ChannelBuffers;
+import org.jboss.netty.channel.Channel;
+import org.jboss.netty.channel.ChannelEvent;
+import org.jboss.netty.channel.ChannelHandlerContext;
+import org.jboss.netty.channel.ChannelState;
+import org.jboss.netty.channel.ChannelStateEvent;
+import org.jboss.netty.channel.ChannelUpstreamHandler;
+import org.jboss.netty.handler.codec.oneone.OneToOneEncoder;
+import org.terasology.utilities.compression.ChunkCodec;
+
+import java.nio.channels.ClosedChannelException;
+import java.util.zip.Deflater;
+
+/**
+ * Compresses the outgoing frames of a connection, see {@link CompressionDecoder} for the other end.
+ * <br><br>
+ * Until {@link #switchCodecAfter(Runnable, ChunkCodec)} gets called all frames are compressed as one continuous zlib
+ * stream, which is what Netty's ZlibEncoder writes, so that peers that don't negotiate a codec can read them. After the
+ * switch every frame starts with the id of the codec it was compressed with and its uncompressed length.
+ */
+public class CompressionEncoder extends OneToOneEncoder implements ChannelUpstreamHandler {
+
+    private final Deflater deflater = new Deflater();
+    private final byte[] deflateBuffer = new byte[8192];
+    private final Object lock = new Object();
+    private volatile ChunkCodec codec;
+    private boolean closed;
+
+    /**
+     * Writes the last frames of the zlib stream and compresses all frames written afterwards with the given codec. The
+     * other end has to be told about the switch within those last frames, and switch its decoder once it reads them.
+     *
+     * @param lastStreamWrites writes the last frames of the stream, no other frame can be written meanwhile.
+     * @param newCodec the codec to use for the following frames.
+     */
+    public void switchCodecAfter(Runnable lastStreamWrites, ChunkCodec newCodec) {
+        synchronized (lock) {
+            lastStreamWrites.run();
+            this.codec = newCodec;
+        }
+    }
+
+    @Override
+    public void handleDownstream(ChannelHandlerContext ctx, ChannelEvent evt) throws Exception {
+        // The frames must be passed on in the order in which they have been added to the zlib stream
+        synchronized (lock) {
+            super.handleDownstream(ctx, evt);
+        }
+    }
+
+    @Override
+    public void handleUpstream(ChannelHandlerContext ctx, ChannelEvent evt) throws Exception {
+        if (evt instanceof ChannelStateEvent && ((ChannelStateEvent) evt).getState() == ChannelState.OPEN
+                && Boolean.FALSE.equals(((ChannelStateEvent) evt).getValue())) {
+            synchronized (lock) {
+                closed = true;
+                deflater.end();
+            }
+        }
+        ctx.sendUpstream(evt);
+    }
+
+    @Override
+    protected Object encode(ChannelHandlerContext ctx, Channel channel, Object msg) throws Exception {
+        if (!(msg instanceof ChannelBuffer)) {
+            return msg;
+        }
+        if (closed) {
+            throw new ClosedChannelException();
+        }
+        ChannelBuffer uncompressed = (ChannelBuffer) msg;
+        byte[] data = new byte[uncompressed.readableBytes()];
+        uncompressed.readBytes(data);
+
+        ChunkCodec currentCodec = codec;
+        if (currentCodec == null) {
+            return deflate(data);
+        }
+        byte[] compressed = currentCodec.compress(data);
+        ChannelBuffer result = ChannelBuffers.buffer(1 + Integer.BYTES + compressed.length);
+        result.writeByte(currentCodec.getId());
+        result.writeInt(data.length);
+        result.writeBytes(compressed);
+        return result;
+    }
+
+    private ChannelBuffer deflate(byte[] data) {
+        ChannelBuffer result = ChannelBuffers.dynamicBuffer(data.length / 2 + 16);
+        deflater.setInput(data);
+        int deflated;
+        do {
+            deflated = deflater.deflate(deflateBuffer, 0, deflateBuffer.length, Deflater.SYNC_FLUSH);
+            result.writeBytes(deflateBuffer, 0, deflated);
+        } while (deflated == deflateBuffer.length);
+        return result;
+    }
+}
@@ -0,0 +1,114 @@
+/*
+ * Copyright 2016 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.network.internal;
+
+import com.google.common.collect.Maps;
+import org.terasology.math.geom.Vector3i;
+import org.terasology.monitoring.CounterMonitor;
+import org.terasology.protobuf.EntityData;
+import org.terasology.world.chunks.Chunk;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+
+/**
+ * Keeps the encoded form of recently sent chunks, so that a chunk needed by several clients is only encoded once as
+ * long as it doesn't change. The cache is bounded by the size of the encoded chunks, the least recently used chunks
+ * are evicted first.
+ */
+class EncodedChunkCache {
+    public static final long DEFAULT_CAPACITY = 32L * 1024 * 1024;
+
+    private final LinkedHashMap<Vector3i, Entry> entries = Maps.newLinkedHashMap();
+    private final long capacity;
+    private long size;
+
+    EncodedChunkCache() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * @param capacity the maximum total size in bytes of the cached chunks.
+     */
+    EncodedChunkCache(long capacity) {
+        this.capacity = capacity;
+    }
+
+    /**
+     * @return the encoded chunk, taken from the cache if the chunk didn't change since it was last encoded.
+     */
+    public EntityData.ChunkStore encode(Chunk chunk) {
+        Vector3i pos = chunk.getPosition();
+        int modificationCount = chunk.getModificationCount();
+        Entry entry = entries.remove(pos);
+        if (entry != null) {
+            if (entry.chunk == chunk && entry.modificationCount == modificationCount) {
+                entries.put(pos, entry);
+                CounterMonitor.increment("Network - Encoded chunk cache hits");
+                return entry.chunkStore;
+            }
+            size -= entry.size;
+        }
+        CounterMonitor.increment("Network - Encoded chunk cache misses");
+
+        EntityData.ChunkStore chunkStore = chunk.encode().build();
+        entry = new Entry(chunk, modificationCount, chunkStore);
+        entries.put(pos, entry);
+        size += entry.size;
+        Iterator<Entry> iterator = entries.values().iterator();
+        while (size > capacity && iterator.hasNext()) {
+            size -= iterator.next().size;
+            iterator.remove();
+        }
+        return chunkStore;
+    }
+
+    /**
+     * Drops the encoded chunk at the given position, e.g. because the chunk got unloaded.
+     */
+    public void remove(Vector3i pos) {
+        Entry entry = entries.remove(pos);
+        if (entry != null) {
+            size -= entry.size;
+        }
+    }
+
+    public void clear() {
+        entries.clear();
+        size = 0;
+    }
+
+    /**
+     * @return the total size in bytes of the cached chunks.
+     */
+    public long getSize() {
+        return size;
+    }
+
+    private static final class Entry {
+        private final Chunk chunk;
+        private final int modificationCount;
+        private final EntityData.ChunkStore chunkStore;
+        private final int size;
+
+        Entry(Chunk chunk, int modificationCount, EntityData.ChunkStore chunkStore) {
+            this.chunk = chunk;
+            this.modificationCount = modificationCount;
+            this.chunkStore = chunkStore;
+            this.size = chunkStore.getSerializedSize();
+        }
+    }
+}
@@ -36,6 +36,7 @@ public class MetricRecordingHandler extends SimpleChannelHandler implements NetM
     private AtomicInteger receivedBytes = new AtomicInteger();
     private AtomicInteger sentMessages = new AtomicInteger();
     private AtomicInteger sentBytes = new AtomicInteger();
+    private volatile int chunkSendBacklog;
 
     @Override
     public void messageReceived(ChannelHandlerContext ctx, MessageEvent e) throws Exception {
@@ -72,4 +73,13 @@ public int getSentMessagesSinceLastCall() {
     public int getSentBytesSinceLastCall() {
         return sentBytes.getAndSet(0);
     }
+
+    @Override
+    public int getChunkSendBacklog() {
+        return chunkSendBacklog;
+    }
+
+    public void setChunkSendBacklog(int chunkSendBacklog) {
+        this.chunkSendBacklog = chunkSendBacklog;
+    }
 }
@@ -19,7 +19,6 @@
 import com.google.common.base.Objects;
 import com.google.common.collect.LinkedHashMultimap;
 import com.google.common.collect.Lists;
-import com.google.common.collect.Maps;
 import com.google.common.collect.Queues;
 import com.google.common.collect.SetMultimap;
 import com.google.common.collect.Sets;
@@ -60,6 +59,7 @@
 import org.terasology.registry.CoreRegistry;
 import org.terasology.rendering.nui.Color;
 import org.terasology.rendering.world.viewDistance.ViewDistance;
+import org.terasology.utilities.compression.ChunkCodec;
 import org.terasology.world.WorldChangeListener;
 import org.terasology.world.WorldProvider;
 import org.terasology.world.biomes.Biome;
@@ -73,7 +73,6 @@
 import java.util.Arrays;
 import java.util.Iterator;
 import java.util.List;
-import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.atomic.AtomicInteger;
@@ -86,17 +85,24 @@ public class NetClient extends AbstractClient implements WorldChangeListener {
     private static final Logger logger = LoggerFactory.getLogger(NetClient.class);
     private static final float NET_TICK_RATE = 0.05f;
 
+    /**
+     * The number of ticks the chunk send allowance may build up for, so that chunks which become ready at once can be
+     * sent together.
+     */
+    private static final int MAX_CHUNK_ALLOWANCE_TICKS = 4;
+
     private Time time;
     private NetworkSystemImpl networkSystem;
     private Channel channel;
     private NetworkEntitySerializer entitySerializer;
     private EventSerializer eventSerializer;
     private EventLibrary eventLibrary;
-    private NetMetricSource metricSource;
+    private MetricRecordingHandler metricSource;
     private BiomeManager biomeManager;
 
     // Relevance
     private Set<Vector3i> relevantChunks = Sets.newHashSet();
+    private Set<Vector3i> regionChunks = Sets.newHashSet();
     private TIntSet netRelevant = new TIntHashSet();
 
     // Entity replication data
@@ -110,9 +116,7 @@ public class NetClient extends AbstractClient implements WorldChangeListener {
     private String preferredName = "Player";
     private long lastReceivedTime;
     private ViewDistance viewDistance = ViewDistance.NEAR;
-    private float chunkSendCounter = 1.0f;
-
-    private float chunkSendRate = 0.05469f;
+    private float chunkSendAllowance;
 
     private PublicIdentityCertificate identity;
 
@@ -122,7 +126,7 @@ public class NetClient extends AbstractClient implements WorldChangeListener {
     private List<NetData.EventMessage> queuedOutgoingEvents = Lists.newArrayList();
     private final List<BlockFamily> newlyRegisteredFamilies = Lists.newArrayList();
 
-    private Map<Vector3i, Chunk> readyChunks = Maps.newLinkedHashMap();
+    private ChunkSendQueue readyChunks = new ChunkSendQueue();
     private Set<Vector3i> invalidatedChunks = Sets.newLinkedHashSet();
 
 
@@ -135,10 +139,11 @@ public class NetClient extends AbstractClient implements WorldChangeListener {
     private AtomicInteger sentMessages = new AtomicInteger();
     private AtomicInteger sentBytes = new AtomicInteger();
     private Color color;
+    private ChunkCodec compressionCodec;
 
     public NetClient(Channel channel, NetworkSystemImpl networkSystem, PublicIdentityCertificate identity) {
         this.channel = channel;
-        metricSource = (NetMetricSource) channel.getPipeline().get(MetricRecordingHandler.NAME);
+        metricSource = (MetricRecordingHandler) channel.getPipeline().get(MetricRecordingHandler.NAME);
         this.networkSystem = networkSystem;
         this.time = CoreRegistry.get(Time.class);
         this.identity = identity;
@@ -244,31 +249,33 @@ private void sendRegisteredBlocks(NetData.NetMessage.Builder message) {
         }
     }
 
+    /**
+     * Sends the ready chunks nearest to the character, as many as the byte allowance of this tick permits. The chunk
+     * that exceeds the allowance is still sent, the excess is taken from the allowance of the following ticks.
+     */
     private void sendNewChunks(NetData.NetMessage.Builder message) {
         if (!readyChunks.isEmpty()) {
-            chunkSendCounter += chunkSendRate * NET_TICK_RATE * networkSystem.getBandwidthPerClient();
-            if (chunkSendCounter > 1.0f) {
-                chunkSendCounter -= 1.0f;
-                Vector3i center = new Vector3i();
+            float allowancePerTick = NET_TICK_RATE * networkSystem.getBandwidthPerClient()
+                    * networkSystem.getChunkBytesPerKilobit();
+            chunkSendAllowance = Math.min(chunkSendAllowance + allowancePerTick, allowancePerTick * MAX_CHUNK_ALLOWANCE_TICKS);
+            if (chunkSendAllowance > 0) {
                 LocationComponent loc = getEntity().getComponent(ClientComponent.class).character.getComponent(LocationComponent.class);
                 if (loc != null) {
-                    center.set(ChunkMath.calcChunkPos(new Vector3i(loc.getWorldPosition(), RoundingMode.HALF_UP)));
+                    readyChunks.setCenter(ChunkMath.calcChunkPos(new Vector3i(loc.getWorldPosition(), RoundingMode.HALF_UP)));
                 }
-                Vector3i pos = null;
-                int distance = Integer.MAX_VALUE;
-                for (Vector3i chunkPos : readyChunks.keySet()) {
-                    int chunkDistance = chunkPos.distanceSquared(center);
-                    if (pos == null || chunkDistance < distance) {
-                        pos = chunkPos;
-                        distance = chunkDistance;
-                    }
+                while (chunkSendAllowance > 0 && !readyChunks.isEmpty()) {
+                    Chunk chunk = readyChunks.poll();
+                    relevantChunks.add(chunk.getPosition());
+                    EntityData.ChunkStore chunkStore = networkSystem.getEncodedChunkCache().encode(chunk);
+                    chunkSendAllowance -= chunkStore.getSerializedSize();
+                    message.addChunkInfo(chunkStore);
                 }
-                Chunk chunk = readyChunks.remove(pos);
-                relevantChunks.add(pos);
-                message.addChunkInfo(chunk.encode());
             }
         } else {
-            chunkSendCounter = 1.0f;
+            chunkSendAllowance = 0;
+        }
+        if (metricSource != null) {
+            metricSource.setChunkSendBacklog(readyChunks.size());
         }
     }
 
@@ -288,7 +295,7 @@ public void setNetInitial(int netId) {
     }
 
     public void setNetRemoved(int netId) {
-        if (!netInitial.remove(netId)) {
+        if (!netInitial.remove(netId) && netRelevant.contains(netId)) {
             netRemoved.add(netId);
         }
         dirtyComponents.keySet().remove(netId);
@@ -378,16 +385,43 @@ void send(NetData.NetMessage data) {
         channel.write(data);
     }
 
+    /**
+     * Sends the message that completes the join. If a compression codec got negotiated, it tells the client about it
+     * and all following messages are compressed with it.
+     */
+    void sendJoinComplete(NetData.JoinCompleteMessage.Builder joinComplete) {
+        CompressionEncoder encoder = channel.getPipeline().get(CompressionEncoder.class);
+        if (compressionCodec == null || encoder == null) {
+            send(NetData.NetMessage.newBuilder().setJoinComplete(joinComplete).build());
+            return;
+        }
+        joinComplete.setCompressionCodec(compressionCodec.getId());
+        NetData.NetMessage message = NetData.NetMessage.newBuilder().setJoinComplete(joinComplete).build();
+        encoder.switchCodecAfter(() -> send(message), compressionCodec);
+    }
+
     @Override
     public void onChunkRelevant(Vector3i pos, Chunk chunk) {
         invalidatedChunks.remove(pos);
-        readyChunks.put(pos, chunk);
+        readyChunks.add(pos, chunk);
+        regionChunks.add(pos);
+        networkSystem.onChunkRelevant(this, pos);
     }
 
     @Override
     public void onChunkIrrelevant(Vector3i pos) {
         readyChunks.remove(pos);
         invalidatedChunks.add(pos);
+        regionChunks.remove(pos);
+        networkSystem.onChunkIrrelevant(this, pos);
+    }
+
+    /**
+     * @return whether the chunk is part of the relevance region of this client, entities located in it are replicated
+     * to the client.
+     */
+    public boolean isChunkRelevant(Vector3i pos) {
+        return regionChunks.contains(pos);
     }
 
     @Override
@@ -457,8 +491,8 @@ private void sendDirtyEntities(NetData.NetMessage.Builder message) {
                 logger.error("Sending non-existent entity update for netId {}", netId);
             }
             boolean isOwner = networkSystem.getOwner(entity) == this;
-            EntityData.PackedEntity entityData = entitySerializer.serialize(entity, addedComponents.get(netId), dirtyComponents.get(netId), removedComponents.get(netId),
-                    new ServerComponentFieldCheck(isOwner, false));
+            EntityData.PackedEntity entityData = networkSystem.getReplicationEncoder().encodeUpdate(entity, addedComponents.get(netId), dirtyComponents.get(netId),
+                    removedComponents.get(netId), isOwner);
             if (entityData != null) {
                 message.addUpdateEntity(NetData.UpdateEntityMessage.newBuilder().setEntity(entityData).setNetId(netId));
             }
@@ -490,7 +524,7 @@ private void sendInitialEntities(NetData.NetMessage.Builder message) {
             }
             // Note: Send owner->server fields on initial create
             Client owner = networkSystem.getOwner(entity);
-            EntityData.PackedEntity entityData = entitySerializer.serialize(entity, true, new ServerComponentFieldCheck(owner == this, true)).build();
+            EntityData.PackedEntity entityData = networkSystem.getReplicationEncoder().encodeInitial(entity, owner == this);
             NetData.CreateEntityMessage.Builder createMessage = NetData.CreateEntityMessage.newBuilder().setEntity(entityData);
             BlockComponent blockComponent = entity.getComponent(BlockComponent.class);
             if (blockComponent != null) {
@@ -556,6 +590,13 @@ public void setViewDistanceMode(ViewDistance distanceMode) {
         this.viewDistance = distanceMode;
     }
 
+    /**
+     * @param codec the codec to compress the messages with once the join is complete, null to keep the zlib stream.
+     */
+    public void setCompressionCodec(ChunkCodec codec) {
+        this.compressionCodec = codec;
+    }
+
     public void blockFamilyRegistered(BlockFamily family) {
         synchronized (newlyRegisteredFamilies) {
             newlyRegisteredFamilies.add(family);
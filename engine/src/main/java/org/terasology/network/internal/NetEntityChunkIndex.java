@@ -0,0 +1,96 @@
+/*
+ * Copyright 2016 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.network.internal;
+
+import com.google.common.collect.Maps;
+import gnu.trove.map.TIntObjectMap;
+import gnu.trove.map.hash.TIntObjectHashMap;
+import gnu.trove.set.TIntSet;
+import gnu.trove.set.hash.TIntHashSet;
+import org.terasology.math.geom.Vector3i;
+
+import java.util.Map;
+
+/**
+ * Spatial index of the network entities that are replicated to the clients they are relevant to, by the chunk they
+ * are located in.
+ */
+class NetEntityChunkIndex {
+    private static final int[] NO_ENTITIES = new int[0];
+
+    private final TIntObjectMap<Vector3i> chunkByEntity = new TIntObjectHashMap<>();
+    private final Map<Vector3i, TIntSet> entitiesByChunk = Maps.newHashMap();
+
+    /**
+     * @return the position of the chunk the entity is located in, or null if the entity is not indexed.
+     */
+    public Vector3i getChunk(int netId) {
+        return chunkByEntity.get(netId);
+    }
+
+    /**
+     * Adds the entity to the index, or moves it to the given chunk if it is indexed already.
+     */
+    public void put(int netId, Vector3i chunkPos) {
+        Vector3i oldChunkPos = chunkByEntity.put(netId, chunkPos);
+        if (oldChunkPos != null) {
+            removeFromChunk(netId, oldChunkPos);
+        }
+        TIntSet entities = entitiesByChunk.get(chunkPos);
+        if (entities == null) {
+            entities = new TIntHashSet();
+            entitiesByChunk.put(chunkPos, entities);
+        }
+        entities.add(netId);
+    }
+
+    public void remove(int netId) {
+        Vector3i chunkPos = chunkByEntity.remove(netId);
+        if (chunkPos != null) {
+            removeFromChunk(netId, chunkPos);
+        }
+    }
+
+    /**
+     * @return the network ids of the entities located in the chunk.
+     */
+    public int[] getEntitiesIn(Vector3i chunkPos) {
+        TIntSet entities = entitiesByChunk.get(chunkPos);
+        if (entities == null) {
+            return NO_ENTITIES;
+        }
+        return entities.toArray();
+    }
+
+    public int size() {
+        return chunkByEntity.size();
+    }
+
+    public void clear() {
+        chunkByEntity.clear();
+        entitiesByChunk.clear();
+    }
+
+    private void removeFromChunk(int netId, Vector3i chunkPos) {
+        TIntSet entities = entitiesByChunk.get(chunkPos);
+        if (entities != null) {
+            entities.remove(netId);
+            if (entities.isEmpty()) {
+                entitiesByChunk.remove(chunkPos);
+            }
+        }
+    }
+}
@@ -29,12 +29,15 @@
 import org.terasology.network.NetworkComponent;
 import org.terasology.registry.In;
 import org.terasology.rendering.world.WorldRenderer;
+import org.terasology.world.WorldComponent;
+import org.terasology.world.chunks.event.BeforeChunkUnload;
 
 /**
  * This system handles a number of events relevant to the Network System:
  * <ul>
  * <li>Notifies the network system when network entities are created, destroyed or updated</li>
  * <li>Notifies the network system when a client requests a change of view range</li>
+ * <li>Notifies the network system when chunks are unloaded</li>
  * </ul>
  *
  */
@@ -76,4 +79,9 @@ public void onDeactivateNetworkComponent(BeforeDeactivateComponent event, Entity
         networkSystem.unregisterNetworkEntity(entity);
     }
 
+    @ReceiveEvent(components = WorldComponent.class)
+    public void onChunkUnloaded(BeforeChunkUnload event, EntityRef entity) {
+        networkSystem.onChunkUnloaded(event.getChunkPos());
+    }
+
 }
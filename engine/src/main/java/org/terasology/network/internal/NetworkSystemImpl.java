@@ -57,6 +57,10 @@
 import org.terasology.entitySystem.metadata.ComponentMetadata;
 import org.terasology.entitySystem.metadata.EventLibrary;
 import org.terasology.entitySystem.metadata.EventMetadata;
+import org.terasology.logic.location.LocationComponent;
+import org.terasology.math.ChunkMath;
+import org.terasology.math.geom.Vector3f;
+import org.terasology.math.geom.Vector3i;
 import org.terasology.module.Module;
 import org.terasology.monitoring.PerformanceMonitor;
 import org.terasology.network.Client;
@@ -126,12 +130,15 @@ public class NetworkSystemImpl implements EntityChangeSubscriber, NetworkSystem
     private EventLibrary eventLibrary;
     private EventSerializer eventSerializer;
     private NetworkEntitySerializer entitySerializer;
+    private ReplicationEncoder replicationEncoder;
     private BlockManager blockManager;
     private BiomeManager biomeManager;
     private OwnershipHelper ownershipHelper;
 
     private ChannelFactory factory;
     private TIntLongMap netIdToEntityId = new TIntLongHashMap();
+    private NetEntityChunkIndex relevanceIndex = new NetEntityChunkIndex();
+    private EncodedChunkCache encodedChunkCache = new EncodedChunkCache();
 
     private Time time;
     private long nextNetworkTick;
@@ -276,8 +283,11 @@ public void shutdown() {
         componentLibrary = null;
         eventSerializer = null;
         entitySerializer = null;
+        replicationEncoder = null;
         clientList.clear();
         netClientList.clear();
+        relevanceIndex.clear();
+        encodedChunkCache.clear();
         blockManager = null;
         biomeManager = null;
         ownerLookup.clear();
@@ -309,6 +319,9 @@ public void update() {
                     netTick = true;
                 }
                 PerformanceMonitor.startActivity("Client update");
+                if (netTick && replicationEncoder != null) {
+                    replicationEncoder.beginTick();
+                }
                 for (Client client : clientList) {
                     client.update(netTick);
                 }
@@ -372,6 +385,13 @@ public int getBandwidthPerClient() {
         return config.getUpstreamBandwidth();
     }
 
+    /**
+     * @return the encoded chunk bytes that may be sent to a client per kilobit of its bandwidth
+     */
+    public int getChunkBytesPerKilobit() {
+        return config.getChunkBytesPerKilobit();
+    }
+
     @Override
     public EntityRef getOwnerEntity(EntityRef entity) {
         EntityRef owner = entity;
@@ -420,9 +440,15 @@ public void registerNetworkEntity(EntityRef entity) {
                     }
                     break;
                 default:
+                    Vector3i chunkPos = getRelevanceChunk(entity, netComponent);
+                    if (chunkPos != null) {
+                        relevanceIndex.put(netComponent.getNetworkId(), chunkPos);
+                    }
+                    Client owner = getOwner(entity);
                     for (NetClient client : netClientList) {
-                        // TODO: Relevance Check
-                        client.setNetInitial(netComponent.getNetworkId());
+                        if (isRelevant(client, owner, chunkPos)) {
+                            client.setNetInitial(netComponent.getNetworkId());
+                        }
                     }
                     break;
             }
@@ -488,6 +514,17 @@ private void recursiveUpdateOwnership(EntityRef entity, NetClient lastOwner, Net
                 if (newOwner != null) {
                     newOwner.setNetInitial(networkComponent.getNetworkId());
                 }
+            } else if (networkComponent.replicateMode == NetworkComponent.ReplicateMode.RELEVANT) {
+                // Owners receive their entities regardless of the distance
+                Vector3i chunkPos = relevanceIndex.getChunk(networkComponent.getNetworkId());
+                if (chunkPos != null) {
+                    if (lastOwner != null && !lastOwner.isChunkRelevant(chunkPos)) {
+                        lastOwner.setNetRemoved(networkComponent.getNetworkId());
+                    }
+                    if (newOwner != null && !newOwner.isChunkRelevant(chunkPos)) {
+                        newOwner.setNetInitial(networkComponent.getNetworkId());
+                    }
+                }
             }
             for (EntityRef owned : ownedLookup.get(entity)) {
                 recursiveUpdateOwnership(owned, lastOwner, newOwner);
@@ -505,6 +542,7 @@ public void unregisterNetworkEntity(EntityRef entity) {
             if (netComponent != null) {
                 logger.debug("Unregistering network entity: {} with netId {}", entity, netComponent.getNetworkId());
                 netIdToEntityId.remove(netComponent.getNetworkId());
+                relevanceIndex.remove(netComponent.getNetworkId());
                 if (mode.isServer()) {
                     for (NetClient client : netClientList) {
                         client.setNetRemoved(netComponent.getNetworkId());
@@ -540,6 +578,7 @@ public void connectToEntitySystem(EngineEntityManager newEntityManager, EventLib
         eventSerializer = new EventSerializer(eventLibrary, typeSerializationLibrary);
         entitySerializer = new NetworkEntitySerializer(newEntityManager, entityManager.getComponentLibrary(), typeSerializationLibrary);
         entitySerializer.setComponentSerializeCheck(new NetComponentSerializeCheck());
+        replicationEncoder = new ReplicationEncoder(entitySerializer);
 
         if (mode == NetworkMode.CLIENT) {
             entityManager.setEntityRefStrategy(new NetworkClientRefStrategy(this));
@@ -557,12 +596,16 @@ public void onEntityComponentAdded(EntityRef entity, Class<? extends Component>
         NetworkComponent netComp = entity.getComponent(NetworkComponent.class);
         if (netComp != null && netComp.getNetworkId() != NULL_NET_ID) {
             if (mode.isServer()) {
+                invalidateReplication(entity);
                 if (metadata.isReplicated()) {
                     for (NetClient client : netClientList) {
                         logger.info("Component {} added to {}", component, entity);
                         client.setComponentAdded(netComp.getNetworkId(), component);
                     }
                 }
+                if (component == LocationComponent.class) {
+                    updateRelevance(entity, netComp.getNetworkId(), getRelevanceChunk(entity, netComp));
+                }
             }
         }
         updatedOwnedEntities(entity, component, metadata);
@@ -574,12 +617,16 @@ public void onEntityComponentRemoved(EntityRef entity, Class<? extends Component
         NetworkComponent netComp = entity.getComponent(NetworkComponent.class);
         if (netComp != null && netComp.getNetworkId() != NULL_NET_ID) {
             if (mode.isServer()) {
+                invalidateReplication(entity);
                 if (metadata.isReplicated()) {
                     for (NetClient client : netClientList) {
                         logger.info("Component {} removed from {}", component, entity);
                         client.setComponentRemoved(netComp.getNetworkId(), component);
                     }
                 }
+                if (component == LocationComponent.class) {
+                    updateRelevance(entity, netComp.getNetworkId(), null);
+                }
             }
         }
         if (mode.isAuthority() && metadata.isReferenceOwner()) {
@@ -587,6 +634,16 @@ public void onEntityComponentRemoved(EntityRef entity, Class<? extends Component
         }
     }
 
+    /**
+     * Drops the serialized forms of an entity changed during the network tick, so that no client gets sent a stale
+     * state of it.
+     */
+    private void invalidateReplication(EntityRef entity) {
+        if (replicationEncoder != null) {
+            replicationEncoder.invalidate(entity);
+        }
+    }
+
     @Override
     public void onReactivation(EntityRef entity, Collection<Component> components) {
         // TODO decide if reactivaton should be transfred.
@@ -605,6 +662,10 @@ public void onEntityComponentChange(EntityRef entity, Class<? extends Component>
             switch (mode) {
                 case LISTEN_SERVER:
                 case DEDICATED_SERVER:
+                    invalidateReplication(entity);
+                    if (component == LocationComponent.class) {
+                        updateRelevance(entity, netComp.getNetworkId(), getRelevanceChunk(entity, netComp));
+                    }
                     if (metadata.isReplicated()) {
                         for (NetClient client : netClientList) {
                             client.setComponentDirty(netComp.getNetworkId(), component);
@@ -623,6 +684,79 @@ public void onEntityComponentChange(EntityRef entity, Class<? extends Component>
         updatedOwnedEntities(entity, component, metadata);
     }
 
+    /**
+     * @return the chunk the entity is located in if it is replicated by relevance, or null if it is relevant to all
+     * clients. Entities attached to other entities and entities outside of the world are relevant to all clients.
+     */
+    private Vector3i getRelevanceChunk(EntityRef entity, NetworkComponent netComp) {
+        if (netComp.replicateMode != NetworkComponent.ReplicateMode.RELEVANT) {
+            return null;
+        }
+        LocationComponent location = entity.getComponent(LocationComponent.class);
+        if (location == null || location.getParent().exists()) {
+            return null;
+        }
+        Vector3f position = location.getWorldPosition();
+        if (!Float.isFinite(position.x) || !Float.isFinite(position.y) || !Float.isFinite(position.z)) {
+            return null;
+        }
+        return ChunkMath.calcChunkPos(position);
+    }
+
+    private boolean isRelevant(NetClient client, Client owner, Vector3i chunkPos) {
+        return chunkPos == null || client == owner || client.isChunkRelevant(chunkPos);
+    }
+
+    /**
+     * Moves an entity replicated by relevance to another chunk, creating it on clients it became relevant to and
+     * removing it from clients it is no longer relevant to.
+     *
+     * @param chunkPos the chunk the entity is now located in, or null if it is relevant to all clients.
+     */
+    private void updateRelevance(EntityRef entity, int netId, Vector3i chunkPos) {
+        Vector3i lastChunkPos = relevanceIndex.getChunk(netId);
+        if (Objects.equal(lastChunkPos, chunkPos)) {
+            return;
+        }
+        if (chunkPos != null) {
+            relevanceIndex.put(netId, chunkPos);
+        } else {
+            relevanceIndex.remove(netId);
+        }
+        Client owner = getOwner(entity);
+        for (NetClient client : netClientList) {
+            boolean wasRelevant = isRelevant(client, owner, lastChunkPos);
+            boolean relevant = isRelevant(client, owner, chunkPos);
+            if (relevant && !wasRelevant) {
+                client.setNetInitial(netId);
+            } else if (wasRelevant && !relevant) {
+                client.setNetRemoved(netId);
+            }
+        }
+    }
+
+    /**
+     * Creates the entities located in a chunk on a client the chunk became relevant to.
+     */
+    void onChunkRelevant(NetClient client, Vector3i chunkPos) {
+        for (int netId : relevanceIndex.getEntitiesIn(chunkPos)) {
+            if (getOwner(getEntity(netId)) != client) {
+                client.setNetInitial(netId);
+            }
+        }
+    }
+
+    /**
+     * Removes the entities located in a chunk from a client the chunk is no longer relevant to.
+     */
+    void onChunkIrrelevant(NetClient client, Vector3i chunkPos) {
+        for (int netId : relevanceIndex.getEntitiesIn(chunkPos)) {
+            if (getOwner(getEntity(netId)) != client) {
+                client.setNetRemoved(netId);
+            }
+        }
+    }
+
     private void updatedOwnedEntities(EntityRef entity, Class<? extends Component> component, ComponentMetadata<? extends Component> metadata) {
         if (mode.isAuthority() && metadata.isReferenceOwner()) {
             for (EntityRef ownedEntity : ownershipHelper.listOwnedEntities(entity.getComponent(component))) {
@@ -720,6 +854,27 @@ public int getOutgoingBytesDelta() {
         }
     }
 
+    @Override
+    public int getChunkSendBacklog() {
+        int total = 0;
+        for (NetClient client : netClientList) {
+            total += client.getMetrics().getChunkSendBacklog();
+        }
+        return total;
+    }
+
+    ReplicationEncoder getReplicationEncoder() {
+        return replicationEncoder;
+    }
+
+    EncodedChunkCache getEncodedChunkCache() {
+        return encodedChunkCache;
+    }
+
+    void onChunkUnloaded(Vector3i chunkPos) {
+        encodedChunkCache.remove(chunkPos);
+    }
+
     long getEntityId(int netId) {
         return netIdToEntityId.get(netId);
     }
@@ -784,8 +939,8 @@ private void processNewClient(NetClient client) {
         client.connected(entityManager, entitySerializer, eventSerializer, eventLibrary);
         // log after connect so that the name has been set:
         logger.info("New client connected: {}", client.getName());
-        client.send(NetData.NetMessage.newBuilder().setJoinComplete(
-                NetData.JoinCompleteMessage.newBuilder().setClientId(client.getEntity().getComponent(NetworkComponent.class).getNetworkId())).build());
+        client.sendJoinComplete(NetData.JoinCompleteMessage.newBuilder()
+                .setClientId(client.getEntity().getComponent(NetworkComponent.class).getNetworkId()));
         clientList.add(client);
         netClientList.add(client);
         clientPlayerLookup.put(client.getEntity(), client);
@@ -803,8 +958,9 @@ private void processNewClient(NetClient client) {
                         }
                         break;
                     default:
-                        // TODO: Relevance Check
-                        client.setNetInitial(netComp.getNetworkId());
+                        if (isRelevant(client, getOwner(netEntity), relevanceIndex.getChunk(netComp.getNetworkId()))) {
+                            client.setNetInitial(netComp.getNetworkId());
+                        }
                         break;
                 }
             }
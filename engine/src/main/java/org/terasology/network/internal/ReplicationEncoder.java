@@ -0,0 +1,177 @@
+/*
+ * Copyright 2016 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.network.internal;
+
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Maps;
+import gnu.trove.map.TLongObjectMap;
+import gnu.trove.map.hash.TLongObjectHashMap;
+import org.terasology.entitySystem.Component;
+import org.terasology.entitySystem.entity.EntityRef;
+import org.terasology.monitoring.CounterMonitor;
+import org.terasology.network.serialization.ServerComponentFieldCheck;
+import org.terasology.persistence.serializers.NetworkEntitySerializer;
+import org.terasology.protobuf.EntityData;
+
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Serializes network entities for replication to the clients. Within a network tick every entity is serialized only
+ * once per view (owner or not) and set of changed components, the result is shared by all clients needing the same.
+ * <br><br>
+ * The serialized entities are only valid as long as the entities don't change, so {@link #beginTick()} has to be
+ * called before the clients get updated in a network tick, and {@link #invalidate(EntityRef)} whenever an entity
+ * changes during the tick, e.g. by the messages received from a client.
+ */
+class ReplicationEncoder {
+    private static final EntityData.PackedEntity NOTHING_CHANGED = EntityData.PackedEntity.getDefaultInstance();
+
+    private final NetworkEntitySerializer entitySerializer;
+
+    private final ServerComponentFieldCheck ownerInitialCheck = new ServerComponentFieldCheck(true, true);
+    private final ServerComponentFieldCheck otherInitialCheck = new ServerComponentFieldCheck(false, true);
+    private final ServerComponentFieldCheck ownerUpdateCheck = new ServerComponentFieldCheck(true, false);
+    private final ServerComponentFieldCheck otherUpdateCheck = new ServerComponentFieldCheck(false, false);
+
+    private final TLongObjectMap<EntityData.PackedEntity> ownerInitial = new TLongObjectHashMap<>();
+    private final TLongObjectMap<EntityData.PackedEntity> otherInitial = new TLongObjectHashMap<>();
+    private final TLongObjectMap<Map<UpdateKey, EntityData.PackedEntity>> updates = new TLongObjectHashMap<>();
+    private final UpdateKey probe = new UpdateKey();
+
+    private int hits;
+    private int misses;
+
+    ReplicationEncoder(NetworkEntitySerializer entitySerializer) {
+        this.entitySerializer = entitySerializer;
+    }
+
+    /**
+     * Drops the entities serialized during the last tick.
+     */
+    public void beginTick() {
+        if (hits + misses > 0) {
+            CounterMonitor.add("Network - Entity serialization cache hits", hits);
+            CounterMonitor.add("Network - Entity serialization cache misses", misses);
+            hits = 0;
+            misses = 0;
+        }
+        ownerInitial.clear();
+        otherInitial.clear();
+        updates.clear();
+    }
+
+    /**
+     * Drops the serialized forms of the given entity, so that clients updated afterwards get its current state.
+     */
+    public void invalidate(EntityRef entity) {
+        long id = entity.getId();
+        ownerInitial.remove(id);
+        otherInitial.remove(id);
+        updates.remove(id);
+    }
+
+    /**
+     * @param entity the entity to create on a client.
+     * @param owned  whether the client owns the entity.
+     * @return the full entity, as sent when an entity gets created on a client.
+     */
+    public EntityData.PackedEntity encodeInitial(EntityRef entity, boolean owned) {
+        TLongObjectMap<EntityData.PackedEntity> cache = owned ? ownerInitial : otherInitial;
+        EntityData.PackedEntity result = cache.get(entity.getId());
+        if (result == null) {
+            misses++;
+            result = entitySerializer.serialize(entity, true, owned ? ownerInitialCheck : otherInitialCheck).build();
+            cache.put(entity.getId(), result);
+        } else {
+            hits++;
+        }
+        return result;
+    }
+
+    /**
+     * @param entity  the entity to update on a client.
+     * @param added   the components added since the last tick.
+     * @param changed the components changed since the last tick.
+     * @param removed the components removed since the last tick.
+     * @param owned   whether the client owns the entity.
+     * @return the changes of the entity, or null if there are no changes to send.
+     */
+    public EntityData.PackedEntity encodeUpdate(EntityRef entity, Set<Class<? extends Component>> added, Set<Class<? extends Component>> changed,
+                                                Set<Class<? extends Component>> removed, boolean owned) {
+        probe.set(entity.getId(), owned, added, changed, removed);
+        Map<UpdateKey, EntityData.PackedEntity> entityUpdates = updates.get(entity.getId());
+        EntityData.PackedEntity result = entityUpdates != null ? entityUpdates.get(probe) : null;
+        if (result == null) {
+            misses++;
+            result = entitySerializer.serialize(entity, added, changed, removed, owned ? ownerUpdateCheck : otherUpdateCheck);
+            if (result == null) {
+                result = NOTHING_CHANGED;
+            }
+            UpdateKey key = new UpdateKey();
+            key.set(entity.getId(), owned, ImmutableSet.copyOf(added), ImmutableSet.copyOf(changed), ImmutableSet.copyOf(removed));
+            if (entityUpdates == null) {
+                entityUpdates = Maps.newHashMap();
+                updates.put(entity.getId(), entityUpdates);
+            }
+            entityUpdates.put(key, result);
+        } else {
+            hits++;
+        }
+        return result != NOTHING_CHANGED ? result : null;
+    }
+
+    private static final class UpdateKey {
+        private long entityId;
+        private boolean owned;
+        private Set<Class<? extends Component>> added;
+        private Set<Class<? extends Component>> changed;
+        private Set<Class<? extends Component>> removed;
+        private int hash;
+
+        void set(long newEntityId, boolean newOwned, Set<Class<? extends Component>> newAdded, Set<Class<? extends Component>> newChanged,
+                 Set<Class<? extends Component>> newRemoved) {
+            this.entityId = newEntityId;
+            this.owned = newOwned;
+            this.added = newAdded;
+            this.changed = newChanged;
+            this.removed = newRemoved;
+            int result = Long.hashCode(newEntityId);
+            result = 31 * result + Boolean.hashCode(newOwned);
+            result = 31 * result + newAdded.hashCode();
+            result = 31 * result + newChanged.hashCode();
+            this.hash = 31 * result + newRemoved.hashCode();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (o == this) {
+                return true;
+            }
+            if (o instanceof UpdateKey) {
+                UpdateKey other = (UpdateKey) o;
+                return entityId == other.entityId && owned == other.owned && added.equals(other.added)
+                        && changed.equals(other.changed) && removed.equals(other.removed);
+            }
+            return false;
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
@@ -23,6 +23,7 @@
 import org.jboss.netty.channel.SimpleChannelUpstreamHandler;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.terasology.config.Config;
 import org.terasology.engine.module.ModuleManager;
 import org.terasology.identity.PublicIdentityCertificate;
 import org.terasology.module.Module;
@@ -31,6 +32,8 @@
 import org.terasology.registry.CoreRegistry;
 import org.terasology.rendering.nui.Color;
 import org.terasology.rendering.world.viewDistance.ViewDistance;
+import org.terasology.utilities.compression.ChunkCodec;
+import org.terasology.utilities.compression.ChunkCodecs;
 
 import java.io.BufferedInputStream;
 import java.io.IOException;
@@ -126,12 +129,26 @@ private void sendModules(List<NetData.ModuleRequest> moduleRequestList) {
         }
     }
 
+    /**
+     * Selects the configured compression codec if the client supports it, the switch happens once the join is
+     * complete. All data sent before, and all data sent to clients that don't support it, is compressed with a
+     * continuous zlib stream.
+     */
+    private void selectCompressionCodec(NetClient client, NetData.JoinMessage message) {
+        ChunkCodec codec = ChunkCodecs.getByName(CoreRegistry.get(Config.class).getNetwork().getCompressionCodec());
+        if (codec != ChunkCodecs.GZIP && message.getSupportedCompressionCodecList().contains(codec.getId())) {
+            logger.info("Using {} compression for client", codec.getName());
+            client.setCompressionCodec(codec);
+        }
+    }
+
     private void receivedConnect(NetData.JoinMessage message) {
         logger.info("Received Start Join");
         NetClient client = new NetClient(channelHandlerContext.getChannel(), networkSystem, identity);
         client.setPreferredName(message.getName());
         client.setColor(new Color(message.getColor().getRgba()));
         client.setViewDistanceMode(ViewDistance.forIndex(message.getViewDistanceLevel()));
+        selectCompressionCodec(client, message);
         channelHandlerContext.getPipeline().remove(this);
         serverHandler.connectionComplete(client);
     }
@@ -15,12 +15,14 @@
  */
 package org.terasology.persistence;
 
+import org.terasology.entitySystem.entity.EntityStore;
 import org.terasology.math.geom.Vector3i;
 import org.terasology.network.Client;
 import org.terasology.world.chunks.Chunk;
 
 import java.io.IOException;
 import java.nio.file.Path;
+import java.util.Collection;
 
 /**
  * The entity store manager handles the storing and retrieval of stores of entities (and other data). In particular
@@ -71,6 +73,17 @@ public interface StorageManager {
      */
     void deactivateChunk(Chunk chunk);
 
+    /**
+     * Stores a chunk that has been generated without being loaded, at the next possible time. Its entities get stored
+     * without being created in the entity manager. Chunks that are already stored are kept.
+     * <p>
+     * Has to be called on the main thread.
+     *
+     * @param entities the entities generated with the chunk
+     * @return whether the chunk is going to be stored
+     */
+    boolean storeGeneratedChunk(Chunk chunk, Collection<EntityStore> entities);
+
     boolean isSaving();
 
     void checkAndRepairSaveIfNecessary() throws IOException;
@@ -32,21 +32,18 @@
 import org.terasology.persistence.StorageManager;
 import org.terasology.persistence.serializers.PrefabSerializer;
 import org.terasology.protobuf.EntityData;
+import org.terasology.utilities.compression.ChunkCodecs;
 import org.terasology.world.biomes.BiomeManager;
 import org.terasology.world.block.BlockManager;
 import org.terasology.world.chunks.Chunk;
 
 import java.io.BufferedInputStream;
-import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
-import java.nio.file.FileSystem;
-import java.nio.file.FileSystems;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.Collection;
 import java.util.List;
-import java.util.zip.GZIPInputStream;
 
 /**
  * An abstract implementation of {@link StorageManager} that is able
@@ -66,18 +63,27 @@ public abstract class AbstractStorageManager implements StorageManager {
     private final PrefabSerializer prefabSerializer;
     private final OwnershipHelper helper;
 
-    private boolean storeChunksInZips = true;
+    private ChunkStorageMode chunkStorageMode;
+    private final ChunkZipCache chunkZipCache = new ChunkZipCache();
+    private final RegionFileCache regionFileCache;
 
     public AbstractStorageManager(Path savePath, ModuleEnvironment environment, EngineEntityManager entityManager,
                                   BlockManager blockManager, BiomeManager biomeManager, boolean storeChunksInZips) {
+        this(savePath, environment, entityManager, blockManager, biomeManager,
+                ChunkStorageMode.fromStoreChunksInZips(storeChunksInZips));
+    }
+
+    public AbstractStorageManager(Path savePath, ModuleEnvironment environment, EngineEntityManager entityManager,
+                                  BlockManager blockManager, BiomeManager biomeManager, ChunkStorageMode chunkStorageMode) {
         this.entityManager = entityManager;
         this.environment = environment;
-        this.storeChunksInZips = storeChunksInZips;
+        this.chunkStorageMode = chunkStorageMode;
         this.prefabSerializer = new PrefabSerializer(entityManager.getComponentLibrary(), entityManager.getTypeSerializerLibrary());
         this.blockManager = blockManager;
         this.biomeManager = biomeManager;
 
         this.storagePathProvider = new StoragePathProvider(savePath);
+        this.regionFileCache = new RegionFileCache(storagePathProvider.getRegionFileEntryCount());
         this.helper = new OwnershipHelper(entityManager.getComponentLibrary());
     }
 
@@ -107,9 +113,8 @@ public ChunkStore loadChunkStore(Vector3i chunkPos) {
         byte[] chunkData = loadCompressedChunk(chunkPos);
         ChunkStore store = null;
         if (chunkData != null) {
-            ByteArrayInputStream bais = new ByteArrayInputStream(chunkData);
-            try (GZIPInputStream gzipIn = new GZIPInputStream(bais)) {
-                EntityData.ChunkStore storeData = EntityData.ChunkStore.parseFrom(gzipIn);
+            try {
+                EntityData.ChunkStore storeData = EntityData.ChunkStore.parseFrom(ChunkCodecs.decode(chunkData));
                 store = new ChunkStoreInternal(storeData, entityManager, blockManager, biomeManager);
             } catch (IOException e) {
                 logger.error("Failed to read existing saved chunk {}", chunkPos);
@@ -123,11 +128,8 @@ protected byte[] loadChunkZip(Vector3i chunkPos) {
         Vector3i chunkZipPos = storagePathProvider.getChunkZipPosition(chunkPos);
         Path chunkPath = storagePathProvider.getChunkZipPath(chunkZipPos);
         if (Files.isRegularFile(chunkPath)) {
-            try (FileSystem chunkZip = FileSystems.newFileSystem(chunkPath, null)) {
-                Path targetChunk = chunkZip.getPath(storagePathProvider.getChunkFilename(chunkPos));
-                if (Files.isRegularFile(targetChunk)) {
-                    chunkData = Files.readAllBytes(targetChunk);
-                }
+            try {
+                chunkData = chunkZipCache.readEntry(chunkPath, storagePathProvider.getChunkFilename(chunkPos));
             } catch (IOException e) {
                 logger.error("Failed to load chunk zip {}", chunkPath, e);
             }
@@ -135,36 +137,73 @@ protected byte[] loadChunkZip(Vector3i chunkPos) {
         return chunkData;
     }
 
+    protected byte[] loadChunkFromRegionFile(Vector3i chunkPos) {
+        byte[] chunkData = null;
+        Path regionFilePath = storagePathProvider.getRegionFilePath(storagePathProvider.getRegionFilePosition(chunkPos));
+        if (Files.isRegularFile(regionFilePath)) {
+            try {
+                chunkData = regionFileCache.readChunk(regionFilePath, storagePathProvider.getRegionFileIndex(chunkPos));
+            } catch (IOException e) {
+                logger.error("Failed to load region file {}", regionFilePath, e);
+            }
+        }
+        return chunkData;
+    }
+
     @Override
     public void update() {
     }
 
     public boolean isStoreChunksInZips() {
-        return storeChunksInZips;
+        return chunkStorageMode == ChunkStorageMode.REGION_ZIPS;
     }
 
     /**
      * For tests only
      */
     void setStoreChunksInZips(boolean storeChunksInZips) {
-        this.storeChunksInZips = storeChunksInZips;
+        setChunkStorageMode(ChunkStorageMode.fromStoreChunksInZips(storeChunksInZips));
+    }
+
+    public ChunkStorageMode getChunkStorageMode() {
+        return chunkStorageMode;
+    }
+
+    /**
+     * For tests only
+     */
+    void setChunkStorageMode(ChunkStorageMode chunkStorageMode) {
+        this.chunkStorageMode = chunkStorageMode;
     }
 
     protected byte[] loadCompressedChunk(Vector3i chunkPos) {
-        if (isStoreChunksInZips()) {
-            return loadChunkZip(chunkPos);
-        } else {
-            Path chunkPath = storagePathProvider.getChunkPath(chunkPos);
-            if (Files.isRegularFile(chunkPath)) {
-                try {
-                    return Files.readAllBytes(chunkPath);
-                } catch (IOException e) {
-                    logger.error("Failed to load chunk {}", chunkPos, e);
+        byte[] chunkData;
+        switch (chunkStorageMode) {
+            case REGION_FILES:
+                chunkData = loadChunkFromRegionFile(chunkPos);
+                if (chunkData == null) {
+                    // Save games that have not been converted yet, e.g. when they are only read:
+                    chunkData = loadChunkZip(chunkPos);
                 }
-            }
+                return chunkData;
+            case REGION_ZIPS:
+                chunkData = loadChunkZip(chunkPos);
+                if (chunkData == null) {
+                    // Save games that were stored in region files before:
+                    chunkData = loadChunkFromRegionFile(chunkPos);
+                }
+                return chunkData;
+            default:
+                Path chunkPath = storagePathProvider.getChunkPath(chunkPos);
+                if (Files.isRegularFile(chunkPath)) {
+                    try {
+                        return Files.readAllBytes(chunkPath);
+                    } catch (IOException e) {
+                        logger.error("Failed to load chunk {}", chunkPos, e);
+                    }
+                }
+                return null;
         }
-
-        return null;
     }
 
     protected EntityData.PlayerStore loadPlayerStoreData(String playerId) {
@@ -213,6 +252,20 @@ protected void deactivateOrDestroyEntityRecursive(EntityRef entity) {
         }
     }
 
+    /**
+     * The cache of opened chunk zips. Zips in it must be invalidated before they get replaced or deleted.
+     */
+    protected ChunkZipCache getChunkZipCache() {
+        return chunkZipCache;
+    }
+
+    /**
+     * The cache of opened region files. Region files in it must be invalidated before they get deleted.
+     */
+    protected RegionFileCache getRegionFileCache() {
+        return regionFileCache;
+    }
+
     protected StoragePathProvider getStoragePathProvider() {
         return storagePathProvider;
     }
@@ -235,6 +288,8 @@ protected BiomeManager getBiomeManager() {
 
     public void setSavePath(Path savePath) {
         this.storagePathProvider = new StoragePathProvider(savePath);
+        chunkZipCache.invalidateAll();
+        regionFileCache.invalidateAll();
     }
     protected PrefabSerializer getPrefabSerializer() {
         return prefabSerializer;
@@ -0,0 +1,38 @@
+/*
+ * Copyright 2016 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.persistence.internal;
+
+/**
+ * The ways in which the chunks of a world can be stored in the save game.
+ */
+public enum ChunkStorageMode {
+    /**
+     * Every chunk gets stored in a file of its own.
+     */
+    SEPARATE_FILES,
+    /**
+     * The chunks of a region get stored in a zip file. The whole zip gets rewritten when one of its chunks changes.
+     */
+    REGION_ZIPS,
+    /**
+     * The chunks of a region get stored in a region file, in which only the changed chunks get rewritten.
+     */
+    REGION_FILES;
+
+    public static ChunkStorageMode fromStoreChunksInZips(boolean storeChunksInZips) {
+        return storeChunksInZips ? REGION_ZIPS : SEPARATE_FILES;
+    }
+}
@@ -0,0 +1,58 @@
+/*
+ * Copyright 2016 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.persistence.internal;
+
+import java.io.IOException;
+import java.nio.file.FileSystem;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Keeps a bounded number of chunk zip files open, so that loading the chunks of a region does not parse the central
+ * directory of the region zip again for every single chunk.
+ */
+class ChunkZipCache extends OpenFileCache<FileSystem> {
+    public static final int DEFAULT_CAPACITY = 16;
+
+    ChunkZipCache() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    ChunkZipCache(int capacity) {
+        super(capacity, "Storage - Chunk zip");
+    }
+
+    @Override
+    protected FileSystem open(Path path) throws IOException {
+        return FileSystems.newFileSystem(path, null);
+    }
+
+    /**
+     * @param zipPath   the path of the zip file, it must exist.
+     * @param entryName the name of the file within the zip.
+     * @return the content of the entry or null if the zip contains no such entry.
+     */
+    byte[] readEntry(Path zipPath, String entryName) throws IOException {
+        return use(zipPath, zip -> {
+            Path entry = zip.getPath(entryName);
+            if (Files.isRegularFile(entry)) {
+                return Files.readAllBytes(entry);
+            }
+            return null;
+        });
+    }
+}
@@ -18,13 +18,12 @@
 import org.terasology.entitySystem.entity.EntityRef;
 import org.terasology.entitySystem.entity.internal.EngineEntityManager;
 import org.terasology.protobuf.EntityData;
+import org.terasology.utilities.compression.ChunkCodec;
+import org.terasology.utilities.compression.ChunkCodecs;
 import org.terasology.world.chunks.internal.ChunkImpl;
 
-import java.io.ByteArrayOutputStream;
-import java.io.IOException;
 import java.util.Collection;
 import java.util.Set;
-import java.util.zip.GZIPOutputStream;
 
 /**
  * Provides an easy to get a compressed version of a chunk. Either the chunk most have a snapshot of it's state
@@ -35,6 +34,7 @@ public class CompressedChunkBuilder {
     private EntityData.EntityStore entityStore;
     private ChunkImpl chunk;
     private boolean viaSnapshot;
+    private final ChunkCodec codec;
     private byte[] result;
     private Set<EntityRef> storedEntities;
 
@@ -48,6 +48,17 @@ public class CompressedChunkBuilder {
     public CompressedChunkBuilder(EngineEntityManager entityManager, ChunkImpl chunk,
                                   Collection<EntityRef> entitiesToSave,
                                   boolean chunkUnloaded) {
+        this(entityManager, chunk, entitiesToSave, chunkUnloaded, ChunkCodecs.GZIP);
+    }
+
+    /**
+     * @param codec the codec with which the chunk gets compressed
+     * @see #CompressedChunkBuilder(EngineEntityManager, ChunkImpl, Collection, boolean)
+     */
+    public CompressedChunkBuilder(EngineEntityManager entityManager, ChunkImpl chunk,
+                                  Collection<EntityRef> entitiesToSave,
+                                  boolean chunkUnloaded, ChunkCodec codec) {
+        this.codec = codec;
         EntityStorer storer = new EntityStorer(entityManager);
         entitiesToSave.stream().filter(EntityRef::isPersistent).forEach(storer::store);
         storedEntities = storer.getStoredEntities();
@@ -67,9 +78,19 @@ public CompressedChunkBuilder(EngineEntityManager entityManager, ChunkImpl chunk
      * @param viaSnapshot specifies if the previously taken snapshot will be encoded or if
      */
     public CompressedChunkBuilder(EntityData.EntityStore entityStore, ChunkImpl chunk, boolean viaSnapshot) {
+        this(entityStore, chunk, viaSnapshot, ChunkCodecs.GZIP);
+    }
+
+    /**
+     * @param codec the codec with which the chunk gets compressed
+     * @see #CompressedChunkBuilder(EntityData.EntityStore, ChunkImpl, boolean)
+     */
+    public CompressedChunkBuilder(EntityData.EntityStore entityStore, ChunkImpl chunk, boolean viaSnapshot,
+                                  ChunkCodec codec) {
         this.entityStore = entityStore;
         this.chunk = chunk;
         this.viaSnapshot = viaSnapshot;
+        this.codec = codec;
     }
 
     public synchronized byte[] buildEncodedChunk() {
@@ -89,14 +110,7 @@ public synchronized byte[] buildEncodedChunk() {
     }
 
     private byte[] compressChunkStore(EntityData.ChunkStore store) {
-        ByteArrayOutputStream baos = new ByteArrayOutputStream();
-        try (GZIPOutputStream gzipOut = new GZIPOutputStream(baos)) {
-            store.writeTo(gzipOut);
-        } catch (IOException e) {
-            // as no real IO is involved this should not happen
-            throw new RuntimeException(e);
-        }
-        return baos.toByteArray();
+        return ChunkCodecs.encode(codec, store.toByteArray());
     }
 
     public Set<EntityRef> getStoredEntities() {
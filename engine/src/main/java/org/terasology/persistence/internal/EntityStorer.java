@@ -19,6 +19,7 @@
 import com.google.common.collect.Sets;
 import org.terasology.entitySystem.Component;
 import org.terasology.entitySystem.entity.EntityRef;
+import org.terasology.entitySystem.entity.EntityStore;
 import org.terasology.entitySystem.entity.internal.EngineEntityManager;
 import org.terasology.entitySystem.entity.internal.OwnershipHelper;
 import org.terasology.entitySystem.metadata.ComponentMetadata;
@@ -74,6 +75,16 @@ public void store(EntityRef entity, String name) {
         }
     }
 
+    /**
+     * Stores an entity that does not exist in the entity manager.
+     *
+     * @param id an id no other entity uses.
+     */
+    public void store(long id, EntityStore entity) {
+        FieldSerializeCheck<Component> fieldCheck = FieldSerializeCheck.NullCheck.newInstance();
+        entityStoreBuilder.addEntity(serializer.serialize(id, entity, fieldCheck));
+    }
+
     public EntityData.EntityStore finaliseStore() {
         return entityStoreBuilder.build();
     }
@@ -0,0 +1,276 @@
+/*
+ * Copyright 2016 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.persistence.internal;
+
+import com.google.common.collect.Lists;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.terasology.monitoring.CounterMonitor;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Keeps a bounded number of files of the save game open, so that they don't need to be opened again for each chunk
+ * that gets read from them.
+ * <br><br>
+ * The least recently used file gets closed when the capacity is exceeded. A file that is evicted while another thread
+ * still uses it gets closed once that thread is done with it. Failures to close evicted files are kept until
+ * {@link #throwCloseFailures()} reports them, as data written to such a file may have been lost.
+ * <br><br>
+ * Files must be invalidated before they get replaced or deleted, see {@link #invalidate(Path)}.
+ *
+ * @param <T> the type of the opened files
+ */
+abstract class OpenFileCache<T extends Closeable> {
+    private static final Logger logger = LoggerFactory.getLogger(OpenFileCache.class);
+
+    private final int capacity;
+    private final String counterPrefix;
+
+    /**
+     * Open files in access order, guarded by itself.
+     */
+    private final LinkedHashMap<Path, OpenFile<T>> openFiles = new LinkedHashMap<>(16, 0.75f, true);
+
+    /**
+     * Files that got evicted while in use, they get closed once released. Guarded by {@link #openFiles}.
+     */
+    private final List<OpenFile<T>> evictedInUse = Lists.newArrayList();
+
+    /**
+     * The failure to close a file since the last {@link #throwCloseFailures()}, further failures are suppressed by it.
+     * Guarded by {@link #openFiles}.
+     */
+    private IOException closeFailure;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong openTimeNanos = new AtomicLong();
+
+    /**
+     * @param capacity      the maximum number of files kept open
+     * @param counterPrefix prefix of the names under which hits, misses and open times are reported to the
+     *                      {@link CounterMonitor}
+     */
+    protected OpenFileCache(int capacity, String counterPrefix) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be at least one");
+        }
+        this.capacity = capacity;
+        this.counterPrefix = counterPrefix;
+    }
+
+    /**
+     * Opens the file at the given path. Gets only called for files that are not open yet.
+     */
+    protected abstract T open(Path path) throws IOException;
+
+    /**
+     * Applies the given function to the opened file at the given path. The file will not be closed while the function
+     * runs.
+     */
+    protected <R> R use(Path path, FileFunction<T, R> function) throws IOException {
+        OpenFile<T> file = acquire(path);
+        try {
+            return function.apply(file.file);
+        } finally {
+            release(file);
+        }
+    }
+
+    /**
+     * Applies the given function to all currently opened files, including evicted ones that are still in use, while
+     * no other file can be opened or closed.
+     */
+    protected void forEachOpen(FileFunction<T, ?> function) throws IOException {
+        synchronized (openFiles) {
+            for (OpenFile<T> file : openFiles.values()) {
+                function.apply(file.file);
+            }
+            for (OpenFile<T> file : evictedInUse) {
+                function.apply(file.file);
+            }
+        }
+    }
+
+    /**
+     * Throws the failures to close files since the last call, so that callers don't rely on data that may not have
+     * been written.
+     */
+    protected void throwCloseFailures() throws IOException {
+        IOException failure;
+        synchronized (openFiles) {
+            failure = closeFailure;
+            closeFailure = null;
+        }
+        if (failure != null) {
+            throw new IOException("Failed to close files", failure);
+        }
+    }
+
+    /**
+     * Closes the file opened from the given path, if there is one. Must be called before the file gets replaced.
+     */
+    void invalidate(Path path) {
+        synchronized (openFiles) {
+            OpenFile<T> file = openFiles.remove(path);
+            if (file != null) {
+                evict(file);
+            }
+        }
+    }
+
+    /**
+     * Closes all files, e.g. because the save game gets deleted.
+     */
+    void invalidateAll() {
+        synchronized (openFiles) {
+            for (OpenFile<T> file : openFiles.values()) {
+                evict(file);
+            }
+            openFiles.clear();
+        }
+    }
+
+    long getHits() {
+        return hits.get();
+    }
+
+    long getMisses() {
+        return misses.get();
+    }
+
+    /**
+     * @return the total time in nanoseconds spent opening files.
+     */
+    long getOpenTimeNanos() {
+        return openTimeNanos.get();
+    }
+
+    int size() {
+        synchronized (openFiles) {
+            return openFiles.size();
+        }
+    }
+
+    private OpenFile<T> acquire(Path path) throws IOException {
+        synchronized (openFiles) {
+            OpenFile<T> file = openFiles.get(path);
+            if (file != null) {
+                file.users++;
+                hits.incrementAndGet();
+                CounterMonitor.increment(counterPrefix + " cache hits");
+                return file;
+            }
+        }
+
+        misses.incrementAndGet();
+        CounterMonitor.increment(counterPrefix + " cache misses");
+        long start = System.nanoTime();
+        T opened = open(path);
+        long openTime = System.nanoTime() - start;
+        openTimeNanos.addAndGet(openTime);
+        CounterMonitor.add(counterPrefix + " open time (us)", TimeUnit.NANOSECONDS.toMicros(openTime));
+
+        synchronized (openFiles) {
+            OpenFile<T> file = openFiles.get(path);
+            if (file != null) {
+                // Another thread opened the same file in the meantime
+                file.users++;
+                closeQuietly(opened);
+                return file;
+            }
+            file = new OpenFile<>(opened);
+            file.users++;
+            openFiles.put(path, file);
+            Iterator<OpenFile<T>> iterator = openFiles.values().iterator();
+            while (openFiles.size() > capacity && iterator.hasNext()) {
+                OpenFile<T> eldest = iterator.next();
+                iterator.remove();
+                evict(eldest);
+            }
+            return file;
+        }
+    }
+
+    private void release(OpenFile<T> file) {
+        synchronized (openFiles) {
+            file.users--;
+            if (file.evicted && file.users == 0) {
+                evictedInUse.remove(file);
+                close(file);
+            }
+        }
+    }
+
+    /**
+     * Has to be called while holding the lock of {@link #openFiles}.
+     */
+    private void evict(OpenFile<T> file) {
+        file.evicted = true;
+        if (file.users == 0) {
+            close(file);
+        } else {
+            evictedInUse.add(file);
+        }
+    }
+
+    /**
+     * Has to be called while holding the lock of {@link #openFiles}.
+     */
+    private void close(OpenFile<T> file) {
+        try {
+            file.file.close();
+        } catch (IOException e) {
+            logger.warn("Failed to close {}", file.file, e);
+            if (closeFailure == null) {
+                closeFailure = e;
+            } else {
+                closeFailure.addSuppressed(e);
+            }
+        }
+    }
+
+    private static void closeQuietly(Closeable file) {
+        try {
+            file.close();
+        } catch (IOException e) {
+            logger.warn("Failed to close {}", file, e);
+        }
+    }
+
+    @FunctionalInterface
+    protected interface FileFunction<T, R> {
+        R apply(T file) throws IOException;
+    }
+
+    private static final class OpenFile<T> {
+        private final T file;
+        private int users;
+        private boolean evicted;
+
+        private OpenFile(T file) {
+            this.file = file;
+        }
+    }
+}
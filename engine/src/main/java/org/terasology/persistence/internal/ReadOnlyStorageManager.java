@@ -17,6 +17,7 @@
 package org.terasology.persistence.internal;
 
 import org.terasology.entitySystem.entity.EntityRef;
+import org.terasology.entitySystem.entity.EntityStore;
 import org.terasology.entitySystem.entity.internal.EngineEntityManager;
 import org.terasology.module.ModuleEnvironment;
 import org.terasology.network.Client;
@@ -44,6 +45,11 @@ public ReadOnlyStorageManager(Path savePath, ModuleEnvironment environment, Engi
         super(savePath, environment, entityManager, blockManager, biomeManager, storeChunksInZips);
     }
 
+    public ReadOnlyStorageManager(Path savePath, ModuleEnvironment environment, EngineEntityManager entityManager,
+                                  BlockManager blockManager, BiomeManager biomeManager, ChunkStorageMode chunkStorageMode) {
+        super(savePath, environment, entityManager, blockManager, biomeManager, chunkStorageMode);
+    }
+
     @Override
     public void finishSavingAndShutdown() {
         // don't care
@@ -66,6 +72,11 @@ public void deactivateChunk(Chunk chunk) {
         entitiesOfChunk.forEach(this::deactivateOrDestroyEntityRecursive);
     }
 
+    @Override
+    public boolean storeGeneratedChunk(Chunk chunk, Collection<EntityStore> entities) {
+        return false;
+    }
+
     @Override
     public void update() {
     }
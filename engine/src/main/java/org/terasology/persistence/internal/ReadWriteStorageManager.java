@@ -17,6 +17,7 @@
 
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.terasology.config.Config;
@@ -25,11 +26,13 @@
 import org.terasology.engine.module.ModuleManager;
 import org.terasology.entitySystem.Component;
 import org.terasology.entitySystem.entity.EntityRef;
+import org.terasology.entitySystem.entity.EntityStore;
 import org.terasology.entitySystem.entity.internal.EngineEntityManager;
 import org.terasology.entitySystem.entity.internal.EntityChangeSubscriber;
 import org.terasology.entitySystem.entity.internal.EntityDestroySubscriber;
 import org.terasology.entitySystem.entity.internal.PojoEntityManager;
 import org.terasology.entitySystem.metadata.ComponentLibrary;
+import org.terasology.entitySystem.prefab.Prefab;
 import org.terasology.entitySystem.systems.ComponentSystem;
 import org.terasology.game.Game;
 import org.terasology.game.GameManifest;
@@ -46,6 +49,8 @@
 import org.terasology.protobuf.EntityData;
 import org.terasology.registry.CoreRegistry;
 import org.terasology.utilities.FilesUtil;
+import org.terasology.utilities.compression.ChunkCodec;
+import org.terasology.utilities.compression.ChunkCodecs;
 import org.terasology.utilities.concurrency.ShutdownTask;
 import org.terasology.utilities.concurrency.Task;
 import org.terasology.utilities.concurrency.TaskMaster;
@@ -68,6 +73,9 @@
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReadWriteLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
@@ -94,6 +102,12 @@ public final class ReadWriteStorageManager extends AbstractStorageManager implem
     private final Lock worldDirectoryWriteLock = worldDirectoryLock.writeLock();
     private SaveTransaction saveTransaction;
     private Config config;
+    private ChunkCodec chunkCodec;
+
+    /**
+     * Encodes and writes the chunks of a save transaction, or null if the save thread does that itself.
+     */
+    private ExecutorService chunkWriterPool;
 
     /**
      * Time of the next save in the format that {@link System#currentTimeMillis()} returns.
@@ -121,7 +135,14 @@ public ReadWriteStorageManager(Path savePath, ModuleEnvironment environment, Eng
 
     public ReadWriteStorageManager(Path savePath, ModuleEnvironment environment, EngineEntityManager entityManager,
                                    BlockManager blockManager, BiomeManager biomeManager, boolean storeChunksInZips) throws IOException {
-        super(savePath, environment, entityManager, blockManager, biomeManager, storeChunksInZips);
+        this(savePath, environment, entityManager, blockManager, biomeManager,
+                ChunkStorageMode.fromStoreChunksInZips(storeChunksInZips));
+    }
+
+    public ReadWriteStorageManager(Path savePath, ModuleEnvironment environment, EngineEntityManager entityManager,
+                                   BlockManager blockManager, BiomeManager biomeManager,
+                                   ChunkStorageMode chunkStorageMode) throws IOException {
+        super(savePath, environment, entityManager, blockManager, biomeManager, chunkStorageMode);
 
         entityManager.subscribeForDestruction(this);
         entityManager.subscribeForChanges(this);
@@ -131,6 +152,7 @@ public ReadWriteStorageManager(Path savePath, ModuleEnvironment environment, Eng
         this.saveTransactionHelper = new SaveTransactionHelper(getStoragePathProvider());
         this.saveThreadManager = TaskMaster.createFIFOTaskMaster("Saving", 1);
         this.config = CoreRegistry.get(Config.class);
+        this.chunkCodec = ChunkCodecs.getByName(config.getSystem().getChunkCodec());
         this.entityRefReplacingComponentLibrary = privateEntityManager.getComponentLibrary()
                 .createCopyUsingCopyStrategy(EntityRef.class, new DelayedEntityRefCopyStrategy(this));
         this.entitySetDeltaRecorder = new EntitySetDeltaRecorder(this.entityRefReplacingComponentLibrary);
@@ -148,6 +170,25 @@ private static EngineEntityManager createPrivateEntityManager(ComponentLibrary c
     public void finishSavingAndShutdown() {
         saveThreadManager.shutdown(new ShutdownTask(), true);
         checkSaveTransactionAndClearUpIfItIsDone();
+        getChunkZipCache().invalidateAll();
+        getRegionFileCache().invalidateAll();
+        if (chunkWriterPool != null) {
+            chunkWriterPool.shutdown();
+            chunkWriterPool = null;
+        }
+    }
+
+    private ExecutorService getChunkWriterPool() {
+        int threads = config.getSystem().getChunkSaveThreads();
+        if (threads <= 1) {
+            return null;
+        }
+        if (chunkWriterPool == null) {
+            ThreadFactory threadFactory = new ThreadFactoryBuilder().setNameFormat("Saving-Chunks-%d").setDaemon(true)
+                    .setPriority(Thread.MIN_PRIORITY).build();
+            chunkWriterPool = Executors.newFixedThreadPool(threads, threadFactory);
+        }
+        return chunkWriterPool;
     }
 
     private void checkSaveTransactionAndClearUpIfItIsDone() {
@@ -245,7 +286,8 @@ private void waitForCompletionOfPreviousSave() {
 
     private SaveTransaction createSaveTransaction() {
         SaveTransactionBuilder saveTransactionBuilder = new SaveTransactionBuilder(this, privateEntityManager,
-                entitySetDeltaRecorder, isStoreChunksInZips(), getStoragePathProvider(), worldDirectoryWriteLock);
+                entitySetDeltaRecorder, getChunkStorageMode(), getStoragePathProvider(), getChunkZipCache(),
+                getRegionFileCache(), chunkCodec, getChunkWriterPool(), worldDirectoryWriteLock);
 
         ChunkProvider chunkProvider = CoreRegistry.get(ChunkProvider.class);
         NetworkSystem networkSystem = CoreRegistry.get(NetworkSystem.class);
@@ -308,11 +350,41 @@ public void deactivateChunk(Chunk chunk) {
         Collection<EntityRef> entitiesOfChunk = getEntitiesOfChunk(chunk);
         ChunkImpl chunkImpl = (ChunkImpl) chunk; // storage manager only works with ChunkImpl
         unloadedAndUnsavedChunkMap.put(chunk.getPosition(), new CompressedChunkBuilder(getEntityManager(), chunkImpl,
-                entitiesOfChunk, true));
+                entitiesOfChunk, true, chunkCodec));
 
         entitiesOfChunk.forEach(this::deactivateOrDestroyEntityRecursive);
     }
 
+    @Override
+    public boolean storeGeneratedChunk(Chunk chunk, Collection<EntityStore> entities) {
+        if (loadCompressedChunk(chunk.getPosition()) != null) {
+            return false;
+        }
+        EntityStorer storer = new EntityStorer(getEntityManager());
+        for (EntityStore entity : entities) {
+            Prefab prefab = entity.getPrefab();
+            if (prefab == null || prefab.isPersisted()) {
+                storer.store(reserveEntityId(), entity);
+            }
+        }
+        unloadedAndUnsavedChunkMap.put(chunk.getPosition(), new CompressedChunkBuilder(storer.finaliseStore(),
+                (ChunkImpl) chunk, false, chunkCodec));
+        return true;
+    }
+
+    /**
+     * @return an id that the entity manager won't give to another entity.
+     */
+    private long reserveEntityId() {
+        EngineEntityManager entityManager = getEntityManager();
+        long id = entityManager.getNextId();
+        if (id == PojoEntityManager.NULL_ID) {
+            id++;
+        }
+        entityManager.setNextId(id + 1);
+        return id;
+    }
+
     @Override
     protected byte[] loadCompressedChunk(Vector3i chunkPos) {
         CompressedChunkBuilder disposedUnsavedChunk = unloadedAndUnsavedChunkMap.get(chunkPos);
@@ -441,7 +513,16 @@ public boolean isSaving() {
     public void checkAndRepairSaveIfNecessary() throws IOException {
         saveTransactionHelper.cleanupSaveTransactionDirectory();
         if (Files.exists(getStoragePathProvider().getUnmergedChangesPath())) {
-            saveTransactionHelper.mergeChanges();
+            getChunkZipCache().invalidateAll();
+            if (getChunkStorageMode() == ChunkStorageMode.REGION_FILES) {
+                new SaveTransactionHelper(getStoragePathProvider(), getRegionFileCache()).mergeChanges();
+            } else {
+                saveTransactionHelper.mergeChanges();
+            }
+        }
+        if (getChunkStorageMode() == ChunkStorageMode.REGION_FILES) {
+            getChunkZipCache().invalidateAll();
+            new RegionFileConverter(getStoragePathProvider(), getRegionFileCache()).convert();
         }
     }
 
@@ -453,6 +534,8 @@ public void deleteWorld() {
         unloadedAndSavingChunkMap.clear();
         unloadedAndUnsavedPlayerMap.clear();
         unloadedAndSavingPlayerMap.clear();
+        getChunkZipCache().invalidateAll();
+        getRegionFileCache().invalidateAll();
 
         try {
             FilesUtil.recursiveDelete(getStoragePathProvider().getWorldPath());
@@ -0,0 +1,245 @@
+/*
+ * Copyright 2016 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.persistence.internal;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.BitSet;
+
+/**
+ * A file that stores the compressed chunks of a region in fixed size sectors.
+ * <br><br>
+ * The file starts with a header that contains for every chunk of the region the first sector and the length in bytes
+ * of its data (or zeros if the chunk is not stored). The data of a chunk is stored in consecutive sectors after the
+ * header.
+ * <br><br>
+ * Replacing a chunk writes the new data to sectors that are not in use. The header entries of replaced chunks are only
+ * written by {@link #flush()}, once the new data has been forced to the storage device, and the sectors of the replaced
+ * data are only reused after the new header entries have been forced as well. Thus only the changed chunks get written
+ * on save, and a save that is interrupted before its flush completed leaves the previously flushed version of every
+ * chunk intact.
+ */
+public class RegionFile implements Closeable {
+    public static final int SECTOR_SIZE = 1024;
+    public static final int HEADER_ENTRY_SIZE = 2 * Integer.BYTES;
+
+    private static final Logger logger = LoggerFactory.getLogger(RegionFile.class);
+
+    private final Path path;
+    private final FileChannel channel;
+    private final int entryCount;
+    private final int headerSectors;
+
+    private final int[] firstSectors;
+    private final int[] lengths;
+    private final BitSet usedSectors = new BitSet();
+    private final BitSet releasedSectors = new BitSet();
+    private final BitSet changedEntries = new BitSet();
+
+    private RegionFile(Path path, FileChannel channel, int entryCount) {
+        this.path = path;
+        this.channel = channel;
+        this.entryCount = entryCount;
+        this.headerSectors = sectorsFor(entryCount * HEADER_ENTRY_SIZE);
+        this.firstSectors = new int[entryCount];
+        this.lengths = new int[entryCount];
+    }
+
+    /**
+     * Opens the region file at the given path, or creates it if it does not exist yet.
+     *
+     * @param entryCount the number of chunks the region file can hold.
+     */
+    public static RegionFile open(Path path, int entryCount) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        RegionFile regionFile = new RegionFile(path, channel, entryCount);
+        try {
+            regionFile.readHeader();
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+        return regionFile;
+    }
+
+    private void readHeader() throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(headerSectors * SECTOR_SIZE);
+        usedSectors.set(0, headerSectors);
+        if (channel.size() < header.capacity()) {
+            // New (or truncated) file: start with an empty header
+            writeFully(header, 0);
+            return;
+        }
+        readFully(header, 0);
+        header.flip();
+
+        long fileSize = channel.size();
+        for (int index = 0; index < entryCount; index++) {
+            int firstSector = header.getInt();
+            int length = header.getInt();
+            if (firstSector == 0) {
+                continue;
+            }
+            int sectorCount = sectorsFor(length);
+            if (firstSector < headerSectors || length <= 0 || (long) firstSector * SECTOR_SIZE + length > fileSize) {
+                logger.warn("Ignoring invalid entry {} of region file {}", index, path);
+                continue;
+            }
+            firstSectors[index] = firstSector;
+            lengths[index] = length;
+            usedSectors.set(firstSector, firstSector + sectorCount);
+        }
+    }
+
+    /**
+     * @return the stored data of the chunk with the given index, or null if the chunk is not stored.
+     */
+    public synchronized byte[] read(int index) throws IOException {
+        int firstSector = firstSectors[index];
+        if (firstSector == 0) {
+            return null;
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(lengths[index]);
+        readFully(buffer, (long) firstSector * SECTOR_SIZE);
+        return buffer.array();
+    }
+
+    /**
+     * Stores the data of the chunk with the given index, replacing any previously stored data.
+     */
+    synchronized void write(int index, byte[] data) throws IOException {
+        if (data.length == 0) {
+            throw new IllegalArgumentException("Chunk data must not be empty");
+        }
+        int sectorCount = sectorsFor(data.length);
+        int firstSector = findFreeSectors(sectorCount);
+        writeFully(ByteBuffer.wrap(data), (long) firstSector * SECTOR_SIZE);
+        usedSectors.set(firstSector, firstSector + sectorCount);
+        changeEntry(index, firstSector, data.length);
+    }
+
+    /**
+     * Removes the data of the chunk with the given index.
+     */
+    synchronized void delete(int index) throws IOException {
+        if (firstSectors[index] != 0) {
+            changeEntry(index, 0, 0);
+        }
+    }
+
+    synchronized boolean contains(int index) {
+        return firstSectors[index] != 0;
+    }
+
+    /**
+     * Forces all written data to the storage device, and then writes and forces the header entries of the chunks that
+     * were written or deleted since the last flush. Only afterwards the sectors of their previous data can be reused.
+     */
+    synchronized void flush() throws IOException {
+        channel.force(false);
+        if (changedEntries.isEmpty()) {
+            return;
+        }
+        for (int index = changedEntries.nextSetBit(0); index >= 0; index = changedEntries.nextSetBit(index + 1)) {
+            writeHeaderEntry(index);
+        }
+        channel.force(false);
+        changedEntries.clear();
+        usedSectors.andNot(releasedSectors);
+        releasedSectors.clear();
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        try {
+            flush();
+        } finally {
+            channel.close();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return path.toString();
+    }
+
+    /**
+     * @return the first sector of the first run of unused sectors that is long enough. It is at the end of the file
+     * if there is no such run within the file.
+     */
+    private int findFreeSectors(int sectorCount) {
+        int start = usedSectors.nextClearBit(headerSectors);
+        while (true) {
+            int end = usedSectors.nextSetBit(start);
+            if (end == -1 || end - start >= sectorCount) {
+                return start;
+            }
+            start = usedSectors.nextClearBit(end);
+        }
+    }
+
+    /**
+     * Points the entry of a chunk at new data. The sectors of the old data stay in use until the next flush, as the
+     * header stored on the storage device may still point at them.
+     */
+    private void changeEntry(int index, int firstSector, int length) {
+        int oldFirstSector = firstSectors[index];
+        if (oldFirstSector != 0) {
+            releasedSectors.set(oldFirstSector, oldFirstSector + sectorsFor(lengths[index]));
+        }
+        firstSectors[index] = firstSector;
+        lengths[index] = length;
+        changedEntries.set(index);
+    }
+
+    private void writeHeaderEntry(int index) throws IOException {
+        ByteBuffer entry = ByteBuffer.allocate(HEADER_ENTRY_SIZE);
+        entry.putInt(firstSectors[index]);
+        entry.putInt(lengths[index]);
+        entry.flip();
+        writeFully(entry, (long) index * HEADER_ENTRY_SIZE);
+    }
+
+    private void readFully(ByteBuffer buffer, long position) throws IOException {
+        long current = position;
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, current);
+            if (read < 0) {
+                throw new EOFException("Unexpected end of region file " + path);
+            }
+            current += read;
+        }
+    }
+
+    private void writeFully(ByteBuffer buffer, long position) throws IOException {
+        long current = position;
+        while (buffer.hasRemaining()) {
+            current += channel.write(buffer, current);
+        }
+    }
+
+    private static int sectorsFor(int length) {
+        return (length + SECTOR_SIZE - 1) / SECTOR_SIZE;
+    }
+}
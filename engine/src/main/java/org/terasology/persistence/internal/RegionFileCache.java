@@ -0,0 +1,72 @@
+/*
+ * Copyright 2016 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.persistence.internal;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Keeps a bounded number of region files open, so that their headers don't need to be read again for every chunk that
+ * gets loaded or stored.
+ */
+class RegionFileCache extends OpenFileCache<RegionFile> {
+    public static final int DEFAULT_CAPACITY = 16;
+
+    private final int entryCount;
+
+    RegionFileCache(int entryCount) {
+        this(entryCount, DEFAULT_CAPACITY);
+    }
+
+    RegionFileCache(int entryCount, int capacity) {
+        super(capacity, "Storage - Region file");
+        this.entryCount = entryCount;
+    }
+
+    @Override
+    protected RegionFile open(Path path) throws IOException {
+        return RegionFile.open(path, entryCount);
+    }
+
+    /**
+     * @return the stored data of the chunk or null if the region file does not contain it.
+     */
+    byte[] readChunk(Path regionFilePath, int index) throws IOException {
+        return use(regionFilePath, regionFile -> regionFile.read(index));
+    }
+
+    /**
+     * Stores the data of a chunk, the region file gets created if it does not exist yet.
+     */
+    void writeChunk(Path regionFilePath, int index, byte[] data) throws IOException {
+        use(regionFilePath, regionFile -> {
+            regionFile.write(index, data);
+            return null;
+        });
+    }
+
+    /**
+     * Forces the data written to all open region files to the storage device. Fails as well if a region file could
+     * not be closed since the last flush, as the data written to it may not have reached the storage device.
+     */
+    void flush() throws IOException {
+        forEachOpen(regionFile -> {
+            regionFile.flush();
+            return null;
+        });
+        throwCloseFailures();
+    }
+}
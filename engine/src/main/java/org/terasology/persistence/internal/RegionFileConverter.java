@@ -0,0 +1,120 @@
+/*
+ * Copyright 2016 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.persistence.internal;
+
+import com.google.common.collect.Lists;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.terasology.math.geom.Vector3i;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileSystem;
+import java.nio.file.FileSystems;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.List;
+
+/**
+ * Converts the chunks of a world that are stored in chunk zips or separate chunk files into region files.
+ * <br><br>
+ * A source file gets deleted only after all of its chunks have been written, and the region files they were written to
+ * have been flushed or closed without errors, so an interrupted or failed conversion can simply be started again.
+ * <br><br>
+ * The write lock for the save directory should be acquired before this method gets called.
+ */
+class RegionFileConverter {
+    private static final Logger logger = LoggerFactory.getLogger(RegionFileConverter.class);
+
+    private final StoragePathProvider storagePathProvider;
+    private final RegionFileCache regionFileCache;
+
+    RegionFileConverter(StoragePathProvider storagePathProvider, RegionFileCache regionFileCache) {
+        this.storagePathProvider = storagePathProvider;
+        this.regionFileCache = regionFileCache;
+    }
+
+    /**
+     * @return the number of converted chunks.
+     */
+    int convert() throws IOException {
+        Path worldPath = storagePathProvider.getWorldPath();
+        if (!Files.isDirectory(worldPath)) {
+            return 0;
+        }
+        List<Path> chunkZips = Lists.newArrayList();
+        List<Path> chunkFiles = Lists.newArrayList();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(worldPath)) {
+            for (Path file : stream) {
+                String filename = file.getFileName().toString();
+                if (filename.endsWith(".chunks.zip")) {
+                    chunkZips.add(file);
+                } else if (storagePathProvider.parseChunkFilename(filename) != null) {
+                    chunkFiles.add(file);
+                }
+            }
+        }
+        if (chunkZips.isEmpty() && chunkFiles.isEmpty()) {
+            return 0;
+        }
+
+        logger.info("Converting {} chunk zips and {} chunk files into region files", chunkZips.size(), chunkFiles.size());
+        int convertedChunks = 0;
+        for (Path chunkZip : chunkZips) {
+            convertedChunks += convertChunkZip(chunkZip);
+            regionFileCache.flush();
+            Files.delete(chunkZip);
+        }
+        for (Path chunkFile : chunkFiles) {
+            writeChunk(storagePathProvider.parseChunkFilename(chunkFile.getFileName().toString()), Files.readAllBytes(chunkFile));
+            convertedChunks++;
+        }
+        regionFileCache.flush();
+        for (Path chunkFile : chunkFiles) {
+            Files.delete(chunkFile);
+        }
+        logger.info("Converted {} chunks into region files", convertedChunks);
+        return convertedChunks;
+    }
+
+    private int convertChunkZip(Path chunkZip) throws IOException {
+        int[] convertedChunks = new int[1];
+        try (FileSystem zip = FileSystems.newFileSystem(chunkZip, null)) {
+            for (Path root : zip.getRootDirectories()) {
+                Files.walkFileTree(root, new SimpleFileVisitor<Path>() {
+                    @Override
+                    public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
+                        Vector3i chunkPos = storagePathProvider.parseChunkFilename(file.getFileName().toString());
+                        if (chunkPos != null) {
+                            writeChunk(chunkPos, Files.readAllBytes(file));
+                            convertedChunks[0]++;
+                        }
+                        return FileVisitResult.CONTINUE;
+                    }
+                });
+            }
+        }
+        return convertedChunks[0];
+    }
+
+    private void writeChunk(Vector3i chunkPos, byte[] data) throws IOException {
+        Path regionFilePath = storagePathProvider.getRegionFilePath(storagePathProvider.getRegionFilePosition(chunkPos));
+        regionFileCache.writeChunk(regionFilePath, storagePathProvider.getRegionFileIndex(chunkPos), data);
+    }
+}
@@ -30,11 +30,17 @@
 import org.terasology.math.ChunkMath;
 import org.terasology.math.geom.Vector3f;
 import org.terasology.math.geom.Vector3i;
+import org.terasology.monitoring.Activity;
+import org.terasology.monitoring.CounterMonitor;
+import org.terasology.monitoring.PerformanceMonitor;
+import org.terasology.monitoring.ThreadActivity;
+import org.terasology.monitoring.ThreadMonitor;
 import org.terasology.network.ClientComponent;
 import org.terasology.persistence.StorageManager;
 import org.terasology.protobuf.EntityData;
 import org.terasology.rendering.nui.layers.mainMenu.savedGames.GameInfo;
 import org.terasology.rendering.nui.layers.mainMenu.savedGames.GameProvider;
+import org.terasology.utilities.compression.ChunkCodec;
 import org.terasology.utilities.concurrency.AbstractTask;
 import org.terasology.world.chunks.internal.ChunkImpl;
 
@@ -51,14 +57,19 @@
 import java.nio.file.SimpleFileVisitor;
 import java.nio.file.StandardCopyOption;
 import java.nio.file.attribute.BasicFileAttributes;
-import java.nio.file.spi.FileSystemProvider;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.locks.Lock;
+import java.util.function.Function;
 
 /**
  * Task that writes a previously created memory snapshot of the game to the disk.
@@ -67,6 +78,25 @@
  *
  */
 public class SaveTransaction extends AbstractTask {
+    /**
+     * Counts the chunks written by all save transactions.
+     */
+    public static final String CHUNKS_WRITTEN_COUNTER = "Saving - Chunks written";
+
+    /**
+     * Sums up the wall clock time all save transactions spent compressing and writing chunks.
+     */
+    public static final String CHUNKS_TIME_COUNTER = "Saving - Chunks time (ms)";
+
+    /**
+     * Sums up the time the chunk writer threads spent compressing chunks.
+     */
+    public static final String CHUNK_COMPRESSION_TIME_COUNTER = "Saving - Chunk compression time (us)";
+
+    private static final String PLAYERS_TIME_COUNTER = "Saving - Players time (ms)";
+    private static final String GLOBAL_STORE_TIME_COUNTER = "Saving - Global store time (ms)";
+    private static final String MERGE_TIME_COUNTER = "Saving - Merge time (ms)";
+
     private static final Logger logger = LoggerFactory.getLogger(SaveTransaction.class);
 
     private static final ImmutableMap<String, String> CREATE_ZIP_OPTIONS = ImmutableMap.of("create", "true", "encoding", "UTF-8");
@@ -91,19 +121,34 @@ public class SaveTransaction extends AbstractTask {
 
 
     // Save parameters:
-    private final boolean storeChunksInZips;
+    private final ChunkStorageMode chunkStorageMode;
 
     // utility classes for saving:
     private final StoragePathProvider storagePathProvider;
     private final SaveTransactionHelper saveTransactionHelper;
+    private final ChunkZipCache chunkZipCache;
+    private final ChunkCodec chunkCodec;
+    private final ExecutorService chunkWriterPool;
+
+    /**
+     * The duration of the phases of this save, for logging.
+     */
+    private final Map<String, String> phaseTimes = Maps.newLinkedHashMap();
+
+    /**
+     * The chunk zips that get replaced when the changes get merged.
+     */
+    private final List<Path> replacedChunkZips = Lists.newArrayList();
 
 
     public SaveTransaction(StorageManager storageManager, EngineEntityManager privateEntityManager, EntitySetDeltaRecorder deltaToSave,
                            Map<String, EntityData.PlayerStore> unloadedPlayers,
                            Map<String, PlayerStoreBuilder> loadedPlayers, GlobalStoreBuilder globalStoreBuilder,
                            Map<Vector3i, CompressedChunkBuilder> unloadedChunks, Map<Vector3i, ChunkImpl> loadedChunks,
-                           GameManifest gameManifest, boolean storeChunksInZips,
-                           StoragePathProvider storagePathProvider, Lock worldDirectoryWriteLock) {
+                           GameManifest gameManifest, ChunkStorageMode chunkStorageMode,
+                           StoragePathProvider storagePathProvider, ChunkZipCache chunkZipCache,
+                           RegionFileCache regionFileCache, ChunkCodec chunkCodec, ExecutorService chunkWriterPool,
+                           Lock worldDirectoryWriteLock) {
         this.storageManager = storageManager;
         this.privateEntityManager = privateEntityManager;
         this.deltaToSave = deltaToSave;
@@ -113,9 +158,13 @@ public SaveTransaction(StorageManager storageManager, EngineEntityManager privat
         this.loadedChunks = loadedChunks;
         this.globalStoreBuilder = globalStoreBuilder;
         this.gameManifest = gameManifest;
-        this.storeChunksInZips = storeChunksInZips;
+        this.chunkStorageMode = chunkStorageMode;
         this.storagePathProvider = storagePathProvider;
-        this.saveTransactionHelper = new SaveTransactionHelper(storagePathProvider);
+        this.saveTransactionHelper = new SaveTransactionHelper(storagePathProvider,
+                chunkStorageMode == ChunkStorageMode.REGION_FILES ? regionFileCache : null);
+        this.chunkZipCache = chunkZipCache;
+        this.chunkCodec = chunkCodec;
+        this.chunkWriterPool = chunkWriterPool;
         this.worldDirectoryWriteLock = worldDirectoryWriteLock;
     }
 
@@ -136,14 +185,19 @@ public void run() {
             applyDeltaToPrivateEntityManager();
             prepareChunksPlayersAndGlobalStore();
             createSaveTransactionDirectory();
+            long phaseStart = System.nanoTime();
             writePlayerStores();
+            phaseStart = recordPhaseTime("Players", PLAYERS_TIME_COUNTER, phaseStart);
             writeGlobalStore();
+            phaseStart = recordPhaseTime("Global store", GLOBAL_STORE_TIME_COUNTER, phaseStart);
             writeChunkStores();
+            phaseStart = recordPhaseTime("Chunks", CHUNKS_TIME_COUNTER, phaseStart);
             saveGameManifest();
             perpareChangesForMerge();
             mergeChanges();
+            recordPhaseTime("Merge", MERGE_TIME_COUNTER, phaseStart);
             result = SaveTransactionResult.createSuccessResult();
-            logger.info("Save game finished");
+            logger.info("Save game finished ({})", phaseTimes);
             GameManifest latestManifest = getLatestGameManifest();
             storageManager.setSavePath(PathManager.getInstance().getSavePath(latestManifest.getTitle()));
         } catch (IOException | RuntimeException t) {
@@ -185,7 +239,7 @@ private void prepareCompressedChunkBuilders(Set<EntityRef> unsavedEntities) {
             ChunkImpl chunk = chunkEntry.getValue();
             unsavedEntities.removeAll(entitiesToStore);
             CompressedChunkBuilder compressedChunkBuilder = new CompressedChunkBuilder(privateEntityManager, chunk,
-                    entitiesToStore, false);
+                    entitiesToStore, false, chunkCodec);
             unsavedEntities.removeAll(compressedChunkBuilder.getStoredEntities());
             allChunks.put(chunkEntry.getKey(), compressedChunkBuilder);
         }
@@ -301,6 +355,20 @@ private void applyDeltaToPrivateEntityManager() {
         });
     }
 
+    /**
+     * Reports the time since the start of the phase to the {@link CounterMonitor}.
+     *
+     * @param counter the counter that sums up the time of the phase in milliseconds
+     * @return the start time of the next phase
+     */
+    private long recordPhaseTime(String phase, String counter, long phaseStart) {
+        long now = System.nanoTime();
+        long millis = TimeUnit.NANOSECONDS.toMillis(now - phaseStart);
+        CounterMonitor.add(counter, millis);
+        phaseTimes.put(phase, millis + "ms");
+        return now;
+    }
+
     private void createSaveTransactionDirectory() throws IOException {
         Path directory = storagePathProvider.getUnfinishedSaveTransactionPath();
         Files.createDirectories(directory);
@@ -355,65 +423,145 @@ private void writeGlobalStore() throws IOException {
     }
 
     private void writeChunkStores() throws IOException {
-        FileSystemProvider zipProvider = new ZipFileSystemProvider();
-
         Path chunksPath = storagePathProvider.getWorldTempPath();
         Files.createDirectories(chunksPath);
-        if (storeChunksInZips) {
-            Map<Vector3i, FileSystem> newChunkZips = Maps.newHashMap();
-            for (Map.Entry<Vector3i, CompressedChunkBuilder> entry : allChunks.entrySet()) {
-                Vector3i chunkPos = entry.getKey();
-                Vector3i chunkZipPos = storagePathProvider.getChunkZipPosition(chunkPos);
-                FileSystem zip = newChunkZips.get(chunkZipPos);
-                if (zip == null) {
-                    Path targetPath = storagePathProvider.getChunkZipTempPath(chunkZipPos);
-                    Files.deleteIfExists(targetPath);
-                    zip = zipProvider.newFileSystem(targetPath, CREATE_ZIP_OPTIONS);
-                    newChunkZips.put(chunkZipPos, zip);
+        List<Callable<Void>> chunkWriters = Lists.newArrayList();
+        if (chunkStorageMode == ChunkStorageMode.REGION_ZIPS) {
+            Map<Vector3i, Map<Vector3i, CompressedChunkBuilder>> chunksByZip = groupChunks(storagePathProvider::getChunkZipPosition);
+            for (Map.Entry<Vector3i, Map<Vector3i, CompressedChunkBuilder>> zipEntry : chunksByZip.entrySet()) {
+                Vector3i chunkZipPos = zipEntry.getKey();
+                replacedChunkZips.add(storagePathProvider.getChunkZipPath(chunkZipPos));
+                chunkWriters.add(() -> {
+                    writeChunkZip(chunkZipPos, zipEntry.getValue());
+                    return null;
+                });
+            }
+        } else {
+            // Chunks for region files get written separately too, they get merged into the region files on merge
+            Map<Vector3i, Map<Vector3i, CompressedChunkBuilder>> chunksByRegion = groupChunks(storagePathProvider::getRegionFilePosition);
+            for (Map<Vector3i, CompressedChunkBuilder> chunks : chunksByRegion.values()) {
+                chunkWriters.add(() -> {
+                    writeChunkFiles(chunks);
+                    return null;
+                });
+            }
+        }
+        runChunkWriters(chunkWriters);
+        CounterMonitor.add(CHUNKS_WRITTEN_COUNTER, allChunks.size());
+    }
+
+    /**
+     * Groups the chunks to save by the file they end up in, so that every group can be written independently.
+     */
+    private Map<Vector3i, Map<Vector3i, CompressedChunkBuilder>> groupChunks(Function<Vector3i, Vector3i> groupOfChunk) {
+        Map<Vector3i, Map<Vector3i, CompressedChunkBuilder>> groups = Maps.newHashMap();
+        for (Map.Entry<Vector3i, CompressedChunkBuilder> entry : allChunks.entrySet()) {
+            Vector3i group = groupOfChunk.apply(entry.getKey());
+            groups.computeIfAbsent(group, k -> Maps.newHashMap()).put(entry.getKey(), entry.getValue());
+        }
+        return groups;
+    }
+
+    /**
+     * Runs the given writers on the chunk writer pool and waits for them, or runs them on this thread if there is no
+     * pool.
+     */
+    private void runChunkWriters(List<Callable<Void>> chunkWriters) throws IOException {
+        try {
+            if (chunkWriterPool == null) {
+                for (Callable<Void> chunkWriter : chunkWriters) {
+                    chunkWriter.call();
                 }
-                Path chunkPath = zip.getPath(storagePathProvider.getChunkFilename(chunkPos));
-                CompressedChunkBuilder compressedChunkBuilder = entry.getValue();
-                byte[] compressedChunk = compressedChunkBuilder.buildEncodedChunk();
+                return;
+            }
+            List<Future<Void>> results = Lists.newArrayListWithCapacity(chunkWriters.size());
+            for (Callable<Void> chunkWriter : chunkWriters) {
+                results.add(chunkWriterPool.submit(() -> {
+                    try (ThreadActivity ignored = ThreadMonitor.startThreadActivity(getName());
+                         Activity ignoredActivity = PerformanceMonitor.startActivity("Write chunks")) {
+                        return chunkWriter.call();
+                    }
+                }));
+            }
+            // Wait for all writers, even if one fails, so that no writer is still active when the directory gets cleaned
+            Exception failure = null;
+            for (Future<Void> result : results) {
+                try {
+                    result.get();
+                } catch (ExecutionException e) {
+                    if (e.getCause() instanceof Error) {
+                        throw (Error) e.getCause();
+                    }
+                    if (failure == null) {
+                        failure = (Exception) e.getCause();
+                    }
+                }
+            }
+            if (failure != null) {
+                throw failure;
+            }
+        } catch (IOException | RuntimeException e) {
+            throw e;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while writing chunks", e);
+        } catch (Exception e) {
+            throw new IOException(e);
+        }
+    }
+
+    private void writeChunkZip(Vector3i chunkZipPos, Map<Vector3i, CompressedChunkBuilder> chunks) throws IOException {
+        Path targetPath = storagePathProvider.getChunkZipTempPath(chunkZipPos);
+        Files.deleteIfExists(targetPath);
+        try (FileSystem zip = new ZipFileSystemProvider().newFileSystem(targetPath, CREATE_ZIP_OPTIONS)) {
+            for (Map.Entry<Vector3i, CompressedChunkBuilder> entry : chunks.entrySet()) {
+                Path chunkPath = zip.getPath(storagePathProvider.getChunkFilename(entry.getKey()));
+                byte[] compressedChunk = compress(entry.getValue());
                 try (BufferedOutputStream bos = new BufferedOutputStream(Files.newOutputStream(chunkPath))) {
                     bos.write(compressedChunk);
                 }
             }
-            // Copy existing, unmodified content into the zips and close them
-            for (Map.Entry<Vector3i, FileSystem> chunkZipEntry : newChunkZips.entrySet()) {
-                Vector3i chunkZipPos = chunkZipEntry.getKey();
-                Path oldChunkZipPath = storagePathProvider.getChunkZipPath(chunkZipPos);
-                final FileSystem zip = chunkZipEntry.getValue();
-                if (Files.isRegularFile(oldChunkZipPath)) {
-                    try (FileSystem oldZip = FileSystems.newFileSystem(oldChunkZipPath, null)) {
-                        for (Path root : oldZip.getRootDirectories()) {
-                            Files.walkFileTree(root, new SimpleFileVisitor<Path>() {
-                                @Override
-                                public FileVisitResult visitFile(Path file, BasicFileAttributes attrs)
-                                        throws IOException {
-                                    if (!Files.isRegularFile(zip.getPath(file.toString()))) {
-                                        Files.copy(file, zip.getPath(file.toString()));
-                                    }
-                                    return FileVisitResult.CONTINUE;
+            // Copy existing, unmodified content into the zip
+            Path oldChunkZipPath = storagePathProvider.getChunkZipPath(chunkZipPos);
+            if (Files.isRegularFile(oldChunkZipPath)) {
+                try (FileSystem oldZip = FileSystems.newFileSystem(oldChunkZipPath, null)) {
+                    for (Path root : oldZip.getRootDirectories()) {
+                        Files.walkFileTree(root, new SimpleFileVisitor<Path>() {
+                            @Override
+                            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs)
+                                    throws IOException {
+                                if (!Files.isRegularFile(zip.getPath(file.toString()))) {
+                                    Files.copy(file, zip.getPath(file.toString()));
                                 }
-                            });
-                        }
+                                return FileVisitResult.CONTINUE;
+                            }
+                        });
                     }
                 }
-                zip.close();
             }
-        } else {
-            for (Map.Entry<Vector3i, CompressedChunkBuilder> entry : allChunks.entrySet()) {
-                Vector3i chunkPos = entry.getKey();
-                CompressedChunkBuilder compressedChunkBuilder = entry.getValue();
-                byte[] compressedChunk = compressedChunkBuilder.buildEncodedChunk();
-                Path chunkPath = storagePathProvider.getChunkTempPath(chunkPos);
-                try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(chunkPath))) {
-                    out.write(compressedChunk);
-                }
+        }
+    }
+
+    private void writeChunkFiles(Map<Vector3i, CompressedChunkBuilder> chunks) throws IOException {
+        for (Map.Entry<Vector3i, CompressedChunkBuilder> entry : chunks.entrySet()) {
+            byte[] compressedChunk = compress(entry.getValue());
+            Path chunkPath = storagePathProvider.getChunkTempPath(entry.getKey());
+            try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(chunkPath))) {
+                out.write(compressedChunk);
             }
         }
     }
 
+    /**
+     * Encodes the chunk and reports the time spent doing so to the {@link CounterMonitor}.
+     */
+    private static byte[] compress(CompressedChunkBuilder chunk) {
+        long start = System.nanoTime();
+        byte[] compressedChunk = chunk.buildEncodedChunk();
+        CounterMonitor.add(CHUNK_COMPRESSION_TIME_COUNTER, TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start));
+        return compressedChunk;
+    }
+
     /**
      * @return the result if there is one yet or null. This method returns the value of a volatile variable and
      * can thus be used even from another thread.
@@ -434,6 +582,8 @@ private void saveGameManifest() {
     private void mergeChanges() throws IOException {
         worldDirectoryWriteLock.lock();
         try {
+            // No reads happen while the lock is held, so the replaced zips get closed immediately:
+            replacedChunkZips.forEach(chunkZipCache::invalidate);
             saveTransactionHelper.mergeChanges();
         } finally {
             worldDirectoryWriteLock.unlock();
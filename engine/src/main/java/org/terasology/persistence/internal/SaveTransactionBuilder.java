@@ -21,9 +21,11 @@
 import org.terasology.math.geom.Vector3i;
 import org.terasology.persistence.StorageManager;
 import org.terasology.protobuf.EntityData;
+import org.terasology.utilities.compression.ChunkCodec;
 import org.terasology.world.chunks.internal.ChunkImpl;
 
 import java.util.Map;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.locks.Lock;
 
 /**
@@ -40,18 +42,27 @@ class SaveTransactionBuilder {
     private Map<Vector3i, CompressedChunkBuilder> unloadedChunks = Maps.newHashMap();
     private Map<Vector3i, ChunkImpl> loadedChunks = Maps.newHashMap();
     private GlobalStoreBuilder globalStoreBuilder;
-    private final boolean storeChunksInZips;
+    private final ChunkStorageMode chunkStorageMode;
     private final StoragePathProvider storagePathProvider;
+    private final ChunkZipCache chunkZipCache;
+    private final RegionFileCache regionFileCache;
+    private final ChunkCodec chunkCodec;
+    private final ExecutorService chunkWriterPool;
     private GameManifest gameManifest;
 
     SaveTransactionBuilder(StorageManager storageManager, EngineEntityManager privateEntityManager, EntitySetDeltaRecorder deltaToSave,
-                           boolean storeChunksInZips, StoragePathProvider storagePathProvider,
-                           Lock worldDirectoryWriteLock) {
+                           ChunkStorageMode chunkStorageMode, StoragePathProvider storagePathProvider,
+                           ChunkZipCache chunkZipCache, RegionFileCache regionFileCache, ChunkCodec chunkCodec,
+                           ExecutorService chunkWriterPool, Lock worldDirectoryWriteLock) {
         this.storageManager = storageManager;
         this.privateEntityManager = privateEntityManager;
         this.deltaToSave = deltaToSave;
-        this.storeChunksInZips = storeChunksInZips;
+        this.chunkStorageMode = chunkStorageMode;
         this.storagePathProvider = storagePathProvider;
+        this.chunkZipCache = chunkZipCache;
+        this.regionFileCache = regionFileCache;
+        this.chunkCodec = chunkCodec;
+        this.chunkWriterPool = chunkWriterPool;
         this.worldDirectoryWriteLock = worldDirectoryWriteLock;
     }
 
@@ -78,8 +89,8 @@ public void addLoadedChunk(final Vector3i chunkPosition, final ChunkImpl chunk)
 
     public SaveTransaction build() {
         return new SaveTransaction(storageManager, privateEntityManager, deltaToSave, unloadedPlayers, loadedPlayers, globalStoreBuilder,
-                unloadedChunks, loadedChunks, gameManifest, storeChunksInZips, storagePathProvider,
-                worldDirectoryWriteLock);
+                unloadedChunks, loadedChunks, gameManifest, chunkStorageMode, storagePathProvider, chunkZipCache,
+                regionFileCache, chunkCodec, chunkWriterPool, worldDirectoryWriteLock);
 
     }
 
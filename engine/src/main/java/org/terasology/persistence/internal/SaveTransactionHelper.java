@@ -15,18 +15,22 @@
  */
 package org.terasology.persistence.internal;
 
+import com.google.common.collect.Lists;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.terasology.math.geom.Vector3i;
 
 import java.io.IOException;
 import java.nio.file.AtomicMoveNotSupportedException;
 import java.nio.file.DirectoryNotEmptyException;
+import java.nio.file.DirectoryStream;
 import java.nio.file.FileVisitResult;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.SimpleFileVisitor;
 import java.nio.file.StandardCopyOption;
 import java.nio.file.attribute.BasicFileAttributes;
+import java.util.List;
 
 /**
  * Helper class for methods around {@link SaveTransaction}s that are also needed outside of the save transaction.
@@ -35,9 +39,19 @@
 public class SaveTransactionHelper {
     private static final Logger logger = LoggerFactory.getLogger(SaveTransactionHelper.class);
     private final StoragePathProvider storagePathProvider;
+    private final RegionFileCache regionFileCache;
 
     public SaveTransactionHelper(StoragePathProvider storagePathProvider) {
+        this(storagePathProvider, null);
+    }
+
+    /**
+     * @param regionFileCache if not null, the chunk files of the changes get merged into the region files of the
+     *                        world instead of being moved into the world directory.
+     */
+    SaveTransactionHelper(StoragePathProvider storagePathProvider, RegionFileCache regionFileCache) {
         this.storagePathProvider = storagePathProvider;
+        this.regionFileCache = regionFileCache;
     }
 
     public void cleanupSaveTransactionDirectory() throws IOException {
@@ -70,6 +84,11 @@ public void mergeChanges() throws IOException {
         final Path sourceDirectory = storagePathProvider.getUnmergedChangesPath();
         final Path targetDirectory = storagePathProvider.getStoragePathDirectory();
 
+        if (regionFileCache != null) {
+            Path changedWorldDirectory = sourceDirectory.resolve(targetDirectory.relativize(storagePathProvider.getWorldPath()));
+            mergeChunksIntoRegionFiles(changedWorldDirectory);
+        }
+
         Files.walkFileTree(sourceDirectory, new SimpleFileVisitor<Path>() {
             boolean atomicNotPossibleLogged;
 
@@ -122,4 +141,32 @@ public FileVisitResult postVisitDirectory(Path dir, IOException exc) throws IOEx
             }
         });
     }
+
+    /**
+     * Writes the chunk files of the given directory into the region files of the world. The chunk files get deleted
+     * only after all region files they were written to have been flushed or closed without errors, so that this
+     * operation can be repeated if it gets interrupted or fails.
+     */
+    private void mergeChunksIntoRegionFiles(Path changedWorldDirectory) throws IOException {
+        if (!Files.isDirectory(changedWorldDirectory)) {
+            return;
+        }
+        Files.createDirectories(storagePathProvider.getWorldPath());
+        List<Path> mergedChunkFiles = Lists.newArrayList();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(changedWorldDirectory)) {
+            for (Path chunkFile : stream) {
+                Vector3i chunkPos = storagePathProvider.parseChunkFilename(chunkFile.getFileName().toString());
+                if (chunkPos != null) {
+                    Path regionFilePath = storagePathProvider.getRegionFilePath(storagePathProvider.getRegionFilePosition(chunkPos));
+                    regionFileCache.writeChunk(regionFilePath, storagePathProvider.getRegionFileIndex(chunkPos),
+                            Files.readAllBytes(chunkFile));
+                    mergedChunkFiles.add(chunkFile);
+                }
+            }
+        }
+        regionFileCache.flush();
+        for (Path chunkFile : mergedChunkFiles) {
+            Files.delete(chunkFile);
+        }
+    }
 }
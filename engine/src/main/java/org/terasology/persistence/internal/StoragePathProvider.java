@@ -20,6 +20,8 @@
 import org.terasology.math.geom.Vector3i;
 
 import java.nio.file.Path;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 /**
  */
@@ -31,6 +33,8 @@ public class StoragePathProvider {
     private static final String UNFINISHED_SAVE_TRANSACTION = "unfinished-save-transaction";
     private static final String UNMERGED_CHANGED = "unmerged-changes";
     private static final int CHUNK_ZIP_DIM = 32;
+    private static final int REGION_FILE_DIM = 16;
+    private static final Pattern CHUNK_FILENAME_PATTERN = Pattern.compile("(-?\\d+)\\.(-?\\d+)\\.(-?\\d+)\\.chunk");
 
     private final Path storagePathDirectory;
     private final Path playersPath;
@@ -122,6 +126,48 @@ public Vector3i getChunkZipPosition(Vector3i chunkPos) {
         return result;
     }
 
+    /**
+     * @return the position of the chunk with the given file name, or null if it is not the name of a chunk file.
+     */
+    public Vector3i parseChunkFilename(String filename) {
+        Matcher matcher = CHUNK_FILENAME_PATTERN.matcher(filename);
+        if (!matcher.matches()) {
+            return null;
+        }
+        try {
+            return new Vector3i(Integer.parseInt(matcher.group(1)), Integer.parseInt(matcher.group(2)),
+                    Integer.parseInt(matcher.group(3)));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    public Vector3i getRegionFilePosition(Vector3i chunkPos) {
+        return new Vector3i(Math.floorDiv(chunkPos.x, REGION_FILE_DIM), Math.floorDiv(chunkPos.y, REGION_FILE_DIM),
+                Math.floorDiv(chunkPos.z, REGION_FILE_DIM));
+    }
+
+    /**
+     * @return the index of the chunk within its region file.
+     */
+    public int getRegionFileIndex(Vector3i chunkPos) {
+        int x = Math.floorMod(chunkPos.x, REGION_FILE_DIM);
+        int y = Math.floorMod(chunkPos.y, REGION_FILE_DIM);
+        int z = Math.floorMod(chunkPos.z, REGION_FILE_DIM);
+        return x + REGION_FILE_DIM * (y + REGION_FILE_DIM * z);
+    }
+
+    /**
+     * @return the number of chunks a region file can hold.
+     */
+    public int getRegionFileEntryCount() {
+        return REGION_FILE_DIM * REGION_FILE_DIM * REGION_FILE_DIM;
+    }
+
+    public Path getRegionFilePath(Vector3i regionFilePos) {
+        return worldPath.resolve(String.format("%d.%d.%d.region", regionFilePos.x, regionFilePos.y, regionFilePos.z));
+    }
+
     public Path getChunkPath(Vector3i chunkPos) {
         return worldPath.resolve(getChunkFilename(chunkPos));
     }
@@ -20,6 +20,7 @@
 import com.google.common.collect.Sets;
 import org.terasology.entitySystem.Component;
 import org.terasology.entitySystem.entity.EntityRef;
+import org.terasology.entitySystem.entity.EntityStore;
 import org.terasology.entitySystem.entity.internal.EngineEntityManager;
 import org.terasology.entitySystem.entity.internal.EntityInfoComponent;
 import org.terasology.entitySystem.metadata.ComponentLibrary;
@@ -159,6 +160,44 @@ public EntityData.Entity serialize(EntityRef entityRef, boolean deltaAgainstPref
         }
     }
 
+    /**
+     * Serializes an entity that does not exist in the entity manager, like one generated along with a chunk that gets
+     * stored without being loaded. Components the prefab has too are serialized as a delta against it.
+     *
+     * @param id     The id to store the entity under, no other entity may use it
+     * @param entity The prefab and components of the entity
+     * @param fieldCheck Used to check whether each field in each component of the entity should be serialized.
+     * @return The serialized entity
+     */
+    public EntityData.Entity serialize(long id, EntityStore entity, FieldSerializeCheck<Component> fieldCheck) {
+        EntityData.Entity.Builder entityData = EntityData.Entity.newBuilder();
+        if (!ignoringEntityId) {
+            entityData.setId(id);
+        }
+        Prefab prefab = entity.getPrefab();
+        if (prefab != null) {
+            entityData.setParentPrefab(prefab.getName());
+        }
+        for (Component component : entity.iterateComponents()) {
+            if (!componentSerializeCheck.serialize(componentLibrary.getMetadata(component.getClass()))) {
+                continue;
+            }
+
+            Component prefabComponent = prefab != null ? prefab.getComponent(component.getClass()) : null;
+            EntityData.Component componentData;
+            if (prefabComponent == null) {
+                componentData = componentSerializer.serialize(component, fieldCheck);
+            } else {
+                componentData = componentSerializer.serialize(prefabComponent, component, fieldCheck);
+            }
+
+            if (componentData != null) {
+                entityData.addComponent(componentData);
+            }
+        }
+        return entityData.build();
+    }
+
     /**
      * @param entityData
      * @return The deserialized entity
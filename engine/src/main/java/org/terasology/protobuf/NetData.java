@@ -12934,6 +12934,31 @@ public interface JoinMessageOrBuilder extends
      * <code>optional .Color color = 4;</code>
      */
     org.terasology.protobuf.NetData.ColorOrBuilder getColorOrBuilder();
+
+    /**
+     * <code>repeated int32 supportedCompressionCodec = 5;</code>
+     *
+     * <pre>
+     * Ids of the chunk codecs the client can decompress, the server may pick one of them in the JoinCompleteMessage
+     * </pre>
+     */
+    java.util.List<java.lang.Integer> getSupportedCompressionCodecList();
+    /**
+     * <code>repeated int32 supportedCompressionCodec = 5;</code>
+     *
+     * <pre>
+     * Ids of the chunk codecs the client can decompress, the server may pick one of them in the JoinCompleteMessage
+     * </pre>
+     */
+    int getSupportedCompressionCodecCount();
+    /**
+     * <code>repeated int32 supportedCompressionCodec = 5;</code>
+     *
+     * <pre>
+     * Ids of the chunk codecs the client can decompress, the server may pick one of them in the JoinCompleteMessage
+     * </pre>
+     */
+    int getSupportedCompressionCodec(int index);
   }
   /**
    * Protobuf type {@code JoinMessage}
@@ -13018,6 +13043,27 @@ private JoinMessage(
               bitField0_ |= 0x00000008;
               break;
             }
+            case 40: {
+              if (!((mutable_bitField0_ & 0x00000010) == 0x00000010)) {
+                supportedCompressionCodec_ = new java.util.ArrayList<java.lang.Integer>();
+                mutable_bitField0_ |= 0x00000010;
+              }
+              supportedCompressionCodec_.add(input.readInt32());
+              break;
+            }
+            case 42: {
+              int length = input.readRawVarint32();
+              int limit = input.pushLimit(length);
+              if (!((mutable_bitField0_ & 0x00000010) == 0x00000010) && input.getBytesUntilLimit() > 0) {
+                supportedCompressionCodec_ = new java.util.ArrayList<java.lang.Integer>();
+                mutable_bitField0_ |= 0x00000010;
+              }
+              while (input.getBytesUntilLimit() > 0) {
+                supportedCompressionCodec_.add(input.readInt32());
+              }
+              input.popLimit(limit);
+              break;
+            }
           }
         }
       } catch (com.google.protobuf.InvalidProtocolBufferException e) {
@@ -13026,6 +13072,9 @@ private JoinMessage(
         throw new com.google.protobuf.InvalidProtocolBufferException(
             e.getMessage()).setUnfinishedMessage(this);
       } finally {
+        if (((mutable_bitField0_ & 0x00000010) == 0x00000010)) {
+          supportedCompressionCodec_ = java.util.Collections.unmodifiableList(supportedCompressionCodec_);
+        }
         this.unknownFields = unknownFields.build();
         makeExtensionsImmutable();
       }
@@ -13178,11 +13227,46 @@ public org.terasology.protobuf.NetData.ColorOrBuilder getColorOrBuilder() {
       return color_;
     }
 
+    public static final int SUPPORTEDCOMPRESSIONCODEC_FIELD_NUMBER = 5;
+    private java.util.List<java.lang.Integer> supportedCompressionCodec_;
+    /**
+     * <code>repeated int32 supportedCompressionCodec = 5;</code>
+     *
+     * <pre>
+     * Ids of the chunk codecs the client can decompress, the server may pick one of them in the JoinCompleteMessage
+     * </pre>
+     */
+    public java.util.List<java.lang.Integer>
+        getSupportedCompressionCodecList() {
+      return supportedCompressionCodec_;
+    }
+    /**
+     * <code>repeated int32 supportedCompressionCodec = 5;</code>
+     *
+     * <pre>
+     * Ids of the chunk codecs the client can decompress, the server may pick one of them in the JoinCompleteMessage
+     * </pre>
+     */
+    public int getSupportedCompressionCodecCount() {
+      return supportedCompressionCodec_.size();
+    }
+    /**
+     * <code>repeated int32 supportedCompressionCodec = 5;</code>
+     *
+     * <pre>
+     * Ids of the chunk codecs the client can decompress, the server may pick one of them in the JoinCompleteMessage
+     * </pre>
+     */
+    public int getSupportedCompressionCodec(int index) {
+      return supportedCompressionCodec_.get(index);
+    }
+
     private void initFields() {
       name_ = "";
       version_ = "";
       viewDistanceLevel_ = 0;
       color_ = org.terasology.protobuf.NetData.Color.getDefaultInstance();
+      supportedCompressionCodec_ = java.util.Collections.emptyList();
     }
     private byte memoizedIsInitialized = -1;
     public final boolean isInitialized() {
@@ -13216,6 +13300,9 @@ public void writeTo(com.google.protobuf.CodedOutputStream output)
       if (((bitField0_ & 0x00000008) == 0x00000008)) {
         output.writeMessage(4, color_);
       }
+      for (int i = 0; i < supportedCompressionCodec_.size(); i++) {
+        output.writeInt32(5, supportedCompressionCodec_.get(i));
+      }
       extensionWriter.writeUntil(536870912, output);
       getUnknownFields().writeTo(output);
     }
@@ -13242,6 +13329,15 @@ public int getSerializedSize() {
         size += com.google.protobuf.CodedOutputStream
           .computeMessageSize(4, color_);
       }
+      {
+        int dataSize = 0;
+        for (int i = 0; i < supportedCompressionCodec_.size(); i++) {
+          dataSize += com.google.protobuf.CodedOutputStream
+            .computeInt32SizeNoTag(supportedCompressionCodec_.get(i));
+        }
+        size += dataSize;
+        size += 1 * getSupportedCompressionCodecList().size();
+      }
       size += extensionsSerializedSize();
       size += getUnknownFields().getSerializedSize();
       memoizedSerializedSize = size;
@@ -13374,6 +13470,8 @@ public Builder clear() {
           colorBuilder_.clear();
         }
         bitField0_ = (bitField0_ & ~0x00000008);
+        supportedCompressionCodec_ = java.util.Collections.emptyList();
+        bitField0_ = (bitField0_ & ~0x00000010);
         return this;
       }
 
@@ -13422,6 +13520,11 @@ public org.terasology.protobuf.NetData.JoinMessage buildPartial() {
         } else {
           result.color_ = colorBuilder_.build();
         }
+        if (((bitField0_ & 0x00000010) == 0x00000010)) {
+          supportedCompressionCodec_ = java.util.Collections.unmodifiableList(supportedCompressionCodec_);
+          bitField0_ = (bitField0_ & ~0x00000010);
+        }
+        result.supportedCompressionCodec_ = supportedCompressionCodec_;
         result.bitField0_ = to_bitField0_;
         onBuilt();
         return result;
@@ -13454,6 +13557,16 @@ public Builder mergeFrom(org.terasology.protobuf.NetData.JoinMessage other) {
         if (other.hasColor()) {
           mergeColor(other.getColor());
         }
+        if (!other.supportedCompressionCodec_.isEmpty()) {
+          if (supportedCompressionCodec_.isEmpty()) {
+            supportedCompressionCodec_ = other.supportedCompressionCodec_;
+            bitField0_ = (bitField0_ & ~0x00000010);
+          } else {
+            ensureSupportedCompressionCodecIsMutable();
+            supportedCompressionCodec_.addAll(other.supportedCompressionCodec_);
+          }
+          onChanged();
+        }
         this.mergeExtensionFields(other);
         this.mergeUnknownFields(other.getUnknownFields());
         return this;
@@ -13786,6 +13899,100 @@ public org.terasology.protobuf.NetData.ColorOrBuilder getColorOrBuilder() {
         return colorBuilder_;
       }
 
+      private java.util.List<java.lang.Integer> supportedCompressionCodec_ = java.util.Collections.emptyList();
+      private void ensureSupportedCompressionCodecIsMutable() {
+        if (!((bitField0_ & 0x00000010) == 0x00000010)) {
+          supportedCompressionCodec_ = new java.util.ArrayList<java.lang.Integer>(supportedCompressionCodec_);
+          bitField0_ |= 0x00000010;
+         }
+      }
+      /**
+       * <code>repeated int32 supportedCompressionCodec = 5;</code>
+       *
+       * <pre>
+       * Ids of the chunk codecs the client can decompress, the server may pick one of them in the JoinCompleteMessage
+       * </pre>
+       */
+      public java.util.List<java.lang.Integer>
+          getSupportedCompressionCodecList() {
+        return java.util.Collections.unmodifiableList(supportedCompressionCodec_);
+      }
+      /**
+       * <code>repeated int32 supportedCompressionCodec = 5;</code>
+       *
+       * <pre>
+       * Ids of the chunk codecs the client can decompress, the server may pick one of them in the JoinCompleteMessage
+       * </pre>
+       */
+      public int getSupportedCompressionCodecCount() {
+        return supportedCompressionCodec_.size();
+      }
+      /**
+       * <code>repeated int32 supportedCompressionCodec = 5;</code>
+       *
+       * <pre>
+       * Ids of the chunk codecs the client can decompress, the server may pick one of them in the JoinCompleteMessage
+       * </pre>
+       */
+      public int getSupportedCompressionCodec(int index) {
+        return supportedCompressionCodec_.get(index);
+      }
+      /**
+       * <code>repeated int32 supportedCompressionCodec = 5;</code>
+       *
+       * <pre>
+       * Ids of the chunk codecs the client can decompress, the server may pick one of them in the JoinCompleteMessage
+       * </pre>
+       */
+      public Builder setSupportedCompressionCodec(
+          int index, int value) {
+        ensureSupportedCompressionCodecIsMutable();
+        supportedCompressionCodec_.set(index, value);
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>repeated int32 supportedCompressionCodec = 5;</code>
+       *
+       * <pre>
+       * Ids of the chunk codecs the client can decompress, the server may pick one of them in the JoinCompleteMessage
+       * </pre>
+       */
+      public Builder addSupportedCompressionCodec(int value) {
+        ensureSupportedCompressionCodecIsMutable();
+        supportedCompressionCodec_.add(value);
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>repeated int32 supportedCompressionCodec = 5;</code>
+       *
+       * <pre>
+       * Ids of the chunk codecs the client can decompress, the server may pick one of them in the JoinCompleteMessage
+       * </pre>
+       */
+      public Builder addAllSupportedCompressionCodec(
+          java.lang.Iterable<? extends java.lang.Integer> values) {
+        ensureSupportedCompressionCodecIsMutable();
+        com.google.protobuf.AbstractMessageLite.Builder.addAll(
+            values, supportedCompressionCodec_);
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>repeated int32 supportedCompressionCodec = 5;</code>
+       *
+       * <pre>
+       * Ids of the chunk codecs the client can decompress, the server may pick one of them in the JoinCompleteMessage
+       * </pre>
+       */
+      public Builder clearSupportedCompressionCodec() {
+        supportedCompressionCodec_ = java.util.Collections.emptyList();
+        bitField0_ = (bitField0_ & ~0x00000010);
+        onChanged();
+        return this;
+      }
+
       // @@protoc_insertion_point(builder_scope:JoinMessage)
     }
 
@@ -14207,6 +14414,25 @@ public interface JoinCompleteMessageOrBuilder extends
      * <code>optional int32 clientId = 1;</code>
      */
     int getClientId();
+
+    /**
+     * <code>optional int32 compressionCodec = 2;</code>
+     *
+     * <pre>
+     * Id of the chunk codec the frames following this message are compressed with, until then and without it the
+     * frames are one continuous deflate stream
+     * </pre>
+     */
+    boolean hasCompressionCodec();
+    /**
+     * <code>optional int32 compressionCodec = 2;</code>
+     *
+     * <pre>
+     * Id of the chunk codec the frames following this message are compressed with, until then and without it the
+     * frames are one continuous deflate stream
+     * </pre>
+     */
+    int getCompressionCodec();
   }
   /**
    * Protobuf type {@code JoinCompleteMessage}
@@ -14266,6 +14492,11 @@ private JoinCompleteMessage(
               clientId_ = input.readInt32();
               break;
             }
+            case 16: {
+              bitField0_ |= 0x00000002;
+              compressionCodec_ = input.readInt32();
+              break;
+            }
           }
         }
       } catch (com.google.protobuf.InvalidProtocolBufferException e) {
@@ -14321,8 +14552,34 @@ public int getClientId() {
       return clientId_;
     }
 
+    public static final int COMPRESSIONCODEC_FIELD_NUMBER = 2;
+    private int compressionCodec_;
+    /**
+     * <code>optional int32 compressionCodec = 2;</code>
+     *
+     * <pre>
+     * Id of the chunk codec the frames following this message are compressed with, until then and without it the
+     * frames are one continuous deflate stream
+     * </pre>
+     */
+    public boolean hasCompressionCodec() {
+      return ((bitField0_ & 0x00000002) == 0x00000002);
+    }
+    /**
+     * <code>optional int32 compressionCodec = 2;</code>
+     *
+     * <pre>
+     * Id of the chunk codec the frames following this message are compressed with, until then and without it the
+     * frames are one continuous deflate stream
+     * </pre>
+     */
+    public int getCompressionCodec() {
+      return compressionCodec_;
+    }
+
     private void initFields() {
       clientId_ = 0;
+      compressionCodec_ = 0;
     }
     private byte memoizedIsInitialized = -1;
     public final boolean isInitialized() {
@@ -14347,6 +14604,9 @@ public void writeTo(com.google.protobuf.CodedOutputStream output)
       if (((bitField0_ & 0x00000001) == 0x00000001)) {
         output.writeInt32(1, clientId_);
       }
+      if (((bitField0_ & 0x00000002) == 0x00000002)) {
+        output.writeInt32(2, compressionCodec_);
+      }
       extensionWriter.writeUntil(536870912, output);
       getUnknownFields().writeTo(output);
     }
@@ -14361,6 +14621,10 @@ public int getSerializedSize() {
         size += com.google.protobuf.CodedOutputStream
           .computeInt32Size(1, clientId_);
       }
+      if (((bitField0_ & 0x00000002) == 0x00000002)) {
+        size += com.google.protobuf.CodedOutputStream
+          .computeInt32Size(2, compressionCodec_);
+      }
       size += extensionsSerializedSize();
       size += getUnknownFields().getSerializedSize();
       memoizedSerializedSize = size;
@@ -14482,6 +14746,8 @@ public Builder clear() {
         super.clear();
         clientId_ = 0;
         bitField0_ = (bitField0_ & ~0x00000001);
+        compressionCodec_ = 0;
+        bitField0_ = (bitField0_ & ~0x00000002);
         return this;
       }
 
@@ -14514,6 +14780,10 @@ public org.terasology.protobuf.NetData.JoinCompleteMessage buildPartial() {
           to_bitField0_ |= 0x00000001;
         }
         result.clientId_ = clientId_;
+        if (((from_bitField0_ & 0x00000002) == 0x00000002)) {
+          to_bitField0_ |= 0x00000002;
+        }
+        result.compressionCodec_ = compressionCodec_;
         result.bitField0_ = to_bitField0_;
         onBuilt();
         return result;
@@ -14533,6 +14803,9 @@ public Builder mergeFrom(org.terasology.protobuf.NetData.JoinCompleteMessage oth
         if (other.hasClientId()) {
           setClientId(other.getClientId());
         }
+        if (other.hasCompressionCodec()) {
+          setCompressionCodec(other.getCompressionCodec());
+        }
         this.mergeExtensionFields(other);
         this.mergeUnknownFields(other.getUnknownFields());
         return this;
@@ -14597,6 +14870,58 @@ public Builder clearClientId() {
         return this;
       }
 
+      private int compressionCodec_ ;
+      /**
+       * <code>optional int32 compressionCodec = 2;</code>
+       *
+       * <pre>
+       * Id of the chunk codec the frames following this message are compressed with, until then and without it the
+       * frames are one continuous deflate stream
+       * </pre>
+       */
+      public boolean hasCompressionCodec() {
+        return ((bitField0_ & 0x00000002) == 0x00000002);
+      }
+      /**
+       * <code>optional int32 compressionCodec = 2;</code>
+       *
+       * <pre>
+       * Id of the chunk codec the frames following this message are compressed with, until then and without it the
+       * frames are one continuous deflate stream
+       * </pre>
+       */
+      public int getCompressionCodec() {
+        return compressionCodec_;
+      }
+      /**
+       * <code>optional int32 compressionCodec = 2;</code>
+       *
+       * <pre>
+       * Id of the chunk codec the frames following this message are compressed with, until then and without it the
+       * frames are one continuous deflate stream
+       * </pre>
+       */
+      public Builder setCompressionCodec(int value) {
+        bitField0_ |= 0x00000002;
+        compressionCodec_ = value;
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>optional int32 compressionCodec = 2;</code>
+       *
+       * <pre>
+       * Id of the chunk codec the frames following this message are compressed with, until then and without it the
+       * frames are one continuous deflate stream
+       * </pre>
+       */
+      public Builder clearCompressionCodec() {
+        bitField0_ = (bitField0_ & ~0x00000002);
+        compressionCodec_ = 0;
+        onChanged();
+        return this;
+      }
+
       // @@protoc_insertion_point(builder_scope:JoinCompleteMessage)
     }
 
@@ -25225,42 +25550,43 @@ public org.terasology.protobuf.NetData.Vector3iDataOrBuilder getTargetBlockPosOr
       "omeChangeMessage\022\032\n\003pos\030\001 \001(\0132\r.Vector3i" +
       "Data\022\020\n\010newBiome\030\002 \001(\005*\t\010\210\'\020\200\200\200\200\002\"/\n\014Vec" +
       "tor3iData\022\t\n\001x\030\001 \001(\005\022\t\n\001y\030\002 \001(\005\022\t\n\001z\030\003 \001" +
-      "(\005\"\036\n\021ServerInfoRequest*\t\010\210\'\020\200\200\200\200\002\"i\n\013Jo" +
-      "inMessage\022\014\n\004name\030\001 \001(\t\022\017\n\007version\030\002 \001(\t" +
-      "\022\031\n\021viewDistanceLevel\030\003 \001(\021\022\025\n\005color\030\004 \001" +
-      "(\0132\006.Color*\t\010\210\'\020\200\200\200\200\002\"\025\n\005Color\022\014\n\004rgba\030\001" +
-      " \001(\r\"2\n\023JoinCompleteMessage\022\020\n\010clientId\030" +
-      "\001 \001(\005*\t\010\210\'\020\200\200\200\200\002\"\206\003\n\021ServerInfoMessage\022\033",
-      "\n\006module\030\001 \003(\0132\013.ModuleInfo\022\023\n\007blockId\030\002" +
-      " \003(\021B\002\020\001\022\021\n\tblockName\030\003 \003(\t\022%\n\tcomponent" +
-      "\030\004 \003(\0132\022.SerializationInfo\022!\n\005event\030\005 \003(" +
-      "\0132\022.SerializationInfo\022\023\n\007assetId\030\006 \003(\005B\002" +
-      "\020\001\022\020\n\010assetUri\030\007 \003(\t\022\033\n\023registerBlockFam" +
-      "ily\030\010 \003(\t\022\035\n\tworldInfo\030\t \003(\0132\n.WorldInfo" +
-      "\022\030\n\014biomeShortId\030\n \003(\021B\002\020\001\022\017\n\007biomeId\030\013 " +
-      "\003(\t\022\017\n\007version\030\017 \001(\t\022\020\n\010gameName\030\020 \001(\t\022\014" +
-      "\n\004time\030\021 \001(\003\022\030\n\020reflectionHeight\030\022 \001(\002*\t" +
-      "\010\210\'\020\200\200\200\200\002\"3\n\tWorldInfo\022\r\n\005title\030\001 \001(\t\022\014\n",
-      "\004time\030\002 \001(\003*\t\010\210\'\020\200\200\200\200\002\"]\n\021SerializationI" +
-      "nfo\022\014\n\004name\030\001 \001(\t\022\n\n\002id\030\002 \001(\005\022\021\n\tfieldNa" +
-      "me\030\003 \003(\t\022\020\n\010fieldIds\030\004 \001(\014*\t\010\210\'\020\200\200\200\200\002\"@\n" +
-      "\nModuleInfo\022\020\n\010moduleId\030\001 \001(\t\022\025\n\rmoduleV" +
-      "ersion\030\002 \001(\t*\t\010\210\'\020\200\200\200\200\002\",\n\rModuleRequest" +
-      "\022\020\n\010moduleId\030\001 \001(\t*\t\010\210\'\020\200\200\200\200\002\"W\n\020ModuleD" +
-      "ataHeader\022\n\n\002id\030\001 \001(\t\022\017\n\007version\030\002 \001(\t\022\014" +
-      "\n\004size\030\003 \001(\003\022\r\n\005error\030\017 \001(\t*\t\010\210\'\020\200\200\200\200\002\"\'" +
-      "\n\nModuleData\022\016\n\006module\030\001 \001(\014*\t\010\210\'\020\200\200\200\200\002\"" +
-      "-\n\017ModuleSendError\022\017\n\007message\030\001 \001(\t*\t\010\210\'",
-      "\020\200\200\200\200\002\"`\n\023CreateEntityMessage\022\035\n\006entity\030" +
-      "\001 \001(\0132\r.PackedEntity\022\037\n\010blockPos\030\002 \001(\0132\r" +
-      ".Vector3iData*\t\010\210\'\020\200\200\200\200\002\"N\n\023UpdateEntity" +
-      "Message\022\035\n\006entity\030\001 \001(\0132\r.PackedEntity\022\r" +
-      "\n\005netId\030\002 \001(\005*\t\010\210\'\020\200\200\200\200\002\"/\n\023RemoveEntity" +
-      "Message\022\r\n\005netId\030\001 \001(\005*\t\010\210\'\020\200\200\200\200\002\"i\n\014Eve" +
-      "ntMessage\022\020\n\010targetId\030\001 \001(\005\022\025\n\005event\030\002 \001" +
-      "(\0132\006.Event\022%\n\016targetBlockPos\030\003 \001(\0132\r.Vec" +
-      "tor3iData*\t\010\210\'\020\200\200\200\200\002B$\n\027org.terasology.p" +
-      "rotobufB\007NetDataH\001"
+      "(\005\"\036\n\021ServerInfoRequest*\t\010\210\'\020\200\200\200\200\002\"\214\001\n\013J" +
+      "oinMessage\022\014\n\004name\030\001 \001(\t\022\017\n\007version\030\002 \001(" +
+      "\t\022\031\n\021viewDistanceLevel\030\003 \001(\021\022\025\n\005color\030\004 " +
+      "\001(\0132\006.Color\022!\n\031supportedCompressionCodec" +
+      "\030\005 \003(\005*\t\010\210\'\020\200\200\200\200\002\"\025\n\005Color\022\014\n\004rgba\030\001 \001(\r" +
+      "\"L\n\023JoinCompleteMessage\022\020\n\010clientId\030\001 \001(",
+      "\005\022\030\n\020compressionCodec\030\002 \001(\005*\t\010\210\'\020\200\200\200\200\002\"\206" +
+      "\003\n\021ServerInfoMessage\022\033\n\006module\030\001 \003(\0132\013.M" +
+      "oduleInfo\022\023\n\007blockId\030\002 \003(\021B\002\020\001\022\021\n\tblockN" +
+      "ame\030\003 \003(\t\022%\n\tcomponent\030\004 \003(\0132\022.Serializa" +
+      "tionInfo\022!\n\005event\030\005 \003(\0132\022.SerializationI" +
+      "nfo\022\023\n\007assetId\030\006 \003(\005B\002\020\001\022\020\n\010assetUri\030\007 \003" +
+      "(\t\022\033\n\023registerBlockFamily\030\010 \003(\t\022\035\n\tworld" +
+      "Info\030\t \003(\0132\n.WorldInfo\022\030\n\014biomeShortId\030\n" +
+      " \003(\021B\002\020\001\022\017\n\007biomeId\030\013 \003(\t\022\017\n\007version\030\017 \001" +
+      "(\t\022\020\n\010gameName\030\020 \001(\t\022\014\n\004time\030\021 \001(\003\022\030\n\020re",
+      "flectionHeight\030\022 \001(\002*\t\010\210\'\020\200\200\200\200\002\"3\n\tWorld" +
+      "Info\022\r\n\005title\030\001 \001(\t\022\014\n\004time\030\002 \001(\003*\t\010\210\'\020\200" +
+      "\200\200\200\002\"]\n\021SerializationInfo\022\014\n\004name\030\001 \001(\t\022" +
+      "\n\n\002id\030\002 \001(\005\022\021\n\tfieldName\030\003 \003(\t\022\020\n\010fieldI" +
+      "ds\030\004 \001(\014*\t\010\210\'\020\200\200\200\200\002\"@\n\nModuleInfo\022\020\n\010mod" +
+      "uleId\030\001 \001(\t\022\025\n\rmoduleVersion\030\002 \001(\t*\t\010\210\'\020" +
+      "\200\200\200\200\002\",\n\rModuleRequest\022\020\n\010moduleId\030\001 \001(\t" +
+      "*\t\010\210\'\020\200\200\200\200\002\"W\n\020ModuleDataHeader\022\n\n\002id\030\001 " +
+      "\001(\t\022\017\n\007version\030\002 \001(\t\022\014\n\004size\030\003 \001(\003\022\r\n\005er" +
+      "ror\030\017 \001(\t*\t\010\210\'\020\200\200\200\200\002\"\'\n\nModuleData\022\016\n\006mo",
+      "dule\030\001 \001(\014*\t\010\210\'\020\200\200\200\200\002\"-\n\017ModuleSendError" +
+      "\022\017\n\007message\030\001 \001(\t*\t\010\210\'\020\200\200\200\200\002\"`\n\023CreateEn" +
+      "tityMessage\022\035\n\006entity\030\001 \001(\0132\r.PackedEnti" +
+      "ty\022\037\n\010blockPos\030\002 \001(\0132\r.Vector3iData*\t\010\210\'" +
+      "\020\200\200\200\200\002\"N\n\023UpdateEntityMessage\022\035\n\006entity\030" +
+      "\001 \001(\0132\r.PackedEntity\022\r\n\005netId\030\002 \001(\005*\t\010\210\'" +
+      "\020\200\200\200\200\002\"/\n\023RemoveEntityMessage\022\r\n\005netId\030\001" +
+      " \001(\005*\t\010\210\'\020\200\200\200\200\002\"i\n\014EventMessage\022\020\n\010targe" +
+      "tId\030\001 \001(\005\022\025\n\005event\030\002 \001(\0132\006.Event\022%\n\016targ" +
+      "etBlockPos\030\003 \001(\0132\r.Vector3iData*\t\010\210\'\020\200\200\200",
+      "\200\002B$\n\027org.terasology.protobufB\007NetDataH\001"
     };
     com.google.protobuf.Descriptors.FileDescriptor.InternalDescriptorAssigner assigner =
         new com.google.protobuf.Descriptors.FileDescriptor.    InternalDescriptorAssigner() {
@@ -25358,7 +25684,7 @@ public com.google.protobuf.ExtensionRegistry assignDescriptors(
     internal_static_JoinMessage_fieldAccessorTable = new
       com.google.protobuf.GeneratedMessage.FieldAccessorTable(
         internal_static_JoinMessage_descriptor,
-        new java.lang.String[] { "Name", "Version", "ViewDistanceLevel", "Color", });
+        new java.lang.String[] { "Name", "Version", "ViewDistanceLevel", "Color", "SupportedCompressionCodec", });
     internal_static_Color_descriptor =
       getDescriptor().getMessageTypes().get(14);
     internal_static_Color_fieldAccessorTable = new
@@ -25370,7 +25696,7 @@ public com.google.protobuf.ExtensionRegistry assignDescriptors(
     internal_static_JoinCompleteMessage_fieldAccessorTable = new
       com.google.protobuf.GeneratedMessage.FieldAccessorTable(
         internal_static_JoinCompleteMessage_descriptor,
-        new java.lang.String[] { "ClientId", });
+        new java.lang.String[] { "ClientId", "CompressionCodec", });
     internal_static_ServerInfoMessage_descriptor =
       getDescriptor().getMessageTypes().get(16);
     internal_static_ServerInfoMessage_fieldAccessorTable = new
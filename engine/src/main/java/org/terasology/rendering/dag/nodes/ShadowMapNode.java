@@ -22,6 +22,7 @@
 import org.terasology.math.geom.Vector3f;
 import org.terasology.monitoring.PerformanceMonitor;
 import org.terasology.registry.In;
+import org.terasology.rendering.assets.material.Material;
 import org.terasology.rendering.backdrop.BackdropProvider;
 import org.terasology.rendering.cameras.Camera;
 import org.terasology.rendering.cameras.OrthographicCamera;
@@ -57,6 +58,7 @@
  */
 public class ShadowMapNode extends ConditionDependentNode {
     public static final ResourceUrn SHADOW_MAP = new ResourceUrn("engine:sceneShadowMap");
+    private static final ResourceUrn SHADOW_MAP_SHADER = new ResourceUrn("engine:prog.shadowMap");
     private static final int SHADOW_FRUSTUM_BOUNDS = 500;
     private static final float STEP_SIZE = 50f;
     public Camera shadowMapCamera = new OrthographicCamera(-SHADOW_FRUSTUM_BOUNDS, SHADOW_FRUSTUM_BOUNDS, SHADOW_FRUSTUM_BOUNDS, -SHADOW_FRUSTUM_BOUNDS);
@@ -80,6 +82,7 @@ public class ShadowMapNode extends ConditionDependentNode {
     private ShadowMapResolutionDependentFBOs shadowMapResolutionDependentFBOs;
 
     private RenderingConfig renderingConfig;
+    private Material shadowMapShader;
     private Camera playerCamera;
     private float texelSize;
 
@@ -99,7 +102,8 @@ public void initialise() {
 
         addDesiredStateChange(new BindFBO(SHADOW_MAP, shadowMapResolutionDependentFBOs));
         addDesiredStateChange(new SetViewportToSizeOf(SHADOW_MAP, shadowMapResolutionDependentFBOs));
-        addDesiredStateChange(new EnableMaterial("engine:prog.shadowMap"));
+        addDesiredStateChange(new EnableMaterial(SHADOW_MAP_SHADER.toString()));
+        shadowMapShader = getMaterial(SHADOW_MAP_SHADER);
     }
 
     private float calculateTexelSize(int shadowMapResolution) {
@@ -161,6 +165,7 @@ public void process() {
                     final ChunkMesh chunkMesh = chunk.getMesh();
                     final Vector3f chunkPosition = chunk.getPosition().toVector3f();
 
+                    chunkMesh.updateVertexFormat(shadowMapShader);
                     numberOfRenderedTriangles += chunkMesh.render(OPAQUE, chunkPosition, cameraPosition);
 
                 } else {
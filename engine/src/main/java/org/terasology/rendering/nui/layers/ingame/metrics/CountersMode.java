@@ -0,0 +1,76 @@
+/*
+ * Copyright 2016 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.rendering.nui.layers.ingame.metrics;
+
+import org.terasology.monitoring.CounterMonitor;
+import org.terasology.monitoring.chunk.ChunkMonitor;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.SortedMap;
+
+/**
+ * Displays the values of the {@link CounterMonitor} counters together with their increase per second, and the average
+ * number of chunks re-meshed per block edit.
+ */
+final class CountersMode extends MetricsMode {
+    private long lastTime;
+    private SortedMap<String, Long> lastCounters = Collections.emptySortedMap();
+    private String lastMetric;
+
+    CountersMode() {
+        super("Counters");
+        lastMetric = getName();
+    }
+
+    @Override
+    public String getMetrics() {
+        // only update the metric a minimum once a second, cache the result
+        long currentTime = System.currentTimeMillis();
+        long timeDifference = currentTime - lastTime;
+        if (timeDifference >= 1000) {
+            SortedMap<String, Long> counters = CounterMonitor.getCounters();
+            StringBuilder builder = new StringBuilder();
+            builder.append(getName());
+            builder.append("\n");
+            for (Map.Entry<String, Long> entry : counters.entrySet()) {
+                Long lastValue = lastCounters.get(entry.getKey());
+                long delta = entry.getValue() - (lastValue != null ? lastValue : 0);
+                builder.append(String.format("%s: %d (%.1f/s)%n", entry.getKey(), entry.getValue(), 1000.0 * delta / timeDifference));
+            }
+            if (counters.containsKey(ChunkMonitor.BLOCK_EDITS_COUNTER)) {
+                builder.append(String.format("Chunks - re-meshes per block edit: %.2f%n", ChunkMonitor.getRemeshesPerBlockEdit()));
+            }
+            if (lastTime != 0) {
+                // ignore the first update as it will not have useful data
+                lastMetric = builder.toString();
+            }
+            lastCounters = counters;
+            lastTime = currentTime;
+        }
+        return lastMetric;
+    }
+
+    @Override
+    public boolean isAvailable() {
+        return true;
+    }
+
+    @Override
+    public boolean isPerformanceManagerMode() {
+        return false;
+    }
+}
@@ -52,7 +52,9 @@ public void initialise() {
         register(new RunningMeansMode());
         register(new SpikesMode());
         register(new AllocationsMode());
+        register(new ThreadGroupMeansMode());
         register(new RunningThreadsMode());
+        register(new CountersMode());
         register(new WorldRendererMode());
         register(new RenderingExecTimeMeansMode("Rendering - Execution Time: Running Means - Sorted Alphabetically"));
         currentMode = defaultMode;
@@ -40,8 +40,11 @@
 import org.terasology.rendering.assets.shader.ShaderParameterMetadata;
 import org.terasology.rendering.assets.shader.ShaderProgramFeature;
 import org.terasology.rendering.primitives.ChunkVertexFlag;
+import org.terasology.rendering.primitives.CompactChunkVertices;
+import org.terasology.rendering.primitives.GreedyMesher;
 import org.terasology.rendering.shader.ShaderParametersSSAO;
 import org.terasology.rendering.world.WorldRenderer;
+import org.terasology.world.block.shapes.BlockMeshPart;
 import org.terasology.world.block.tiles.WorldAtlas;
 
 import java.io.BufferedWriter;
@@ -136,6 +139,9 @@ public Iterable<ShaderParameterMetadata> listParameters() {
 
     private StringBuilder createShaderBuilder() {
         String preProcessorPreamble = "#version 120\n";
+        // Extension directives have to precede the uniforms and functions of the included files.
+        // Chunk shaders use it to sample merged quads with explicit gradients if it is available.
+        preProcessorPreamble += "#extension GL_ARB_shader_texture_lod : enable\n";
 
         // TODO: Implement a system for this - this has gotten way out of hand.
         WorldAtlas worldAtlas = CoreRegistry.get(WorldAtlas.class);
@@ -144,6 +150,7 @@ private StringBuilder createShaderBuilder() {
         } else {
             preProcessorPreamble += "#define TEXTURE_OFFSET 0.06125\n";
         }
+        preProcessorPreamble += "#define TEXTURE_BORDER (" + BlockMeshPart.BORDER + " * TEXTURE_OFFSET)\n";
         RenderingConfig renderConfig = config.getRendering();
 
         preProcessorPreamble += "#define BLOCK_LIGHT_POW " + WorldRenderer.BLOCK_LIGHT_POW + "\n";
@@ -226,6 +233,11 @@ private StringBuilder createShaderBuilder() {
         for (ChunkVertexFlag vertexFlag : ChunkVertexFlag.values()) {
             builder.append("#define ").append(vertexFlag.getDefineName()).append(" int(").append(vertexFlag.getValue()).append(") \n");
         }
+        builder.append("#define GREEDY_TILE_STRIDE int(").append(GreedyMesher.TILE_INDEX_STRIDE).append(") \n");
+        builder.append("#define COMPACT_POSITION_SCALE ").append(CompactChunkVertices.POSITION_SCALE).append(" \n");
+        builder.append("#define COMPACT_TEX_COORD_SCALE ").append(CompactChunkVertices.TEX_COORD_SCALE).append(" \n");
+        builder.append("#define COMPACT_OCCLUSION_SCALE ").append(CompactChunkVertices.OCCLUSION_SCALE).append(" \n");
+        builder.append("#define COMPACT_LIGHT_RESOLUTION float(").append(CompactChunkVertices.LIGHT_RESOLUTION).append(") \n");
 
         return builder;
     }
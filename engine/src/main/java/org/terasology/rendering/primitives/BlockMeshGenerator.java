@@ -36,6 +36,21 @@ public interface BlockMeshGenerator {
      */
     void generateChunkMesh(ChunkView view, ChunkMesh mesh, int x, int y, int z);
 
+    /**
+     * Generates a block mesh at the defined location in the ChunkMesh, offering faces that can be merged with those of
+     * adjacent blocks to the greedy mesher. By default no faces are offered.
+     *
+     * @param view         The input hunk area to acquire the Block data from.
+     * @param mesh         The output mesh that is being generated.
+     * @param x            Input position X.
+     * @param y            Input position Y.
+     * @param z            Input position Z.
+     * @param greedyMesher The mesher merging faces, or null if faces are not merged.
+     */
+    default void generateChunkMesh(ChunkView view, ChunkMesh mesh, int x, int y, int z, GreedyMesher greedyMesher) {
+        generateChunkMesh(view, mesh, x, y, z);
+    }
+
     /**
      * @return A standalone mesh used for items, inventory, etc...
      */
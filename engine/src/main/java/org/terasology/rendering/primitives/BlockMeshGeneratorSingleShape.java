@@ -35,6 +35,26 @@
 public class BlockMeshGeneratorSingleShape implements BlockMeshGenerator {
     private static final Logger logger = LoggerFactory.getLogger(BlockMeshGeneratorSingleShape.class);
 
+    private static final Side[] SIDES = Side.values();
+    private static final Side[] HORIZONTAL_SIDES = Side.horizontalSides().toArray(new Side[0]);
+
+    /**
+     * The block part of each side, indexed by the ordinal of the side
+     */
+    private static final BlockPart[] SIDE_PARTS = new BlockPart[SIDES.length];
+
+    /**
+     * The state reused for every block tessellated by a thread, so that tessellating a chunk allocates no memory
+     * apart from the mesh data.
+     */
+    private static final ThreadLocal<Scratch> SCRATCH = ThreadLocal.withInitial(Scratch::new);
+
+    static {
+        for (Side side : SIDES) {
+            SIDE_PARTS[side.ordinal()] = BlockPart.fromSide(side);
+        }
+    }
+
     private Block block;
     private Mesh mesh;
 
@@ -44,6 +64,133 @@ public BlockMeshGeneratorSingleShape(Block block) {
 
     @Override
     public void generateChunkMesh(ChunkView view, ChunkMesh chunkMesh, int x, int y, int z) {
+        generateChunkMesh(view, chunkMesh, x, y, z, null);
+    }
+
+    @Override
+    public void generateChunkMesh(ChunkView view, ChunkMesh chunkMesh, int x, int y, int z, GreedyMesher greedyMesher) {
+        Biome selfBiome = view.getBiome(x, y, z);
+        Block selfBlock = view.getBlock(x, y, z);
+
+        // TODO: Needs review - too much hardcoded special cases and corner cases resulting from this.
+        ChunkVertexFlag vertexFlag = ChunkVertexFlag.NORMAL;
+        if (selfBlock.isWater()) {
+            if (view.getBlock(x, y + 1, z).isWater()) {
+                vertexFlag = ChunkVertexFlag.WATER;
+            } else {
+                vertexFlag = ChunkVertexFlag.WATER_SURFACE;
+            }
+        } else if (selfBlock.isLava()) {
+            vertexFlag = ChunkVertexFlag.LAVA;
+        } else if (selfBlock.isWaving() && selfBlock.isDoubleSided()) {
+            vertexFlag = ChunkVertexFlag.WAVING;
+        } else if (selfBlock.isWaving()) {
+            vertexFlag = ChunkVertexFlag.WAVING_BLOCK;
+        }
+
+        // Gather adjacent blocks
+        Scratch scratch = SCRATCH.get();
+        Block[] adjacentBlocks = scratch.adjacentBlocks;
+        for (Side side : SIDES) {
+            Vector3i offset = side.getVector3i();
+            Block blockToCheck = view.getBlock(x + offset.x, y + offset.y, z + offset.z);
+            adjacentBlocks[side.ordinal()] = blockToCheck;
+            scratch.adjacentBlockMap.put(side, blockToCheck);
+        }
+
+        BlockAppearance blockAppearance = selfBlock.getAppearance(scratch.adjacentBlockMap);
+
+        /*
+         * Determine the render process.
+         */
+        ChunkMesh.RenderType renderType = ChunkMesh.RenderType.TRANSLUCENT;
+
+        if (!selfBlock.isTranslucent()) {
+            renderType = ChunkMesh.RenderType.OPAQUE;
+        }
+        // TODO: Review special case, or alternatively compare uris.
+        if (selfBlock.isWater() || selfBlock.isIce()) {
+            renderType = ChunkMesh.RenderType.WATER_AND_ICE;
+        }
+        if (selfBlock.isDoubleSided()) {
+            renderType = ChunkMesh.RenderType.BILLBOARD;
+        }
+
+        // the parts copy the color offset, so a single vector per thread suffices
+        Vector4f colorOffset = scratch.colorOffset;
+        if (blockAppearance.getPart(BlockPart.CENTER) != null) {
+            selfBlock.calcColorOffsetFor(BlockPart.CENTER, selfBiome, colorOffset);
+            blockAppearance.getPart(BlockPart.CENTER).appendTo(chunkMesh, x, y, z, colorOffset, renderType, vertexFlag);
+        }
+
+        boolean[] drawDir = scratch.drawDir;
+
+        for (Side side : SIDES) {
+            drawDir[side.ordinal()] = blockAppearance.getPart(SIDE_PARTS[side.ordinal()]) != null
+                    && isSideVisibleForBlockTypes(adjacentBlocks[side.ordinal()], selfBlock, side);
+        }
+
+        // If the selfBlock is lowered, some more faces may have to be drawn
+        if (selfBlock.isLiquid()) {
+            Block bottomBlock = adjacentBlocks[Side.BOTTOM.ordinal()];
+            // Draw horizontal sides if visible from below
+            for (Side side : HORIZONTAL_SIDES) {
+                Vector3i offset = side.getVector3i();
+                Block adjacentBelow = view.getBlock(x + offset.x, y - 1, z + offset.z);
+                Block adjacent = adjacentBlocks[side.ordinal()];
+
+                boolean visible = (blockAppearance.getPart(SIDE_PARTS[side.ordinal()]) != null
+                        && isSideVisibleForBlockTypes(adjacentBelow, selfBlock, side) && !isSideVisibleForBlockTypes(bottomBlock, adjacent, side.reverse()));
+                drawDir[side.ordinal()] |= visible;
+            }
+
+            // Draw the top if below a non-lowered selfBlock
+            // TODO: Don't need to render the top if each side and the selfBlock above each side are either liquid or opaque solids.
+            Block blockToCheck = adjacentBlocks[Side.TOP.ordinal()];
+            drawDir[Side.TOP.ordinal()] |= !blockToCheck.isLiquid();
+
+            if (bottomBlock.isLiquid() || bottomBlock.getMeshGenerator() == null) {
+                for (Side dir : SIDES) {
+                    if (drawDir[dir.ordinal()]) {
+                        selfBlock.calcColorOffsetFor(SIDE_PARTS[dir.ordinal()], selfBiome, colorOffset);
+                        selfBlock.getLoweredLiquidMesh(dir).appendTo(chunkMesh, x, y, z, colorOffset, renderType, vertexFlag);
+                    }
+                }
+                return;
+            }
+        }
+
+        for (Side dir : SIDES) {
+            if (drawDir[dir.ordinal()]) {
+                BlockPart part = SIDE_PARTS[dir.ordinal()];
+                selfBlock.calcColorOffsetFor(part, selfBiome, colorOffset);
+                // TODO: Needs review since the new per-vertex flags introduce a lot of special scenarios - probably a per-side setting?
+                if (selfBlock.isGrass() && dir != Side.TOP && dir != Side.BOTTOM) {
+                    blockAppearance.getPart(part).appendTo(chunkMesh, x, y, z, colorOffset, renderType, ChunkVertexFlag.COLOR_MASK);
+                } else {
+                    //if(dir == Side.TOP) logger.info("Generating: " + (new Vector3i(x, y, z)).toString() + " " + view.getChunkRegion().toString() + " " + dir.toString());
+
+                    if (blockAppearance.getPart(part) == null) {
+                        // TODO: This would catch something like water blocks attempting to render with a "fixed" trimmedLoweredCube shape
+                        // That shape has its top trimmed down a bit to let water sit slightly lower than land, however, underwater this shouldn't show
+                        // Normally we would configure that shape with CENTER instead of TOP, that way the trimmed part wouldn't occlude in a stack
+                        // But with that handling you don't get water blocks occluding tops underwater... and there's no TOP to retrieve below -> NPE
+                        logger.debug("Cannot render side '{}' for a block - no stored block appearance for it. renderType {}, vertexFlag {}", dir, renderType, vertexFlag);
+                    } else if (greedyMesher == null
+                            || !greedyMesher.addFace(selfBlock, x, y, z, dir, blockAppearance, part, colorOffset, renderType, vertexFlag)) {
+                        blockAppearance.getPart(part).appendTo(chunkMesh, x, y, z, colorOffset, renderType, vertexFlag);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Generates the block mesh like {@link #generateChunkMesh(ChunkView, ChunkMesh, int, int, int)}, but allocates the
+     * adjacent block map, the face visibility flags and the color offsets for every block. This is the original
+     * implementation, kept as reference for the allocation free one; both generate the same mesh.
+     */
+    public void generateChunkMeshWithAllocations(ChunkView view, ChunkMesh chunkMesh, int x, int y, int z) {
         Biome selfBiome = view.getBiome(x, y, z);
         Block selfBlock = view.getBlock(x, y, z);
 
@@ -193,4 +340,18 @@ private void generateMesh() {
         }
         mesh = tessellator.generateMesh(new ResourceUrn("engine", "blockmesh", block.getURI().toString()));
     }
+
+    private static final class Scratch {
+        /**
+         * The adjacent blocks, indexed by the ordinal of the side
+         */
+        private final Block[] adjacentBlocks = new Block[SIDES.length];
+
+        /**
+         * The same blocks for {@link Block#getAppearance(Map)}, every entry gets replaced for each block
+         */
+        private final Map<Side, Block> adjacentBlockMap = Maps.newEnumMap(Side.class);
+        private final boolean[] drawDir = new boolean[SIDES.length];
+        private final Vector4f colorOffset = new Vector4f();
+    }
 }
@@ -93,7 +93,7 @@ public enum RenderPhase {
     private static final int OFFSET_TEX_1 = OFFSET_TEX_0 + SIZE_TEX0 * 4;
     private static final int OFFSET_COLOR = OFFSET_TEX_1 + SIZE_TEX1 * 4;
     private static final int OFFSET_NORMAL = OFFSET_COLOR + SIZE_COLOR * 4;
-    private static final int STRIDE = OFFSET_NORMAL + SIZE_NORMAL * 4;
+    static final int STRIDE = OFFSET_NORMAL + SIZE_NORMAL * 4;
     // the STRIDE, above, is the gap between the beginnings of the data regarding two consecutive vertices
 
     /* VERTEX DATA */
@@ -109,12 +109,16 @@ public enum RenderPhase {
 
     private boolean disposed;
 
+    /* Whether the vertices use the layout of CompactChunkVertices */
+    private boolean compactVertices;
+
     /* CONCURRENCY */
     private ReentrantLock lock = new ReentrantLock();
 
     /* MEASUREMENTS */
     private int timeToGenerateBlockVertices;
     private int timeToGenerateOptimizedBuffers;
+    private long timeToCalculateLighting;
 
     private GLBufferPool bufferPool;
 
@@ -129,6 +133,14 @@ public VertexElements getVertexElements(RenderType renderType) {
         return vertexElements.get(renderType);
     }
 
+    void setCompactVertices(boolean compactVertices) {
+        this.compactVertices = compactVertices;
+    }
+
+    public boolean isCompactVertices() {
+        return compactVertices;
+    }
+
     public boolean isGenerated() {
         return vertexElements == null;
     }
@@ -197,17 +209,21 @@ private void renderVbo(int id) {
                 GL15.glBindBuffer(GL15.GL_ELEMENT_ARRAY_BUFFER, idxBuffers[id]);
                 GL15.glBindBuffer(GL15.GL_ARRAY_BUFFER, vertexBuffers[id]);
 
-                glVertexPointer(SIZE_VERTEX, GL11.GL_FLOAT, STRIDE, OFFSET_VERTEX);
+                if (compactVertices) {
+                    setCompactVertexPointers();
+                } else {
+                    glVertexPointer(SIZE_VERTEX, GL11.GL_FLOAT, STRIDE, OFFSET_VERTEX);
 
-                GL13.glClientActiveTexture(GL13.GL_TEXTURE0);
-                glTexCoordPointer(SIZE_TEX0, GL11.GL_FLOAT, STRIDE, OFFSET_TEX_0);
+                    GL13.glClientActiveTexture(GL13.GL_TEXTURE0);
+                    glTexCoordPointer(SIZE_TEX0, GL11.GL_FLOAT, STRIDE, OFFSET_TEX_0);
 
-                GL13.glClientActiveTexture(GL13.GL_TEXTURE1);
-                glTexCoordPointer(SIZE_TEX1, GL11.GL_FLOAT, STRIDE, OFFSET_TEX_1);
+                    GL13.glClientActiveTexture(GL13.GL_TEXTURE1);
+                    glTexCoordPointer(SIZE_TEX1, GL11.GL_FLOAT, STRIDE, OFFSET_TEX_1);
 
-                glColorPointer(SIZE_COLOR * 4, GL11.GL_UNSIGNED_BYTE, STRIDE, OFFSET_COLOR);
+                    glColorPointer(SIZE_COLOR * 4, GL11.GL_UNSIGNED_BYTE, STRIDE, OFFSET_COLOR);
 
-                glNormalPointer(GL11.GL_FLOAT, STRIDE, OFFSET_NORMAL);
+                    glNormalPointer(GL11.GL_FLOAT, STRIDE, OFFSET_NORMAL);
+                }
 
                 GL11.glDrawElements(GL11.GL_TRIANGLES, vertexCount[id], GL11.GL_UNSIGNED_INT, 0);
 
@@ -226,6 +242,25 @@ private void renderVbo(int id) {
         }
     }
 
+    /**
+     * Sets up the attributes for the layout of {@link CompactChunkVertices}. The attributes are the same as those of
+     * the default layout, but the chunk shader has to scale them and takes the flag from the fourth component of the
+     * position.
+     */
+    private void setCompactVertexPointers() {
+        glVertexPointer(4, GL11.GL_SHORT, CompactChunkVertices.STRIDE, CompactChunkVertices.OFFSET_VERTEX);
+
+        GL13.glClientActiveTexture(GL13.GL_TEXTURE0);
+        glTexCoordPointer(2, GL11.GL_SHORT, CompactChunkVertices.STRIDE, CompactChunkVertices.OFFSET_TEX_0);
+
+        GL13.glClientActiveTexture(GL13.GL_TEXTURE1);
+        glTexCoordPointer(2, GL11.GL_SHORT, CompactChunkVertices.STRIDE, CompactChunkVertices.OFFSET_TEX_1);
+
+        glColorPointer(4, GL11.GL_UNSIGNED_BYTE, CompactChunkVertices.STRIDE, CompactChunkVertices.OFFSET_COLOR);
+
+        glNormalPointer(GL11.GL_BYTE, CompactChunkVertices.STRIDE, CompactChunkVertices.OFFSET_NORMAL);
+    }
+
     /**
      * Updates a given material with information such as the World position of a chunk and whether it is animated.
      *
@@ -240,6 +275,18 @@ public void updateMaterial(Material chunkMaterial, Vector3f chunkPosition, boole
                 chunkPosition.z * ChunkConstants.SIZE_Z,
                 true);
         chunkMaterial.setFloat("animated", chunkIsAnimated ? 1.0f : 0.0f, true);
+        updateVertexFormat(chunkMaterial);
+    }
+
+    /**
+     * Tells a material how the vertices of this mesh are stored. Materials that only transform the vertices, like the
+     * shadow map material, need this in addition to those updated by
+     * {@link #updateMaterial(Material, Vector3f, boolean)}.
+     *
+     * @param material a Material instance to be updated
+     */
+    public void updateVertexFormat(Material material) {
+        material.setFloat("compactVertices", compactVertices ? 1.0f : 0.0f, true);
     }
 
     /**
@@ -362,6 +409,18 @@ public int getTimeToGenerateOptimizedBuffers() {
         return timeToGenerateOptimizedBuffers;
     }
 
+    void setTimeToCalculateLighting(long timeToCalculateLighting) {
+        this.timeToCalculateLighting = timeToCalculateLighting;
+    }
+
+    /**
+     * @return the time spent on calculating the lighting of the vertices, in nanoseconds. It is part of the time to
+     * generate the optimized buffers.
+     */
+    public long getTimeToCalculateLighting() {
+        return timeToCalculateLighting;
+    }
+
     /**
      * Data structure for storing vertex data. Abused like a "struct" in C/C++. Just sad.
      */
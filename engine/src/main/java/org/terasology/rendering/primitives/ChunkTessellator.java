@@ -17,6 +17,7 @@
 
 import com.google.common.base.Stopwatch;
 import gnu.trove.iterator.TIntIterator;
+import gnu.trove.list.array.TFloatArrayList;
 import org.lwjgl.BufferUtils;
 import org.terasology.engine.subsystem.lwjgl.GLBufferPool;
 import org.terasology.math.Direction;
@@ -28,6 +29,7 @@
 import org.terasology.world.block.Block;
 import org.terasology.world.chunks.ChunkConstants;
 
+import java.nio.ByteBuffer;
 import java.util.concurrent.TimeUnit;
 
 /**
@@ -38,34 +40,127 @@ public final class ChunkTessellator {
 
     private static int statVertexArrayUpdateCount;
 
+    private static final ThreadLocal<GreedyMesher> GREEDY_MESHERS = ThreadLocal.withInitial(GreedyMesher::new);
+    private static final ThreadLocal<CornerLightCache> LIGHT_CACHES = ThreadLocal.withInitial(CornerLightCache::new);
+    private static final ThreadLocal<TFloatArrayList> VERTEX_LIGHTING = ThreadLocal.withInitial(TFloatArrayList::new);
+
     private GLBufferPool bufferPool;
 
+    private volatile boolean greedyMeshing;
+    private volatile float relativeTileSize;
+    private volatile boolean compactVertices;
+    private volatile boolean cachedLighting = true;
+    private volatile boolean bulkLighting;
+    private volatile boolean allocationFree = true;
+
     public ChunkTessellator(GLBufferPool bufferPool) {
         this.bufferPool = bufferPool;
     }
 
+    /**
+     * Sets whether coplanar faces of adjacent cube blocks get merged into larger quads, see {@link GreedyMesher}.
+     * Only meshes generated afterwards are affected.
+     *
+     * @param greedyMeshing    true to merge faces
+     * @param relativeTileSize the size of a tile relative to the size of the texture atlas
+     */
+    public void setGreedyMeshing(boolean greedyMeshing, float relativeTileSize) {
+        this.relativeTileSize = relativeTileSize;
+        this.greedyMeshing = greedyMeshing;
+    }
+
+    public boolean isGreedyMeshing() {
+        return greedyMeshing;
+    }
+
+    /**
+     * Sets whether meshes store their vertices in the layout of {@link CompactChunkVertices}. Only meshes generated
+     * afterwards are affected.
+     */
+    public void setCompactVertices(boolean compactVertices) {
+        this.compactVertices = compactVertices;
+    }
+
+    public boolean isCompactVertices() {
+        return compactVertices;
+    }
+
+    /**
+     * Sets how the light of the vertices is sampled, the resulting meshes are the same either way. Only meshes
+     * generated afterwards are affected.
+     *
+     * @param cachedLighting whether the light of the blocks and block corners around the tessellated part of a chunk
+     *                       is cached, instead of sampling it from the chunk view for every vertex
+     * @param bulkLighting   whether the cache is filled up front by copying the light data of the chunks in bulk,
+     *                       instead of block by block when needed
+     */
+    public void setLightCaching(boolean cachedLighting, boolean bulkLighting) {
+        this.cachedLighting = cachedLighting;
+        this.bulkLighting = bulkLighting;
+    }
+
+    public boolean isCachedLighting() {
+        return cachedLighting;
+    }
+
+    public boolean isBulkLighting() {
+        return bulkLighting;
+    }
+
+    /**
+     * Sets whether meshes are generated from state reused per thread, or with the original implementation, which
+     * allocates memory for every block and every vertex. Both generate the same meshes, the original implementation is
+     * kept as reference. It ignores greedy meshing, compact vertices and light caching. Only meshes generated
+     * afterwards are affected.
+     */
+    public void setAllocationFree(boolean allocationFree) {
+        this.allocationFree = allocationFree;
+    }
+
+    public boolean isAllocationFree() {
+        return allocationFree;
+    }
+
     public ChunkMesh generateMesh(ChunkView chunkView, int meshHeight, int verticalOffset) {
+        if (!allocationFree) {
+            return generateMeshWithAllocations(chunkView, meshHeight, verticalOffset);
+        }
         PerformanceMonitor.startActivity("GenerateMesh");
         ChunkMesh mesh = new ChunkMesh(bufferPool);
 
         final Stopwatch watch = Stopwatch.createStarted();
 
+        CornerLightCache lightCache = null;
+        if (cachedLighting) {
+            lightCache = LIGHT_CACHES.get();
+            lightCache.begin(chunkView, meshHeight, verticalOffset, bulkLighting);
+        }
+
+        GreedyMesher greedyMesher = null;
+        if (greedyMeshing) {
+            greedyMesher = GREEDY_MESHERS.get();
+            greedyMesher.begin(chunkView, lightCache, meshHeight, verticalOffset, relativeTileSize);
+        }
+
         for (int x = 0; x < ChunkConstants.SIZE_X; x++) {
             for (int z = 0; z < ChunkConstants.SIZE_Z; z++) {
                 for (int y = verticalOffset; y < verticalOffset + meshHeight; y++) {
                     Block block = chunkView.getBlock(x, y, z);
                     if (block != null && block.getMeshGenerator() != null) {
-                        block.getMeshGenerator().generateChunkMesh(chunkView, mesh, x, y, z);
+                        block.getMeshGenerator().generateChunkMesh(chunkView, mesh, x, y, z, greedyMesher);
                     }
                 }
             }
         }
+        if (greedyMesher != null) {
+            greedyMesher.appendMergedFaces(mesh);
+        }
         watch.stop();
 
         mesh.setTimeToGenerateBlockVertices((int) watch.elapsed(TimeUnit.MILLISECONDS));
 
         watch.reset().start();
-        generateOptimizedBuffers(chunkView, mesh);
+        generateOptimizedBuffers(chunkView, lightCache, mesh);
         watch.stop();
         mesh.setTimeToGenerateOptimizedBuffers((int) watch.elapsed(TimeUnit.MILLISECONDS));
         statVertexArrayUpdateCount++;
@@ -74,7 +169,259 @@ public ChunkMesh generateMesh(ChunkView chunkView, int meshHeight, int verticalO
         return mesh;
     }
 
-    private void generateOptimizedBuffers(ChunkView chunkView, ChunkMesh mesh) {
+    /**
+     * The original implementation of {@link #generateMesh(ChunkView, int, int)}.
+     */
+    private ChunkMesh generateMeshWithAllocations(ChunkView chunkView, int meshHeight, int verticalOffset) {
+        PerformanceMonitor.startActivity("GenerateMesh");
+        ChunkMesh mesh = new ChunkMesh(bufferPool);
+
+        final Stopwatch watch = Stopwatch.createStarted();
+
+        for (int x = 0; x < ChunkConstants.SIZE_X; x++) {
+            for (int z = 0; z < ChunkConstants.SIZE_Z; z++) {
+                for (int y = verticalOffset; y < verticalOffset + meshHeight; y++) {
+                    Block block = chunkView.getBlock(x, y, z);
+                    if (block != null && block.getMeshGenerator() != null) {
+                        BlockMeshGenerator generator = block.getMeshGenerator();
+                        if (generator instanceof BlockMeshGeneratorSingleShape) {
+                            BlockMeshGeneratorSingleShape singleShape = (BlockMeshGeneratorSingleShape) generator;
+                            singleShape.generateChunkMeshWithAllocations(chunkView, mesh, x, y, z);
+                        } else {
+                            generator.generateChunkMesh(chunkView, mesh, x, y, z);
+                        }
+                    }
+                }
+            }
+        }
+        watch.stop();
+
+        mesh.setTimeToGenerateBlockVertices((int) watch.elapsed(TimeUnit.MILLISECONDS));
+
+        watch.reset().start();
+        generateOptimizedBuffersWithAllocations(chunkView, mesh);
+        watch.stop();
+        mesh.setTimeToGenerateOptimizedBuffers((int) watch.elapsed(TimeUnit.MILLISECONDS));
+        statVertexArrayUpdateCount++;
+
+        PerformanceMonitor.endActivity();
+        return mesh;
+    }
+
+    private void generateOptimizedBuffers(ChunkView chunkView, CornerLightCache lightCache, ChunkMesh mesh) {
+        PerformanceMonitor.startActivity("OptimizeBuffers");
+        float[] result = new float[3];
+        TFloatArrayList vertexLighting = VERTEX_LIGHTING.get();
+        Stopwatch lightingWatch = Stopwatch.createUnstarted();
+
+        boolean compact = compactVertices;
+        mesh.setCompactVertices(compact);
+
+        for (ChunkMesh.RenderType type : ChunkMesh.RenderType.values()) {
+            ChunkMesh.VertexElements elements = mesh.getVertexElements(type);
+
+            // the lighting of all vertices comes first, so that the time it takes can be measured on its own
+            lightingWatch.start();
+            vertexLighting.resetQuick();
+            for (int i = 0; i < elements.vertices.size(); i += 3) {
+                calcLightingValuesForVertexPos(chunkView, lightCache,
+                        elements.vertices.get(i), elements.vertices.get(i + 1), elements.vertices.get(i + 2),
+                        elements.normals.get(i), elements.normals.get(i + 1), elements.normals.get(i + 2), result);
+                vertexLighting.add(result);
+            }
+            lightingWatch.stop();
+
+            ByteBuffer compactBuffer = null;
+            if (compact) {
+                int vertexCount = elements.vertices.size() / 3;
+                compactBuffer = BufferUtils.createByteBuffer(vertexCount * CompactChunkVertices.STRIDE);
+            } else {
+                // Vertices double to account for light info
+                elements.finalVertices = BufferUtils.createIntBuffer(
+                        elements.vertices.size() + /* POSITION */
+                                elements.tex.size() + /* TEX0 (UV0 and flags) */
+                                elements.tex.size() + /* TEX1 (lighting data) */
+                                elements.flags.size() + /* FLAGS */
+                                elements.color.size() + /* COLOR */
+                                elements.normals.size()  /* NORMALS */
+                );
+            }
+
+            int cTex = 0;
+            int cColor = 0;
+            int cFlags = 0;
+            for (int i = 0; i < elements.vertices.size(); i += 3, cTex += 2, cColor += 4, cFlags++) {
+                float vertexX = elements.vertices.get(i);
+                float vertexY = elements.vertices.get(i + 1);
+                float vertexZ = elements.vertices.get(i + 2);
+
+                float normalX = elements.normals.get(i);
+                float normalY = elements.normals.get(i + 1);
+                float normalZ = elements.normals.get(i + 2);
+                vertexLighting.toArray(result, i, 3);
+
+                final int packedColor = RenderMath.packColor(
+                        elements.color.get(cColor),
+                        elements.color.get(cColor + 1),
+                        elements.color.get(cColor + 2),
+                        elements.color.get(cColor + 3));
+
+                if (compact) {
+                    CompactChunkVertices.put(compactBuffer, vertexX, vertexY, vertexZ,
+                            elements.tex.get(cTex), elements.tex.get(cTex + 1), elements.flags.get(cFlags),
+                            result, packedColor, normalX, normalY, normalZ);
+                    continue;
+                }
+
+                /* POSITION */
+                elements.finalVertices.put(Float.floatToIntBits(vertexX));
+                elements.finalVertices.put(Float.floatToIntBits(vertexY));
+                elements.finalVertices.put(Float.floatToIntBits(vertexZ));
+
+                /* UV0 - TEX DATA 0 */
+                elements.finalVertices.put(Float.floatToIntBits(elements.tex.get(cTex)));
+                elements.finalVertices.put(Float.floatToIntBits(elements.tex.get(cTex + 1)));
+
+                /* FLAGS */
+                elements.finalVertices.put(Float.floatToIntBits(elements.flags.get(cFlags)));
+
+                /* LIGHTING DATA / TEX DATA 1 */
+                elements.finalVertices.put(Float.floatToIntBits(result[0]));
+                elements.finalVertices.put(Float.floatToIntBits(result[1]));
+                elements.finalVertices.put(Float.floatToIntBits(result[2]));
+
+                /* PACKED COLOR */
+                elements.finalVertices.put(packedColor);
+
+                /* NORMALS */
+                elements.finalVertices.put(Float.floatToIntBits(normalX));
+                elements.finalVertices.put(Float.floatToIntBits(normalY));
+                elements.finalVertices.put(Float.floatToIntBits(normalZ));
+            }
+
+            if (compact) {
+                compactBuffer.flip();
+                elements.finalVertices = compactBuffer.asIntBuffer();
+            } else {
+                elements.finalVertices.flip();
+            }
+
+            elements.finalIndices = BufferUtils.createIntBuffer(elements.indices.size());
+            TIntIterator indexIterator = elements.indices.iterator();
+            while (indexIterator.hasNext()) {
+                elements.finalIndices.put(indexIterator.next());
+            }
+
+            elements.finalIndices.flip();
+        }
+        mesh.setTimeToCalculateLighting(lightingWatch.elapsed(TimeUnit.NANOSECONDS));
+        PerformanceMonitor.endActivity();
+    }
+
+    /**
+     * Calculates the sunlight, block light and ambient occlusion of a vertex, without allocating memory.
+     * <p>
+     * The four blocks in front of the vertex determine the occlusion, the light values are averaged over the eight
+     * positions diagonally around the vertex, four of them above and four below.
+     *
+     * @param lightCache the cache for the light values, or null to sample them from the chunk view
+     */
+    static void calcLightingValuesForVertexPos(ChunkView chunkView, CornerLightCache lightCache,
+                                               float vertexX, float vertexY, float vertexZ,
+                                               float normalX, float normalY, float normalZ, float[] output) {
+        PerformanceMonitor.startActivity("calcLighting");
+        Block block0;
+        Block block1;
+        Block block2;
+        Block block3;
+
+        PerformanceMonitor.startActivity("gatherLightInfo");
+        Direction dir = Direction.inDirection(normalX, normalY, normalZ);
+        switch (dir) {
+            case LEFT:
+            case RIGHT:
+                block0 = chunkView.getBlock((vertexX + 0.8f * normalX), (vertexY + 0.1f), (vertexZ + 0.1f));
+                block1 = chunkView.getBlock((vertexX + 0.8f * normalX), (vertexY + 0.1f), (vertexZ - 0.1f));
+                block2 = chunkView.getBlock((vertexX + 0.8f * normalX), (vertexY - 0.1f), (vertexZ - 0.1f));
+                block3 = chunkView.getBlock((vertexX + 0.8f * normalX), (vertexY - 0.1f), (vertexZ + 0.1f));
+                break;
+            case FORWARD:
+            case BACKWARD:
+                block0 = chunkView.getBlock((vertexX + 0.1f), (vertexY + 0.1f), (vertexZ + 0.8f * normalZ));
+                block1 = chunkView.getBlock((vertexX + 0.1f), (vertexY - 0.1f), (vertexZ + 0.8f * normalZ));
+                block2 = chunkView.getBlock((vertexX - 0.1f), (vertexY - 0.1f), (vertexZ + 0.8f * normalZ));
+                block3 = chunkView.getBlock((vertexX - 0.1f), (vertexY + 0.1f), (vertexZ + 0.8f * normalZ));
+                break;
+            default:
+                block0 = chunkView.getBlock((vertexX + 0.1f), (vertexY + 0.8f * normalY), (vertexZ + 0.1f));
+                block1 = chunkView.getBlock((vertexX + 0.1f), (vertexY + 0.8f * normalY), (vertexZ - 0.1f));
+                block2 = chunkView.getBlock((vertexX - 0.1f), (vertexY + 0.8f * normalY), (vertexZ - 0.1f));
+                block3 = chunkView.getBlock((vertexX - 0.1f), (vertexY + 0.8f * normalY), (vertexZ + 0.1f));
+        }
+
+        int occCounter = occluderCount(block0) + occluderCount(block1) + occluderCount(block2) + occluderCount(block3);
+        int occCounterBillboard = billboardOccluderCount(block0) + billboardOccluderCount(block1)
+                + billboardOccluderCount(block2) + billboardOccluderCount(block3);
+
+        double resultAmbientOcclusion = (TeraMath.pow(0.40, occCounter) + TeraMath.pow(0.80, occCounterBillboard)) / 2.0;
+
+        if (lightCache == null || !lightCache.calcLight(vertexX, vertexY, vertexZ, output)) {
+            calcLight(chunkView, vertexX, vertexY, vertexZ, output);
+        }
+        PerformanceMonitor.endActivity();
+
+        output[2] = (float) resultAmbientOcclusion;
+        PerformanceMonitor.endActivity();
+    }
+
+    /**
+     * Calculates the sunlight and block light of a vertex, averaged over the eight positions diagonally around it.
+     *
+     * @param output receives the sunlight and block light at the indices 0 and 1
+     */
+    static void calcLight(ChunkView chunkView, float vertexX, float vertexY, float vertexZ, float[] output) {
+        float resultLight = 0;
+        float resultBlockLight = 0;
+        int counterLight = 0;
+        int counterBlockLight = 0;
+
+        // the order of the corners affects the rounding of the sums
+        for (int i = 0; i < 8; i++) {
+            int corner = i % 4;
+            float x = corner < 2 ? vertexX + 0.1f : vertexX - 0.1f;
+            float y = i < 4 ? vertexY + 0.8f : vertexY - 0.1f;
+            float z = corner == 0 || corner == 3 ? vertexZ + 0.1f : vertexZ - 0.1f;
+
+            float light = chunkView.getSunlight(x, y, z);
+            if (light > 0) {
+                resultLight += light;
+                counterLight++;
+            }
+            float blockLight = chunkView.getLight(x, y, z);
+            if (blockLight > 0) {
+                resultBlockLight += blockLight;
+                counterBlockLight++;
+            }
+        }
+
+        if (counterLight == 0) {
+            output[0] = 0;
+        } else {
+            output[0] = resultLight / counterLight / 15f;
+        }
+
+        if (counterBlockLight == 0) {
+            output[1] = 0;
+        } else {
+            output[1] = resultBlockLight / counterBlockLight / 15f;
+        }
+    }
+
+    /**
+     * The original implementation of {@link #generateOptimizedBuffers(ChunkView, CornerLightCache, ChunkMesh)}, which
+     * allocates vectors and arrays for every vertex.
+     */
+    private void generateOptimizedBuffersWithAllocations(ChunkView chunkView, ChunkMesh mesh) {
         PerformanceMonitor.startActivity("OptimizeBuffers");
 
         for (ChunkMesh.RenderType type : ChunkMesh.RenderType.values()) {
@@ -112,7 +459,7 @@ private void generateOptimizedBuffers(ChunkView chunkView, ChunkMesh mesh) {
 
                 float[] result = new float[3];
                 Vector3f normal = new Vector3f(elements.normals.get(i), elements.normals.get(i + 1), elements.normals.get(i + 2));
-                calcLightingValuesForVertexPos(chunkView, vertexPos, result, normal);
+                calcLightingValuesWithAllocations(chunkView, vertexPos, result, normal);
 
                 /* LIGHTING DATA / TEX DATA 1 */
                 elements.finalVertices.put(Float.floatToIntBits(result[0]));
@@ -145,7 +492,12 @@ private void generateOptimizedBuffers(ChunkView chunkView, ChunkMesh mesh) {
         PerformanceMonitor.endActivity();
     }
 
-    private void calcLightingValuesForVertexPos(ChunkView chunkView, Vector3f vertexPos, float[] output, Vector3f normal) {
+    /**
+     * The original implementation of
+     * {@link #calcLightingValuesForVertexPos(ChunkView, CornerLightCache, float, float, float, float, float, float, float[])}.
+     */
+    private static void calcLightingValuesWithAllocations(ChunkView chunkView, Vector3f vertexPos, float[] output,
+                                                          Vector3f normal) {
         PerformanceMonitor.startActivity("calcLighting");
         float[] lights = new float[8];
         float[] blockLights = new float[8];
@@ -242,6 +594,14 @@ private void calcLightingValuesForVertexPos(ChunkView chunkView, Vector3f vertex
         PerformanceMonitor.endActivity();
     }
 
+    private static int occluderCount(Block block) {
+        return block.isShadowCasting() && !block.isTranslucent() ? 1 : 0;
+    }
+
+    private static int billboardOccluderCount(Block block) {
+        return block.isShadowCasting() && block.isTranslucent() ? 1 : 0;
+    }
+
     public static int getVertexArrayUpdateCount() {
         return statVertexArrayUpdateCount;
     }
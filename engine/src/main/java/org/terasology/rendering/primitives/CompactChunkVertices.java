@@ -0,0 +1,104 @@
+/*
+ * Copyright 2016 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.rendering.primitives;
+
+import java.nio.ByteBuffer;
+
+/**
+ * The compact vertex layout of chunk meshes, which needs 24 bytes per vertex instead of the 52 bytes of the default
+ * layout:
+ * <ul>
+ * <li>position: four shorts, the chunk local x, y and z coordinates in fixed point with
+ * {@link #POSITION_SCALE} steps per block, followed by the vertex flag</li>
+ * <li>texture coordinates: two shorts, normalized by {@link #TEX_COORD_SCALE}; merged quads of the
+ * {@link GreedyMesher} store their tile counts unscaled</li>
+ * <li>lighting: two shorts, the first holds sunlight and block light with {@link #LIGHT_RESOLUTION} steps each
+ * ({@code sunlight * (LIGHT_RESOLUTION + 1) + blockLight}), the second the ambient occlusion normalized by
+ * {@link #OCCLUSION_SCALE}</li>
+ * <li>color: the packed color, as in the default layout</li>
+ * <li>normal: three signed normalized bytes, plus one byte padding</li>
+ * </ul>
+ * The buffer has to use the native byte order, like the buffers created by {@link org.lwjgl.BufferUtils}.
+ */
+public final class CompactChunkVertices {
+
+    public static final int OFFSET_VERTEX = 0;
+    public static final int OFFSET_TEX_0 = OFFSET_VERTEX + 4 * 2;
+    public static final int OFFSET_TEX_1 = OFFSET_TEX_0 + 2 * 2;
+    public static final int OFFSET_COLOR = OFFSET_TEX_1 + 2 * 2;
+    public static final int OFFSET_NORMAL = OFFSET_COLOR + 4;
+    public static final int STRIDE = OFFSET_NORMAL + 4;
+
+    /**
+     * Positions are stored in 1/256 block steps, which allows chunk local coordinates from -128 to 128.
+     */
+    public static final float POSITION_SCALE = 256.0f;
+    public static final float TEX_COORD_SCALE = Short.MAX_VALUE;
+    public static final float OCCLUSION_SCALE = Short.MAX_VALUE;
+
+    /**
+     * Sunlight and block light share one short, so each of them gets 7 bits.
+     */
+    public static final int LIGHT_RESOLUTION = 127;
+
+    private CompactChunkVertices() {
+    }
+
+    /**
+     * Writes one vertex at the current position of the buffer and advances it by {@link #STRIDE}.
+     *
+     * @param lighting sunlight, block light and ambient occlusion in the range from 0 to 1
+     */
+    public static void put(ByteBuffer buffer, float x, float y, float z, float u, float v, int flags,
+                           float[] lighting, int packedColor, float normalX, float normalY, float normalZ) {
+        buffer.putShort(toShort(x * POSITION_SCALE));
+        buffer.putShort(toShort(y * POSITION_SCALE));
+        buffer.putShort(toShort(z * POSITION_SCALE));
+        buffer.putShort(toShort(flags));
+
+        if (flags >= GreedyMesher.TILE_INDEX_STRIDE) {
+            buffer.putShort(toShort(u));
+            buffer.putShort(toShort(v));
+        } else {
+            buffer.putShort(toShort(u * TEX_COORD_SCALE));
+            buffer.putShort(toShort(v * TEX_COORD_SCALE));
+        }
+
+        int sunlight = toLightStep(lighting[0]);
+        int blockLight = toLightStep(lighting[1]);
+        buffer.putShort((short) (sunlight * (LIGHT_RESOLUTION + 1) + blockLight));
+        buffer.putShort(toShort(lighting[2] * OCCLUSION_SCALE));
+
+        buffer.putInt(packedColor);
+
+        buffer.put(toSignedByte(normalX));
+        buffer.put(toSignedByte(normalY));
+        buffer.put(toSignedByte(normalZ));
+        buffer.put((byte) 0);
+    }
+
+    private static short toShort(float value) {
+        return (short) Math.max(Short.MIN_VALUE, Math.min(Short.MAX_VALUE, Math.round(value)));
+    }
+
+    private static int toLightStep(float value) {
+        return Math.max(0, Math.min(LIGHT_RESOLUTION, Math.round(value * LIGHT_RESOLUTION)));
+    }
+
+    private static byte toSignedByte(float value) {
+        return (byte) Math.max(-127, Math.min(127, Math.round(value * 127.0f)));
+    }
+}
@@ -0,0 +1,154 @@
+/*
+ * Copyright 2016 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.rendering.primitives;
+
+import org.terasology.math.TeraMath;
+import org.terasology.world.ChunkView;
+import org.terasology.world.chunks.ChunkConstants;
+import org.terasology.world.internal.ChunkViewCore;
+
+import java.util.Arrays;
+
+/**
+ * Caches the sunlight and block light of vertices while a part of a chunk gets tessellated.
+ * <p>
+ * The light of a vertex is averaged over the eight blocks around it, see
+ * {@link ChunkTessellator#calcLightingValuesForVertexPos}. The light levels of these blocks are read from the chunk
+ * view only once, into arrays covering the tessellated part and a border of one block. Vertices at block corners,
+ * which are almost all of them, also share the averages, so that each corner is only averaged once no matter how
+ * many faces meet there.
+ * <p>
+ * In bulk mode the light levels of all blocks are copied up front, straight from the light data of the chunks (see
+ * {@link ChunkViewCore#copyLight}). Otherwise every block is read from the view when it is first needed.
+ */
+final class CornerLightCache {
+
+    private static final byte UNKNOWN_LEVEL = -1;
+    private static final float UNKNOWN_LIGHT = -1f;
+
+    private static final int SIZE_X = ChunkConstants.SIZE_X + 2;
+    private static final int SIZE_Z = ChunkConstants.SIZE_Z + 2;
+
+    private ChunkView view;
+    private int minY;
+    private int sizeY;
+
+    /**
+     * The light levels of the blocks, indexed by {@link #blockIndex}
+     */
+    private byte[] sunlight = new byte[0];
+    private byte[] light = new byte[0];
+
+    /**
+     * The averaged light of the block corners, the corner at the minimum of a block is indexed like the block
+     */
+    private float[] cornerSunlight = new float[0];
+    private float[] cornerLight = new float[0];
+
+    /**
+     * Prepares the cache for tessellating a part of a chunk.
+     *
+     * @param chunkView  the view of the chunk
+     * @param meshHeight the height of the part of the chunk that gets tessellated
+     * @param offsetY    the height at which the tessellated part starts
+     * @param bulk       whether to copy the light levels of all blocks up front, this requires a {@link ChunkViewCore}
+     */
+    void begin(ChunkView chunkView, int meshHeight, int offsetY, boolean bulk) {
+        view = chunkView;
+        minY = offsetY - 1;
+        sizeY = meshHeight + 2;
+
+        int blockCount = SIZE_X * sizeY * SIZE_Z;
+        if (sunlight.length < blockCount) {
+            sunlight = new byte[blockCount];
+            light = new byte[blockCount];
+            cornerSunlight = new float[blockCount];
+            cornerLight = new float[blockCount];
+        }
+        if (bulk && chunkView instanceof ChunkViewCore) {
+            ((ChunkViewCore) chunkView).copyLight(-1, minY, -1, SIZE_X, sizeY, SIZE_Z, sunlight, light);
+        } else {
+            Arrays.fill(sunlight, 0, blockCount, UNKNOWN_LEVEL);
+        }
+        Arrays.fill(cornerSunlight, 0, blockCount, UNKNOWN_LIGHT);
+    }
+
+    /**
+     * Calculates the sunlight and block light of a vertex like {@link ChunkTessellator#calcLight}, with the same
+     * results.
+     *
+     * @param output receives the sunlight and block light at the indices 0 and 1
+     * @return false if the vertex is too far outside of the tessellated part to be cached, output is left unchanged
+     */
+    boolean calcLight(float vertexX, float vertexY, float vertexZ, float[] output) {
+        // the blocks sampled by calcLight, relative to the cached blocks
+        int upperX = TeraMath.floorToInt(vertexX + 0.1f + 0.5f) + 1;
+        int lowerX = TeraMath.floorToInt(vertexX - 0.1f + 0.5f) + 1;
+        int upperY = TeraMath.floorToInt(vertexY + 0.8f + 0.5f) - minY;
+        int lowerY = TeraMath.floorToInt(vertexY - 0.1f + 0.5f) - minY;
+        int upperZ = TeraMath.floorToInt(vertexZ + 0.1f + 0.5f) + 1;
+        int lowerZ = TeraMath.floorToInt(vertexZ - 0.1f + 0.5f) + 1;
+        if (lowerX < 0 || lowerY < 0 || lowerZ < 0 || upperX >= SIZE_X || upperY >= sizeY || upperZ >= SIZE_Z) {
+            return false;
+        }
+
+        int corner = -1;
+        if (upperX == lowerX + 1 && upperY == lowerY + 1 && upperZ == lowerZ + 1) {
+            corner = blockIndex(upperX, upperY, upperZ);
+            if (cornerSunlight[corner] != UNKNOWN_LIGHT) {
+                output[0] = cornerSunlight[corner];
+                output[1] = cornerLight[corner];
+                return true;
+            }
+        }
+
+        float resultLight = 0;
+        float resultBlockLight = 0;
+        int counterLight = 0;
+        int counterBlockLight = 0;
+        for (int i = 0; i < 8; i++) {
+            int side = i % 4;
+            int x = side < 2 ? upperX : lowerX;
+            int y = i < 4 ? upperY : lowerY;
+            int z = side == 0 || side == 3 ? upperZ : lowerZ;
+            int index = blockIndex(x, y, z);
+            if (sunlight[index] == UNKNOWN_LEVEL) {
+                sunlight[index] = view.getSunlight(x - 1, y + minY, z - 1);
+                light[index] = view.getLight(x - 1, y + minY, z - 1);
+            }
+            if (sunlight[index] > 0) {
+                resultLight += sunlight[index];
+                counterLight++;
+            }
+            if (light[index] > 0) {
+                resultBlockLight += light[index];
+                counterBlockLight++;
+            }
+        }
+
+        output[0] = counterLight == 0 ? 0 : resultLight / counterLight / 15f;
+        output[1] = counterBlockLight == 0 ? 0 : resultBlockLight / counterBlockLight / 15f;
+        if (corner >= 0) {
+            cornerSunlight[corner] = output[0];
+            cornerLight[corner] = output[1];
+        }
+        return true;
+    }
+
+    private static int blockIndex(int x, int y, int z) {
+        return (y * SIZE_Z + z) * SIZE_X + x;
+    }
+}
@@ -0,0 +1,446 @@
+/*
+ * Copyright 2016 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.rendering.primitives;
+
+import com.google.common.collect.Lists;
+import org.terasology.math.Side;
+import org.terasology.math.geom.Vector2f;
+import org.terasology.math.geom.Vector3f;
+import org.terasology.math.geom.Vector3i;
+import org.terasology.math.geom.Vector4f;
+import org.terasology.world.ChunkView;
+import org.terasology.world.block.Block;
+import org.terasology.world.block.BlockAppearance;
+import org.terasology.world.block.BlockPart;
+import org.terasology.world.block.shapes.BlockMeshPart;
+import org.terasology.world.chunks.ChunkConstants;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Merges coplanar faces of adjacent cube blocks into larger quads while a chunk gets tessellated.
+ * <p>
+ * Only faces that look the same when drawn as part of a larger quad get merged: opaque faces of
+ * {@link Block#isCube() cube} blocks without special vertex flags, which use the same mesh part (and therefore the
+ * same tile) and color, and whose four corners get the same lighting values. All other faces are left to the mesh
+ * generator of the block.
+ * <p>
+ * A merged quad repeats the tile of its faces. Its texture coordinates count tiles instead of addressing the atlas,
+ * and the index of the tile is stored along with the vertex flag, see {@link #TILE_INDEX_STRIDE}. The chunk shader
+ * maps the coordinates back into the tile.
+ */
+public final class GreedyMesher {
+
+    /**
+     * The vertex flag of a merged quad is {@code flag + TILE_INDEX_STRIDE * (tileIndex + 1)}, the stride exceeds
+     * every {@link ChunkVertexFlag} value.
+     */
+    public static final int TILE_INDEX_STRIDE = 8;
+
+    /**
+     * Faces of tiles beyond this index are not merged, the vertex flag of a merged quad has to fit into the short
+     * used by {@link CompactChunkVertices}.
+     */
+    private static final int MAX_TILE_INDEX = Short.MAX_VALUE / TILE_INDEX_STRIDE - 2;
+
+    private static final Side[] SIDES = Side.values();
+    private static final float EPSILON = 0.0001f;
+
+    /**
+     * The axis (0 = x, 1 = y, 2 = z) along the normal of each side and the two axes spanning the side, indexed by the
+     * ordinal of the side
+     */
+    private static final int[] NORMAL_AXIS = new int[SIDES.length];
+    private static final int[] U_AXIS = new int[SIDES.length];
+    private static final int[] V_AXIS = new int[SIDES.length];
+
+    /**
+     * The distance between two neighbouring faces in the face grids along each axis
+     */
+    private static final int[] STRIDE = {1, ChunkConstants.SIZE_X * ChunkConstants.SIZE_Z, ChunkConstants.SIZE_X};
+
+    static {
+        for (Side side : SIDES) {
+            Vector3i normal = side.getVector3i();
+            int index = side.ordinal();
+            if (normal.x != 0) {
+                NORMAL_AXIS[index] = 0;
+                U_AXIS[index] = 2;
+                V_AXIS[index] = 1;
+            } else if (normal.y != 0) {
+                NORMAL_AXIS[index] = 1;
+                U_AXIS[index] = 0;
+                V_AXIS[index] = 2;
+            } else {
+                NORMAL_AXIS[index] = 2;
+                U_AXIS[index] = 0;
+                V_AXIS[index] = 1;
+            }
+        }
+    }
+
+    /**
+     * The kind of the face of each block and side, as index into {@link #kinds} plus one, 0 where there is no face
+     * to merge. Merging clears the grids again.
+     */
+    private final int[][] faces = new int[SIDES.length][];
+    private final boolean[] sidesWithFaces = new boolean[SIDES.length];
+    private boolean cleared = true;
+
+    private final List<FaceKind> kinds = Lists.newArrayList();
+    private int kindCount;
+    private int lastKind = -1;
+
+    private final float[] lighting = new float[3];
+    private final float[] cornerLighting = new float[3];
+    private final int[] size = new int[3];
+    private final int[] blockPosition = new int[3];
+    private final float[] position = new float[3];
+
+    private ChunkView view;
+    private CornerLightCache lightCache;
+    private int verticalOffset;
+    private float relativeTileSize;
+    private int tilesPerRow;
+
+    /**
+     * Prepares the mesher for the tessellation of a chunk.
+     *
+     * @param chunkView  the view of the chunk, which is used to calculate the lighting of the faces
+     * @param cornerLightCache the cache for the lighting of the faces, or null if the lighting is not cached
+     * @param meshHeight the height of the part of the chunk that gets tessellated
+     * @param offsetY    the height at which the tessellated part starts
+     * @param tileSize   the size of a tile relative to the size of the texture atlas
+     */
+    void begin(ChunkView chunkView, CornerLightCache cornerLightCache, int meshHeight, int offsetY, float tileSize) {
+        view = chunkView;
+        lightCache = cornerLightCache;
+        verticalOffset = offsetY;
+        relativeTileSize = tileSize;
+        tilesPerRow = Math.round(1 / tileSize);
+        size[0] = ChunkConstants.SIZE_X;
+        size[1] = meshHeight;
+        size[2] = ChunkConstants.SIZE_Z;
+
+        int gridSize = ChunkConstants.SIZE_X * ChunkConstants.SIZE_Z * meshHeight;
+        for (int side = 0; side < SIDES.length; side++) {
+            if (faces[side] == null || faces[side].length < gridSize) {
+                faces[side] = new int[gridSize];
+            } else if (!cleared) {
+                Arrays.fill(faces[side], 0);
+            }
+            sidesWithFaces[side] = false;
+        }
+        cleared = false;
+        kindCount = 0;
+        lastKind = -1;
+    }
+
+    /**
+     * Offers a visible face of a block for merging.
+     *
+     * @param block      the block the face belongs to
+     * @param x          the x position of the block within the chunk
+     * @param y          the y position of the block within the chunk
+     * @param z          the z position of the block within the chunk
+     * @param side       the side of the block the face is on
+     * @param appearance the appearance of the block
+     * @param blockPart  the part of the appearance making up the face
+     * @param color      the color offset of the face, it is copied
+     * @param renderType the render type of the block
+     * @param flag       the vertex flag of the face
+     * @return true if the face will be merged and added to the mesh by {@link #appendMergedFaces(ChunkMesh)}, false if
+     * the caller has to add it to the mesh itself.
+     */
+    public boolean addFace(Block block, int x, int y, int z, Side side, BlockAppearance appearance, BlockPart blockPart,
+                           Vector4f color, ChunkMesh.RenderType renderType, ChunkVertexFlag flag) {
+        BlockMeshPart part = appearance.getPart(blockPart);
+        if (!block.isCube() || renderType != ChunkMesh.RenderType.OPAQUE || flag != ChunkVertexFlag.NORMAL
+                || part.size() != 4 || part.indicesSize() != 6) {
+            return false;
+        }
+
+        // the lighting is interpolated between the corners, so only faces with evenly lit corners can be merged
+        for (int i = 0; i < 4; i++) {
+            Vector3f vertex = part.getVertex(i);
+            Vector3f normal = part.getNormal(i);
+            ChunkTessellator.calcLightingValuesForVertexPos(view, lightCache,
+                    vertex.x + x, vertex.y + y, vertex.z + z, normal.x, normal.y, normal.z, i == 0 ? lighting : cornerLighting);
+            if (i > 0 && !Arrays.equals(lighting, cornerLighting)) {
+                return false;
+            }
+        }
+
+        int kind = findKind(side, appearance, blockPart, color);
+        if (kind < 0) {
+            return false;
+        }
+        faces[side.ordinal()][gridIndex(x, y - verticalOffset, z)] = kind + 1;
+        sidesWithFaces[side.ordinal()] = true;
+        return true;
+    }
+
+    /**
+     * Merges the faces added since {@link #begin(ChunkView, CornerLightCache, int, int, float)} and adds them to the
+     * mesh.
+     */
+    void appendMergedFaces(ChunkMesh mesh) {
+        for (Side side : SIDES) {
+            if (sidesWithFaces[side.ordinal()]) {
+                appendMergedFaces(mesh, side);
+            }
+        }
+        cleared = true;
+        view = null;
+    }
+
+    private void appendMergedFaces(ChunkMesh mesh, Side side) {
+        int[] grid = faces[side.ordinal()];
+        int normalAxis = NORMAL_AXIS[side.ordinal()];
+        int uAxis = U_AXIS[side.ordinal()];
+        int vAxis = V_AXIS[side.ordinal()];
+        int uStride = STRIDE[uAxis];
+        int vStride = STRIDE[vAxis];
+
+        for (int layer = 0; layer < size[normalAxis]; layer++) {
+            for (int v = 0; v < size[vAxis]; v++) {
+                for (int u = 0; u < size[uAxis]; u++) {
+                    int start = layer * STRIDE[normalAxis] + u * uStride + v * vStride;
+                    int kind = grid[start];
+                    if (kind == 0) {
+                        continue;
+                    }
+
+                    int width = 1;
+                    while (u + width < size[uAxis] && grid[start + width * uStride] == kind) {
+                        width++;
+                    }
+                    int height = 1;
+                    while (v + height < size[vAxis] && isRowOf(grid, kind, start + height * vStride, uStride, width)) {
+                        height++;
+                    }
+                    for (int row = 0; row < height; row++) {
+                        for (int column = 0; column < width; column++) {
+                            grid[start + column * uStride + row * vStride] = 0;
+                        }
+                    }
+
+                    appendQuad(mesh, kinds.get(kind - 1), side, layer, u, v, width, height);
+                }
+            }
+        }
+    }
+
+    private static boolean isRowOf(int[] grid, int kind, int start, int stride, int width) {
+        for (int column = 0; column < width; column++) {
+            if (grid[start + column * stride] != kind) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void appendQuad(ChunkMesh mesh, FaceKind kind, Side side, int layer, int u, int v, int width, int height) {
+        int normalAxis = NORMAL_AXIS[side.ordinal()];
+        int uAxis = U_AXIS[side.ordinal()];
+        int vAxis = V_AXIS[side.ordinal()];
+
+        if (width == 1 && height == 1) {
+            // a single face looks the same as it would without merging
+            blockPosition[normalAxis] = layer;
+            blockPosition[uAxis] = u;
+            blockPosition[vAxis] = v;
+            kind.part.appendTo(mesh, blockPosition[0], blockPosition[1] + verticalOffset, blockPosition[2],
+                    kind.color, ChunkMesh.RenderType.OPAQUE, ChunkVertexFlag.NORMAL);
+            return;
+        }
+
+        ChunkMesh.VertexElements elements = mesh.getVertexElements(ChunkMesh.RenderType.OPAQUE);
+        int nextIndex = elements.vertexCount;
+        float texUExtent = kind.texUAlongU ? width : height;
+        float texVExtent = kind.texVAlongU ? width : height;
+        for (int i = 0; i < 4; i++) {
+            Vector3f vertex = kind.part.getVertex(i);
+            Vector3f normal = kind.part.getNormal(i);
+            position[normalAxis] = layer + component(vertex, normalAxis);
+            position[uAxis] = kind.maxU[i] ? u + width - 0.5f : u - 0.5f;
+            position[vAxis] = kind.maxV[i] ? v + height - 0.5f : v - 0.5f;
+
+            elements.vertices.add(position[0]);
+            elements.vertices.add(position[1] + verticalOffset);
+            elements.vertices.add(position[2]);
+            elements.normals.add(normal.x);
+            elements.normals.add(normal.y);
+            elements.normals.add(normal.z);
+            elements.tex.add(kind.texU[i] * texUExtent);
+            elements.tex.add(kind.texV[i] * texVExtent);
+            elements.color.add(kind.color.x);
+            elements.color.add(kind.color.y);
+            elements.color.add(kind.color.z);
+            elements.color.add(kind.color.w);
+            elements.flags.add(kind.flags);
+        }
+        elements.vertexCount += 4;
+
+        for (int i = 0; i < 6; i++) {
+            elements.indices.add(kind.part.getIndex(i) + nextIndex);
+        }
+    }
+
+    private int findKind(Side side, BlockAppearance appearance, BlockPart blockPart, Vector4f color) {
+        BlockMeshPart part = appearance.getPart(blockPart);
+        if (lastKind >= 0 && kinds.get(lastKind).matches(part, color, lighting)) {
+            return kinds.get(lastKind).mergeable ? lastKind : -1;
+        }
+        for (int i = 0; i < kindCount; i++) {
+            FaceKind kind = kinds.get(i);
+            if (kind.matches(part, color, lighting)) {
+                lastKind = i;
+                return kind.mergeable ? i : -1;
+            }
+        }
+
+        if (kindCount == kinds.size()) {
+            kinds.add(new FaceKind());
+        }
+        FaceKind kind = kinds.get(kindCount);
+        kind.set(part, color, lighting);
+        Vector2f atlasPos = appearance.getTextureAtlasPos(blockPart);
+        int tileIndex = Math.round(atlasPos.x / relativeTileSize) + tilesPerRow * Math.round(atlasPos.y / relativeTileSize);
+        kind.mergeable = tileIndex <= MAX_TILE_INDEX && kind.analyzePart(side);
+        kind.flags = ChunkVertexFlag.NORMAL.getValue() + TILE_INDEX_STRIDE * (tileIndex + 1);
+        lastKind = kindCount++;
+        return kind.mergeable ? lastKind : -1;
+    }
+
+    private static int gridIndex(int x, int relativeY, int z) {
+        return x * STRIDE[0] + relativeY * STRIDE[1] + z * STRIDE[2];
+    }
+
+    private static float component(Vector3f vector, int axis) {
+        switch (axis) {
+            case 0:
+                return vector.x;
+            case 1:
+                return vector.y;
+            default:
+                return vector.z;
+        }
+    }
+
+    /**
+     * The faces that can be merged with each other.
+     */
+    private static final class FaceKind {
+        private BlockMeshPart part;
+        private final Vector4f color = new Vector4f();
+        private final float[] lighting = new float[3];
+        private boolean mergeable;
+        private int flags;
+
+        /**
+         * Whether each vertex lies on the upper end of the u and v axes of the side
+         */
+        private final boolean[] maxU = new boolean[4];
+        private final boolean[] maxV = new boolean[4];
+
+        /**
+         * The texture coordinates of each vertex within the tile, either 0 or 1
+         */
+        private final float[] texU = new float[4];
+        private final float[] texV = new float[4];
+
+        /**
+         * Whether the texture coordinates change along the u axis of the side, otherwise they change along the v axis
+         */
+        private boolean texUAlongU;
+        private boolean texVAlongU;
+
+        void set(BlockMeshPart meshPart, Vector4f colorOffset, float[] lightingValues) {
+            part = meshPart;
+            color.set(colorOffset.x, colorOffset.y, colorOffset.z, colorOffset.w);
+            System.arraycopy(lightingValues, 0, lighting, 0, lighting.length);
+        }
+
+        boolean matches(BlockMeshPart meshPart, Vector4f colorOffset, float[] lightingValues) {
+            return part == meshPart && color.x == colorOffset.x && color.y == colorOffset.y && color.z == colorOffset.z
+                    && color.w == colorOffset.w && Arrays.equals(lighting, lightingValues);
+        }
+
+        /**
+         * Checks that the part is a quad covering the whole side, with the tile mapped onto it along the axes of the
+         * side, and remembers how the vertices and the texture coordinates are arranged.
+         *
+         * @return true if faces of the part can be merged
+         */
+        boolean analyzePart(Side side) {
+            int normalAxis = NORMAL_AXIS[side.ordinal()];
+            int uAxis = U_AXIS[side.ordinal()];
+            int vAxis = V_AXIS[side.ordinal()];
+            Vector3i normal = side.getVector3i();
+            float normalPosition = 0.5f * (normal.x + normal.y + normal.z);
+
+            float minTexU = Float.MAX_VALUE;
+            float maxTexU = -Float.MAX_VALUE;
+            float minTexV = Float.MAX_VALUE;
+            float maxTexV = -Float.MAX_VALUE;
+            int corners = 0;
+            for (int i = 0; i < 4; i++) {
+                Vector3f vertex = part.getVertex(i);
+                if (Math.abs(component(vertex, normalAxis) - normalPosition) > EPSILON
+                        || Math.abs(Math.abs(component(vertex, uAxis)) - 0.5f) > EPSILON
+                        || Math.abs(Math.abs(component(vertex, vAxis)) - 0.5f) > EPSILON) {
+                    return false;
+                }
+                maxU[i] = component(vertex, uAxis) > 0;
+                maxV[i] = component(vertex, vAxis) > 0;
+                corners |= 1 << ((maxU[i] ? 1 : 0) + (maxV[i] ? 2 : 0));
+
+                Vector2f texCoord = part.getTexCoord(i);
+                minTexU = Math.min(minTexU, texCoord.x);
+                maxTexU = Math.max(maxTexU, texCoord.x);
+                minTexV = Math.min(minTexV, texCoord.y);
+                maxTexV = Math.max(maxTexV, texCoord.y);
+            }
+            if (corners != 0xF || maxTexU - minTexU < EPSILON || maxTexV - minTexV < EPSILON) {
+                return false;
+            }
+
+            for (int i = 0; i < 4; i++) {
+                Vector2f texCoord = part.getTexCoord(i);
+                texU[i] = Math.round((texCoord.x - minTexU) / (maxTexU - minTexU));
+                texV[i] = Math.round((texCoord.y - minTexV) / (maxTexV - minTexV));
+            }
+            boolean texUAlongV = changesOnlyAlong(maxV, texU);
+            boolean texVAlongV = changesOnlyAlong(maxV, texV);
+            texUAlongU = changesOnlyAlong(maxU, texU);
+            texVAlongU = changesOnlyAlong(maxU, texV);
+            return texUAlongU != texUAlongV && texVAlongU != texVAlongV && texUAlongU != texVAlongU;
+        }
+
+        private static boolean changesOnlyAlong(boolean[] corner, float[] texCoords) {
+            for (int i = 0; i < 4; i++) {
+                for (int j = i + 1; j < 4; j++) {
+                    if ((corner[i] == corner[j]) != (texCoords[i] == texCoords[j])) {
+                        return false;
+                    }
+                }
+            }
+            return true;
+        }
+    }
+}
@@ -34,10 +34,12 @@
 import org.terasology.rendering.world.viewDistance.ViewDistance;
 import org.terasology.world.ChunkView;
 import org.terasology.world.WorldProvider;
+import org.terasology.world.block.tiles.WorldAtlas;
 import org.terasology.world.chunks.ChunkConstants;
 import org.terasology.world.chunks.ChunkProvider;
 import org.terasology.world.chunks.RenderableChunk;
 
+import java.beans.PropertyChangeListener;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.Iterator;
@@ -73,6 +75,8 @@ class RenderableWorldImpl implements RenderableWorld {
 
     private Config config = CoreRegistry.get(Config.class);
     private RenderingConfig renderingConfig = config.getRendering();
+    private final PropertyChangeListener greedyMeshingListener = event -> updateGreedyMeshing();
+    private final PropertyChangeListener compactChunkVerticesListener = event -> updateCompactChunkVertices();
 
     private int statDirtyChunks;
     private int statVisibleChunks;
@@ -88,6 +92,10 @@ class RenderableWorldImpl implements RenderableWorld {
         this.chunkProvider = chunkProvider;
         chunkTessellator = new ChunkTessellator(bufferPool);
         chunkMeshUpdateManager = new ChunkMeshUpdateManager(chunkTessellator, worldProvider);
+        updateGreedyMeshing();
+        renderingConfig.subscribe(RenderingConfig.GREEDY_MESHING, greedyMeshingListener);
+        updateCompactChunkVertices();
+        renderingConfig.subscribe(RenderingConfig.COMPACT_CHUNK_VERTICES, compactChunkVerticesListener);
 
         this.playerCamera = playerCamera;
 
@@ -367,9 +375,33 @@ private int triangleCount(ChunkMesh mesh, ChunkMesh.RenderPhase renderPhase) {
 
     @Override
     public void dispose() {
+        renderingConfig.unsubscribe(RenderingConfig.GREEDY_MESHING, greedyMeshingListener);
+        renderingConfig.unsubscribe(RenderingConfig.COMPACT_CHUNK_VERTICES, compactChunkVerticesListener);
         chunkMeshUpdateManager.shutdown();
     }
 
+    private void updateGreedyMeshing() {
+        WorldAtlas worldAtlas = CoreRegistry.get(WorldAtlas.class);
+        if (worldAtlas != null) {
+            chunkTessellator.setGreedyMeshing(renderingConfig.isGreedyMeshing(), worldAtlas.getRelativeTileSize());
+        }
+        regenerateChunkMeshes();
+    }
+
+    private void updateCompactChunkVertices() {
+        chunkTessellator.setCompactVertices(renderingConfig.isCompactChunkVertices());
+        regenerateChunkMeshes();
+    }
+
+    /**
+     * Marks the loaded chunks dirty, so that their meshes get regenerated with the current tessellator settings.
+     */
+    private void regenerateChunkMeshes() {
+        for (RenderableChunk chunk : chunksInProximityOfCamera) {
+            chunk.setDirty(true);
+        }
+    }
+
     private boolean isChunkValidForRender(RenderableChunk chunk) {
         return chunk.isReady() && chunk.areAdjacentChunksReady();
     }
@@ -0,0 +1,51 @@
+/*
+ * Copyright 2016 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.utilities.compression;
+
+import java.io.IOException;
+
+/**
+ * A compression algorithm for encoded chunks and other larger blocks of data.
+ * <br><br>
+ * Implementations must be thread safe. The compressed data does not contain the uncompressed length, it has to be
+ * stored next to it (see {@link ChunkCodecs}).
+ */
+public interface ChunkCodec {
+
+    /**
+     * @return the id of the codec that gets stored along with the compressed data. It must never change, as it
+     * is needed to read existing save games.
+     */
+    int getId();
+
+    /**
+     * @return the name under which the codec can be selected in the config.
+     */
+    String getName();
+
+    byte[] compress(byte[] data);
+
+    /**
+     * @param data               the compressed data
+     * @param offset             the offset of the compressed data within the array
+     * @param length             the length of the compressed data
+     * @param uncompressedLength the length of the data before compression
+     * @return the uncompressed data
+     * @throws IOException if the data is corrupt, or the uncompressed length is larger than the compressed data can
+     *                     expand to. The latter is checked before the uncompressed data gets allocated.
+     */
+    byte[] decompress(byte[] data, int offset, int length, int uncompressedLength) throws IOException;
+}
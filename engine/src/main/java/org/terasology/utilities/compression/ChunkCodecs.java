@@ -0,0 +1,192 @@
+/*
+ * Copyright 2016 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.utilities.compression;
+
+import com.google.common.collect.ImmutableList;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * The available {@link ChunkCodec}s and the format in which data compressed by them gets stored.
+ * <br><br>
+ * Data compressed with {@link #GZIP} is stored as plain gzip stream, as chunks have always been stored that way. Data
+ * of the other codecs starts with a header consisting of two magic bytes, the codec id and the uncompressed length.
+ * Both formats can be told apart by their first bytes, so {@link #decode(byte[])} reads either.
+ */
+public final class ChunkCodecs {
+
+    /**
+     * The gzip format in which chunks were stored before codecs could be selected.
+     */
+    public static final ChunkCodec GZIP = new GzipChunkCodec();
+    public static final ChunkCodec LZ4 = new Lz4ChunkCodec(1, "lz4");
+    public static final ChunkCodec DEFLATE_FAST = new DeflateChunkCodec(2, "deflate-fast", Deflater.BEST_SPEED);
+    public static final ChunkCodec DEFLATE_BEST = new DeflateChunkCodec(3, "deflate-best", Deflater.BEST_COMPRESSION);
+
+    private static final List<ChunkCodec> CODECS = ImmutableList.of(GZIP, LZ4, DEFLATE_FAST, DEFLATE_BEST);
+
+    private static final Logger logger = LoggerFactory.getLogger(ChunkCodecs.class);
+
+    private static final byte MAGIC_0 = (byte) 'T';
+    private static final byte MAGIC_1 = (byte) 'c';
+    private static final int HEADER_LENGTH = 2 + 1 + Integer.BYTES;
+    private static final byte GZIP_MAGIC_0 = (byte) 0x1f;
+    private static final byte GZIP_MAGIC_1 = (byte) 0x8b;
+
+    private ChunkCodecs() {
+    }
+
+    public static List<ChunkCodec> getCodecs() {
+        return CODECS;
+    }
+
+    /**
+     * @return the codec with the given id or null if there is none.
+     */
+    public static ChunkCodec getById(int id) {
+        for (ChunkCodec codec : CODECS) {
+            if (codec.getId() == id) {
+                return codec;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @return the codec with the given name, or {@link #GZIP} if the name is null or unknown.
+     */
+    public static ChunkCodec getByName(String name) {
+        if (name == null) {
+            return GZIP;
+        }
+        for (ChunkCodec codec : CODECS) {
+            if (codec.getName().equalsIgnoreCase(name)) {
+                return codec;
+            }
+        }
+        logger.warn("Unknown chunk codec '{}', using {} instead", name, GZIP.getName());
+        return GZIP;
+    }
+
+    /**
+     * Compresses the given data and records the codec, so that the result can be read by {@link #decode(byte[])}.
+     */
+    public static byte[] encode(ChunkCodec codec, byte[] data) {
+        if (codec == GZIP) {
+            return GZIP.compress(data);
+        }
+        byte[] compressed = codec.compress(data);
+        byte[] result = new byte[HEADER_LENGTH + compressed.length];
+        result[0] = MAGIC_0;
+        result[1] = MAGIC_1;
+        result[2] = (byte) codec.getId();
+        writeInt(data.length, result, 3);
+        System.arraycopy(compressed, 0, result, HEADER_LENGTH, compressed.length);
+        return result;
+    }
+
+    /**
+     * @return the uncompressed data of the result of {@link #encode(ChunkCodec, byte[])}.
+     * @throws IOException if the data is corrupt or has been compressed with an unknown codec.
+     */
+    public static byte[] decode(byte[] encoded) throws IOException {
+        if (encoded.length >= 2 && encoded[0] == GZIP_MAGIC_0 && encoded[1] == GZIP_MAGIC_1) {
+            return GZIP.decompress(encoded, 0, encoded.length, -1);
+        }
+        if (encoded.length < HEADER_LENGTH || encoded[0] != MAGIC_0 || encoded[1] != MAGIC_1) {
+            throw new IOException("Data has not been encoded by a chunk codec");
+        }
+        ChunkCodec codec = getById(encoded[2] & 0xFF);
+        if (codec == null) {
+            throw new IOException("Unknown chunk codec id " + (encoded[2] & 0xFF));
+        }
+        int uncompressedLength = readInt(encoded, 3);
+        if (uncompressedLength < 0) {
+            throw new IOException("Invalid uncompressed length " + uncompressedLength);
+        }
+        return codec.decompress(encoded, HEADER_LENGTH, encoded.length - HEADER_LENGTH, uncompressedLength);
+    }
+
+    private static void writeInt(int value, byte[] data, int offset) {
+        data[offset] = (byte) (value >>> 24);
+        data[offset + 1] = (byte) (value >>> 16);
+        data[offset + 2] = (byte) (value >>> 8);
+        data[offset + 3] = (byte) value;
+    }
+
+    private static int readInt(byte[] data, int offset) {
+        return ((data[offset] & 0xFF) << 24) | ((data[offset + 1] & 0xFF) << 16) | ((data[offset + 2] & 0xFF) << 8)
+                | (data[offset + 3] & 0xFF);
+    }
+
+    /**
+     * Stores the data as gzip stream, which contains its own header.
+     */
+    private static final class GzipChunkCodec implements ChunkCodec {
+
+        @Override
+        public int getId() {
+            return 0;
+        }
+
+        @Override
+        public String getName() {
+            return "gzip";
+        }
+
+        @Override
+        public byte[] compress(byte[] data) {
+            ByteArrayOutputStream baos = new ByteArrayOutputStream();
+            try (GZIPOutputStream gzipOut = new GZIPOutputStream(baos)) {
+                gzipOut.write(data);
+            } catch (IOException e) {
+                // as no real IO is involved this should not happen
+                throw new RuntimeException(e);
+            }
+            return baos.toByteArray();
+        }
+
+        /**
+         * @param uncompressedLength is ignored, as gzip streams contain their length.
+         */
+        @Override
+        public byte[] decompress(byte[] data, int offset, int length, int uncompressedLength) throws IOException {
+            ByteArrayOutputStream result = new ByteArrayOutputStream(Math.max(32, length * 4));
+            try (InputStream gzipIn = new GZIPInputStream(new ByteArrayInputStream(data, offset, length))) {
+                byte[] buffer = new byte[8192];
+                int read;
+                while ((read = gzipIn.read(buffer)) != -1) {
+                    result.write(buffer, 0, read);
+                }
+            }
+            return result.toByteArray();
+        }
+
+        @Override
+        public String toString() {
+            return getName();
+        }
+    }
+}
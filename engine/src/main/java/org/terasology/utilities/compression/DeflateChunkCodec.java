@@ -0,0 +1,103 @@
+/*
+ * Copyright 2016 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.utilities.compression;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Compresses with the deflate algorithm of the JDK at a configurable level.
+ */
+public class DeflateChunkCodec implements ChunkCodec {
+    /**
+     * A deflate block with fixed codes stores a match of 258 bytes in 2 bits.
+     */
+    private static final int MAX_EXPANSION = 1032;
+
+    private final int id;
+    private final String name;
+    private final int level;
+
+    public DeflateChunkCodec(int id, String name, int level) {
+        this.id = id;
+        this.name = name;
+        this.level = level;
+    }
+
+    @Override
+    public int getId() {
+        return id;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public byte[] compress(byte[] data) {
+        Deflater deflater = new Deflater(level, true);
+        try {
+            deflater.setInput(data);
+            deflater.finish();
+            byte[] buffer = new byte[Math.max(64, data.length / 2)];
+            int length = 0;
+            while (!deflater.finished()) {
+                if (length == buffer.length) {
+                    buffer = Arrays.copyOf(buffer, buffer.length * 2);
+                }
+                length += deflater.deflate(buffer, length, buffer.length - length);
+            }
+            return Arrays.copyOf(buffer, length);
+        } finally {
+            deflater.end();
+        }
+    }
+
+    @Override
+    public byte[] decompress(byte[] data, int offset, int length, int uncompressedLength) throws IOException {
+        if (uncompressedLength > (long) length * MAX_EXPANSION) {
+            throw new IOException("Uncompressed length " + uncompressedLength + " exceeds what " + length
+                    + " bytes of deflate data can expand to");
+        }
+        Inflater inflater = new Inflater(true);
+        try {
+            inflater.setInput(data, offset, length);
+            byte[] result = new byte[uncompressedLength];
+            int resultLength = 0;
+            while (resultLength < uncompressedLength) {
+                int inflated = inflater.inflate(result, resultLength, uncompressedLength - resultLength);
+                if (inflated == 0 && (inflater.finished() || inflater.needsInput() || inflater.needsDictionary())) {
+                    throw new IOException("Compressed data ended after " + resultLength + " of " + uncompressedLength + " bytes");
+                }
+                resultLength += inflated;
+            }
+            return result;
+        } catch (DataFormatException e) {
+            throw new IOException("Corrupt deflate data", e);
+        } finally {
+            inflater.end();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+}
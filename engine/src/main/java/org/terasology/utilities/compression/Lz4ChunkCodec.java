@@ -0,0 +1,237 @@
+/*
+ * Copyright 2016 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.utilities.compression;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * A pure Java implementation of the LZ4 block format. It compresses less than deflate, but is several times faster,
+ * in particular when decompressing.
+ * <br><br>
+ * The compressor is a greedy single pass compressor with a hash table of 4 byte sequences, like the default mode of
+ * the reference implementation.
+ */
+public class Lz4ChunkCodec implements ChunkCodec {
+    private static final int MIN_MATCH = 4;
+    private static final int LAST_LITERALS = 5;
+    private static final int MF_LIMIT = 12;
+    private static final int MAX_DISTANCE = 0xFFFF;
+    private static final int HASH_LOG = 14;
+    private static final int SKIP_STRENGTH = 6;
+    private static final int RUN_MASK = 0xF;
+    /**
+     * Every length byte of a sequence adds at most 255 bytes to the uncompressed data.
+     */
+    private static final int MAX_EXPANSION = 255;
+
+    private final int id;
+    private final String name;
+
+    public Lz4ChunkCodec(int id, String name) {
+        this.id = id;
+        this.name = name;
+    }
+
+    @Override
+    public int getId() {
+        return id;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public byte[] compress(byte[] src) {
+        int srcLength = src.length;
+        byte[] dst = new byte[srcLength + srcLength / 255 + 16];
+        int dstOffset = 0;
+        int anchor = 0;
+
+        if (srcLength > MF_LIMIT) {
+            int[] hashTable = new int[1 << HASH_LOG];
+            Arrays.fill(hashTable, -1);
+            int matchLimit = srcLength - LAST_LITERALS;
+            int mfLimit = srcLength - MF_LIMIT;
+            int srcOffset = 0;
+            int searchMatchCount = 1 << SKIP_STRENGTH;
+
+            while (srcOffset < mfLimit) {
+                int sequence = readInt(src, srcOffset);
+                int hash = hash(sequence);
+                int ref = hashTable[hash];
+                hashTable[hash] = srcOffset;
+                if (ref < 0 || srcOffset - ref > MAX_DISTANCE || readInt(src, ref) != sequence) {
+                    // Skip faster through data that does not compress
+                    srcOffset += searchMatchCount++ >>> SKIP_STRENGTH;
+                    continue;
+                }
+                searchMatchCount = 1 << SKIP_STRENGTH;
+
+                while (srcOffset > anchor && ref > 0 && src[srcOffset - 1] == src[ref - 1]) {
+                    srcOffset--;
+                    ref--;
+                }
+                int matchLength = MIN_MATCH;
+                while (srcOffset + matchLength < matchLimit && src[ref + matchLength] == src[srcOffset + matchLength]) {
+                    matchLength++;
+                }
+
+                dstOffset = writeLiterals(src, anchor, srcOffset - anchor, matchLength - MIN_MATCH, dst, dstOffset);
+                int distance = srcOffset - ref;
+                dst[dstOffset++] = (byte) distance;
+                dst[dstOffset++] = (byte) (distance >>> 8);
+                if (matchLength - MIN_MATCH >= RUN_MASK) {
+                    dstOffset = writeLength(matchLength - MIN_MATCH - RUN_MASK, dst, dstOffset);
+                }
+
+                srcOffset += matchLength;
+                anchor = srcOffset;
+                if (srcOffset - 2 < mfLimit) {
+                    hashTable[hash(readInt(src, srcOffset - 2))] = srcOffset - 2;
+                }
+            }
+        }
+
+        dstOffset = writeLiterals(src, anchor, srcLength - anchor, 0, dst, dstOffset);
+        return Arrays.copyOf(dst, dstOffset);
+    }
+
+    /**
+     * Writes the token of a sequence and its literals.
+     */
+    private static int writeLiterals(byte[] src, int literalOffset, int literalLength, int matchLengthCode,
+                                     byte[] dst, int dstOffset) {
+        int offset = dstOffset;
+        int token = (Math.min(literalLength, RUN_MASK) << 4) | Math.min(matchLengthCode, RUN_MASK);
+        dst[offset++] = (byte) token;
+        if (literalLength >= RUN_MASK) {
+            offset = writeLength(literalLength - RUN_MASK, dst, offset);
+        }
+        System.arraycopy(src, literalOffset, dst, offset, literalLength);
+        return offset + literalLength;
+    }
+
+    private static int writeLength(int length, byte[] dst, int dstOffset) {
+        int remaining = length;
+        int offset = dstOffset;
+        while (remaining >= 0xFF) {
+            dst[offset++] = (byte) 0xFF;
+            remaining -= 0xFF;
+        }
+        dst[offset++] = (byte) remaining;
+        return offset;
+    }
+
+    @Override
+    public byte[] decompress(byte[] src, int offset, int length, int uncompressedLength) throws IOException {
+        if (uncompressedLength > (long) length * MAX_EXPANSION) {
+            throw new IOException("Uncompressed length " + uncompressedLength + " exceeds what " + length
+                    + " bytes of LZ4 data can expand to");
+        }
+        byte[] dst = new byte[uncompressedLength];
+        int srcOffset = offset;
+        int srcEnd = offset + length;
+        int dstOffset = 0;
+
+        while (true) {
+            if (srcOffset >= srcEnd) {
+                throw new IOException("Unexpected end of LZ4 data");
+            }
+            int token = src[srcOffset++] & 0xFF;
+
+            int literalLength = token >>> 4;
+            if (literalLength == RUN_MASK) {
+                int lengthByte;
+                do {
+                    if (srcOffset >= srcEnd) {
+                        throw new IOException("Unexpected end of LZ4 data");
+                    }
+                    lengthByte = src[srcOffset++] & 0xFF;
+                    literalLength += lengthByte;
+                } while (lengthByte == 0xFF);
+            }
+            if (literalLength < 0 || literalLength > srcEnd - srcOffset || literalLength > uncompressedLength - dstOffset) {
+                throw new IOException("Invalid LZ4 literal length " + literalLength);
+            }
+            System.arraycopy(src, srcOffset, dst, dstOffset, literalLength);
+            srcOffset += literalLength;
+            dstOffset += literalLength;
+
+            if (srcOffset == srcEnd) {
+                // The last sequence contains only literals
+                break;
+            }
+
+            if (srcEnd - srcOffset < 2) {
+                throw new IOException("Unexpected end of LZ4 data");
+            }
+            int distance = (src[srcOffset] & 0xFF) | ((src[srcOffset + 1] & 0xFF) << 8);
+            srcOffset += 2;
+            if (distance == 0 || distance > dstOffset) {
+                throw new IOException("Invalid LZ4 match distance " + distance);
+            }
+
+            int matchLength = token & RUN_MASK;
+            if (matchLength == RUN_MASK) {
+                int lengthByte;
+                do {
+                    if (srcOffset >= srcEnd) {
+                        throw new IOException("Unexpected end of LZ4 data");
+                    }
+                    lengthByte = src[srcOffset++] & 0xFF;
+                    matchLength += lengthByte;
+                } while (lengthByte == 0xFF);
+            }
+            matchLength += MIN_MATCH;
+            if (matchLength < 0 || matchLength > uncompressedLength - dstOffset) {
+                throw new IOException("Invalid LZ4 match length " + matchLength);
+            }
+
+            int ref = dstOffset - distance;
+            if (distance >= matchLength) {
+                System.arraycopy(dst, ref, dst, dstOffset, matchLength);
+            } else {
+                // Overlapping match, e.g. a run of the same byte
+                for (int i = 0; i < matchLength; i++) {
+                    dst[dstOffset + i] = dst[ref + i];
+                }
+            }
+            dstOffset += matchLength;
+        }
+
+        if (dstOffset != uncompressedLength) {
+            throw new IOException("LZ4 data decompressed to " + dstOffset + " instead of " + uncompressedLength + " bytes");
+        }
+        return dst;
+    }
+
+    private static int readInt(byte[] data, int offset) {
+        return (data[offset] & 0xFF) | ((data[offset + 1] & 0xFF) << 8) | ((data[offset + 2] & 0xFF) << 16)
+                | ((data[offset + 3] & 0xFF) << 24);
+    }
+
+    private static int hash(int sequence) {
+        return (sequence * -1640531535) >>> (32 - HASH_LOG);
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+}
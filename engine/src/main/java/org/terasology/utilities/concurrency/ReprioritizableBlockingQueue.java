@@ -0,0 +1,288 @@
+/*
+ * Copyright 2016 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.utilities.concurrency;
+
+import java.util.AbstractQueue;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A blocking priority queue backed by an array based binary heap, for comparators whose ordering changes over time
+ * (e.g. ordering by distance to the camera).
+ * <p>
+ * Unlike {@link DynamicPriorityBlockingQueue}, which scans all elements on every dequeue, the heap is only rebuilt
+ * after {@link #reprioritize()} has been called. Callers should invoke it whenever the state the comparator depends on
+ * has changed (e.g. the camera moved into another chunk). Between such calls offer and take cost O(log n), the rebuild
+ * itself costs O(n) and is deferred to the next dequeue.
+ *
+ * @param <T> The type of the queued elements
+ */
+public class ReprioritizableBlockingQueue<T> extends AbstractQueue<T> implements BlockingQueue<T> {
+    private static final int INITIAL_CAPACITY = 64;
+
+    private final Comparator<T> comparator;
+    private Object[] heap = new Object[INITIAL_CAPACITY];
+    private int size;
+
+    /**
+     * Set when the comparator ordering is no longer trusted, the heap will be rebuilt on next dequeue
+     */
+    private boolean outOfOrder;
+
+    /**
+     * Lock used for all public operations
+     */
+    private final ReentrantLock lock;
+
+    /**
+     * Condition for blocking when empty
+     */
+    private final Condition notEmpty;
+
+    public ReprioritizableBlockingQueue(Comparator<T> comparator) {
+        this.comparator = comparator;
+
+        lock = new ReentrantLock();
+        notEmpty = lock.newCondition();
+    }
+
+    /**
+     * Marks the current ordering as outdated. The heap gets rebuilt with the current comparator results the next time
+     * an element is dequeued.
+     */
+    public void reprioritize() {
+        lock.lock();
+        try {
+            outOfOrder = true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public boolean add(T t) {
+        return offer(t);
+    }
+
+    @Override
+    public void put(T t) throws InterruptedException {
+        offer(t);
+    }
+
+    @Override
+    public boolean offer(T t, long timeout, TimeUnit unit) throws InterruptedException {
+        return offer(t);
+    }
+
+    @Override
+    public boolean offer(T t) {
+        if (t == null) {
+            throw new NullPointerException();
+        }
+        lock.lock();
+        try {
+            if (size == heap.length) {
+                heap = Arrays.copyOf(heap, heap.length * 2);
+            }
+            heap[size] = t;
+            if (!outOfOrder) {
+                siftUp(size);
+            }
+            size++;
+            notEmpty.signal();
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public T poll() {
+        lock.lock();
+        try {
+            return dequeue();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public T take() throws InterruptedException {
+        lock.lockInterruptibly();
+        try {
+            T result = dequeue();
+            while (result == null) {
+                notEmpty.await();
+                result = dequeue();
+            }
+            return result;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public T poll(long timeout, TimeUnit unit) throws InterruptedException {
+        long nanos = unit.toNanos(timeout);
+        lock.lockInterruptibly();
+        try {
+            T result = dequeue();
+            while (result == null && nanos > 0) {
+                nanos = notEmpty.awaitNanos(nanos);
+                result = dequeue();
+            }
+            return result;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public T peek() {
+        lock.lock();
+        try {
+            if (size == 0) {
+                return null;
+            }
+            restoreOrder();
+            return elementAt(0);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private T dequeue() {
+        if (size == 0) {
+            return null;
+        }
+        restoreOrder();
+        T result = elementAt(0);
+        size--;
+        heap[0] = heap[size];
+        heap[size] = null;
+        if (size > 0) {
+            siftDown(0);
+        }
+        return result;
+    }
+
+    private void restoreOrder() {
+        if (outOfOrder) {
+            for (int i = (size >>> 1) - 1; i >= 0; i--) {
+                siftDown(i);
+            }
+            outOfOrder = false;
+        }
+    }
+
+    private void siftUp(int index) {
+        T element = elementAt(index);
+        int current = index;
+        while (current > 0) {
+            int parent = (current - 1) >>> 1;
+            T parentElement = elementAt(parent);
+            if (comparator.compare(element, parentElement) >= 0) {
+                break;
+            }
+            heap[current] = parentElement;
+            current = parent;
+        }
+        heap[current] = element;
+    }
+
+    private void siftDown(int index) {
+        T element = elementAt(index);
+        int current = index;
+        int half = size >>> 1;
+        while (current < half) {
+            int child = 2 * current + 1;
+            T childElement = elementAt(child);
+            int right = child + 1;
+            if (right < size && comparator.compare(childElement, elementAt(right)) > 0) {
+                child = right;
+                childElement = elementAt(right);
+            }
+            if (comparator.compare(element, childElement) <= 0) {
+                break;
+            }
+            heap[current] = childElement;
+            current = child;
+        }
+        heap[current] = element;
+    }
+
+    @SuppressWarnings("unchecked")
+    private T elementAt(int index) {
+        return (T) heap[index];
+    }
+
+    @Override
+    public int remainingCapacity() {
+        return Integer.MAX_VALUE;
+    }
+
+    @Override
+    public int drainTo(Collection<? super T> c) {
+        return drainTo(c, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public int drainTo(Collection<? super T> c, int maxElements) {
+        lock.lock();
+        try {
+            int count = 0;
+            while (size > 0 && count < maxElements) {
+                c.add(dequeue());
+                count++;
+            }
+            return count;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void clear() {
+        lock.lock();
+        try {
+            Arrays.fill(heap, 0, size, null);
+            size = 0;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public int size() {
+        lock.lock();
+        try {
+            return size;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public Iterator<T> iterator() {
+        throw new UnsupportedOperationException();
+    }
+}
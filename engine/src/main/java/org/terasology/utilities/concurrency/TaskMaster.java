@@ -67,6 +67,14 @@ public static <T extends Task> TaskMaster<T> createDynamicPriorityTaskMaster(Str
         return new TaskMaster<>(name, threads, new DynamicPriorityBlockingQueue<>(comparator));
     }
 
+    /**
+     * Creates a task master whose queue orders tasks by a comparator that may change over time. The ordering is only
+     * refreshed when {@link #reprioritize()} is called.
+     */
+    public static <T extends Task> TaskMaster<T> createReprioritizableTaskMaster(String name, int threads, Comparator<T> comparator) {
+        return new TaskMaster<>(name, threads, new ReprioritizableBlockingQueue<>(comparator));
+    }
+
     /**
      * Offers a task to this task master. This does not block, but may fail if the queue is full.
      *
@@ -86,6 +94,16 @@ public void put(T task) throws InterruptedException {
         taskQueue.put(task);
     }
 
+    /**
+     * Notifies the task queue that the priorities of the queued tasks have changed. Has no effect unless this task
+     * master was created through {@link #createReprioritizableTaskMaster(String, int, Comparator)}.
+     */
+    public void reprioritize() {
+        if (taskQueue instanceof ReprioritizableBlockingQueue) {
+            ((ReprioritizableBlockingQueue<T>) taskQueue).reprioritize();
+        }
+    }
+
     public void shutdown(T shutdownTask, boolean awaitComplete) {
         if (!shutdownTask.isTerminateSignal()) {
             throw new IllegalArgumentException("Expected task to provide terminate signal");
@@ -16,6 +16,8 @@
 
 package org.terasology.utilities.procedural;
 
+import java.util.Arrays;
+
 /**
  * Computes Brownian noise based on some noise generator.
  * Originally, Brown integrates white noise, but using other noises can be sometimes useful, too.
@@ -107,6 +109,68 @@ public float noise(float x, float y, float z) {
         return result * scale;
     }
 
+    /**
+     * Computes the same values as {@link #noise(float, float)}, but evaluates the underlying noise one octave at a
+     * time for the whole grid, so that it can use its own bulk implementation.
+     */
+    @Override
+    public void noise(float[] out, float[] xs, float[] ys) {
+        int size = xs.length * ys.length;
+        float[] octave = new float[size];
+        float[] workingX = Arrays.copyOf(xs, xs.length);
+        float[] workingY = Arrays.copyOf(ys, ys.length);
+        Arrays.fill(out, 0, size, 0.0f);
+        for (int i = 0; i < getOctaves(); i++) {
+            other.noise(octave, workingX, workingY);
+            addWeighted(out, octave, size, spectralWeights[i]);
+
+            applyLacunarity(workingX);
+            applyLacunarity(workingY);
+        }
+        applyScale(out, size);
+    }
+
+    /**
+     * Computes the same values as {@link #noise(float, float, float)}, but evaluates the underlying noise one octave
+     * at a time for the whole grid, so that it can use its own bulk implementation.
+     */
+    @Override
+    public void noise(float[] out, float[] xs, float[] ys, float[] zs) {
+        int size = xs.length * ys.length * zs.length;
+        float[] octave = new float[size];
+        float[] workingX = Arrays.copyOf(xs, xs.length);
+        float[] workingY = Arrays.copyOf(ys, ys.length);
+        float[] workingZ = Arrays.copyOf(zs, zs.length);
+        Arrays.fill(out, 0, size, 0.0f);
+        for (int i = 0; i < getOctaves(); i++) {
+            other.noise(octave, workingX, workingY, workingZ);
+            addWeighted(out, octave, size, spectralWeights[i]);
+
+            applyLacunarity(workingX);
+            applyLacunarity(workingY);
+            applyLacunarity(workingZ);
+        }
+        applyScale(out, size);
+    }
+
+    private static void addWeighted(float[] result, float[] octave, int size, float weight) {
+        for (int i = 0; i < size; i++) {
+            result[i] += octave[i] * weight;
+        }
+    }
+
+    private void applyLacunarity(float[] positions) {
+        for (int i = 0; i < positions.length; i++) {
+            positions[i] *= getLacunarity();
+        }
+    }
+
+    private void applyScale(float[] result, int size) {
+        for (int i = 0; i < size; i++) {
+            result[i] *= scale;
+        }
+    }
+
     private static float computeScale(float[] spectralWeights) {
         float sum = 0;
         for (float weight : spectralWeights) {
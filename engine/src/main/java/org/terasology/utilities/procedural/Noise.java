@@ -16,6 +16,9 @@
 
 package org.terasology.utilities.procedural;
 
+import org.terasology.math.Region3i;
+import org.terasology.math.geom.Rect2i;
+
 /**
  * Provides or generates noise
  *
@@ -59,4 +62,92 @@ public interface Noise {
      * @return The noise value in the range [-1..1]
      */
     float noise(float x, float y, float z);
+
+    /**
+     * Computes the noise values of a 2D grid, whose sample positions are given per axis. Implementations override
+     * this to hoist the work that only depends on a single axis out of the inner loop. The result must be identical
+     * to calling {@link #noise(float, float)} for every position.
+     *
+     * @param out the array to fill, the value of (xs[i], ys[j]) is stored at index i + j * xs.length
+     * @param xs  the sample positions on the x-axis
+     * @param ys  the sample positions on the y-axis
+     */
+    default void noise(float[] out, float[] xs, float[] ys) {
+        int index = 0;
+        for (float y : ys) {
+            for (float x : xs) {
+                out[index++] = noise(x, y);
+            }
+        }
+    }
+
+    /**
+     * Computes the noise values of a 3D grid, whose sample positions are given per axis. Implementations override
+     * this to hoist the work that only depends on a single axis out of the inner loop. The result must be identical
+     * to calling {@link #noise(float, float, float)} for every position.
+     *
+     * @param out the array to fill, the value of (xs[i], ys[j], zs[k]) is stored at index i + xs.length * (j + ys.length * k)
+     * @param xs  the sample positions on the x-axis
+     * @param ys  the sample positions on the y-axis
+     * @param zs  the sample positions on the z-axis
+     */
+    default void noise(float[] out, float[] xs, float[] ys, float[] zs) {
+        int index = 0;
+        for (float z : zs) {
+            for (float y : ys) {
+                for (float x : xs) {
+                    out[index++] = noise(x, y, z);
+                }
+            }
+        }
+    }
+
+    /**
+     * Computes the noise values for every stride-th position of a region, scaled by the given factors. Along the
+     * x-axis the values are sampled at scaleX * (region.minX() + i * stride) for i in [0, (region.sizeX() - 1) / stride].
+     *
+     * @param out    the array to fill, x varies fastest
+     * @param region the region to sample
+     * @param stride the distance between two samples
+     * @param scaleX the factor applied to x positions
+     * @param scaleY the factor applied to y positions
+     */
+    default void noise(float[] out, Rect2i region, int stride, float scaleX, float scaleY) {
+        float[] xs = new float[(region.sizeX() - 1) / stride + 1];
+        for (int i = 0; i < xs.length; i++) {
+            xs[i] = scaleX * (region.minX() + i * stride);
+        }
+        float[] ys = new float[(region.sizeY() - 1) / stride + 1];
+        for (int i = 0; i < ys.length; i++) {
+            ys[i] = scaleY * (region.minY() + i * stride);
+        }
+        noise(out, xs, ys);
+    }
+
+    /**
+     * Computes the noise values for every stride-th position of a region, scaled by the given factors. Along the
+     * x-axis the values are sampled at scaleX * (region.minX() + i * stride) for i in [0, (region.sizeX() - 1) / stride].
+     *
+     * @param out    the array to fill, x varies fastest, then y
+     * @param region the region to sample
+     * @param stride the distance between two samples
+     * @param scaleX the factor applied to x positions
+     * @param scaleY the factor applied to y positions
+     * @param scaleZ the factor applied to z positions
+     */
+    default void noise(float[] out, Region3i region, int stride, float scaleX, float scaleY, float scaleZ) {
+        float[] xs = new float[(region.sizeX() - 1) / stride + 1];
+        for (int i = 0; i < xs.length; i++) {
+            xs[i] = scaleX * (region.minX() + i * stride);
+        }
+        float[] ys = new float[(region.sizeY() - 1) / stride + 1];
+        for (int i = 0; i < ys.length; i++) {
+            ys[i] = scaleY * (region.minY() + i * stride);
+        }
+        float[] zs = new float[(region.sizeZ() - 1) / stride + 1];
+        for (int i = 0; i < zs.length; i++) {
+            zs[i] = scaleZ * (region.minZ() + i * stride);
+        }
+        noise(out, xs, ys, zs);
+    }
 }
@@ -106,6 +106,89 @@ public float noise(float posX, float posY, float posZ) {
         return TeraMath.lerp(val1, val2, w);
     }
 
+    /**
+     * Same as {@link #noise(float, float)} for every grid position, z is 0.
+     */
+    @Override
+    public void noise(float[] out, float[] xs, float[] ys) {
+        noise(out, xs, ys, new float[]{0});
+    }
+
+    /**
+     * Computes the same values as {@link #noise(float, float, float)}, but the lattice cell and fade curve of every
+     * axis position are computed only once per grid and the permutation lookups only when the x position enters
+     * another lattice cell.
+     */
+    @Override
+    public void noise(float[] out, float[] xs, float[] ys, float[] zs) {
+        int[] cellX = new int[xs.length];
+        float[] relX = new float[xs.length];
+        float[] fadeX = new float[xs.length];
+        for (int i = 0; i < xs.length; i++) {
+            cellX[i] = (int) TeraMath.fastFloor(xs[i]) & 255;
+            relX[i] = xs[i] - TeraMath.fastFloor(xs[i]);
+            fadeX[i] = TeraMath.fadePerlin(relX[i]);
+        }
+
+        int index = 0;
+        for (float posZ : zs) {
+            int zInt = (int) TeraMath.fastFloor(posZ) & 255;
+            float z = posZ - TeraMath.fastFloor(posZ);
+            float w = TeraMath.fadePerlin(z);
+            for (float posY : ys) {
+                int yInt = (int) TeraMath.fastFloor(posY) & 255;
+                float y = posY - TeraMath.fastFloor(posY);
+                float v = TeraMath.fadePerlin(y);
+
+                int lastXInt = -1;
+                int hashAA = 0;
+                int hashBA = 0;
+                int hashAB = 0;
+                int hashBB = 0;
+                int hashAA1 = 0;
+                int hashBA1 = 0;
+                int hashAB1 = 0;
+                int hashBB1 = 0;
+                for (int i = 0; i < xs.length; i++) {
+                    int xInt = cellX[i];
+                    if (xInt != lastXInt) {
+                        int a = noisePermutations[xInt] + yInt;
+                        int aa = noisePermutations[a] + zInt;
+                        int ab = noisePermutations[(a + 1)] + zInt;
+                        int b = noisePermutations[(xInt + 1)] + yInt;
+                        int ba = noisePermutations[b] + zInt;
+                        int bb = noisePermutations[(b + 1)] + zInt;
+                        hashAA = noisePermutations[aa];
+                        hashBA = noisePermutations[ba];
+                        hashAB = noisePermutations[ab];
+                        hashBB = noisePermutations[bb];
+                        hashAA1 = noisePermutations[(aa + 1)];
+                        hashBA1 = noisePermutations[(ba + 1)];
+                        hashAB1 = noisePermutations[(ab + 1)];
+                        hashBB1 = noisePermutations[(bb + 1)];
+                        lastXInt = xInt;
+                    }
+                    float x = relX[i];
+                    float u = fadeX[i];
+
+                    float gradAA = grad(hashAA, x, y, z);
+                    float gradBA = grad(hashBA, x - 1, y, z);
+                    float gradAB = grad(hashAB, x, y - 1, z);
+                    float gradBB = grad(hashBB, x - 1, y - 1, z);
+                    float val1 = TeraMath.lerp(TeraMath.lerp(gradAA, gradBA, u), TeraMath.lerp(gradAB, gradBB, u), v);
+
+                    float gradAA1 = grad(hashAA1, x, y, z - 1);
+                    float gradBA1 = grad(hashBA1, x - 1, y, z - 1);
+                    float gradAB1 = grad(hashAB1, x, y - 1, z - 1);
+                    float gradBB1 = grad(hashBB1, x - 1, y - 1, z - 1);
+                    float val2 = TeraMath.lerp(TeraMath.lerp(gradAA1, gradBA1, u), TeraMath.lerp(gradAB1, gradBB1, u), v);
+
+                    out[index++] = TeraMath.lerp(val1, val2, w);
+                }
+            }
+        }
+    }
+
     private static float grad(int hash, float x, float y, float z) {
         int h = hash & 15;
         float u = h < 8 ? x : y;
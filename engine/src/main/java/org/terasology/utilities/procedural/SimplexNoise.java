@@ -62,6 +62,18 @@ public class SimplexNoise extends AbstractNoise implements Noise2D, Noise3D {
     private static final float F4 = ((float) Math.sqrt(5.0f) - 1.0f) / 4.0f;
     private static final float G4 = (5.0f - (float) Math.sqrt(5.0f)) / 20.0f;
 
+    /**
+     * The offsets (i1, j1, k1, i2, j2, k2) of the second and third corner of the 3D simplices
+     */
+    private static final int[][] SIMPLEX_OFFSETS_3D = {
+            {1, 0, 0, 1, 1, 0}, // X Y Z order
+            {1, 0, 0, 1, 0, 1}, // X Z Y order
+            {0, 0, 1, 1, 0, 1}, // Z X Y order
+            {0, 0, 1, 0, 1, 1}, // Z Y X order
+            {0, 1, 0, 0, 1, 1}, // Y Z X order
+            {0, 1, 0, 1, 1, 0}  // Y X Z order
+    };
+
     private final short[] perm = new short[512];
     private final short[] permMod12 = new short[512];
 
@@ -331,6 +343,162 @@ public float noise(float xin, float yin, float zin) {
         return 32.0f * (n0 + n1 + n2 + n3);
     }
 
+    /**
+     * Computes the same values as {@link #noise(float, float)}, but looks up the gradients of the simplex corners
+     * only when the sample position enters another simplex.
+     */
+    @Override
+    public void noise(float[] out, float[] xs, float[] ys) {
+        int index = 0;
+        for (float yin : ys) {
+            int lastI = 0;
+            int lastJ = 0;
+            int lastI1 = -1;
+            Grad g0 = null;
+            Grad g1 = null;
+            Grad g2 = null;
+            for (float xin : xs) {
+                float s = (xin + yin) * F2;
+                int i = TeraMath.floorToInt(xin + s);
+                int j = TeraMath.floorToInt(yin + s);
+                float t = (i + j) * G2;
+                float xo0 = i - t;
+                float yo0 = j - t;
+                float x0 = xin - xo0;
+                float y0 = yin - yo0;
+
+                int i1 = x0 > y0 ? 1 : 0;
+                int j1 = 1 - i1;
+                if (i != lastI || j != lastJ || i1 != lastI1) {
+                    int ii = i & 255;
+                    int jj = j & 255;
+                    g0 = grad3[permMod12[ii + perm[jj]]];
+                    g1 = grad3[permMod12[ii + i1 + perm[jj + j1]]];
+                    g2 = grad3[permMod12[ii + 1 + perm[jj + 1]]];
+                    lastI = i;
+                    lastJ = j;
+                    lastI1 = i1;
+                }
+
+                float x1 = x0 - i1 + G2;
+                float y1 = y0 - j1 + G2;
+                float x2 = x0 - 1.0f + 2.0f * G2;
+                float y2 = y0 - 1.0f + 2.0f * G2;
+
+                out[index++] = 70.0f * (contribution(g0, x0, y0) + contribution(g1, x1, y1) + contribution(g2, x2, y2));
+            }
+        }
+    }
+
+    /**
+     * Computes the same values as {@link #noise(float, float, float)}, but looks up the gradients of the simplex
+     * corners only when the sample position enters another simplex.
+     */
+    @Override
+    public void noise(float[] out, float[] xs, float[] ys, float[] zs) {
+        int index = 0;
+        for (float zin : zs) {
+            for (float yin : ys) {
+                int lastI = 0;
+                int lastJ = 0;
+                int lastK = 0;
+                int lastOrder = -1;
+                Grad g0 = null;
+                Grad g1 = null;
+                Grad g2 = null;
+                Grad g3 = null;
+                for (float xin : xs) {
+                    float s = (xin + yin + zin) * F3;
+                    int i = TeraMath.floorToInt(xin + s);
+                    int j = TeraMath.floorToInt(yin + s);
+                    int k = TeraMath.floorToInt(zin + s);
+                    float t = (i + j + k) * G3;
+                    float xo0 = i - t;
+                    float yo0 = j - t;
+                    float zo0 = k - t;
+                    float x0 = xin - xo0;
+                    float y0 = yin - yo0;
+                    float z0 = zin - zo0;
+
+                    int order = simplexOrder(x0, y0, z0);
+                    int[] offsets = SIMPLEX_OFFSETS_3D[order];
+                    int i1 = offsets[0];
+                    int j1 = offsets[1];
+                    int k1 = offsets[2];
+                    int i2 = offsets[3];
+                    int j2 = offsets[4];
+                    int k2 = offsets[5];
+                    if (i != lastI || j != lastJ || k != lastK || order != lastOrder) {
+                        int ii = i & 255;
+                        int jj = j & 255;
+                        int kk = k & 255;
+                        g0 = grad3[permMod12[ii + perm[jj + perm[kk]]]];
+                        g1 = grad3[permMod12[ii + i1 + perm[jj + j1 + perm[kk + k1]]]];
+                        g2 = grad3[permMod12[ii + i2 + perm[jj + j2 + perm[kk + k2]]]];
+                        g3 = grad3[permMod12[ii + 1 + perm[jj + 1 + perm[kk + 1]]]];
+                        lastI = i;
+                        lastJ = j;
+                        lastK = k;
+                        lastOrder = order;
+                    }
+
+                    float x1 = x0 - i1 + G3;
+                    float y1 = y0 - j1 + G3;
+                    float z1 = z0 - k1 + G3;
+                    float x2 = x0 - i2 + 2.0f * G3;
+                    float y2 = y0 - j2 + 2.0f * G3;
+                    float z2 = z0 - k2 + 2.0f * G3;
+                    float x3 = x0 - 1.0f + 3.0f * G3;
+                    float y3 = y0 - 1.0f + 3.0f * G3;
+                    float z3 = z0 - 1.0f + 3.0f * G3;
+
+                    out[index++] = 32.0f * (contribution(g0, x0, y0, z0) + contribution(g1, x1, y1, z1)
+                            + contribution(g2, x2, y2, z2) + contribution(g3, x3, y3, z3));
+                }
+            }
+        }
+    }
+
+    /**
+     * @return the index into {@link #SIMPLEX_OFFSETS_3D}, following the case distinction of {@link #noise(float, float, float)}
+     */
+    private static int simplexOrder(float x0, float y0, float z0) {
+        if (x0 >= y0) {
+            if (y0 >= z0) {
+                return 0;
+            } else if (x0 >= z0) {
+                return 1;
+            } else {
+                return 2;
+            }
+        } else {
+            if (y0 < z0) {
+                return 3;
+            } else if (x0 < z0) {
+                return 4;
+            } else {
+                return 5;
+            }
+        }
+    }
+
+    private static float contribution(Grad g, float x, float y) {
+        float t = 0.5f - x * x - y * y;
+        if (t < 0) {
+            return 0.0f;
+        }
+        t *= t;
+        return t * t * dot(g, x, y);
+    }
+
+    private static float contribution(Grad g, float x, float y, float z) {
+        float t = 0.6f - x * x - y * y - z * z;
+        if (t < 0) {
+            return 0.0f;
+        }
+        t *= t;
+        return t * t * dot(g, x, y, z);
+    }
 
     /**
      * 4D simplex noise, better simplex rank ordering method 2012-03-09
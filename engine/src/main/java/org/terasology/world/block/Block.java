@@ -99,6 +99,7 @@ public final class Block {
     private boolean doubleSided;
     private boolean shadowCasting = true;
     private boolean waving;
+    private boolean cube;
     private byte luminance;
     private Vector3f tint = new Vector3f(0, 0, 0);
     private Map<BlockPart, BlockColorSource> colorSource = Maps.newEnumMap(BlockPart.class);
@@ -320,6 +321,17 @@ public void setShadowCasting(boolean shadowCasting) {
         this.shadowCasting = shadowCasting;
     }
 
+    /**
+     * @return Whether this block has the engine cube shape, so its faces can be merged with those of adjacent blocks
+     */
+    public boolean isCube() {
+        return cube;
+    }
+
+    public void setCube(boolean cube) {
+        this.cube = cube;
+    }
+
     /**
      * @return Can this block be targetted for interactions
      */
@@ -615,6 +627,28 @@ public Vector4f calcColorOffsetFor(BlockPart part, Biome biome) {
         return color;
     }
 
+    /**
+     * Calculates the color offset like {@link #calcColorOffsetFor(BlockPart, Biome)}, but writes it to the given
+     * vector instead of allocating a new one.
+     *
+     * @param part   The block side
+     * @param biome  The block's biome
+     * @param target The vector to store the color offset in
+     * @return target
+     */
+    public Vector4f calcColorOffsetFor(BlockPart part, Biome biome, Vector4f target) {
+        BlockColorSource source = getColorSource(part);
+        Vector4f color = source.calcColor(biome, target);
+
+        Vector4f colorOffset = colorOffsets.get(part);
+        color.x *= colorOffset.x;
+        color.y *= colorOffset.y;
+        color.z *= colorOffset.z;
+        color.w *= colorOffset.w;
+
+        return color;
+    }
+
     /**
      * Set the collision box for the block
      * @param offset The offset to the block's center
@@ -26,4 +26,17 @@ public interface BlockColorSource {
 
     Vector4f calcColor(Biome biome);
 
+    /**
+     * Calculates the color like {@link #calcColor(Biome)}, but writes it to the given vector. Color sources used
+     * while tessellating chunks should override this to avoid allocating a vector per block.
+     *
+     * @param target the vector to store the color in.
+     * @return target
+     */
+    default Vector4f calcColor(Biome biome, Vector4f target) {
+        Vector4f color = calcColor(biome);
+        target.set(color.x, color.y, color.z, color.w);
+        return target;
+    }
+
 }
@@ -22,7 +22,7 @@
 
 import javax.imageio.ImageIO;
 
-import java.awt.*;
+import java.awt.Color;
 import java.awt.image.BufferedImage;
 import java.io.IOException;
 
@@ -36,6 +36,12 @@ public enum DefaultColorSource implements BlockColorSource {
         public Vector4f calcColor(Biome biome) {
             return new Vector4f(1, 1, 1, 1);
         }
+
+        @Override
+        public Vector4f calcColor(Biome biome, Vector4f target) {
+            target.set(1, 1, 1, 1);
+            return target;
+        }
     },
     COLOR_LUT {
         @Override
@@ -48,6 +54,15 @@ public Vector4f calcColor(Biome biome) {
             Color c = new Color(rgbValue);
             return new Vector4f(c.getRed() / 255f, c.getGreen() / 255f, c.getBlue() / 255f, 1.0f);
         }
+
+        @Override
+        public Vector4f calcColor(Biome biome, Vector4f target) {
+            float humidity = biome.getHumidity();
+            float temperature = biome.getTemperature();
+            float prod = temperature * humidity;
+            int rgbValue = colorLut.getRGB((int) ((1.0 - temperature) * 255.0), (int) ((1.0 - prod) * 255.0));
+            return setColor(rgbValue, target);
+        }
     },
     FOLIAGE_LUT {
         @Override
@@ -60,6 +75,15 @@ public Vector4f calcColor(Biome biome) {
             Color c = new Color(rgbValue);
             return new Vector4f(c.getRed() / 255f, c.getGreen() / 255f, c.getBlue() / 255f, 1.0f);
         }
+
+        @Override
+        public Vector4f calcColor(Biome biome, Vector4f target) {
+            float humidity = biome.getHumidity();
+            float temperature = biome.getTemperature();
+            float prod = humidity * temperature;
+            int rgbValue = foliageLut.getRGB((int) ((1.0 - temperature) * 255.0), (int) ((1.0 - prod) * 255.0));
+            return setColor(rgbValue, target);
+        }
     };
 
     private static final Logger logger = LoggerFactory.getLogger(DefaultColorSource.class);
@@ -69,6 +93,17 @@ public Vector4f calcColor(Biome biome) {
 
     private static BufferedImage foliageLut;
 
+    @Override
+    public abstract Vector4f calcColor(Biome biome, Vector4f target);
+
+    private static Vector4f setColor(int rgbValue, Vector4f target) {
+        int red = (rgbValue >> 16) & 0xFF;
+        int green = (rgbValue >> 8) & 0xFF;
+        int blue = rgbValue & 0xFF;
+        target.set(red / 255f, green / 255f, blue / 255f, 1.0f);
+        return target;
+    }
+
     static {
         try {
             // TODO: Read these from asset manager
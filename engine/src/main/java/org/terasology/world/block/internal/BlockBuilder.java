@@ -120,6 +120,7 @@ public Block constructCustomBlock(String defaultName, BlockShape shape, Rotation
         block.setDirection(rotation.rotate(Side.FRONT));
         block.setPrimaryAppearance(createAppearance(shape, section.getBlockTiles(), rotation));
         setBlockFullSides(block, shape, rotation);
+        block.setCube(shape.getUrn().equals(cubeShape.getUrn()));
         block.setCollision(shape.getCollisionOffset(rotation), shape.getCollisionShape(rotation));
 
         for (BlockPart part : BlockPart.values()) {
@@ -30,7 +30,10 @@
  *
  */
 public class BlockMeshPart {
-    private static final float BORDER = 1f / 128f;
+    /**
+     * The margin kept between the texture coordinates and the edges of the tile, relative to the size of the tile
+     */
+    public static final float BORDER = 1f / 128f;
 
     private Vector3f[] vertices;
     private Vector3f[] normals;
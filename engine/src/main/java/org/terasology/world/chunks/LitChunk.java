@@ -46,4 +46,11 @@ public interface LitChunk extends CoreChunk {
     boolean setLight(BaseVector3i pos, byte amount);
 
     boolean setLight(int x, int y, int z, byte amount);
+
+    /**
+     * Copies the sunlight and light values of a box of blocks into two byte arrays at once. The values of the block
+     * at {@code (minX + dx, minY + dy, minZ + dz)} get stored at {@code offset + dy * strideY + dz * strideZ + dx}.
+     */
+    void copyLight(int minX, int minY, int minZ, int countX, int countY, int countZ,
+                   byte[] sunlight, byte[] light, int offset, int strideY, int strideZ);
 }
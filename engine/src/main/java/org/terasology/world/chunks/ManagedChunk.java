@@ -39,4 +39,10 @@ public interface ManagedChunk extends CoreChunk {
 
     // TODO: Expose appropriate iterators, remove this method
     EntityData.ChunkStore.Builder encode();
+
+    /**
+     * @return a counter that increases whenever blocks, liquids or biomes of the chunk change, so that the result of
+     * {@link #encode()} can be reused as long as it stays the same.
+     */
+    int getModificationCount();
 }
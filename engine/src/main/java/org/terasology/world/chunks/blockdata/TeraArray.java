@@ -143,6 +143,24 @@ public String toString() {
 
     public abstract boolean set(int x, int y, int z, int value, int expected);
 
+    /**
+     * Copies the elements of a box into a byte array, truncating them to bytes. The element at {@code (minX + dx,
+     * minY + dy, minZ + dz)} gets stored at {@code offset + dy * strideY + dz * strideZ + dx}.
+     * <p>
+     * This reads every element on its own, subclasses should override it to copy whole rows at once.
+     */
+    public void copyTo(int minX, int minY, int minZ, int countX, int countY, int countZ,
+                       byte[] target, int offset, int strideY, int strideZ) {
+        for (int dy = 0; dy < countY; dy++) {
+            for (int dz = 0; dz < countZ; dz++) {
+                int index = offset + dy * strideY + dz * strideZ;
+                for (int dx = 0; dx < countX; dx++) {
+                    target[index + dx] = (byte) get(minX + dx, minY + dy, minZ + dz);
+                }
+            }
+        }
+    }
+
     /**
      * This is the interface for tera array factories. Every tera array is required to implement a factory.
      * It should be implemented as a static subclass of the corresponding tera array class and it should be called Factory.
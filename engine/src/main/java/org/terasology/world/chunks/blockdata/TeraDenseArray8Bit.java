@@ -77,6 +77,17 @@ public int set(int x, int y, int z, int value) {
         return old;
     }
 
+    @Override
+    public void copyTo(int minX, int minY, int minZ, int countX, int countY, int countZ,
+                       byte[] target, int offset, int strideY, int strideZ) {
+        for (int dy = 0; dy < countY; dy++) {
+            for (int dz = 0; dz < countZ; dz++) {
+                int index = offset + dy * strideY + dz * strideZ;
+                System.arraycopy(data, pos(minX, minY + dy, minZ + dz), target, index, countX);
+            }
+        }
+    }
+
     @Override
     public boolean set(int x, int y, int z, int value, int expected) {
         int pos = pos(x, y, z);
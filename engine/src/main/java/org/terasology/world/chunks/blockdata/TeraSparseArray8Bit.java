@@ -113,6 +113,23 @@ public int set(int x, int y, int z, int value) {
         return deflated[y];
     }
 
+    @Override
+    public void copyTo(int minX, int minY, int minZ, int countX, int countY, int countZ,
+                       byte[] target, int offset, int strideY, int strideZ) {
+        for (int dy = 0; dy < countY; dy++) {
+            int y = minY + dy;
+            byte[] row = inflated == null ? null : inflated[y];
+            for (int dz = 0; dz < countZ; dz++) {
+                int index = offset + dy * strideY + dz * strideZ;
+                if (row != null) {
+                    System.arraycopy(row, pos(minX, minZ + dz), target, index, countX);
+                } else {
+                    Arrays.fill(target, index, index + countX, inflated == null ? fill : deflated[y]);
+                }
+            }
+        }
+    }
+
     @Override
     public boolean set(int x, int y, int z, int value, int expected) {
         if (value == expected) {
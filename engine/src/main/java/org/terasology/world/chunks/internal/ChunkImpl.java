@@ -82,6 +82,7 @@ public class ChunkImpl implements Chunk {
     private boolean disposed;
     private boolean ready;
     private volatile boolean dirty;
+    private volatile int modificationCount;
     private boolean animated;
 
     // Rendering
@@ -161,6 +162,7 @@ public Block setBlock(int x, int y, int z, Block block) {
         }
         int oldValue = blockData.set(x, y, z, block.getId());
         if (oldValue != block.getId()) {
+            modificationCount++;
             if (!block.isLiquid()) {
                 setLiquid(x, y, z, new LiquidData());
             }
@@ -236,6 +238,13 @@ public boolean setLight(int x, int y, int z, byte amount) {
         return lightData.set(x, y, z, amount) != amount;
     }
 
+    @Override
+    public void copyLight(int minX, int minY, int minZ, int countX, int countY, int countZ,
+                          byte[] sunlight, byte[] light, int offset, int strideY, int strideZ) {
+        sunlightData.copyTo(minX, minY, minZ, countX, countY, countZ, sunlight, offset, strideY, strideZ);
+        lightData.copyTo(minX, minY, minZ, countX, countY, countZ, light, offset, strideY, strideZ);
+    }
+
     @Override
     public void setLiquid(BaseVector3i pos, LiquidData state) {
         setLiquid(pos.x(), pos.y(), pos.z(), state);
@@ -247,7 +256,9 @@ public void setLiquid(int x, int y, int z, LiquidData newState) {
         if (extraData == extraDataSnapshot) {
             extraData = extraData.copy();
         }
-        extraData.set(x, y, z, newValue);
+        if ((byte) extraData.set(x, y, z, newValue) != newValue) {
+            modificationCount++;
+        }
     }
 
     @Override
@@ -272,6 +283,9 @@ public Biome setBiome(int x, int y, int z, Biome biome) {
         }
         short shortId = biomeManager.getBiomeShortId(biome);
         short previousShortId = (short) biomeData.set(x, y, z, shortId);
+        if (previousShortId != shortId) {
+            modificationCount++;
+        }
         return biomeManager.getBiomeByShortId(previousShortId);
     }
 
@@ -568,6 +582,11 @@ public ChunkBlockIterator getBlockIterator() {
         return new ChunkBlockIteratorImpl(blockManager, getChunkWorldOffset(), blockData);
     }
 
+    @Override
+    public int getModificationCount() {
+        return modificationCount;
+    }
+
     @Override
     public EntityData.ChunkStore.Builder encode() {
         return ChunkSerializer.encode(chunkPos, blockData, extraData, biomeData);
@@ -0,0 +1,124 @@
+/*
+ * Copyright 2016 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.world.chunks.internal;
+
+import org.terasology.math.ChunkMath;
+import org.terasology.math.geom.Vector3i;
+import org.terasology.world.chunks.Chunk;
+import org.terasology.world.chunks.ChunkConstants;
+import org.terasology.world.chunks.ChunkProvider;
+import org.terasology.world.chunks.RenderableChunk;
+
+import java.util.Collection;
+import java.util.function.Predicate;
+
+/**
+ * Marks the chunks dirty whose meshes can see a changed block or light value.
+ * <br><br>
+ * The mesh of a chunk covers its own blocks, but the faces and vertices at its border also depend on the blocks just
+ * outside of it: faces are culled against the adjacent block, and the lighting and ambient occlusion of a vertex are
+ * sampled from all blocks around it. So a change is seen by the chunk of the block, and by the neighbouring chunks
+ * whose border the block touches with a face, an edge or a corner. A block in the middle of a chunk only affects its
+ * own chunk, a block in a corner of a chunk affects eight chunks.
+ */
+public final class DirtyChunkMarker {
+
+    private DirtyChunkMarker() {
+    }
+
+    /**
+     * Marks the loaded chunks dirty which can see a change at the given position.
+     *
+     * @param chunkProvider the provider of the chunks
+     * @param worldPos      the world position of the change
+     * @return the number of chunks which were not dirty before
+     */
+    public static int markDirtyAround(ChunkProvider chunkProvider, Vector3i worldPos) {
+        return forChunksAround(chunkProvider, worldPos, DirtyChunkMarker::markDirty);
+    }
+
+    /**
+     * Adds the loaded chunks which can see a change at the given position to the given collection, so that the
+     * chunks touched by a batch of changes can be marked dirty once.
+     *
+     * @param chunkProvider the provider of the chunks
+     * @param worldPos      the world position of the change
+     * @param chunks        the collection receiving the chunks
+     */
+    public static void collectChunksAround(ChunkProvider chunkProvider, Vector3i worldPos,
+                                           Collection<? super Chunk> chunks) {
+        forChunksAround(chunkProvider, worldPos, chunks::add);
+    }
+
+    /**
+     * Marks the given chunks dirty.
+     *
+     * @return the number of chunks which were not dirty before
+     */
+    public static int markDirty(Iterable<? extends RenderableChunk> chunks) {
+        int dirtied = 0;
+        for (RenderableChunk chunk : chunks) {
+            if (markDirty(chunk)) {
+                dirtied++;
+            }
+        }
+        return dirtied;
+    }
+
+    private static boolean markDirty(RenderableChunk chunk) {
+        boolean wasDirty = chunk.isDirty();
+        chunk.setDirty(true);
+        return !wasDirty;
+    }
+
+    /**
+     * @return the number of chunks for which the action returned true
+     */
+    private static int forChunksAround(ChunkProvider chunkProvider, Vector3i worldPos, Predicate<Chunk> action) {
+        int chunkX = ChunkMath.calcChunkPosX(worldPos.x);
+        int chunkY = ChunkMath.calcChunkPosY(worldPos.y);
+        int chunkZ = ChunkMath.calcChunkPosZ(worldPos.z);
+        int borderX = borderDirection(ChunkMath.calcBlockPosX(worldPos.x), ChunkConstants.SIZE_X);
+        int borderY = borderDirection(ChunkMath.calcBlockPosY(worldPos.y), ChunkConstants.SIZE_Y);
+        int borderZ = borderDirection(ChunkMath.calcBlockPosZ(worldPos.z), ChunkConstants.SIZE_Z);
+
+        int count = 0;
+        // the chunk of the block itself, then the neighbours on the sides of the borders the block lies on
+        for (int y = 0; y <= Math.abs(borderY); y++) {
+            for (int z = 0; z <= Math.abs(borderZ); z++) {
+                for (int x = 0; x <= Math.abs(borderX); x++) {
+                    Chunk chunk = chunkProvider.getChunk(chunkX + x * borderX, chunkY + y * borderY,
+                            chunkZ + z * borderZ);
+                    if (chunk != null && action.test(chunk)) {
+                        count++;
+                    }
+                }
+            }
+        }
+        return count;
+    }
+
+    /**
+     * @return -1 if the block lies on the lower border of its chunk along an axis, 1 if it lies on the upper border and
+     * 0 otherwise
+     */
+    private static int borderDirection(int blockPos, int chunkSize) {
+        if (blockPos == 0) {
+            return -1;
+        }
+        return blockPos == chunkSize - 1 ? 1 : 0;
+    }
+}
@@ -0,0 +1,135 @@
+/*
+ * Copyright 2016 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.world.chunks.localChunkProvider;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.terasology.entitySystem.systems.BaseComponentSystem;
+import org.terasology.entitySystem.systems.RegisterMode;
+import org.terasology.entitySystem.systems.RegisterSystem;
+import org.terasology.entitySystem.systems.UpdateSubscriberSystem;
+import org.terasology.logic.console.commandSystem.annotations.Command;
+import org.terasology.logic.console.commandSystem.annotations.CommandParam;
+import org.terasology.logic.permission.PermissionManager;
+import org.terasology.math.Region3i;
+import org.terasology.math.geom.Vector3i;
+import org.terasology.persistence.StorageManager;
+import org.terasology.registry.In;
+import org.terasology.world.biomes.BiomeManager;
+import org.terasology.world.block.BlockManager;
+import org.terasology.world.chunks.ChunkProvider;
+import org.terasology.world.generator.WorldGenerator;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Console commands to generate and store chunks ahead of time, e.g. on a headless server before players join.
+ */
+@RegisterSystem(RegisterMode.AUTHORITY)
+public class ChunkPregenerationSystem extends BaseComponentSystem implements UpdateSubscriberSystem {
+
+    private static final Logger logger = LoggerFactory.getLogger(ChunkPregenerationSystem.class);
+    private static final long REPORT_INTERVAL = TimeUnit.SECONDS.toNanos(30);
+
+    @In
+    private WorldGenerator worldGenerator;
+
+    @In
+    private BlockManager blockManager;
+
+    @In
+    private BiomeManager biomeManager;
+
+    @In
+    private StorageManager storageManager;
+
+    @In
+    private ChunkProvider chunkProvider;
+
+    private ChunkPregenerator pregenerator;
+    private long nextReport;
+
+    @Override
+    public void update(float delta) {
+        if (pregenerator == null || pregenerator.isFinished() && nextReport == 0) {
+            return;
+        }
+        pregenerator.update();
+        if (pregenerator.isFinished()) {
+            logger.info("Pre-generation of {} done: {}", pregenerator.getRegion(), pregenerator.getStatus());
+            nextReport = 0;
+        } else if (System.nanoTime() >= nextReport) {
+            logger.info("Pre-generating {}: {}", pregenerator.getRegion(), pregenerator.getStatus());
+            nextReport = System.nanoTime() + REPORT_INTERVAL;
+        }
+    }
+
+    @Override
+    public void shutdown() {
+        if (pregenerator != null) {
+            pregenerator.cancel();
+        }
+    }
+
+    @Command(shortDescription = "Generates and stores all chunks within the given chunk positions",
+            helpText = "Chunks that are already stored are kept, so an interrupted pre-generation can be continued by " +
+                    "running the command again. Use pregenerationStatus to see the progress.",
+            runOnServer = true, requiredPermission = PermissionManager.SERVER_MANAGEMENT_PERMISSION)
+    public String pregenerateChunks(@CommandParam("minX") int minX, @CommandParam("minY") int minY,
+                                    @CommandParam("minZ") int minZ, @CommandParam("maxX") int maxX,
+                                    @CommandParam("maxY") int maxY, @CommandParam("maxZ") int maxZ) {
+        return pregenerate(Region3i.createBounded(new Vector3i(minX, minY, minZ), new Vector3i(maxX, maxY, maxZ)));
+    }
+
+    @Command(shortDescription = "Generates and stores all chunks within a radius around the given chunk position",
+            helpText = "Chunks that are already stored are kept, so an interrupted pre-generation can be continued by " +
+                    "running the command again. Use pregenerationStatus to see the progress.",
+            runOnServer = true, requiredPermission = PermissionManager.SERVER_MANAGEMENT_PERMISSION)
+    public String pregenerateChunksAround(@CommandParam("x") int x, @CommandParam("y") int y, @CommandParam("z") int z,
+                                          @CommandParam("radius") int radius) {
+        return pregenerate(Region3i.createFromCenterExtents(new Vector3i(x, y, z), radius));
+    }
+
+    @Command(shortDescription = "Shows the progress and throughput of the running chunk pre-generation",
+            runOnServer = true, requiredPermission = PermissionManager.SERVER_MANAGEMENT_PERMISSION)
+    public String pregenerationStatus() {
+        if (pregenerator == null) {
+            return "No chunks have been pre-generated";
+        }
+        return pregenerator.getStatus();
+    }
+
+    @Command(shortDescription = "Stops the running chunk pre-generation",
+            runOnServer = true, requiredPermission = PermissionManager.SERVER_MANAGEMENT_PERMISSION)
+    public String cancelPregeneration() {
+        if (pregenerator == null || pregenerator.isFinished()) {
+            return "No chunk pre-generation is running";
+        }
+        pregenerator.cancel();
+        return "Chunk pre-generation cancelled, finished chunks will still be stored";
+    }
+
+    private String pregenerate(Region3i region) {
+        if (pregenerator != null && !pregenerator.isFinished()) {
+            throw new IllegalArgumentException("A chunk pre-generation is already running");
+        }
+        pregenerator = new ChunkPregenerator(region, worldGenerator, blockManager, biomeManager, storageManager,
+                (LocalChunkProvider) chunkProvider);
+        pregenerator.start();
+        nextReport = System.nanoTime() + REPORT_INTERVAL;
+        return "Pre-generating " + region.size().x * region.size().y * region.size().z + " chunks in " + region;
+    }
+}
@@ -0,0 +1,362 @@
+/*
+ * Copyright 2016 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.world.chunks.localChunkProvider;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Queues;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.terasology.entitySystem.entity.EntityStore;
+import org.terasology.math.Region3i;
+import org.terasology.math.geom.Vector3i;
+import org.terasology.monitoring.CounterMonitor;
+import org.terasology.persistence.StorageManager;
+import org.terasology.persistence.internal.SaveTransaction;
+import org.terasology.world.biomes.BiomeManager;
+import org.terasology.world.block.BlockManager;
+import org.terasology.world.chunks.Chunk;
+import org.terasology.world.chunks.internal.ChunkImpl;
+import org.terasology.world.chunks.pipeline.AbstractChunkTask;
+import org.terasology.world.chunks.pipeline.ChunkGenerationPipeline;
+import org.terasology.world.chunks.pipeline.ChunkTask;
+import org.terasology.world.generation.BaseFacetedWorldGenerator;
+import org.terasology.world.generation.Region;
+import org.terasology.world.generation.World;
+import org.terasology.world.generation.WorldFacet;
+import org.terasology.world.generation.impl.EntityBufferImpl;
+import org.terasology.world.generator.WorldGenerator;
+
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Generates and stores all chunks of a region ahead of time, so that a server does not have to generate the terrain
+ * while players explore it.
+ * <p>
+ * The region gets processed in slabs along the x axis: the chunks of a slab get generated on a
+ * {@link ChunkGenerationPipeline} using all cores and are then handed to the {@link StorageManager}, while the next slab
+ * gets generated. Chunks the storage manager already has are skipped, so an interrupted pre-generation can simply be
+ * started again. Chunks the game has loaded or is loading are left to it.
+ * <p>
+ * The chunks are stored without lighting, as the stored chunk format does not contain any. Their lighting gets
+ * computed and merged when the game loads them, like for chunks stored by the game. The entities of the generated
+ * chunks are stored with them without ever being created in the entity manager.
+ * <p>
+ * {@link #update()} has to be called regularly on the main thread, it passes the finished chunks on to the storage
+ * manager and requests the saves that write them.
+ */
+public class ChunkPregenerator {
+
+    private static final Logger logger = LoggerFactory.getLogger(ChunkPregenerator.class);
+
+    /**
+     * The number of chunks handed to the storage manager after which a save gets requested.
+     */
+    private static final int SAVE_INTERVAL = 512;
+
+    private static final Comparator<ChunkTask> TERMINATE_SIGNAL_FIRST =
+            (o1, o2) -> Boolean.compare(o2.isTerminateSignal(), o1.isTerminateSignal());
+
+    /**
+     * The stages timed by the pre-generator itself.
+     */
+    private enum Stage {
+        FACETS,
+        RASTERIZE
+    }
+
+    private final Region3i region;
+    private final WorldGenerator generator;
+    private final BlockManager blockManager;
+    private final BiomeManager biomeManager;
+    private final StorageManager storageManager;
+    private final LocalChunkProvider liveChunkProvider;
+    private final int parallelism;
+
+    private final BlockingQueue<GeneratedChunk> finishedChunks;
+
+    private final LongAdder[] stageTimes = new LongAdder[Stage.values().length];
+    private final LongAdder[] stageChunks = new LongAdder[Stage.values().length];
+    private final AtomicInteger alreadyStored = new AtomicInteger();
+    private final AtomicInteger loadedByGame = new AtomicInteger();
+    private volatile int handedToStorage;
+    private int handedSinceSave;
+
+    private final long startTime = System.nanoTime();
+    private final long startChunksWritten = CounterMonitor.get(SaveTransaction.CHUNKS_WRITTEN_COUNTER);
+    private final long startChunksTime = CounterMonitor.get(SaveTransaction.CHUNKS_TIME_COUNTER);
+    private final long startCompressionTime = CounterMonitor.get(SaveTransaction.CHUNK_COMPRESSION_TIME_COUNTER);
+
+    private Set<Class<? extends WorldFacet>> facets = Collections.emptySet();
+    private final Thread thread;
+    private volatile boolean cancelled;
+    private volatile boolean done;
+    private volatile RuntimeException failure;
+
+    /**
+     * @param region the chunk positions to generate, they get generated in the order of their x coordinate.
+     * @param liveChunkProvider the chunk provider of the game, the chunks it has loaded are not generated.
+     */
+    public ChunkPregenerator(Region3i region, WorldGenerator generator, BlockManager blockManager,
+                             BiomeManager biomeManager, StorageManager storageManager,
+                             LocalChunkProvider liveChunkProvider) {
+        this.region = region;
+        this.generator = generator;
+        this.blockManager = blockManager;
+        this.biomeManager = biomeManager;
+        this.storageManager = storageManager;
+        this.liveChunkProvider = liveChunkProvider;
+        this.parallelism = Runtime.getRuntime().availableProcessors();
+        this.finishedChunks = new ArrayBlockingQueue<>(region.sizeY() * region.sizeZ());
+        for (Stage stage : Stage.values()) {
+            stageTimes[stage.ordinal()] = new LongAdder();
+            stageChunks[stage.ordinal()] = new LongAdder();
+        }
+        this.thread = new Thread(this::run, "Chunk-Pregenerator");
+        this.thread.setDaemon(true);
+    }
+
+    public void start() {
+        thread.start();
+    }
+
+    /**
+     * Stops generating further chunks. Chunks that are already finished still get stored by {@link #update()}.
+     */
+    public void cancel() {
+        cancelled = true;
+        thread.interrupt();
+    }
+
+    /**
+     * @return whether all chunks have been handed to the storage manager, or the pre-generation got cancelled or
+     * failed.
+     */
+    public boolean isFinished() {
+        return done && finishedChunks.isEmpty();
+    }
+
+    public Region3i getRegion() {
+        return region;
+    }
+
+    /**
+     * Hands the chunks finished since the last call to the storage manager and requests saves to write them. Has to
+     * be called on the main thread.
+     * <p>
+     * The storage manager keeps chunks in memory until they are written, so no more than {@link #SAVE_INTERVAL}
+     * chunks get handed over while a save is running. The generation stops once the queue of finished chunks is full.
+     * <p>
+     * Chunks the game started loading, or stored, since they were generated are dropped, so they don't replace the
+     * game's version.
+     */
+    public void update() {
+        if (handedSinceSave >= SAVE_INTERVAL) {
+            if (storageManager.isSaving()) {
+                return;
+            }
+            storageManager.requestSaving();
+            handedSinceSave = 0;
+        }
+        List<GeneratedChunk> chunks = Lists.newArrayList();
+        finishedChunks.drainTo(chunks, SAVE_INTERVAL - handedSinceSave);
+        int stored = 0;
+        for (GeneratedChunk generatedChunk : chunks) {
+            if (liveChunkProvider.isChunkLoadedOrLoading(generatedChunk.chunk.getPosition())) {
+                loadedByGame.incrementAndGet();
+            } else if (storageManager.storeGeneratedChunk(generatedChunk.chunk, generatedChunk.entities)) {
+                stored++;
+            } else {
+                alreadyStored.incrementAndGet();
+            }
+            generatedChunk.chunk.dispose();
+        }
+        handedToStorage += stored;
+        handedSinceSave += stored;
+        if (handedSinceSave > 0 && isFinished()) {
+            storageManager.requestSaving();
+            handedSinceSave = 0;
+        }
+    }
+
+    /**
+     * Describes the progress and the throughput of the stages. Generating facets, rasterizing and compressing are
+     * given in chunks per second of a single thread, writing in chunks per second of the chunk writing phase of the
+     * saves. Compressing and writing are taken from the {@link CounterMonitor}, so they include chunks the game saved
+     * at the same time.
+     */
+    public String getStatus() {
+        int stored = handedToStorage + alreadyStored.get() + loadedByGame.get();
+        double seconds = (System.nanoTime() - startTime) / 1e9;
+        StringBuilder status = new StringBuilder();
+        status.append(String.format("%d of %d chunks done (%d were already stored, %d loaded by the game)", stored,
+                region.size().x * region.size().y * region.size().z, alreadyStored.get(), loadedByGame.get()));
+        status.append(String.format(", %.1f chunks/s", handedToStorage / seconds));
+        status.append(String.format(" - facets: %.1f", getStageRate(Stage.FACETS)));
+        status.append(String.format(", rasterize: %.1f", getStageRate(Stage.RASTERIZE)));
+        long written = CounterMonitor.get(SaveTransaction.CHUNKS_WRITTEN_COUNTER) - startChunksWritten;
+        status.append(String.format(", compress: %.1f", getRate(written,
+                CounterMonitor.get(SaveTransaction.CHUNK_COMPRESSION_TIME_COUNTER) - startCompressionTime,
+                TimeUnit.MICROSECONDS)));
+        status.append(String.format(", write: %.1f chunks/s", getRate(written,
+                CounterMonitor.get(SaveTransaction.CHUNKS_TIME_COUNTER) - startChunksTime, TimeUnit.MILLISECONDS)));
+        if (failure != null) {
+            status.append(" - failed: ").append(failure.getMessage());
+        } else if (cancelled) {
+            status.append(" - cancelled");
+        }
+        return status.toString();
+    }
+
+    private double getStageRate(Stage stage) {
+        return getRate(stageChunks[stage.ordinal()].sum(), stageTimes[stage.ordinal()].sum(), TimeUnit.NANOSECONDS);
+    }
+
+    private static double getRate(long chunks, long time, TimeUnit unit) {
+        if (time <= 0) {
+            return 0;
+        }
+        return chunks / (unit.toNanos(time) / 1e9);
+    }
+
+    private void run() {
+        ChunkGenerationPipeline pipeline = new ChunkGenerationPipeline(TERMINATE_SIGNAL_FIRST, parallelism);
+        try {
+            if (generator instanceof BaseFacetedWorldGenerator) {
+                facets = generator.getWorld().getAllFacets();
+            }
+            for (int x = region.minX(); x <= region.maxX(); x++) {
+                if (cancelled) {
+                    throw new InterruptedException();
+                }
+                for (GeneratedChunk generatedChunk : generateSlab(pipeline, x)) {
+                    finishedChunks.put(generatedChunk);
+                }
+            }
+            logger.info("Pre-generation of {} finished: {}", region, getStatus());
+        } catch (InterruptedException e) {
+            logger.info("Pre-generation of {} cancelled: {}", region, getStatus());
+        } catch (RuntimeException e) {
+            failure = e;
+            logger.error("Pre-generation of {} failed", region, e);
+        } finally {
+            pipeline.shutdown();
+            done = true;
+        }
+    }
+
+    private List<GeneratedChunk> generateSlab(ChunkGenerationPipeline pipeline, int x) throws InterruptedException {
+        Region3i slab = Region3i.createFromMinMax(new Vector3i(x, region.minY(), region.minZ()),
+                new Vector3i(x, region.maxY(), region.maxZ()));
+        Queue<GeneratedChunk> generatedChunks = Queues.newConcurrentLinkedQueue();
+        CountDownLatch generated = new CountDownLatch(slab.sizeY() * slab.sizeZ());
+        for (Vector3i pos : slab) {
+            pipeline.doTask(new AbstractChunkTask(pos) {
+                @Override
+                public String getName() {
+                    return "Pre-generate Chunk";
+                }
+
+                @Override
+                public void run() {
+                    try {
+                        GeneratedChunk generatedChunk = generateChunk(getPosition());
+                        if (generatedChunk != null) {
+                            generatedChunks.add(generatedChunk);
+                        }
+                    } catch (RuntimeException e) {
+                        failure = e;
+                    } finally {
+                        generated.countDown();
+                    }
+                }
+            });
+        }
+        generated.await();
+        if (failure != null) {
+            throw failure;
+        }
+        return Lists.newArrayList(generatedChunks);
+    }
+
+    /**
+     * @return the generated chunk, or null if the game has loaded the chunk or the storage manager has it already.
+     */
+    private GeneratedChunk generateChunk(Vector3i pos) {
+        if (liveChunkProvider.isChunkLoadedOrLoading(pos)) {
+            loadedByGame.incrementAndGet();
+            return null;
+        }
+        if (storageManager.loadChunkStore(pos) != null) {
+            alreadyStored.incrementAndGet();
+            return null;
+        }
+        Chunk chunk = new ChunkImpl(pos, blockManager, biomeManager);
+        EntityBufferImpl buffer = new EntityBufferImpl();
+        generate(chunk, buffer);
+        chunk.deflate();
+        return new GeneratedChunk(chunk, buffer.getAll());
+    }
+
+    /**
+     * Faceted world generators get their facets requested before rasterizing, so that the facet providers and the
+     * rasterizers can be timed separately.
+     */
+    private void generate(Chunk chunk, EntityBufferImpl buffer) {
+        long start = System.nanoTime();
+        if (generator instanceof BaseFacetedWorldGenerator) {
+            World world = generator.getWorld();
+            Region chunkRegion = world.getWorldData(chunk.getRegion());
+            for (Class<? extends WorldFacet> facet : facets) {
+                chunkRegion.getFacet(facet);
+            }
+            start = recordStage(Stage.FACETS, start);
+            world.rasterizeChunk(chunk, chunkRegion, buffer);
+        } else {
+            generator.createChunk(chunk, buffer);
+        }
+        recordStage(Stage.RASTERIZE, start);
+    }
+
+    /**
+     * @return the end time of the stage
+     */
+    private long recordStage(Stage stage, long start) {
+        long end = System.nanoTime();
+        stageTimes[stage.ordinal()].add(end - start);
+        stageChunks[stage.ordinal()].increment();
+        return end;
+    }
+
+    private static final class GeneratedChunk {
+        private final Chunk chunk;
+        private final List<EntityStore> entities;
+
+        GeneratedChunk(Chunk chunk, List<EntityStore> entities) {
+            this.chunk = chunk;
+            this.entities = entities;
+        }
+    }
+}
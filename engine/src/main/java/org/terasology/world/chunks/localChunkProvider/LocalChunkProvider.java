@@ -36,6 +36,7 @@
 import org.terasology.math.Side;
 import org.terasology.math.TeraMath;
 import org.terasology.math.geom.Vector3i;
+import org.terasology.monitoring.CounterMonitor;
 import org.terasology.monitoring.PerformanceMonitor;
 import org.terasology.monitoring.chunk.ChunkMonitor;
 import org.terasology.persistence.ChunkStore;
@@ -79,6 +80,7 @@
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.locks.ReadWriteLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 
@@ -86,6 +88,8 @@
  */
 public class LocalChunkProvider implements GeneratingChunkProvider {
 
+    public static final long DEFAULT_INTEGRATION_BUDGET = 3000;
+
     private static final Logger logger = LoggerFactory.getLogger(LocalChunkProvider.class);
     private static final int UNLOAD_PER_FRAME = 64;
     private static final Vector3i UNLOAD_LEEWAY = Vector3i.one();
@@ -101,9 +105,13 @@ public class LocalChunkProvider implements GeneratingChunkProvider {
 
     private Map<Vector3i, Chunk> nearCache = Maps.newConcurrentMap();
 
-    private final Set<Vector3i> preparingChunks = Sets.newHashSet();
+    private final Set<Vector3i> preparingChunks = Sets.newConcurrentHashSet();
     private final BlockingQueue<ReadyChunkInfo> readyChunks = Queues.newLinkedBlockingQueue();
     private List<ReadyChunkInfo> sortedReadyChunks = Lists.newArrayList();
+    private final ReadyChunkRelevanceComparator readyChunkComparator = new ReadyChunkRelevanceComparator();
+    private boolean readyChunksOutOfOrder;
+    private final Map<Vector3i, ReadyChunkInfo> mergedChunks = Maps.newLinkedHashMap();
+    private long integrationBudget = DEFAULT_INTEGRATION_BUDGET;
     private final BlockingQueue<TShortObjectMap<TIntList>> deactivateBlocksQueue = Queues.newLinkedBlockingQueue();
 
     private EntityRef worldEntity = EntityRef.NULL;
@@ -132,6 +140,15 @@ public void setBlockEntityRegistry(BlockEntityRegistry value) {
         this.registry = value;
     }
 
+    /**
+     * @param microseconds the time per frame that may be spent sending the events and creating the entities of chunks
+     *                     with merged lighting. At least one chunk is integrated per frame, no matter how small the
+     *                     budget is. Chunks with merged lighting are marked ready right away regardless of the budget.
+     */
+    public void setIntegrationBudget(long microseconds) {
+        this.integrationBudget = microseconds;
+    }
+
     @Override
     public ChunkViewCore getLocalView(Vector3i centerChunkPos) {
         Region3i region = Region3i.createFromCenterExtents(centerChunkPos, ChunkConstants.LOCAL_REGION_EXTENTS);
@@ -206,6 +223,8 @@ public void addRelevanceEntity(EntityRef entity, Vector3i distance, ChunkRegionL
         } finally {
             regionLock.writeLock().unlock();
         }
+        pipeline.reprioritize();
+        readyChunksOutOfOrder = true;
         for (Vector3i pos : region.getCurrentRegion()) {
             Chunk chunk = getChunk(pos);
             if (chunk != null) {
@@ -237,52 +256,78 @@ public void removeRelevanceEntity(EntityRef entity) {
         } finally {
             regionLock.writeLock().unlock();
         }
+        pipeline.reprioritize();
+        readyChunksOutOfOrder = true;
     }
 
     @Override
     public void completeUpdate() {
-        ReadyChunkInfo readyChunkInfo = lightMerger.completeMerge();
-        if (readyChunkInfo != null) {
+        // Merges of neighbouring chunks push their light only into ready chunks, so every merged chunk has to become
+        // ready before the next merges start. Only the events and entities of the chunks are deferred.
+        for (ReadyChunkInfo readyChunkInfo : lightMerger.completeMerges()) {
             Chunk chunk = readyChunkInfo.getChunk();
-            chunk.markReady();
-            updateAdjacentChunksReadyFieldOf(chunk);
-            updateAdjacentChunksReadyFieldOfAdjChunks(chunk);
-
-            if (readyChunkInfo.isNewChunk()) {
-                PerformanceMonitor.startActivity("Generating queued Entities");
-                readyChunkInfo.getEntities().forEach(this::generateQueuedEntities);
-                PerformanceMonitor.endActivity();
+            if (nearCache.get(readyChunkInfo.getPos()) == chunk) {
+                chunk.markReady();
+                updateAdjacentChunksReadyFieldOf(chunk);
+                updateAdjacentChunksReadyFieldOfAdjChunks(chunk);
+                mergedChunks.put(readyChunkInfo.getPos(), readyChunkInfo);
             }
-
-            if (readyChunkInfo.getChunkStore() != null) {
-                readyChunkInfo.getChunkStore().restoreEntities();
+        }
+        long deadline = System.nanoTime() + TimeUnit.MICROSECONDS.toNanos(integrationBudget);
+        int integrated = 0;
+        Iterator<ReadyChunkInfo> iterator = mergedChunks.values().iterator();
+        while (iterator.hasNext()) {
+            ReadyChunkInfo readyChunkInfo = iterator.next();
+            iterator.remove();
+            integrateChunk(readyChunkInfo);
+            integrated++;
+            if (System.nanoTime() >= deadline) {
+                break;
             }
+        }
+        if (integrated > 0) {
+            CounterMonitor.add("World - Chunks integrated", integrated);
+        }
+    }
 
-            if (!readyChunkInfo.isNewChunk()) {
-                PerformanceMonitor.startActivity("Sending OnAddedBlocks");
-                readyChunkInfo.getBlockPositionMapppings().forEachEntry((id, positions) -> {
-                    if (positions.size() > 0) {
-                        blockManager.getBlock(id).getEntity().send(new OnAddedBlocks(positions, registry));
-                    }
-                    return true;
-                });
-                PerformanceMonitor.endActivity();
-            }
+    /**
+     * Sends the events and creates the entities of a chunk that has been marked ready after its lighting was merged.
+     */
+    private void integrateChunk(ReadyChunkInfo readyChunkInfo) {
+        if (readyChunkInfo.isNewChunk()) {
+            PerformanceMonitor.startActivity("Generating queued Entities");
+            readyChunkInfo.getEntities().forEach(this::generateQueuedEntities);
+            PerformanceMonitor.endActivity();
+        }
+
+        if (readyChunkInfo.getChunkStore() != null) {
+            readyChunkInfo.getChunkStore().restoreEntities();
+        }
 
-            PerformanceMonitor.startActivity("Sending OnActivateBlocks");
+        if (!readyChunkInfo.isNewChunk()) {
+            PerformanceMonitor.startActivity("Sending OnAddedBlocks");
             readyChunkInfo.getBlockPositionMapppings().forEachEntry((id, positions) -> {
                 if (positions.size() > 0) {
-                    blockManager.getBlock(id).getEntity().send(new OnActivatedBlocks(positions, registry));
+                    blockManager.getBlock(id).getEntity().send(new OnAddedBlocks(positions, registry));
                 }
                 return true;
             });
             PerformanceMonitor.endActivity();
+        }
 
-            if (readyChunkInfo.isNewChunk()) {
-                worldEntity.send(new OnChunkGenerated(readyChunkInfo.getPos()));
+        PerformanceMonitor.startActivity("Sending OnActivateBlocks");
+        readyChunkInfo.getBlockPositionMapppings().forEachEntry((id, positions) -> {
+            if (positions.size() > 0) {
+                blockManager.getBlock(id).getEntity().send(new OnActivatedBlocks(positions, registry));
             }
-            worldEntity.send(new OnChunkLoaded(readyChunkInfo.getPos()));
+            return true;
+        });
+        PerformanceMonitor.endActivity();
+
+        if (readyChunkInfo.isNewChunk()) {
+            worldEntity.send(new OnChunkGenerated(readyChunkInfo.getPos()));
         }
+        worldEntity.send(new OnChunkLoaded(readyChunkInfo.getPos()));
     }
 
     private void generateQueuedEntities(EntityStore store) {
@@ -319,18 +364,21 @@ private void makeChunksAvailable() {
             preparingChunks.remove(readyChunkInfo.getPos());
         }
         updateRelevanceRegionsWithNewChunks(newReadyChunks);
-        if (!newReadyChunks.isEmpty()) {
-            sortedReadyChunks.addAll(newReadyChunks);
-            Collections.sort(sortedReadyChunks, new ReadyChunkRelevanceComparator());
+        if (readyChunksOutOfOrder) {
+            Collections.sort(sortedReadyChunks, readyChunkComparator);
+            readyChunksOutOfOrder = false;
         }
+        for (ReadyChunkInfo readyChunkInfo : newReadyChunks) {
+            int index = Collections.binarySearch(sortedReadyChunks, readyChunkInfo, readyChunkComparator);
+            sortedReadyChunks.add(index < 0 ? -index - 1 : index, readyChunkInfo);
+        }
+        lightMerger.startMerges();
         if (!sortedReadyChunks.isEmpty()) {
-            boolean loaded = false;
-            for (int i = sortedReadyChunks.size() - 1; i >= 0 && !loaded; i--) {
+            for (int i = sortedReadyChunks.size() - 1; i >= 0 && !lightMerger.isSaturated(); i--) {
                 ReadyChunkInfo chunkInfo = sortedReadyChunks.get(i);
                 PerformanceMonitor.startActivity("Make Chunk Available");
                 if (makeChunkAvailable(chunkInfo)) {
                     sortedReadyChunks.remove(i);
-                    loaded = true;
                 }
                 PerformanceMonitor.endActivity();
             }
@@ -372,7 +420,7 @@ private void checkForUnload() {
                     break;
                 }
             }
-            if (!keep) {
+            if (!keep && !lightMerger.isMerging(pos) && !mergedChunks.containsKey(pos)) {
                 // TODO: need some way to not dispose chunks being edited or processed (or do so safely)
                 // Note: Above won't matter if all changes are on the main thread
                 if (unloadChunkInternal(pos)) {
@@ -388,6 +436,10 @@ private void checkForUnload() {
 
     private boolean unloadChunkInternal(Vector3i pos) {
         Chunk chunk = nearCache.get(pos);
+        if (mergedChunks.remove(pos) != null) {
+            // The entities of the chunk haven't been restored yet, so storing the chunk would lose them.
+            return true;
+        }
         if (!chunk.isReady()) {
             // Chunk hasn't been finished or changed, so just drop it.
             Iterator<ReadyChunkInfo> infoIterator = sortedReadyChunks.iterator();
@@ -447,9 +499,11 @@ private void updateAdjacentChunksReadyFieldOfAdjChunks(Chunk chunkInCenter) {
 
 
     private void updateRelevance() {
+        boolean regionsChanged = false;
         for (ChunkRelevanceRegion chunkRelevanceRegion : regions.values()) {
             chunkRelevanceRegion.update();
             if (chunkRelevanceRegion.isDirty()) {
+                regionsChanged = true;
                 for (Vector3i pos : chunkRelevanceRegion.getNeededChunks()) {
                     Chunk chunk = nearCache.get(pos);
                     if (chunk != null) {
@@ -461,6 +515,10 @@ private void updateRelevance() {
                 chunkRelevanceRegion.setUpToDate();
             }
         }
+        if (regionsChanged) {
+            pipeline.reprioritize();
+            readyChunksOutOfOrder = true;
+        }
     }
 
     private boolean makeChunkAvailable(final ReadyChunkInfo readyChunkInfo) {
@@ -554,7 +612,7 @@ public void dispose() {
 
     @Override
     public boolean reloadChunk(Vector3i coords) {
-        if (!nearCache.containsKey(coords)) {
+        if (!nearCache.containsKey(coords) || lightMerger.isMerging(coords) || mergedChunks.containsKey(coords)) {
             return false;
         }
 
@@ -582,6 +640,7 @@ public void purgeWorld() {
         nearCache.clear();
         readyChunks.clear();
         sortedReadyChunks.clear();
+        mergedChunks.clear();
         storageManager.deleteWorld();
         preparingChunks.clear();
         worldEntity.send(new PurgeWorldEvent());
@@ -647,6 +706,14 @@ public boolean isChunkReady(Vector3i pos) {
         return isChunkReady(nearCache.get(pos));
     }
 
+    /**
+     * @return whether the chunk is loaded, or getting loaded or generated. Until the chunk gets unloaded, its stored
+     * version must not be replaced.
+     */
+    public boolean isChunkLoadedOrLoading(Vector3i pos) {
+        return nearCache.containsKey(pos) || preparingChunks.contains(pos);
+    }
+
     private boolean isChunkReady(Chunk chunk) {
         return chunk != null && chunk.isReady();
     }
@@ -31,7 +31,14 @@ public class ChunkGenerationPipeline {
     private TaskMaster<ChunkTask> chunkGenerator;
 
     public ChunkGenerationPipeline(Comparator<ChunkTask> taskComparator) {
-        chunkGenerator = TaskMaster.createDynamicPriorityTaskMaster("Chunk-Generator", NUM_TASK_THREADS, taskComparator);
+        this(taskComparator, NUM_TASK_THREADS);
+    }
+
+    /**
+     * @param numThreads the number of threads that process chunk tasks.
+     */
+    public ChunkGenerationPipeline(Comparator<ChunkTask> taskComparator, int numThreads) {
+        chunkGenerator = TaskMaster.createReprioritizableTaskMaster("Chunk-Generator", numThreads, taskComparator);
     }
 
     public void doTask(ChunkTask task) {
@@ -42,6 +49,13 @@ public void doTask(ChunkTask task) {
         }
     }
 
+    /**
+     * Has to be called when the state the task comparator depends on changed (e.g. a relevance region moved).
+     */
+    public void reprioritize() {
+        chunkGenerator.reprioritize();
+    }
+
     public void shutdown() {
         chunkGenerator.shutdown(new ShutdownChunkTask(), false);
     }
@@ -59,9 +59,8 @@
  */
 public class RemoteChunkProvider implements ChunkProvider, GeneratingChunkProvider {
 
-    private static final int LOAD_PER_FRAME = 1;
     private static final Logger logger = LoggerFactory.getLogger(RemoteChunkProvider.class);
-    private Map<Vector3i, Chunk> chunkCache = Maps.newHashMap();
+    private Map<Vector3i, Chunk> chunkCache = Maps.newConcurrentMap();
     private final BlockingQueue<Chunk> readyChunks = Queues.newLinkedBlockingQueue();
     private List<Chunk> sortedReadyChunks = Lists.newArrayList();
     private ChunkReadyListener listener;
@@ -74,6 +73,7 @@ public class RemoteChunkProvider implements ChunkProvider, GeneratingChunkProvid
     private LightMerger<Chunk> lightMerger = new LightMerger<>(this);
 
     private LocalPlayer localPlayer;
+    private Vector3i lastPlayerChunkPos;
 
     public RemoteChunkProvider(BlockManager blockManager, LocalPlayer localPlayer) {
         this.blockManager = blockManager;
@@ -112,6 +112,11 @@ public void invalidateChunks(Vector3i pos) {
 
     @Override
     public void beginUpdate() {
+        Vector3i playerChunkPos = ChunkMath.calcChunkPos(new Vector3i(localPlayer.getPosition(), RoundingMode.HALF_UP));
+        if (!playerChunkPos.equals(lastPlayerChunkPos)) {
+            lastPlayerChunkPos = playerChunkPos;
+            pipeline.reprioritize();
+        }
         if (listener != null) {
             List<Chunk> newReadyChunks = Lists.newArrayList();
             readyChunks.drainTo(newReadyChunks);
@@ -126,14 +131,13 @@ public void beginUpdate() {
                     }
                 }
             }
+            lightMerger.startMerges();
             if (!sortedReadyChunks.isEmpty()) {
-                int loaded = 0;
-                for (int i = sortedReadyChunks.size() - 1; i >= 0 && loaded < LOAD_PER_FRAME; i--) {
+                for (int i = sortedReadyChunks.size() - 1; i >= 0 && !lightMerger.isSaturated(); i--) {
                     Chunk chunkInfo = sortedReadyChunks.get(i);
                     PerformanceMonitor.startActivity("Make Chunk Available");
                     if (makeChunkAvailable(chunkInfo)) {
                         sortedReadyChunks.remove(i);
-                        loaded++;
                     }
                     PerformanceMonitor.endActivity();
                 }
@@ -265,8 +269,11 @@ public void removeRelevanceEntity(EntityRef entity) {
 
     @Override
     public void completeUpdate() {
-        Chunk chunk = lightMerger.completeMerge();
-        if (chunk != null) {
+        for (Chunk chunk : lightMerger.completeMerges()) {
+            if (chunkCache.get(chunk.getPosition()) != chunk) {
+                // The chunk got invalidated or replaced while its lighting was merged
+                continue;
+            }
             chunk.markReady();
             updateAdjacentChunksReadyFieldOf(chunk);
             updateAdjacentChunksReadyFieldOfAdjChunks(chunk);
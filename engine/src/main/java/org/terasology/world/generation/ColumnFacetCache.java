@@ -0,0 +1,120 @@
+/*
+ * Copyright 2016 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.world.generation;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.ImmutableListMultimap;
+import com.google.common.collect.ListMultimap;
+import org.terasology.math.geom.Rect2i;
+import org.terasology.monitoring.CounterMonitor;
+
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Shares column invariant facets (see {@link Produces#columnInvariant()}) between the regions of chunks that are
+ * stacked on top of each other. The 2D facets of such regions cover the same x/z area, so they only need to be
+ * generated once per column instead of once per chunk.
+ * <p>
+ * A facet is only cached if every provider in its chain is column invariant and the providers that produce or update it
+ * do not contribute to any other facet. Cached facets are shared between threads and must be treated as read-only.
+ */
+public final class ColumnFacetCache {
+    public static final int DEFAULT_SIZE = 512;
+
+    private static final String HITS_COUNTER = "World generation - Column facet cache hits";
+    private static final String MISSES_COUNTER = "World generation - Column facet cache misses";
+
+    private final Cache<Key, WorldFacet> cache;
+    private final ListMultimap<Class<? extends WorldFacet>, FacetProvider> contributors;
+
+    /**
+     * @param maximumSize  the maximum number of cached facets
+     * @param contributors the cacheable facets, mapped to the providers that produce or update them
+     */
+    ColumnFacetCache(int maximumSize, ListMultimap<Class<? extends WorldFacet>, FacetProvider> contributors) {
+        this.cache = CacheBuilder.newBuilder().maximumSize(maximumSize).build();
+        this.contributors = ImmutableListMultimap.copyOf(contributors);
+    }
+
+    public boolean isCacheable(Class<? extends WorldFacet> type) {
+        return contributors.containsKey(type);
+    }
+
+    /**
+     * @param type the cacheable facet type
+     * @return the providers that produce or update the given facet type
+     */
+    public List<FacetProvider> getContributors(Class<? extends WorldFacet> type) {
+        return contributors.get(type);
+    }
+
+    /**
+     * @param type the facet type
+     * @param area the x/z area covered by the facet, including its border
+     * @return the cached facet or null if there is none
+     */
+    public <T extends WorldFacet> T get(Class<T> type, Rect2i area) {
+        T facet = type.cast(cache.getIfPresent(new Key(type, area)));
+        CounterMonitor.increment(facet != null ? HITS_COUNTER : MISSES_COUNTER);
+        return facet;
+    }
+
+    /**
+     * @param type  the facet type
+     * @param area  the x/z area covered by the facet, including its border
+     * @param facet the fully generated facet, it must not be modified anymore
+     */
+    public <T extends WorldFacet> void put(Class<T> type, Rect2i area, T facet) {
+        cache.put(new Key(type, area), facet);
+    }
+
+    public long size() {
+        return cache.size();
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    private static final class Key {
+        private final Class<? extends WorldFacet> type;
+        private final Rect2i area;
+
+        Key(Class<? extends WorldFacet> type, Rect2i area) {
+            this.type = type;
+            this.area = area;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (obj instanceof Key) {
+                Key other = (Key) obj;
+                return type == other.type && Objects.equals(area, other.area);
+            }
+            return false;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(type, area);
+        }
+    }
+}
@@ -0,0 +1,114 @@
+/*
+ * Copyright 2016 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.world.generation;
+
+import com.google.common.base.Throwables;
+import com.google.common.collect.ImmutableListMultimap;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.ListMultimap;
+import com.google.common.collect.Maps;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Consumer;
+
+/**
+ * The dependencies between the facet providers of each provider chain, as determined from their {@link Requires},
+ * {@link Produces} and {@link Updates} annotations. A provider depends on an earlier provider of the chain if it reads
+ * a facet the earlier one writes, or if both write the same facet. Providers without such a dependency touch disjoint
+ * facets and can run concurrently, which gives the same result as running the chain in order.
+ */
+public final class FacetProviderGraph {
+
+    private final Map<Class<? extends WorldFacet>, ListMultimap<FacetProvider, FacetProvider>> dependencies;
+    private final Map<FacetProvider, Set<Class<? extends WorldFacet>>> writtenFacets;
+    private final ForkJoinPool pool;
+
+    /**
+     * @param dependencies   for every facet, the providers of its chain mapped to the earlier providers they depend on
+     * @param writtenFacets  the facets each provider declares to produce or update
+     * @param pool           the pool to run independent providers on, or null to always run them in order
+     */
+    FacetProviderGraph(Map<Class<? extends WorldFacet>, ListMultimap<FacetProvider, FacetProvider>> dependencies,
+                       Map<FacetProvider, Set<Class<? extends WorldFacet>>> writtenFacets, ForkJoinPool pool) {
+        this.dependencies = Maps.newHashMap();
+        dependencies.forEach((facet, chainDependencies) -> this.dependencies.put(facet, ImmutableListMultimap.copyOf(chainDependencies)));
+        this.writtenFacets = Maps.newHashMap();
+        writtenFacets.forEach((provider, facets) -> this.writtenFacets.put(provider, ImmutableSet.copyOf(facets)));
+        this.pool = pool;
+    }
+
+    /**
+     * @param facet    the facet whose provider chain is processed
+     * @param provider a provider of that chain
+     * @return the earlier providers of the chain that must have finished before the given one can run
+     */
+    public List<FacetProvider> getDependencies(Class<? extends WorldFacet> facet, FacetProvider provider) {
+        ListMultimap<FacetProvider, FacetProvider> chainDependencies = dependencies.get(facet);
+        if (chainDependencies == null) {
+            return Collections.emptyList();
+        }
+        return chainDependencies.get(provider);
+    }
+
+    /**
+     * @return whether the provider declares to produce or update the given facet with {@link Produces} or {@link Updates}
+     */
+    public boolean declaresWrite(FacetProvider provider, Class<? extends WorldFacet> facet) {
+        Set<Class<? extends WorldFacet>> written = writtenFacets.get(provider);
+        return written != null && written.contains(facet);
+    }
+
+    /**
+     * Runs the pending providers of a facet chain. Independent providers are run concurrently on the pool as long as it
+     * has idle workers; when it is busy (e.g. many chunks are generated at once) they run in order on the calling thread
+     * instead, so that the overhead is only paid when it reduces the latency.
+     *
+     * @param facet   the facet whose provider chain is processed
+     * @param pending the providers that still need to run, in chain order
+     * @param action  runs a single provider
+     */
+    void process(Class<? extends WorldFacet> facet, Collection<FacetProvider> pending, Consumer<FacetProvider> action) {
+        if (pool == null || pending.size() < 2 || !hasIdleWorkers()) {
+            pending.forEach(action);
+            return;
+        }
+
+        Map<FacetProvider, CompletableFuture<Void>> tasks = Maps.newHashMap();
+        for (FacetProvider provider : pending) {
+            CompletableFuture<?>[] required = getDependencies(facet, provider).stream()
+                    .map(tasks::get)
+                    .filter(task -> task != null)
+                    .toArray(CompletableFuture[]::new);
+            tasks.put(provider, CompletableFuture.allOf(required).thenRunAsync(() -> action.accept(provider), pool));
+        }
+        try {
+            CompletableFuture.allOf(tasks.values().toArray(new CompletableFuture[tasks.size()])).join();
+        } catch (CompletionException e) {
+            throw Throwables.propagate(e.getCause());
+        }
+    }
+
+    private boolean hasIdleWorkers() {
+        return pool.getQueuedSubmissionCount() == 0 && pool.getActiveThreadCount() < pool.getParallelism();
+    }
+}
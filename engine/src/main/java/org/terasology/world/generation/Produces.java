@@ -26,4 +26,13 @@
 @Target(ElementType.TYPE)
 public @interface Produces {
     Class<? extends WorldFacet>[] value();
+
+    /**
+     * Declares that the produced facets only depend on the x/z extent of the region, so that they are identical for
+     * all chunks stacked on top of each other. Such facets may be shared between regions through the
+     * {@link ColumnFacetCache}, providers of column invariant facets must therefore never modify them once produced.
+     *
+     * @return true if the produced facets do not depend on the vertical extent of the region
+     */
+    boolean columnInvariant() default false;
 }
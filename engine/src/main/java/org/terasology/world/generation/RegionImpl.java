@@ -16,12 +16,17 @@
 package org.terasology.world.generation;
 
 import com.google.common.collect.ListMultimap;
+import com.google.common.collect.Maps;
 import com.google.common.collect.Sets;
 import org.terasology.math.Region3i;
+import org.terasology.math.geom.Rect2i;
 import org.terasology.utilities.collection.TypeMap;
 
+import java.util.Collections;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.stream.Collectors;
 
 /**
  */
@@ -30,31 +35,75 @@ public class RegionImpl implements Region, GeneratingRegion {
     private final Region3i region;
     private final ListMultimap<Class<? extends WorldFacet>, FacetProvider> facetProviderChains;
     private final Map<Class<? extends WorldFacet>, Border3D> borders;
+    private final ColumnFacetCache columnFacetCache;
+    private final FacetProviderGraph providerGraph;
 
-    private final TypeMap<WorldFacet> generatingFacets = TypeMap.create();
-    private final Set<FacetProvider> processedProviders = Sets.newHashSet();
+    // providers of the same chain may run concurrently
+    private final TypeMap<WorldFacet> generatingFacets = TypeMap.create(Collections.synchronizedMap(Maps.newHashMap()));
+    private final Set<FacetProvider> processedProviders = Sets.newConcurrentHashSet();
     private final TypeMap<WorldFacet> generatedFacets = TypeMap.create();
 
     public RegionImpl(Region3i region, ListMultimap<Class<? extends WorldFacet>, FacetProvider> facetProviderChains, Map<Class<? extends WorldFacet>, Border3D> borders) {
+        this(region, facetProviderChains, borders, null, null);
+    }
+
+    /**
+     * @param columnFacetCache the cache to share column invariant facets with the regions above and below, or null
+     * @param providerGraph    the dependencies between the providers of each chain, used to run independent providers
+     *                         concurrently and to validate the facets they set. If null, providers run in chain order.
+     */
+    public RegionImpl(Region3i region, ListMultimap<Class<? extends WorldFacet>, FacetProvider> facetProviderChains, Map<Class<? extends WorldFacet>, Border3D> borders,
+                      ColumnFacetCache columnFacetCache, FacetProviderGraph providerGraph) {
         this.region = region;
         this.facetProviderChains = facetProviderChains;
         this.borders = borders;
+        this.columnFacetCache = columnFacetCache;
+        this.providerGraph = providerGraph;
     }
 
     @Override
     public <T extends WorldFacet> T getFacet(Class<T> dataType) {
         T facet = generatedFacets.get(dataType);
         if (facet == null) {
-            facetProviderChains.get(dataType).stream().filter(provider -> !processedProviders.contains(provider)).forEach(provider -> {
-                provider.process(this);
-                processedProviders.add(provider);
-            });
+            // a facet that is partially generated already cannot be swapped for the cached one anymore
+            Rect2i columnArea = null;
+            if (columnFacetCache != null && columnFacetCache.isCacheable(dataType) && generatingFacets.get(dataType) == null) {
+                columnArea = getBorderForFacet(dataType).expandTo2D(region);
+                facet = columnFacetCache.get(dataType, columnArea);
+                if (facet != null) {
+                    // the providers of the cached facet must not run again, they would modify the shared instance
+                    processedProviders.addAll(columnFacetCache.getContributors(dataType));
+                    generatingFacets.put(dataType, facet);
+                    generatedFacets.put(dataType, facet);
+                    return facet;
+                }
+            }
+            List<FacetProvider> pending = facetProviderChains.get(dataType).stream()
+                    .filter(provider -> !processedProviders.contains(provider))
+                    .collect(Collectors.toList());
+            if (providerGraph != null) {
+                providerGraph.process(dataType, pending, this::process);
+            } else {
+                pending.forEach(this::process);
+            }
             facet = generatingFacets.get(dataType);
             generatedFacets.put(dataType, facet);
+            if (columnArea != null && facet != null) {
+                columnFacetCache.put(dataType, columnArea, facet);
+            }
         }
         return facet;
     }
 
+    private void process(FacetProvider provider) {
+        if (providerGraph != null) {
+            provider.process(new ProviderRegion(provider));
+        } else {
+            provider.process(this);
+        }
+        processedProviders.add(provider);
+    }
+
     @Override
     public Region3i getRegion() {
         return region;
@@ -79,4 +128,39 @@ public Border3D getBorderForFacet(Class<? extends WorldFacet> type) {
             return new Border3D(0, 0, 0);
         }
     }
+
+    /**
+     * The view of the region for a single provider, rejects facets that the provider does not declare to produce or update.
+     */
+    private final class ProviderRegion implements GeneratingRegion {
+        private final FacetProvider provider;
+
+        ProviderRegion(FacetProvider provider) {
+            this.provider = provider;
+        }
+
+        @Override
+        public Region3i getRegion() {
+            return region;
+        }
+
+        @Override
+        public <T extends WorldFacet> T getRegionFacet(Class<T> type) {
+            return RegionImpl.this.getRegionFacet(type);
+        }
+
+        @Override
+        public <T extends WorldFacet> void setRegionFacet(Class<T> type, T facet) {
+            if (!providerGraph.declaresWrite(provider, type)) {
+                throw new IllegalStateException(provider.getClass().getName() + " sets " + type.getSimpleName()
+                        + " without declaring it in @Produces or @Updates");
+            }
+            RegionImpl.this.setRegionFacet(type, facet);
+        }
+
+        @Override
+        public Border3D getBorderForFacet(Class<? extends WorldFacet> type) {
+            return RegionImpl.this.getBorderForFacet(type);
+        }
+    }
 }
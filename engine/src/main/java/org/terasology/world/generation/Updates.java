@@ -26,4 +26,9 @@
 @Target(ElementType.TYPE)
 public @interface Updates {
     Facet[] value();
+
+    /**
+     * @return true if the updates only depend on the x/z extent of the region, see {@link Produces#columnInvariant()}
+     */
+    boolean columnInvariant() default false;
 }
@@ -34,6 +34,16 @@ public interface World {
 
     void rasterizeChunk(CoreChunk chunk, EntityBuffer buffer);
 
+    /**
+     * Rasterizes the chunk using facets that have already been requested from the given region, e.g. to measure the
+     * facet providers and the rasterizers separately.
+     *
+     * @param chunkRegion the result of {@link #getWorldData(Region3i)} for the region of the chunk.
+     */
+    default void rasterizeChunk(CoreChunk chunk, Region chunkRegion, EntityBuffer buffer) {
+        rasterizeChunk(chunk, buffer);
+    }
+
     /**
      * @return a <b>new</b> set containing all facet classes
      */
@@ -31,6 +31,7 @@
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
 
 /**
  */
@@ -43,6 +44,8 @@ public class WorldBuilder {
     private final List<WorldRasterizer> rasterizers = Lists.newArrayList();
     private final List<EntityProvider> entityProviders = new ArrayList<>();
     private int seaLevel = 32;
+    private int columnFacetCacheSize = ColumnFacetCache.DEFAULT_SIZE;
+    private ForkJoinPool providerPool = ForkJoinPool.commonPool();
     private Long seed;
 
     private WorldGeneratorPluginLibrary pluginLibrary;
@@ -83,6 +86,25 @@ public WorldBuilder setSeaLevel(int level) {
         return this;
     }
 
+    /**
+     * @param size the maximum number of column invariant facets that are shared between vertically stacked regions,
+     *             0 disables sharing
+     * @return this
+     */
+    public WorldBuilder setColumnFacetCacheSize(int size) {
+        this.columnFacetCacheSize = size;
+        return this;
+    }
+
+    /**
+     * @param pool the pool to run independent facet providers of a region on concurrently, null runs them in order
+     * @return this
+     */
+    public WorldBuilder setFacetProviderPool(ForkJoinPool pool) {
+        this.providerPool = pool;
+        return this;
+    }
+
     public void setSeed(long seed) {
         this.seed = seed;
     }
@@ -97,7 +119,117 @@ public World build() {
             provider.setSeed(seed);
         }
         ListMultimap<Class<? extends WorldFacet>, FacetProvider> providerChains = determineProviderChains();
-        return new WorldImpl(providerChains, rasterizers, entityProviders, determineBorders(providerChains), seaLevel);
+        ColumnFacetCache columnFacetCache = null;
+        if (columnFacetCacheSize > 0) {
+            columnFacetCache = new ColumnFacetCache(columnFacetCacheSize, determineColumnInvariantFacets(providerChains));
+        }
+        return new WorldImpl(providerChains, rasterizers, entityProviders, determineBorders(providerChains), columnFacetCache,
+                determineProviderGraph(providerChains), seaLevel);
+    }
+
+    /**
+     * Within every provider chain, a provider depends on each earlier provider that writes a facet it reads or writes,
+     * or that reads a facet it writes. Running the providers in any order that respects these dependencies gives the
+     * same result as running the chain in order.
+     */
+    private FacetProviderGraph determineProviderGraph(ListMultimap<Class<? extends WorldFacet>, FacetProvider> providerChains) {
+        Map<Class<? extends WorldFacet>, ListMultimap<FacetProvider, FacetProvider>> dependencies = Maps.newHashMap();
+        for (Class<? extends WorldFacet> facet : providerChains.keySet()) {
+            List<FacetProvider> chain = providerChains.get(facet);
+            ListMultimap<FacetProvider, FacetProvider> chainDependencies = ArrayListMultimap.create();
+            for (int i = 0; i < chain.size(); i++) {
+                for (int j = 0; j < i; j++) {
+                    if (conflicts(chain.get(j), chain.get(i))) {
+                        chainDependencies.put(chain.get(i), chain.get(j));
+                    }
+                }
+            }
+            dependencies.put(facet, chainDependencies);
+        }
+
+        Map<FacetProvider, Set<Class<? extends WorldFacet>>> writtenFacets = Maps.newHashMap();
+        for (FacetProvider provider : providersList) {
+            writtenFacets.put(provider, writtenFacets(provider));
+        }
+        return new FacetProviderGraph(dependencies, writtenFacets, providerPool);
+    }
+
+    private boolean conflicts(FacetProvider earlier, FacetProvider later) {
+        Set<Class<? extends WorldFacet>> earlierWrites = writtenFacets(earlier);
+        Set<Class<? extends WorldFacet>> laterWrites = writtenFacets(later);
+        return !Sets.intersection(earlierWrites, laterWrites).isEmpty()
+                || !Sets.intersection(earlierWrites, readFacets(later)).isEmpty()
+                || !Sets.intersection(readFacets(earlier), laterWrites).isEmpty();
+    }
+
+    private Set<Class<? extends WorldFacet>> readFacets(FacetProvider provider) {
+        Set<Class<? extends WorldFacet>> result = Sets.newHashSet();
+        for (Facet facet : requiredFacets(provider)) {
+            result.add(facet.value());
+        }
+        return result;
+    }
+
+    private Set<Class<? extends WorldFacet>> writtenFacets(FacetProvider provider) {
+        Set<Class<? extends WorldFacet>> result = Sets.newHashSet();
+        Produces produces = provider.getClass().getAnnotation(Produces.class);
+        if (produces != null) {
+            result.addAll(Arrays.asList(produces.value()));
+        }
+        for (Facet facet : updatedFacets(provider)) {
+            result.add(facet.value());
+        }
+        return result;
+    }
+
+    /**
+     * A facet can be shared between vertically stacked regions if all providers of its chain are column invariant and
+     * the providers that produce or update it do not touch any other facet. Otherwise a cache hit would either skip
+     * the generation of the other facets or let providers modify the shared instance.
+     * @return the facets that can be shared, mapped to the providers that produce or update them
+     */
+    private ListMultimap<Class<? extends WorldFacet>, FacetProvider> determineColumnInvariantFacets(
+            ListMultimap<Class<? extends WorldFacet>, FacetProvider> providerChains) {
+        ListMultimap<Class<? extends WorldFacet>, FacetProvider> result = ArrayListMultimap.create();
+        for (Class<? extends WorldFacet> facet : providerChains.keySet()) {
+            List<FacetProvider> contributors = Lists.newArrayList();
+            boolean cacheable = true;
+            for (FacetProvider provider : providerChains.get(facet)) {
+                if (!isColumnInvariant(provider)) {
+                    cacheable = false;
+                    break;
+                }
+                if (producesFacet(provider, facet) || updatesFacet(provider, facet)) {
+                    if (producedFacetCount(provider) + updatedFacets(provider).length > 1) {
+                        cacheable = false;
+                        break;
+                    }
+                    contributors.add(provider);
+                }
+            }
+            if (cacheable && !contributors.isEmpty()) {
+                result.putAll(facet, contributors);
+            }
+        }
+        logger.debug("Column invariant facets: {}", result.keySet());
+        return result;
+    }
+
+    private boolean isColumnInvariant(FacetProvider provider) {
+        Produces produces = provider.getClass().getAnnotation(Produces.class);
+        Updates updates = provider.getClass().getAnnotation(Updates.class);
+        if (produces == null && updates == null) {
+            return false;
+        }
+        return (produces == null || produces.columnInvariant()) && (updates == null || updates.columnInvariant());
+    }
+
+    private int producedFacetCount(FacetProvider provider) {
+        Produces produces = provider.getClass().getAnnotation(Produces.class);
+        if (produces != null) {
+            return produces.value().length;
+        }
+        return 0;
     }
 
     private Map<Class<? extends WorldFacet>, Border3D> determineBorders(ListMultimap<Class<? extends WorldFacet>, FacetProvider> providerChains) {
@@ -33,23 +33,29 @@ public class WorldImpl implements World {
     private final List<WorldRasterizer> worldRasterizers;
     private final List<EntityProvider> entityProviders;
     private final Map<Class<? extends WorldFacet>, Border3D> borders;
+    private final ColumnFacetCache columnFacetCache;
+    private final FacetProviderGraph providerGraph;
     private final int seaLevel;
 
     public WorldImpl(ListMultimap<Class<? extends WorldFacet>, FacetProvider> facetProviderChains,
                      List<WorldRasterizer> worldRasterizers,
                      List<EntityProvider> entityProviders,
                      Map<Class<? extends WorldFacet>, Border3D> borders,
+                     ColumnFacetCache columnFacetCache,
+                     FacetProviderGraph providerGraph,
                      int seaLevel) {
         this.facetProviderChains = facetProviderChains;
         this.worldRasterizers = worldRasterizers;
         this.entityProviders = entityProviders;
         this.borders = borders;
+        this.columnFacetCache = columnFacetCache;
+        this.providerGraph = providerGraph;
         this.seaLevel = seaLevel;
     }
 
     @Override
     public Region getWorldData(Region3i region) {
-        return new RegionImpl(region, facetProviderChains, borders);
+        return new RegionImpl(region, facetProviderChains, borders, columnFacetCache, providerGraph);
     }
 
     @Override
@@ -59,7 +65,11 @@ public int getSeaLevel() {
 
     @Override
     public void rasterizeChunk(CoreChunk chunk, EntityBuffer buffer) {
-        Region chunkRegion = getWorldData(chunk.getRegion());
+        rasterizeChunk(chunk, getWorldData(chunk.getRegion()), buffer);
+    }
+
+    @Override
+    public void rasterizeChunk(CoreChunk chunk, Region chunkRegion, EntityBuffer buffer) {
         for (WorldRasterizer rasterizer : worldRasterizers) {
             rasterizer.generateChunk(chunk, chunkRegion);
         }
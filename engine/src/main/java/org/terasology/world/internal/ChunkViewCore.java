@@ -57,4 +57,14 @@ public interface ChunkViewCore extends ChunkView {
      */
     void setSunlight(int blockX, int blockY, int blockZ, byte light);
 
+    /**
+     * Copies the sunlight and light levels of a box of blocks into two byte arrays, reading the light data of each
+     * chunk in bulk instead of block by block. The levels of the block at {@code (minX + dx, minY + dy, minZ + dz)} get
+     * stored at index {@code (dy * countZ + dz) * countX + dx}, blocks outside of the view get 0.
+     *
+     * @param sunlight the array for the sunlight levels, at least {@code countX * countY * countZ} long
+     * @param light    the array for the light levels, at least {@code countX * countY * countZ} long
+     */
+    void copyLight(int minX, int minY, int minZ, int countX, int countY, int countZ, byte[] sunlight, byte[] light);
+
 }
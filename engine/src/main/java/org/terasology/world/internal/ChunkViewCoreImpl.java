@@ -29,6 +29,8 @@
 import org.terasology.world.chunks.ChunkConstants;
 import org.terasology.world.liquid.LiquidData;
 
+import java.util.Arrays;
+
 /**
  */
 public class ChunkViewCoreImpl implements ChunkViewCore {
@@ -148,6 +150,44 @@ public byte getLight(int blockX, int blockY, int blockZ) {
         return chunks[chunkIndex].getLight(ChunkMath.calcBlockPos(blockX, blockY, blockZ, chunkFilterSize));
     }
 
+    @Override
+    public void copyLight(int minX, int minY, int minZ, int countX, int countY, int countZ,
+                          byte[] sunlight, byte[] light) {
+        int size = countX * countY * countZ;
+        Arrays.fill(sunlight, 0, size, (byte) 0);
+        Arrays.fill(light, 0, size, (byte) 0);
+
+        int strideZ = countX;
+        int strideY = countX * countZ;
+        int startX = Math.max(minX, blockRegion.minX());
+        int startY = Math.max(minY, blockRegion.minY());
+        int startZ = Math.max(minZ, blockRegion.minZ());
+        int endX = Math.min(minX + countX, blockRegion.minX() + blockRegion.sizeX());
+        int endY = Math.min(minY + countY, blockRegion.minY() + blockRegion.sizeY());
+        int endZ = Math.min(minZ + countZ, blockRegion.minZ() + blockRegion.sizeZ());
+
+        // copy the part of the box within each chunk at once
+        for (int y = startY; y < endY; y = nextChunkStart(y, chunkPower.y)) {
+            int spanY = Math.min(endY, nextChunkStart(y, chunkPower.y)) - y;
+            for (int z = startZ; z < endZ; z = nextChunkStart(z, chunkPower.z)) {
+                int spanZ = Math.min(endZ, nextChunkStart(z, chunkPower.z)) - z;
+                for (int x = startX; x < endX; x = nextChunkStart(x, chunkPower.x)) {
+                    int spanX = Math.min(endX, nextChunkStart(x, chunkPower.x)) - x;
+                    int offset = (y - minY) * strideY + (z - minZ) * strideZ + (x - minX);
+                    int localX = ChunkMath.calcBlockPosX(x, chunkFilterSize.x);
+                    int localY = ChunkMath.calcBlockPosY(y, chunkFilterSize.y);
+                    int localZ = ChunkMath.calcBlockPosZ(z, chunkFilterSize.z);
+                    chunks[relChunkIndex(x, y, z)].copyLight(localX, localY, localZ, spanX, spanY, spanZ,
+                            sunlight, light, offset, strideY, strideZ);
+                }
+            }
+        }
+    }
+
+    private static int nextChunkStart(int blockPos, int chunkPower) {
+        return ((blockPos >> chunkPower) + 1) << chunkPower;
+    }
+
     @Override
     public void setBlock(Vector3i pos, Block type) {
         setBlock(pos.x, pos.y, pos.z, type);
@@ -17,11 +17,13 @@
 
 import org.terasology.math.ChunkMath;
 import org.terasology.math.geom.Vector3i;
+import org.terasology.monitoring.chunk.ChunkMonitor;
 import org.terasology.world.block.Block;
 import org.terasology.world.chunks.Chunk;
 import org.terasology.world.chunks.ChunkProvider;
 import org.terasology.world.chunks.CoreChunk;
 import org.terasology.world.chunks.LitChunk;
+import org.terasology.world.chunks.internal.DirtyChunkMarker;
 
 /**
  * A base world view implementation sitting on ChunkProvider.
@@ -61,14 +63,22 @@ public byte getValueAt(Vector3i pos) {
     @Override
     public void setValueAt(Vector3i pos, byte value) {
         setValueAt(getChunk(pos), ChunkMath.calcBlockPos(pos.x, pos.y, pos.z), value);
-        for (Vector3i affectedChunkPos : ChunkMath.getChunkRegionAroundWorldPos(pos, 1)) {
-            Chunk dirtiedChunk = chunkProvider.getChunk(affectedChunkPos);
-            if (dirtiedChunk != null) {
-                dirtiedChunk.setDirty(true);
+        if (isRendered()) {
+            int dirtiedChunks = DirtyChunkMarker.markDirtyAround(chunkProvider, pos);
+            if (dirtiedChunks > 0) {
+                ChunkMonitor.fireChunksDirtied(dirtiedChunks);
             }
         }
     }
 
+    /**
+     * @return whether the values of this view are part of the chunk meshes, so that chunks need to be tessellated
+     * again when they change
+     */
+    protected boolean isRendered() {
+        return true;
+    }
+
     /**
      * Sets the relevant value for the given chunk
      *
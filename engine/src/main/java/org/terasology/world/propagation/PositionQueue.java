@@ -0,0 +1,140 @@
+/*
+ * Copyright 2016 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.world.propagation;
+
+import gnu.trove.map.TLongIntMap;
+import gnu.trove.map.hash.TLongIntHashMap;
+import org.terasology.math.geom.Vector3i;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * An insertion ordered set of block positions, used as work queue by the batch propagators.
+ * <p>
+ * Positions are packed into longs, so queueing a position allocates nothing once the queue has grown to its working
+ * size. Like a {@link java.util.LinkedHashSet} adding a position that is already queued keeps its original place, and
+ * a removed position that is added again is queued at the end.
+ * <p>
+ * Supports x and z coordinates in [-2^21, 2^21) and y coordinates in [-2^19, 2^19).
+ * <p>
+ * Iterate with:
+ * <pre>
+ * for (int i = 0; i &lt; queue.end(); i++) {
+ *     if (queue.get(i, pos)) {
+ *         ...
+ *     }
+ * }
+ * </pre>
+ */
+final class PositionQueue {
+    private static final int XZ_BITS = 22;
+    private static final int Y_BITS = 20;
+    private static final long XZ_MASK = (1L << XZ_BITS) - 1;
+    private static final long Y_MASK = (1L << Y_BITS) - 1;
+
+    private static final int INITIAL_CAPACITY = 64;
+    private static final int NOT_QUEUED = -1;
+
+    private long[] positions = new long[INITIAL_CAPACITY];
+    private int end;
+    private int size;
+    private final BitSet removed = new BitSet();
+    private final TLongIntMap indices = new TLongIntHashMap(INITIAL_CAPACITY, 0.5f, 0, NOT_QUEUED);
+
+    public boolean add(Vector3i pos) {
+        return add(pos.x, pos.y, pos.z);
+    }
+
+    /**
+     * @return whether the position was added, false if it was already queued.
+     */
+    public boolean add(int x, int y, int z) {
+        long packed = pack(x, y, z);
+        if (indices.putIfAbsent(packed, end) != NOT_QUEUED) {
+            return false;
+        }
+        if (end == positions.length) {
+            positions = Arrays.copyOf(positions, positions.length * 2);
+        }
+        positions[end++] = packed;
+        size++;
+        return true;
+    }
+
+    /**
+     * @return whether the position was queued.
+     */
+    public boolean remove(Vector3i pos) {
+        int index = indices.remove(pack(pos.x, pos.y, pos.z));
+        if (index == NOT_QUEUED) {
+            return false;
+        }
+        removed.set(index);
+        size--;
+        return true;
+    }
+
+    /**
+     * @return the index after the last queued position, positions removed since the last clear included.
+     */
+    public int end() {
+        return end;
+    }
+
+    /**
+     * Copies the position at the given index into result, unless it was removed.
+     *
+     * @return false if the position at the index was removed and result was left unchanged.
+     */
+    public boolean get(int index, Vector3i result) {
+        if (removed.get(index)) {
+            return false;
+        }
+        long packed = positions[index];
+        result.set((int) (packed >> (Y_BITS + XZ_BITS)),
+                (int) (packed << XZ_BITS >> (XZ_BITS + XZ_BITS)),
+                (int) (packed << (Y_BITS + XZ_BITS) >> (Y_BITS + XZ_BITS)));
+        return true;
+    }
+
+    /**
+     * @return the number of queued positions.
+     */
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Removes all positions, but keeps the allocated memory for reuse.
+     */
+    public void clear() {
+        if (end > 0) {
+            indices.clear();
+            removed.clear();
+            end = 0;
+            size = 0;
+        }
+    }
+
+    private static long pack(int x, int y, int z) {
+        return ((x & XZ_MASK) << (Y_BITS + XZ_BITS)) | ((y & Y_MASK) << XZ_BITS) | (z & XZ_MASK);
+    }
+}
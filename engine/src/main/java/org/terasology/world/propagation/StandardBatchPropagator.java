@@ -16,7 +16,6 @@
 package org.terasology.world.propagation;
 
 import com.google.common.collect.Maps;
-import com.google.common.collect.Sets;
 import org.terasology.math.ChunkMath;
 import org.terasology.math.Region3i;
 import org.terasology.math.Side;
@@ -27,7 +26,6 @@
 
 import java.util.Arrays;
 import java.util.Map;
-import java.util.Set;
 
 /**
  * Batch propagator that works on a set of changed blocks
@@ -40,8 +38,12 @@ public class StandardBatchPropagator implements BatchPropagator {
     private PropagationRules rules;
     private PropagatorWorldView world;
 
-    private Set<Vector3i>[] reduceQueues;
-    private Set<Vector3i>[] increaseQueues;
+    private PositionQueue[] reduceQueues;
+    private PositionQueue[] increaseQueues;
+    private PositionQueue spareQueue = new PositionQueue();
+
+    private final Vector3i queuedPos = new Vector3i();
+    private final Vector3i adjacentPos = new Vector3i();
 
     private Map<Side, Vector3i> chunkEdgeDeltas = Maps.newEnumMap(Side.class);
 
@@ -69,11 +71,11 @@ public StandardBatchPropagator(PropagationRules rules, PropagatorWorldView world
             chunkEdgeDeltas.put(side, delta);
         }
 
-        increaseQueues = new Set[rules.getMaxValue()];
-        reduceQueues = new Set[rules.getMaxValue()];
+        increaseQueues = new PositionQueue[rules.getMaxValue()];
+        reduceQueues = new PositionQueue[rules.getMaxValue()];
         for (int i = 0; i < rules.getMaxValue(); ++i) {
-            increaseQueues[i] = Sets.newLinkedHashSet();
-            reduceQueues[i] = Sets.newLinkedHashSet();
+            increaseQueues[i] = new PositionQueue();
+            reduceQueues[i] = new PositionQueue();
         }
 
     }
@@ -110,19 +112,21 @@ private void reviewChange(BlockChange blockChange) {
             PropagationComparison comparison = rules.comparePropagation(blockChange.getTo(), blockChange.getFrom(), side);
             if (comparison.isRestricting() && existingValue > 0) {
                 reduce(blockChange.getPosition(), existingValue);
-                Vector3i adjPos = side.getAdjacentPos(blockChange.getPosition());
-                byte adjValue = world.getValueAt(adjPos);
+                adjacentPos.set(blockChange.getPosition());
+                adjacentPos.add(side.getVector3i());
+                byte adjValue = world.getValueAt(adjacentPos);
                 if (adjValue == rules.propagateValue(existingValue, side, blockChange.getFrom())) {
-                    reduce(adjPos, adjValue);
+                    reduce(adjacentPos, adjValue);
                 }
             } else if (comparison.isPermitting()) {
                 if (existingValue > 0) {
                     queueSpreadValue(blockChange.getPosition(), existingValue);
                 }
-                Vector3i adjPos = side.getAdjacentPos(blockChange.getPosition());
-                byte adjValue = world.getValueAt(adjPos);
+                adjacentPos.set(blockChange.getPosition());
+                adjacentPos.add(side.getVector3i());
+                byte adjValue = world.getValueAt(adjacentPos);
                 if (adjValue != PropagatorWorldView.UNAVAILABLE) {
-                    queueSpreadValue(adjPos, adjValue);
+                    queueSpreadValue(adjacentPos, adjValue);
                 }
             }
         }
@@ -132,16 +136,18 @@ private void processReduction() {
         int depth = 0;
         while (depth < rules.getMaxValue()) {
             byte oldValue = (byte) (rules.getMaxValue() - depth);
-            Set<Vector3i> toProcess = reduceQueues[depth];
+            PositionQueue toProcess = reduceQueues[depth];
             if (!toProcess.isEmpty()) {
-                reduceQueues[depth] = Sets.newLinkedHashSetWithExpectedSize(toProcess.size());
+                // Positions queued at the current depth while processing are handled in the next pass
+                reduceQueues[depth] = spareQueue;
 
-                for (Vector3i pos : toProcess) {
-                    purge(pos, oldValue);
-                }
-                if (toProcess.isEmpty()) {
-                    depth++;
+                for (int i = 0; i < toProcess.end(); i++) {
+                    if (toProcess.get(i, queuedPos)) {
+                        purge(queuedPos, oldValue);
+                    }
                 }
+                toProcess.clear();
+                spareQueue = toProcess;
             } else {
                 depth++;
             }
@@ -160,16 +166,17 @@ private void purge(Vector3i pos, byte oldValue) {
 
         for (Side side : Side.values()) {
             byte expectedValue = rules.propagateValue(oldValue, side, block);
-            Vector3i adjPos = side.getAdjacentPos(pos);
+            adjacentPos.set(pos);
+            adjacentPos.add(side.getVector3i());
             if (rules.canSpreadOutOf(block, side)) {
-                byte adjValue = world.getValueAt(adjPos);
+                byte adjValue = world.getValueAt(adjacentPos);
                 if (adjValue == expectedValue) {
-                    Block adjBlock = world.getBlockAt(adjPos);
+                    Block adjBlock = world.getBlockAt(adjacentPos);
                     if (rules.canSpreadInto(adjBlock, side.reverse())) {
-                        reduce(adjPos, expectedValue);
+                        reduce(adjacentPos, expectedValue);
                     }
                 } else if (adjValue > 0) {
-                    queueSpreadValue(adjPos, adjValue);
+                    queueSpreadValue(adjacentPos, adjValue);
                 }
             }
         }
@@ -179,13 +186,17 @@ private void processIncrease() {
         int depth = 0;
         while (depth < rules.getMaxValue() - 1) {
             byte value = (byte) (rules.getMaxValue() - depth);
-            Set<Vector3i> toProcess = increaseQueues[depth];
+            PositionQueue toProcess = increaseQueues[depth];
             if (!toProcess.isEmpty()) {
-                increaseQueues[depth] = Sets.newLinkedHashSetWithExpectedSize(toProcess.size());
+                increaseQueues[depth] = spareQueue;
 
-                for (Vector3i pos : toProcess) {
-                    push(pos, value);
+                for (int i = 0; i < toProcess.end(); i++) {
+                    if (toProcess.get(i, queuedPos)) {
+                        push(queuedPos, value);
+                    }
                 }
+                toProcess.clear();
+                spareQueue = toProcess;
                 if (increaseQueues[depth].isEmpty()) {
                     depth++;
                 }
@@ -199,13 +210,14 @@ private void push(Vector3i pos, byte value) {
         Block block = world.getBlockAt(pos);
         for (Side side : Side.values()) {
             byte spreadValue = rules.propagateValue(value, side, block);
-            Vector3i adjPos = side.getAdjacentPos(pos);
+            adjacentPos.set(pos);
+            adjacentPos.add(side.getVector3i());
             if (rules.canSpreadOutOf(block, side)) {
-                byte adjValue = world.getValueAt(adjPos);
+                byte adjValue = world.getValueAt(adjacentPos);
                 if (adjValue < spreadValue && adjValue != PropagatorWorldView.UNAVAILABLE) {
-                    Block adjBlock = world.getBlockAt(adjPos);
+                    Block adjBlock = world.getBlockAt(adjacentPos);
                     if (rules.canSpreadInto(adjBlock, side.reverse())) {
-                        increase(adjPos, spreadValue);
+                        increase(adjacentPos, spreadValue);
                     }
                 }
             }
@@ -213,7 +225,7 @@ private void push(Vector3i pos, byte value) {
     }
 
     private void cleanUp() {
-        for (Set<Vector3i> queue : increaseQueues) {
+        for (PositionQueue queue : increaseQueues) {
             queue.clear();
         }
     }
@@ -277,7 +289,8 @@ private void propagateDepth(LitChunk adjChunk, Side side, boolean propagateExter
                 adjPos.add(chunkEdgeDeltas.get(side));
                 byte value = rules.getValue(adjChunk, adjPos);
                 if (value > 1) {
-                    queueSpreadValue(adjChunk.chunkToWorldPosition(adjPos), value);
+                    increaseQueues[rules.getMaxValue() - value].add(adjChunk.chunkToWorldPositionX(adjPos.x),
+                            adjChunk.chunkToWorldPositionY(adjPos.y), adjChunk.chunkToWorldPositionZ(adjPos.z));
                 }
             }
         }
@@ -15,7 +15,6 @@
  */
 package org.terasology.world.propagation;
 
-import com.google.common.collect.Sets;
 import org.terasology.math.ChunkMath;
 import org.terasology.math.Side;
 import org.terasology.math.geom.Vector3i;
@@ -24,7 +23,6 @@
 import org.terasology.world.chunks.LitChunk;
 
 import java.util.Arrays;
-import java.util.Set;
 
 /**
  * Batch propagator that works on a set of changed blocks
@@ -37,8 +35,12 @@ public class SunlightRegenBatchPropagator implements BatchPropagator {
     private PropagatorWorldView sunlightWorld;
     private BatchPropagator sunlightPropagator;
 
-    private Set<Vector3i>[] reduceQueues;
-    private Set<Vector3i>[] increaseQueues;
+    private PositionQueue[] reduceQueues;
+    private PositionQueue[] increaseQueues;
+
+    private final Vector3i queuedPos = new Vector3i();
+    private final Vector3i adjacentPos = new Vector3i();
+    private final Vector3i position = new Vector3i();
 
     public SunlightRegenBatchPropagator(PropagationRules regenRules, PropagatorWorldView regenWorld, BatchPropagator sunlightPropagator, PropagatorWorldView sunlightWorld) {
         this.regenRules = regenRules;
@@ -46,11 +48,11 @@ public SunlightRegenBatchPropagator(PropagationRules regenRules, PropagatorWorld
         this.sunlightPropagator = sunlightPropagator;
         this.sunlightWorld = sunlightWorld;
 
-        increaseQueues = new Set[regenRules.getMaxValue() + 1];
-        reduceQueues = new Set[regenRules.getMaxValue() + 1];
+        increaseQueues = new PositionQueue[regenRules.getMaxValue() + 1];
+        reduceQueues = new PositionQueue[regenRules.getMaxValue() + 1];
         for (int i = 0; i < regenRules.getMaxValue() + 1; ++i) {
-            increaseQueues[i] = Sets.newLinkedHashSet();
-            reduceQueues[i] = Sets.newLinkedHashSet();
+            increaseQueues[i] = new PositionQueue();
+            reduceQueues[i] = new PositionQueue();
         }
     }
 
@@ -81,19 +83,21 @@ private void reviewChangeToBottom(BlockChange blockChange) {
             byte existingValue = regenWorld.getValueAt(blockChange.getPosition());
             queueSpreadRegen(blockChange.getPosition(), existingValue);
         } else if (comparison.isRestricting()) {
-            Vector3i adjPos = Side.BOTTOM.getAdjacentPos(blockChange.getPosition());
-            byte existingValue = regenWorld.getValueAt(adjPos);
-            reduce(adjPos, existingValue);
+            adjacentPos.set(blockChange.getPosition());
+            adjacentPos.add(Side.BOTTOM.getVector3i());
+            byte existingValue = regenWorld.getValueAt(adjacentPos);
+            reduce(adjacentPos, existingValue);
         }
     }
 
     private void reviewChangeToTop(BlockChange blockChange) {
         PropagationComparison comparison = regenRules.comparePropagation(blockChange.getTo(), blockChange.getFrom(), Side.TOP);
         if (comparison.isPermitting()) {
-            Vector3i adjPos = Side.TOP.getAdjacentPos(blockChange.getPosition());
-            byte adjValue = regenWorld.getValueAt(adjPos);
+            adjacentPos.set(blockChange.getPosition());
+            adjacentPos.add(Side.TOP.getVector3i());
+            byte adjValue = regenWorld.getValueAt(adjacentPos);
             if (adjValue != PropagatorWorldView.UNAVAILABLE) {
-                queueSpreadRegen(adjPos, adjValue);
+                queueSpreadRegen(adjacentPos, adjValue);
             }
         } else if (comparison.isRestricting()) {
             byte existingValue = regenWorld.getValueAt(blockChange.getPosition());
@@ -107,9 +111,13 @@ private void queueSpreadRegen(Vector3i position, byte value) {
 
     private void processRegenReduction() {
         for (byte depth = 0; depth <= regenRules.getMaxValue(); depth++) {
-            Set<Vector3i> toProcess = reduceQueues[depth];
+            PositionQueue toProcess = reduceQueues[depth];
 
-            toProcess.forEach(this::purge);
+            for (int i = 0; i < toProcess.end(); i++) {
+                if (toProcess.get(i, queuedPos)) {
+                    purge(queuedPos);
+                }
+            }
             toProcess.clear();
         }
     }
@@ -117,12 +125,12 @@ private void processRegenReduction() {
     private void purge(Vector3i pos) {
         int expectedValue = regenWorld.getValueAt(pos);
         if (expectedValue != 0) {
-            Vector3i position = new Vector3i(pos);
+            position.set(pos);
             for (byte i = 0; i <= ChunkConstants.MAX_SUNLIGHT_REGEN; ++i) {
                 if (regenWorld.getValueAt(position) == expectedValue) {
                     regenWorld.setValueAt(position, i);
                     if (expectedValue - ChunkConstants.SUNLIGHT_REGEN_THRESHOLD > 0) {
-                        sunlightPropagator.regenerate(new Vector3i(position), (byte) (expectedValue - ChunkConstants.SUNLIGHT_REGEN_THRESHOLD));
+                        sunlightPropagator.regenerate(position, (byte) (expectedValue - ChunkConstants.SUNLIGHT_REGEN_THRESHOLD));
                     }
                 } else {
                     break;
@@ -137,10 +145,12 @@ private void purge(Vector3i pos) {
 
     private void processRegenIncrease() {
         for (byte depth = regenRules.getMaxValue(); depth >= 0; depth--) {
-            Set<Vector3i> toProcess = increaseQueues[depth];
+            PositionQueue toProcess = increaseQueues[depth];
 
-            for (Vector3i pos : toProcess) {
-                push(pos, depth);
+            for (int i = 0; i < toProcess.end(); i++) {
+                if (toProcess.get(i, queuedPos)) {
+                    push(queuedPos, depth);
+                }
             }
             toProcess.clear();
         }
@@ -149,7 +159,7 @@ private void processRegenIncrease() {
     private void push(Vector3i pos, byte value) {
         byte regenValue = value;
         Block block = regenWorld.getBlockAt(pos);
-        Vector3i position = new Vector3i(pos);
+        position.set(pos);
         while (regenRules.canSpreadOutOf(block, Side.BOTTOM)) {
             regenValue = regenRules.propagateValue(regenValue, Side.BOTTOM, block);
             position.y -= 1;
@@ -164,7 +174,7 @@ private void push(Vector3i pos, byte value) {
                         byte prevValue = sunlightWorld.getValueAt(position);
                         if (prevValue < sunlightValue) {
                             sunlightWorld.setValueAt(position, sunlightValue);
-                            sunlightPropagator.propagateFrom(new Vector3i(position), sunlightValue);
+                            sunlightPropagator.propagateFrom(position, sunlightValue);
                         }
                     }
                 } else {
@@ -226,8 +236,9 @@ private void markForPropagation(LitChunk toChunk, int[] depth, int[] startingReg
                     int strength = Math.min(start + initialDepth - ChunkConstants.SUNLIGHT_REGEN_THRESHOLD + 1, ChunkConstants.MAX_SUNLIGHT);
 
                     for (int i = initialDepth; i <= finalDepth; ++i) {
-                        sunlightPropagator.propagateFrom(toChunk.chunkToWorldPosition(x, ChunkConstants.SIZE_Y - i - 1, z),
-                                (byte) (strength));
+                        pos.set(toChunk.chunkToWorldPositionX(x), toChunk.chunkToWorldPositionY(ChunkConstants.SIZE_Y - i - 1),
+                                toChunk.chunkToWorldPositionZ(z));
+                        sunlightPropagator.propagateFrom(pos, (byte) (strength));
                         if (strength < ChunkConstants.MAX_SUNLIGHT) {
                             strength++;
                         }
@@ -236,11 +247,12 @@ private void markForPropagation(LitChunk toChunk, int[] depth, int[] startingReg
                     int initialDepth = Math.max(adjDepths[depthIndex], ChunkConstants.SUNLIGHT_REGEN_THRESHOLD - start);
                     byte strength = (byte) Math.min(ChunkConstants.MAX_SUNLIGHT, start + initialDepth - ChunkConstants.SUNLIGHT_REGEN_THRESHOLD + 1);
                     for (int i = initialDepth; i <= depth[depthIndex]; ++i) {
-                        sunlightPropagator.propagateFrom(toChunk.chunkToWorldPosition(x, ChunkConstants.SIZE_Y - i - 1, z), strength);
+                        pos.set(toChunk.chunkToWorldPositionX(x), toChunk.chunkToWorldPositionY(ChunkConstants.SIZE_Y - i - 1),
+                                toChunk.chunkToWorldPositionZ(z));
+                        sunlightPropagator.propagateFrom(pos, strength);
                         if (strength < ChunkConstants.MAX_SUNLIGHT) {
                             strength++;
                         }
-                        pos.y--;
                     }
                 }
 
@@ -253,7 +265,7 @@ private void propagateSweep(LitChunk fromChunk, LitChunk toChunk, int[] depth, i
         for (int z = 0; z < ChunkConstants.SIZE_Z; ++z) {
             for (int x = 0; x < ChunkConstants.SIZE_X; ++x) {
                 int depthIndex = x + ChunkConstants.SIZE_X * z;
-                startingRegen[depthIndex] = regenRules.getValue(fromChunk, new Vector3i(x, 0, z));
+                startingRegen[depthIndex] = regenRules.getValue(fromChunk, x, 0, z);
                 byte expectedValue = (byte) Math.min(startingRegen[depthIndex] + 1, ChunkConstants.MAX_SUNLIGHT_REGEN);
                 Block fromBlock = fromChunk.getBlock(x, 0, z);
                 Block toBlock = toChunk.getBlock(x, ChunkConstants.SIZE_Y - 1, z);
@@ -16,10 +16,14 @@
 package org.terasology.world.propagation.light;
 
 import com.google.common.collect.Lists;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.terasology.math.Side;
 import org.terasology.math.geom.Vector3i;
+import org.terasology.monitoring.Activity;
+import org.terasology.monitoring.CounterMonitor;
+import org.terasology.monitoring.PerformanceMonitor;
 import org.terasology.world.chunks.Chunk;
 import org.terasology.world.chunks.LitChunk;
 import org.terasology.world.chunks.internal.GeneratingChunkProvider;
@@ -30,20 +34,52 @@
 import org.terasology.world.propagation.StandardBatchPropagator;
 import org.terasology.world.propagation.SunlightRegenBatchPropagator;
 
+import java.util.Iterator;
 import java.util.List;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.TimeUnit;
 
+/**
+ * Merges the lighting of chunks that became ready with the lighting of their neighbours.
+ * <p>
+ * Merges run in parallel on a thread pool. A merge reads and writes the 3x3x3 chunks around the merged chunk, so a
+ * merge is only started once no running merge uses any of these chunks. Merges that can't be started yet stay queued
+ * in the order they were begun.
+ * <p>
+ * The neighbours of a merged chunk are ready chunks, which the main thread propagates light in as well. Merges
+ * therefore never outlive the frame they were started in: they are started while the chunk provider begins its update
+ * and {@link #completeMerges()} waits for all of them when the provider completes its update of the next frame, before
+ * the main thread processes its own light propagation.
+ * <p>
+ * All methods except the merging itself are meant to be called from the main thread.
+ *
+ * @param <T> The type of the data that is handed back when the merge of a chunk is complete
+ */
 public class LightMerger<T> {
+    /**
+     * Sums up the time the merge threads of all light mergers spent merging chunks.
+     */
+    public static final String MERGE_TIME_COUNTER = "Lighting - Merge time (us)";
+
     private static final int CENTER_INDEX = 13;
 
+    /**
+     * Two merges share chunks if their centers are closer than this in every axis.
+     */
+    private static final int NEIGHBOURHOOD_DISTANCE = 3;
+
     private static final Logger logger = LoggerFactory.getLogger(LightMerger.class);
 
-    private ExecutorService executorService = Executors.newSingleThreadExecutor();
-    private Future<T> resultFuture;
+    private static final ThreadFactory THREAD_FACTORY = new ThreadFactoryBuilder().setNameFormat("LightMerger-%d").build();
+
+    private final int parallelism;
+    private ExecutorService executorService;
+    private final List<Merge<T>> pendingMerges = Lists.newArrayList();
+    private final List<Merge<T>> runningMerges = Lists.newArrayList();
 
     private GeneratingChunkProvider chunkProvider;
     private LightPropagationRules lightRules = new LightPropagationRules();
@@ -52,27 +88,110 @@
     private boolean running = true;
 
     public LightMerger(GeneratingChunkProvider chunkProvider) {
+        this(chunkProvider, Math.max(1, Runtime.getRuntime().availableProcessors() / 2));
+    }
+
+    /**
+     * @param parallelism the maximum number of merges that run at the same time.
+     */
+    public LightMerger(GeneratingChunkProvider chunkProvider, int parallelism) {
         this.chunkProvider = chunkProvider;
+        this.parallelism = parallelism;
+        this.executorService = Executors.newFixedThreadPool(parallelism, THREAD_FACTORY);
     }
 
+    /**
+     * Queues the merge of the given chunk and starts it if no running merge touches its neighbourhood.
+     *
+     * @param chunk the chunk whose lighting gets merged, its neighbours must be loaded.
+     * @param data  the data to return from {@link #completeMerges()} once the merge is complete.
+     */
     public void beginMerge(final Chunk chunk, final T data) {
-        resultFuture = executorService.submit(() -> {
-            merge(chunk);
-            return data;
-        });
+        pendingMerges.add(new Merge<>(chunk, data));
+        CounterMonitor.increment("Lighting - Merges queued");
+        startMerges();
     }
 
-    public T completeMerge() {
-        if (resultFuture != null) {
+    /**
+     * Waits for all running merges. Queued merges are not started, so that no merge writes to chunks while the main
+     * thread propagates light. They are started by the next {@link #beginMerge(Chunk, Object)} or
+     * {@link #startMerges()}.
+     *
+     * @return the data of the completed merges, in the order the merges were started.
+     */
+    public List<T> completeMerges() {
+        List<T> completed = Lists.newArrayListWithCapacity(runningMerges.size());
+        for (Merge<T> merge : runningMerges) {
             try {
-                T result = resultFuture.get();
-                resultFuture = null;
-                return result;
+                completed.add(merge.future.get());
             } catch (InterruptedException | ExecutionException e) {
                 throw new RuntimeException("Error completing lighting merge", e);
             }
         }
-        return null;
+        runningMerges.clear();
+        if (!completed.isEmpty()) {
+            CounterMonitor.add("Lighting - Merges completed", completed.size());
+        }
+        return completed;
+    }
+
+    /**
+     * @return whether enough merges are queued to keep all merge threads busy, so that it makes no sense to begin
+     * further merges for now.
+     */
+    public boolean isSaturated() {
+        return pendingMerges.size() >= parallelism;
+    }
+
+    /**
+     * @return whether the chunk at the given position is read or written by a queued or running merge. Such chunks
+     * should not be unloaded.
+     */
+    public boolean isMerging(Vector3i chunkPos) {
+        return isInNeighbourhood(chunkPos, pendingMerges, 1) || isInNeighbourhood(chunkPos, runningMerges, 1);
+    }
+
+    /**
+     * @return the number of queued and running merges.
+     */
+    public int getQueueDepth() {
+        return pendingMerges.size() + runningMerges.size();
+    }
+
+    /**
+     * Starts the queued merges whose neighbourhood no running merge touches, in the order they were begun.
+     */
+    public void startMerges() {
+        if (!running) {
+            return;
+        }
+        Iterator<Merge<T>> iterator = pendingMerges.iterator();
+        while (iterator.hasNext() && runningMerges.size() < parallelism) {
+            Merge<T> pending = iterator.next();
+            if (!isInNeighbourhood(pending.chunk.getPosition(), runningMerges, NEIGHBOURHOOD_DISTANCE - 1)) {
+                iterator.remove();
+                pending.future = executorService.submit(() -> {
+                    long start = System.nanoTime();
+                    try (Activity ignored = PerformanceMonitor.startActivity("Merge chunk lighting")) {
+                        merge(pending.chunk);
+                    }
+                    CounterMonitor.add(MERGE_TIME_COUNTER, TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start));
+                    return pending.data;
+                });
+                runningMerges.add(pending);
+            }
+        }
+    }
+
+    private static boolean isInNeighbourhood(Vector3i pos, List<? extends Merge<?>> merges, int distance) {
+        for (Merge<?> merge : merges) {
+            Vector3i center = merge.chunk.getPosition();
+            if (Math.abs(center.x - pos.x) <= distance && Math.abs(center.y - pos.y) <= distance
+                    && Math.abs(center.z - pos.z) <= distance) {
+                return true;
+            }
+        }
+        return false;
     }
 
     private void merge(Chunk chunk) {
@@ -131,18 +250,31 @@ private Chunk[] assembleLocalChunks(Chunk chunk) {
 
     public void shutdown() {
         running = false;
+        pendingMerges.clear();
+        runningMerges.clear();
         executorService.shutdown();
         try {
             executorService.awaitTermination(10, TimeUnit.SECONDS);
         } catch (InterruptedException e) {
-            logger.error("Failed to shutdown light merge thread in a timely manner");
+            logger.error("Failed to shutdown light merge threads in a timely manner");
         }
     }
 
     public void restart() {
         if (!running) {
-            executorService = Executors.newSingleThreadExecutor();
+            executorService = Executors.newFixedThreadPool(parallelism, THREAD_FACTORY);
             running = true;
         }
     }
+
+    private static final class Merge<T> {
+        private final Chunk chunk;
+        private final T data;
+        private Future<T> future;
+
+        Merge(Chunk chunk, T data) {
+            this.chunk = chunk;
+            this.data = data;
+        }
+    }
 }
@@ -37,4 +37,10 @@ protected byte getValueAt(LitChunk chunk, Vector3i pos) {
     protected void setValueAt(LitChunk chunk, Vector3i pos, byte value) {
         chunk.setSunlightRegen(pos, value);
     }
+
+    @Override
+    protected boolean isRendered() {
+        // the regeneration values only drive the propagation of sunlight, the meshes use the sunlight itself
+        return false;
+    }
 }
@@ -70,6 +70,7 @@ varying vec3 sunVecView;
 varying vec3 normal;
 
 varying float blockHint;
+varying float greedyTile;
 varying float isUpside;
 
 uniform sampler2D textureWater;
@@ -80,6 +81,16 @@ uniform sampler2D textureEffects;
 
 uniform float clip;
 
+// Merged quads wrap their texture coordinates with fract(), so the implicit derivatives jump at every tile seam and
+// select the smallest mip level there. Sample the atlas with the derivatives of the unwrapped coordinates instead.
+vec4 sampleAtlas(sampler2D atlas, vec2 uv, vec2 uvDx, vec2 uvDy) {
+#ifdef GL_ARB_shader_texture_lod
+    return texture2DGradARB(atlas, uv, uvDx, uvDy);
+#else
+    return texture2D(atlas, uv);
+#endif
+}
+
 void main() {
 
 // Only necessary for opaque objects
@@ -90,6 +101,20 @@ void main() {
 #endif
 
     vec2 texCoord = gl_TexCoord[0].xy;
+    vec2 texCoordDx = dFdx(texCoord);
+    vec2 texCoordDy = dFdy(texCoord);
+
+    // The texture coordinates of merged quads count tiles, map them into the tile the quad repeats
+    if (greedyTile > 0.5) {
+        float tilesPerRow = floor(1.0 / TEXTURE_OFFSET + 0.5);
+        float tileIndex = floor(greedyTile + 0.5) - 1.0;
+        float tileRow = floor((tileIndex + 0.5) / tilesPerRow);
+        vec2 tileOrigin = vec2(tileIndex - tileRow * tilesPerRow, tileRow) * TEXTURE_OFFSET;
+        float tileScale = TEXTURE_OFFSET - 2.0 * TEXTURE_BORDER;
+        texCoord = tileOrigin + TEXTURE_BORDER + fract(texCoord) * tileScale;
+        texCoordDx *= tileScale;
+        texCoordDy *= tileScale;
+    }
 
     vec3 normalizedVPos = -normalize(vertexViewPos.xyz);
     vec2 projectedPos = projectVertexToTexCoord(vertexProjPos);
@@ -115,14 +140,14 @@ void main() {
 #if defined (PARALLAX_MAPPING)
     vec3 eyeTangentSpace = tbn * vertexViewPos.xyz;
 
-    float height =  parallaxScale * texture2D(textureAtlasHeight, texCoord).r - parallaxBias;
+    float height =  parallaxScale * sampleAtlas(textureAtlasHeight, texCoord, texCoordDx, texCoordDy).r - parallaxBias;
 	texCoord += height * normalize(eyeTangentSpace).xy * TEXTURE_OFFSET;
 #endif
 
-    normalOpaque = normalize(texture2D(textureAtlasNormal, texCoord).xyz * 2.0 - 1.0);
+    normalOpaque = normalize(sampleAtlas(textureAtlasNormal, texCoord, texCoordDx, texCoordDy).xyz * 2.0 - 1.0);
     normalOpaque = normalize(tbn * normalOpaque);
 
-    shininess = texture2D(textureAtlasNormal, texCoord).w;
+    shininess = sampleAtlas(textureAtlasNormal, texCoord, texCoordDx, texCoordDy).w;
 #endif
 
 #ifdef FEATURE_REFRACTIVE_PASS
@@ -168,7 +193,7 @@ void main() {
         color = texture2D(textureLava, texCoord.xy);
     /* APPLY DEFAULT TEXTURE FROM ATLAS */
     } else {
-        color = texture2D(textureAtlas, texCoord.xy);
+        color = sampleAtlas(textureAtlas, texCoord, texCoordDx, texCoordDy);
 
 #if defined FEATURE_ALPHA_REJECT
         if (color.a < 0.1) {
@@ -263,7 +288,7 @@ void main() {
             color.a = 1.0;
     } else {
         vec3 refractionColor = texture2D(texSceneOpaque, projectedPos).rgb;
-        vec4 albedoColor = texture2D(textureAtlas, texCoord.xy);
+        vec4 albedoColor = sampleAtlas(textureAtlas, texCoord, texCoordDx, texCoordDy);
         albedoColor.rgb *= combinedLightValue;
 
         // TODO: Add support for actual refraction here
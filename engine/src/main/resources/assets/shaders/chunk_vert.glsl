@@ -95,6 +95,7 @@ uniform float blockScale = 1.0;
 uniform vec3 chunkPositionWorld;
 
 uniform bool animated;
+uniform bool compactVertices;
 
 varying vec3 normal;
 
@@ -106,16 +107,34 @@ varying vec3 sunVecView;
 
 varying float isUpside;
 varying float blockHint;
+varying float greedyTile;
 
 void main()
 {
+    vec4 vertex = gl_Vertex;
 	gl_TexCoord[0] = gl_MultiTexCoord0;
-	blockHint = int(gl_TexCoord[0].z);
-
     gl_TexCoord[1] = gl_MultiTexCoord1;
 
-	vertexViewPos = gl_ModelViewMatrix * gl_Vertex;
-	vertexWorldPos = gl_Vertex.xyz + chunkPositionWorld.xyz;
+    if (compactVertices) {
+        // See CompactChunkVertices: the vertex flag is stored as fourth component of the position
+        vertex = vec4(gl_Vertex.xyz / COMPACT_POSITION_SCALE, 1.0);
+        gl_TexCoord[0].z = gl_Vertex.w;
+        if (gl_Vertex.w < float(GREEDY_TILE_STRIDE)) {
+            gl_TexCoord[0].xy /= COMPACT_TEX_COORD_SCALE;
+        }
+
+        float sunlight = floor(gl_MultiTexCoord1.x / (COMPACT_LIGHT_RESOLUTION + 1.0));
+        float blockLight = gl_MultiTexCoord1.x - sunlight * (COMPACT_LIGHT_RESOLUTION + 1.0);
+        gl_TexCoord[1] = vec4(sunlight / COMPACT_LIGHT_RESOLUTION, blockLight / COMPACT_LIGHT_RESOLUTION,
+            gl_MultiTexCoord1.y / COMPACT_OCCLUSION_SCALE, 1.0);
+    }
+
+	// Merged quads store the index of their tile plus one along with the block hint
+	greedyTile = floor(gl_TexCoord[0].z / float(GREEDY_TILE_STRIDE));
+	blockHint = int(gl_TexCoord[0].z - greedyTile * float(GREEDY_TILE_STRIDE));
+
+	vertexViewPos = gl_ModelViewMatrix * vertex;
+	vertexWorldPos = vertex.xyz + chunkPositionWorld.xyz;
 
 	sunVecView = (gl_ModelViewMatrix * vec4(sunVec.x, sunVec.y, sunVec.z, 0.0)).xyz;
 
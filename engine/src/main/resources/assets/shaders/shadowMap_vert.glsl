@@ -16,9 +16,16 @@
 
 varying vec4 positionProj;
 
+uniform bool compactVertices;
+
 void main()
 {
-	gl_Position = ftransform();
+    if (compactVertices) {
+        // See CompactChunkVertices
+        gl_Position = gl_ModelViewProjectionMatrix * vec4(gl_Vertex.xyz / COMPACT_POSITION_SCALE, 1.0);
+    } else {
+	    gl_Position = ftransform();
+    }
 	positionProj = gl_Position;
 
     gl_FrontColor = gl_Color;
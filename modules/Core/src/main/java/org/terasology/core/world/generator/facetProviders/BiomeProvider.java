@@ -32,7 +32,7 @@
 /**
  * Determines the biome based on temperature and humidity
  */
-@Produces(BiomeFacet.class)
+@Produces(value = BiomeFacet.class, columnInvariant = true)
 @Requires({
     @Facet(SeaLevelFacet.class),
     @Facet(SurfaceHeightFacet.class),
@@ -24,7 +24,7 @@
 import org.terasology.world.generation.facets.SeaLevelFacet;
 import org.terasology.world.generation.facets.SurfaceHeightFacet;
 
-@Produces(SurfaceHeightFacet.class)
+@Produces(value = SurfaceHeightFacet.class, columnInvariant = true)
 @Requires(@Facet(SeaLevelFacet.class))
 public class FlatSurfaceHeightProvider implements FacetProvider {
     private int height;
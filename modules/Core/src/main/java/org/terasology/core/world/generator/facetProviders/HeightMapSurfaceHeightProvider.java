@@ -41,7 +41,7 @@
 
 import com.google.common.math.IntMath;
 
-@Produces(SurfaceHeightFacet.class)
+@Produces(value = SurfaceHeightFacet.class, columnInvariant = true)
 @Requires(@Facet(SeaLevelFacet.class))
 public class HeightMapSurfaceHeightProvider implements ConfigurableFacetProvider {
 
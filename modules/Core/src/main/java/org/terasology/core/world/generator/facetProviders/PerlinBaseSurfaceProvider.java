@@ -31,7 +31,7 @@
 
 /**
  */
-@Produces(SurfaceHeightFacet.class)
+@Produces(value = SurfaceHeightFacet.class, columnInvariant = true)
 @Requires(@Facet(SeaLevelFacet.class))
 public class PerlinBaseSurfaceProvider implements FacetProvider {
     private static final int SAMPLE_RATE = 4;
@@ -38,7 +38,7 @@
  * Adds surface height for hill and mountain regions. Mountain and hill regions are based off of temperature and humidity.
  */
 @Requires({@Facet(SurfaceTemperatureFacet.class), @Facet(SurfaceHumidityFacet.class)})
-@Updates(@Facet(SurfaceHeightFacet.class))
+@Updates(value = @Facet(SurfaceHeightFacet.class), columnInvariant = true)
 public class PerlinHillsAndMountainsProvider implements ConfigurableFacetProvider {
 
     private SubSampledNoise mountainNoise;
@@ -31,7 +31,7 @@
 /**
  * Defines surface humidity in the range [0..1] based on random noise.
  */
-@Produces(SurfaceHumidityFacet.class)
+@Produces(value = SurfaceHumidityFacet.class, columnInvariant = true)
 public class PerlinHumidityProvider implements ConfigurableFacetProvider {
     private static final int SAMPLE_RATE = 4;
 
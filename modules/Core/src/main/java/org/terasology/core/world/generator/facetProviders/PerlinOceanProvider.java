@@ -31,7 +31,7 @@
 /**
  * Applies an amount of the max depth for regions that are oceans
  */
-@Updates(@Facet(SurfaceHeightFacet.class))
+@Updates(value = @Facet(SurfaceHeightFacet.class), columnInvariant = true)
 public class PerlinOceanProvider implements ConfigurableFacetProvider {
     private static final int SAMPLE_RATE = 4;
 
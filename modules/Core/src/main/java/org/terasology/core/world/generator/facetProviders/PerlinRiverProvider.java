@@ -32,7 +32,7 @@
 /**
  * Applies an amount of the max depth for regions that are rivers
  */
-@Updates(@Facet(SurfaceHeightFacet.class))
+@Updates(value = @Facet(SurfaceHeightFacet.class), columnInvariant = true)
 public class PerlinRiverProvider implements FacetProvider, ConfigurableFacetProvider {
     private static final int SAMPLE_RATE = 4;
 
@@ -27,7 +27,7 @@
 
 /**
  */
-@Produces(SurfaceTemperatureFacet.class)
+@Produces(value = SurfaceTemperatureFacet.class, columnInvariant = true)
 public class PerlinSurfaceTemperatureProvider implements FacetProvider {
     private static final int SAMPLE_RATE = 4;
 
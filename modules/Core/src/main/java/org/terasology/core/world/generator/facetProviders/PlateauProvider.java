@@ -40,7 +40,7 @@
  *    ~~~~~  outer rad.  ~~~~~
  * </pre>
  */
-@Updates(@Facet(SurfaceHeightFacet.class))
+@Updates(value = @Facet(SurfaceHeightFacet.class), columnInvariant = true)
 public class PlateauProvider implements FacetProvider {
 
     private final ImmutableVector2i centerPos;
@@ -23,7 +23,7 @@
 
 /**
  */
-@Produces(SeaLevelFacet.class)
+@Produces(value = SeaLevelFacet.class, columnInvariant = true)
 public class SeaLevelProvider implements FacetProvider {
 
     private int seaLevel;
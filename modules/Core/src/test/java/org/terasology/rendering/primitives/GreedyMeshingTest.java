@@ -0,0 +1,243 @@
+/*
+ * Copyright 2016 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.rendering.primitives;
+
+import com.google.common.collect.Maps;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Matchers;
+import org.mockito.Mockito;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.terasology.config.Config;
+import org.terasology.context.internal.ContextImpl;
+import org.terasology.core.world.generator.facetProviders.BiomeProvider;
+import org.terasology.core.world.generator.facetProviders.PerlinBaseSurfaceProvider;
+import org.terasology.core.world.generator.facetProviders.PerlinHillsAndMountainsProvider;
+import org.terasology.core.world.generator.facetProviders.PerlinHumidityProvider;
+import org.terasology.core.world.generator.facetProviders.PerlinOceanProvider;
+import org.terasology.core.world.generator.facetProviders.PerlinRiverProvider;
+import org.terasology.core.world.generator.facetProviders.PerlinSurfaceTemperatureProvider;
+import org.terasology.core.world.generator.facetProviders.SeaLevelProvider;
+import org.terasology.core.world.generator.facetProviders.SurfaceToDensityProvider;
+import org.terasology.core.world.generator.rasterizers.SolidRasterizer;
+import org.terasology.math.Region3i;
+import org.terasology.math.Side;
+import org.terasology.math.TeraMath;
+import org.terasology.math.geom.Vector2f;
+import org.terasology.math.geom.Vector3f;
+import org.terasology.math.geom.Vector3i;
+import org.terasology.registry.CoreRegistry;
+import org.terasology.world.ChunkView;
+import org.terasology.world.biomes.BiomeManager;
+import org.terasology.world.block.Block;
+import org.terasology.world.block.BlockAppearance;
+import org.terasology.world.block.BlockManager;
+import org.terasology.world.block.BlockPart;
+import org.terasology.world.block.shapes.BlockMeshPart;
+import org.terasology.world.chunks.Chunk;
+import org.terasology.world.chunks.ChunkConstants;
+import org.terasology.world.chunks.internal.ChunkImpl;
+import org.terasology.world.generation.World;
+import org.terasology.world.generation.WorldBuilder;
+import org.terasology.world.generation.impl.EntityBufferImpl;
+import org.terasology.world.internal.ChunkViewCoreImpl;
+import org.terasology.world.propagation.light.InternalLightProcessor;
+
+import java.util.Locale;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tessellates chunks of terrain generated by the Core world generation with and without greedy meshing.
+ */
+public class GreedyMeshingTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(GreedyMeshingTest.class);
+
+    private static final float TILE_SIZE = 1f / 16f;
+    private static final String[] CUBE_BLOCKS = {"stone", "dirt", "grass", "sand", "snow", "ice", "water"};
+
+    private final Map<String, Block> blocksByName = Maps.newHashMap();
+    private final Map<Short, Block> blocksById = Maps.newHashMap();
+    private BlockManager blockManager;
+    private BiomeManager biomeManager;
+    private Block air;
+
+    @Before
+    public void setup() {
+        ContextImpl context = new ContextImpl();
+        CoreRegistry.setContext(context);
+        context.put(Config.class, new Config());
+
+        air = new Block();
+        air.setTranslucent(true);
+        air.setShadowCasting(false);
+        air.setMeshGenerator(null);
+        air.setId((short) 0);
+        blocksById.put((short) 0, air);
+        for (int i = 0; i < CUBE_BLOCKS.length; i++) {
+            Block block = createCube(new Vector2f(i * TILE_SIZE, 0));
+            block.setId((short) (i + 1));
+            blocksByName.put("core:" + CUBE_BLOCKS[i], block);
+            blocksById.put(block.getId(), block);
+        }
+        blocksByName.get("core:grass").setGrass(true);
+        blocksByName.get("core:ice").setIce(true);
+        blocksByName.get("core:ice").setTranslucent(true);
+        Block water = blocksByName.get("core:water");
+        water.setWater(true);
+        water.setLiquid(true);
+        water.setTranslucent(true);
+
+        blockManager = Mockito.mock(BlockManager.class);
+        Mockito.when(blockManager.getBlock(Matchers.anyString())).thenAnswer(invocation ->
+                blocksByName.getOrDefault(((String) invocation.getArguments()[0]).toLowerCase(Locale.ENGLISH), air));
+        Mockito.when(blockManager.getBlock(Matchers.anyShort())).thenAnswer(invocation ->
+                blocksById.getOrDefault((Short) invocation.getArguments()[0], air));
+        context.put(BlockManager.class, blockManager);
+
+        biomeManager = Mockito.mock(BiomeManager.class);
+    }
+
+    @Test
+    public void testMergingReducesVerticesOfCoreTerrain() {
+        ChunkView view = generateTerrain();
+
+        ChunkTessellator tessellator = new ChunkTessellator(null);
+        ChunkMesh plain = tessellator.generateMesh(view, ChunkConstants.SIZE_Y, 0);
+        tessellator.setGreedyMeshing(true, TILE_SIZE);
+        ChunkMesh merged = tessellator.generateMesh(view, ChunkConstants.SIZE_Y, 0);
+
+        int plainVertices = plain.getVertexElements(ChunkMesh.RenderType.OPAQUE).vertexCount;
+        int mergedVertices = merged.getVertexElements(ChunkMesh.RenderType.OPAQUE).vertexCount;
+        logger.info("Opaque vertices: {} without merging in {} ms, {} with merging in {} ms", plainVertices,
+                plain.getTimeToGenerateBlockVertices() + plain.getTimeToGenerateOptimizedBuffers(), mergedVertices,
+                merged.getTimeToGenerateBlockVertices() + merged.getTimeToGenerateOptimizedBuffers());
+
+        assertTrue(mergedVertices < plainVertices);
+        // the merged quads cover exactly the faces they replace
+        assertEquals(area(plain.getVertexElements(ChunkMesh.RenderType.OPAQUE)),
+                area(merged.getVertexElements(ChunkMesh.RenderType.OPAQUE)), 0.001);
+        for (ChunkMesh.RenderType type : ChunkMesh.RenderType.values()) {
+            if (type != ChunkMesh.RenderType.OPAQUE) {
+                assertEquals(plain.getVertexElements(type).vertexCount, merged.getVertexElements(type).vertexCount);
+            }
+        }
+    }
+
+    @Test
+    public void testOtherShapesAreNotMerged() {
+        for (Block block : blocksByName.values()) {
+            block.setCube(false);
+        }
+        ChunkView view = generateTerrain();
+
+        ChunkTessellator tessellator = new ChunkTessellator(null);
+        ChunkMesh plain = tessellator.generateMesh(view, ChunkConstants.SIZE_Y, 0);
+        tessellator.setGreedyMeshing(true, TILE_SIZE);
+        ChunkMesh merged = tessellator.generateMesh(view, ChunkConstants.SIZE_Y, 0);
+
+        for (ChunkMesh.RenderType type : ChunkMesh.RenderType.values()) {
+            assertEquals(plain.getVertexElements(type).finalVertices, merged.getVertexElements(type).finalVertices);
+            assertEquals(plain.getVertexElements(type).finalIndices, merged.getVertexElements(type).finalIndices);
+        }
+    }
+
+    private ChunkView generateTerrain() {
+        int seaLevel = 32;
+        WorldBuilder worldBuilder = new WorldBuilder(null)
+                .setSeaLevel(seaLevel)
+                .addProvider(new SeaLevelProvider(seaLevel))
+                .addProvider(new PerlinHumidityProvider())
+                .addProvider(new PerlinSurfaceTemperatureProvider())
+                .addProvider(new PerlinBaseSurfaceProvider())
+                .addProvider(new PerlinRiverProvider())
+                .addProvider(new PerlinOceanProvider())
+                .addProvider(new PerlinHillsAndMountainsProvider())
+                .addProvider(new BiomeProvider())
+                .addProvider(new SurfaceToDensityProvider())
+                .addRasterizer(new SolidRasterizer());
+        worldBuilder.setSeed(7);
+        World world = worldBuilder.build();
+        world.initialize();
+
+        Region3i region = Region3i.createFromCenterExtents(Vector3i.zero(), new Vector3i(1, 0, 1));
+        Chunk[] chunks = new Chunk[region.sizeX() * region.sizeY() * region.sizeZ()];
+        for (Vector3i chunkPos : region) {
+            Chunk chunk = new ChunkImpl(chunkPos, blockManager, biomeManager);
+            world.rasterizeChunk(chunk, new EntityBufferImpl());
+            InternalLightProcessor.generateInternalLighting(chunk);
+            chunkPos.sub(region.minX(), region.minY(), region.minZ());
+            chunks[TeraMath.calculate3DArrayIndex(chunkPos, region.size())] = chunk;
+        }
+        return new ChunkViewCoreImpl(chunks, region, new Vector3i(-region.minX(), -region.minY(), -region.minZ()), air);
+    }
+
+    private static Block createCube(Vector2f atlasPos) {
+        Map<BlockPart, BlockMeshPart> parts = Maps.newEnumMap(BlockPart.class);
+        Map<BlockPart, Vector2f> atlasPositions = Maps.newEnumMap(BlockPart.class);
+        for (Side side : Side.values()) {
+            parts.put(BlockPart.fromSide(side), createFace(side).mapTexCoords(atlasPos, TILE_SIZE));
+            atlasPositions.put(BlockPart.fromSide(side), atlasPos);
+        }
+        Block block = new Block();
+        block.setPrimaryAppearance(new BlockAppearance(parts, atlasPositions));
+        block.setCube(true);
+        for (Side side : Side.values()) {
+            block.setFullSide(side, true);
+            block.setLoweredLiquidMesh(side, parts.get(BlockPart.fromSide(side)));
+        }
+        return block;
+    }
+
+    private static BlockMeshPart createFace(Side side) {
+        Vector3i normal = side.getVector3i();
+        // two axes spanning the face
+        Vector3f u = new Vector3f(normal.y != 0 ? 1 : 0, normal.y == 0 ? 1 : 0, 0);
+        Vector3f v = new Vector3f(normal.x, normal.y, normal.z).cross(u);
+        Vector3f[] vertices = new Vector3f[4];
+        Vector3f[] normals = new Vector3f[4];
+        Vector2f[] texCoords = new Vector2f[4];
+        for (int i = 0; i < 4; i++) {
+            float su = i == 1 || i == 2 ? 0.5f : -0.5f;
+            float sv = i >= 2 ? 0.5f : -0.5f;
+            vertices[i] = new Vector3f(0.5f * normal.x + su * u.x + sv * v.x, 0.5f * normal.y + su * u.y + sv * v.y,
+                    0.5f * normal.z + su * u.z + sv * v.z);
+            normals[i] = new Vector3f(normal.x, normal.y, normal.z);
+            texCoords[i] = new Vector2f(su + 0.5f, sv + 0.5f);
+        }
+        return new BlockMeshPart(vertices, normals, texCoords, new int[]{0, 1, 2, 0, 2, 3});
+    }
+
+    private static double area(ChunkMesh.VertexElements elements) {
+        double area = 0;
+        for (int i = 0; i < elements.indices.size(); i += 3) {
+            Vector3f a = vertex(elements, elements.indices.get(i));
+            Vector3f b = vertex(elements, elements.indices.get(i + 1)).sub(a);
+            Vector3f c = vertex(elements, elements.indices.get(i + 2)).sub(a);
+            area += b.cross(c).length() / 2;
+        }
+        return area;
+    }
+
+    private static Vector3f vertex(ChunkMesh.VertexElements elements, int index) {
+        return new Vector3f(elements.vertices.get(3 * index), elements.vertices.get(3 * index + 1),
+                elements.vertices.get(3 * index + 2));
+    }
+}